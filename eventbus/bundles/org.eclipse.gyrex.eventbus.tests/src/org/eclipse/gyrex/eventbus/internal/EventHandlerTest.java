@@ -2,7 +2,9 @@ package org.eclipse.gyrex.eventbus.internal;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.eclipse.gyrex.eventbus.IEventHandler;
 import org.eclipse.gyrex.eventbus.internal.EventHandler;
@@ -16,6 +18,17 @@ import org.junit.Test;
 
 public class EventHandlerTest {
 
+	public static class RecordingHandler {
+		CustomEventType1 lastEvent;
+
+		@org.eclipse.gyrex.eventbus.EventHandler
+		public void handleCustomEventType1(final CustomEventType1 event) {
+			if (event == null)
+				throw new IllegalArgumentException("null event");
+			lastEvent = event;
+		}
+	}
+
 	private void assertEquality(final EventHandler handler1, final EventHandler handler2) {
 		assertEquals(handler1.hashCode(), handler1.hashCode());
 		assertEquals(handler1.hashCode(), handler2.hashCode());
@@ -35,6 +48,23 @@ public class EventHandlerTest {
 		assertEquality(handler1, handler2);
 	}
 
+	@Test
+	public void EventHandlerMethod_handleEvent() throws Exception {
+		final RecordingHandler object = new RecordingHandler();
+		final EventHandler handler = new EventHandler.EventHandlerMethod(object.getClass().getMethod("handleCustomEventType1", CustomEventType1.class), CustomEventType1.class, object);
+
+		final CustomEventType1 event = new CustomEventType1();
+		handler.handleEvent(event);
+		assertSame(event, object.lastEvent);
+
+		try {
+			handler.handleEvent(null);
+			fail("exception from handler method expected");
+		} catch (final IllegalArgumentException e) {
+			assertEquals("null event", e.getMessage());
+		}
+	}
+
 	@Test
 	public void EventHandlerMethod_notequals() throws Exception {
 		final Handler1And2UsingAnnotation object = new Handler1And2UsingAnnotation();
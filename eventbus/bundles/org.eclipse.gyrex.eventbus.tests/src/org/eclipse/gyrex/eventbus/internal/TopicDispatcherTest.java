@@ -0,0 +1,134 @@
+package org.eclipse.gyrex.eventbus.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TopicDispatcherTest {
+
+	private ExecutorService executor;
+	private EventBusMetrics metrics;
+
+	@Test
+	public void dispatch_closed() throws Exception {
+		final TopicDispatcher dispatcher = new TopicDispatcher("test", executor, 10, false, metrics);
+		dispatcher.close();
+		assertFalse(dispatcher.dispatch(new Runnable() {
+			@Override
+			public void run() {
+				// no-op
+			}
+		}));
+	}
+
+	@Test
+	public void dispatch_dropOnOverflow() throws Exception {
+		// use an executor which never runs anything
+		final List<Runnable> scheduled = new ArrayList<>();
+		final TopicDispatcher dispatcher = new TopicDispatcher("test", new Executor() {
+			@Override
+			public void execute(final Runnable command) {
+				scheduled.add(command);
+			}
+		}, 2, true, metrics);
+
+		final AtomicInteger executed = new AtomicInteger();
+		final Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				executed.incrementAndGet();
+			}
+		};
+		assertTrue(dispatcher.dispatch(task));
+		assertTrue(dispatcher.dispatch(task));
+		assertFalse(dispatcher.dispatch(task));
+		assertEquals(2, dispatcher.getQueueSize());
+		assertEquals(1, metrics.getDispatchQueueMetric().getChannelsStatsDenied());
+
+		// only scheduled once
+		assertEquals(1, scheduled.size());
+		scheduled.get(0).run();
+		assertEquals(2, executed.get());
+		assertEquals(0, dispatcher.getQueueSize());
+		assertEquals(2, metrics.getDispatchQueueLatencyMetric().getCount());
+	}
+
+	@Test
+	public void dispatch_ordered() throws Exception {
+		final TopicDispatcher dispatcher = new TopicDispatcher("test", executor, 50, false, metrics);
+		final int count = 1000;
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		final CountDownLatch done = new CountDownLatch(count);
+		for (int i = 0; i < count; i++) {
+			final int value = i;
+			dispatcher.dispatch(new Runnable() {
+				@Override
+				public void run() {
+					received.add(value);
+					done.countDown();
+				}
+			});
+		}
+		assertTrue("timeout waiting for dispatch", done.await(10, TimeUnit.SECONDS));
+		for (int i = 0; i < count; i++) {
+			assertEquals(Integer.valueOf(i), received.get(i));
+		}
+	}
+
+	@Test
+	public void dispatch_parallelAcrossTopics() throws Exception {
+		final TopicDispatcher slow = new TopicDispatcher("slow", executor, 10, false, metrics);
+		final TopicDispatcher fast = new TopicDispatcher("fast", executor, 10, false, metrics);
+
+		final CountDownLatch release = new CountDownLatch(1);
+		slow.dispatch(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+
+		final CountDownLatch fastDone = new CountDownLatch(1);
+		fast.dispatch(new Runnable() {
+			@Override
+			public void run() {
+				fastDone.countDown();
+			}
+		});
+
+		try {
+			assertTrue("fast topic blocked by slow topic", fastDone.await(5, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		executor = Executors.newFixedThreadPool(2);
+		metrics = new EventBusMetrics("test", 10);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdownNow();
+	}
+}
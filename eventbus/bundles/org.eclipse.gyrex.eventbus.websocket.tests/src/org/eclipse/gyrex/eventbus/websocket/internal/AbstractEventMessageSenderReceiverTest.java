@@ -50,15 +50,19 @@ public abstract class AbstractEventMessageSenderReceiverTest {
 
 			@Override
 			public void onEventMessage(final String topicId, final EventMessage message) {
-				receivedMessages.add(new ReceivedMessage(topicId, message));
+				synchronized (receivedMessages) {
+					receivedMessages.add(new ReceivedMessage(topicId, message));
+				}
 			}
 		});
 		return receiver;
 	}
 
 	protected EventMessageSender newSenderWiredToReceiver(final EventMessageReceiver receiver) {
-		final EventMessageSender sender = new EventMessageSender("sender");
+		return wireToReceiver(new EventMessageSender("sender"), receiver);
+	}
 
+	protected EventMessageSender wireToReceiver(final EventMessageSender sender, final EventMessageReceiver receiver) {
 		// init sender with session that will forward sent buffers to receiver
 		final Session senderSession = mock(Session.class, RETURNS_DEEP_STUBS);
 		final RemoteEndpoint senderSessionRemote = mock(RemoteEndpoint.class);
@@ -71,6 +75,7 @@ public abstract class AbstractEventMessageSenderReceiverTest {
 				final ByteBuffer buffer = (ByteBuffer) invocation.getArguments()[0];
 				final byte[] array = BufferUtil.toArray(buffer);
 				receiver.onWebSocketBinary(array, 0, array.length);
+				((WriteCallback) invocation.getArguments()[1]).writeSuccess();
 				return null;
 			}
 		}).when(senderSessionRemote).sendBytes(any(ByteBuffer.class), any(WriteCallback.class));
@@ -0,0 +1,44 @@
+package org.eclipse.gyrex.eventbus.websocket.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class EventFrameCodecTest {
+
+	private void assertRoundtrip(final String string) {
+		final ByteBuffer buffer = ByteBuffer.allocate(EventFrameCodec.getMaxEventSize(string, "", "", 0));
+		EventFrameCodec.writeUtf8String(buffer, string);
+		assertEquals(4 + string.getBytes(StandardCharsets.UTF_8).length, buffer.position());
+
+		buffer.flip();
+		assertEquals(string, EventFrameCodec.readUtf8String(buffer));
+		assertEquals(0, buffer.remaining());
+	}
+
+	@Test
+	public void frameMagicIsNeverALength() throws Exception {
+		assertTrue(EventFrameCodec.FRAME_MAGIC < 0);
+	}
+
+	@Test
+	public void utf8Roundtrip() throws Exception {
+		assertRoundtrip("");
+		assertRoundtrip("ascii only");
+		assertRoundtrip("umlauts \u00e4\u00f6\u00fc\u00df");
+		assertRoundtrip("three bytes \u20ac \uffe5");
+		assertRoundtrip("surrogate pair \ud83d\ude00 done");
+	}
+
+	@Test
+	public void utf8UnpairedSurrogate() throws Exception {
+		final ByteBuffer buffer = ByteBuffer.allocate(64);
+		EventFrameCodec.writeUtf8String(buffer, "a\ud83db");
+		buffer.flip();
+		assertEquals("a?b", EventFrameCodec.readUtf8String(buffer));
+	}
+}
@@ -1,16 +1,32 @@
 package org.eclipse.gyrex.eventbus.websocket.internal;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.gyrex.cloud.services.events.EventMessage;
 
 import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.Queues;
@@ -21,6 +37,131 @@ public class EventMessageSenderTest extends AbstractEventMessageSenderReceiverTe
 		assertExpectedMessage(topic, message.getId(), message.getType(), BufferUtil.toArray(message.getPayload()), receivedMessage);
 	}
 
+	@Test
+	public void coalesceEventsWhileWriting() throws Exception {
+		// given
+		final ArrayDeque<ReceivedMessage> receivedMessages = Queues.newArrayDeque();
+		final EventMessageReceiver receiver = newReceiver(receivedMessages);
+		final EventMessageSender sender = new EventMessageSender("sender");
+
+		// init sender with session that holds back write completion
+		final List<ByteBuffer> writtenFrames = new ArrayList<>();
+		final List<WriteCallback> writeCallbacks = new ArrayList<>();
+		final Session senderSession = mock(Session.class, RETURNS_DEEP_STUBS);
+		final RemoteEndpoint senderSessionRemote = mock(RemoteEndpoint.class);
+		when(senderSession.getRemote()).thenReturn(senderSessionRemote);
+		when(senderSession.getPolicy().getMaxBinaryMessageSize()).thenReturn(64 * 1024);
+		doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(final InvocationOnMock invocation) throws Throwable {
+				writtenFrames.add(ByteBuffer.wrap(BufferUtil.toArray((ByteBuffer) invocation.getArguments()[0])));
+				writeCallbacks.add((WriteCallback) invocation.getArguments()[1]);
+				return null;
+			}
+		}).when(senderSessionRemote).sendBytes(any(ByteBuffer.class), any(WriteCallback.class));
+		sender.onWebSocketConnect(senderSession);
+
+		// when
+		for (int i = 0; i < 5; i++)
+			sender.sendEvent("topic", new EventMessage("id" + i, "test", BufferUtil.toBuffer(("event " + i).getBytes(Charsets.ISO_8859_1))));
+
+		// then (first event written immediately, remaining ones wait for completion)
+		assertEquals(1, writtenFrames.size());
+		writeCallbacks.get(0).writeSuccess();
+		assertEquals(2, writtenFrames.size());
+		writeCallbacks.get(1).writeSuccess();
+		assertEquals(2, writtenFrames.size());
+
+		for (final ByteBuffer frame : writtenFrames) {
+			receiver.onWebSocketBinary(frame.array(), 0, frame.remaining());
+		}
+		assertEquals(5, receivedMessages.size());
+		for (int i = 0; i < 5; i++)
+			assertExpectedMessage("topic", "id" + i, "test", ("event " + i).getBytes(Charsets.ISO_8859_1), receivedMessages.poll());
+	}
+
+	private int getSize(final ArrayDeque<ReceivedMessage> receivedMessages) {
+		synchronized (receivedMessages) {
+			return receivedMessages.size();
+		}
+	}
+
+	@Test
+	public void lingerOnlyUnderLoad() throws Exception {
+		// given
+		final ArrayDeque<ReceivedMessage> receivedMessages = Queues.newArrayDeque();
+		final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor();
+		try {
+			final EventMessageSender sender = wireToReceiver(new EventMessageSender("sender", new WebsocketEventTransportMetrics(), flushScheduler, 200, false), newReceiver(receivedMessages));
+
+			// when (single event)
+			sender.sendEvent("topic", new EventMessage("id0", "test", BufferUtil.toBuffer("event 0".getBytes(Charsets.ISO_8859_1))));
+
+			// then (written immediately)
+			synchronized (receivedMessages) {
+				assertEquals(1, receivedMessages.size());
+			}
+
+			// when (burst of events right after)
+			for (int i = 1; i < 5; i++)
+				sender.sendEvent("topic", new EventMessage("id" + i, "test", BufferUtil.toBuffer(("event " + i).getBytes(Charsets.ISO_8859_1))));
+
+			// then (coalesced and written after the flush delay)
+			synchronized (receivedMessages) {
+				assertEquals(1, receivedMessages.size());
+			}
+			final long deadline = System.currentTimeMillis() + 5000;
+			while ((getSize(receivedMessages) < 5) && (System.currentTimeMillis() < deadline)) {
+				Thread.sleep(10);
+			}
+			synchronized (receivedMessages) {
+				assertEquals(5, receivedMessages.size());
+				for (int i = 0; i < 5; i++)
+					assertExpectedMessage("topic", "id" + i, "test", ("event " + i).getBytes(Charsets.ISO_8859_1), receivedMessages.poll());
+			}
+		} finally {
+			flushScheduler.shutdownNow();
+		}
+	}
+
+	@Test
+	public void sendLegacyMessages() throws Exception {
+		// given
+		final ArrayDeque<ReceivedMessage> receivedMessages = Queues.newArrayDeque();
+		final EventMessageReceiver receiver = newReceiver(receivedMessages);
+		final List<ByteBuffer> writtenMessages = new ArrayList<>();
+		final EventMessageSender sender = new EventMessageSender("sender", new WebsocketEventTransportMetrics(), null, 0, true);
+		final Session senderSession = mock(Session.class, RETURNS_DEEP_STUBS);
+		final RemoteEndpoint senderSessionRemote = mock(RemoteEndpoint.class);
+		when(senderSession.getRemote()).thenReturn(senderSessionRemote);
+		when(senderSession.getPolicy().getMaxBinaryMessageSize()).thenReturn(64 * 1024);
+		doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(final InvocationOnMock invocation) throws Throwable {
+				writtenMessages.add(ByteBuffer.wrap(BufferUtil.toArray((ByteBuffer) invocation.getArguments()[0])));
+				((WriteCallback) invocation.getArguments()[1]).writeSuccess();
+				return null;
+			}
+		}).when(senderSessionRemote).sendBytes(any(ByteBuffer.class), any(WriteCallback.class));
+		sender.onWebSocketConnect(senderSession);
+
+		// when
+		for (int i = 0; i < 3; i++)
+			sender.sendEvent("topic", new EventMessage("id" + i, "test", BufferUtil.toBuffer(("event " + i).getBytes(Charsets.ISO_8859_1))));
+
+		// then (one message per event in legacy encoding)
+		assertEquals(3, writtenMessages.size());
+		for (int i = 0; i < 3; i++) {
+			final ByteBuffer message = writtenMessages.get(i);
+			assertFalse(message.getInt(0) == EventFrameCodec.FRAME_MAGIC);
+			assertEquals("id" + i, EventFrameCodec.readUtf8String(message.duplicate()));
+			receiver.onWebSocketBinary(message.array(), 0, message.remaining());
+		}
+		assertEquals(3, receivedMessages.size());
+		for (int i = 0; i < 3; i++)
+			assertExpectedMessage("topic", "id" + i, "test", ("event " + i).getBytes(Charsets.ISO_8859_1), receivedMessages.poll());
+	}
+
 	/**
 	 * Simulates sending of the same message multiple times (to multiple
 	 * receivers)
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.eventbus.websocket.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of event messages sent over a web socket.
+ * <p>
+ * A frame carries multiple events of a single source node. It starts with
+ * {@link #FRAME_MAGIC} (which is never a valid string length) followed by the
+ * source node id and the number of events. Each event is encoded as topic, id,
+ * type and the length prefixed payload. Strings are encoded as length
+ * prefixed UTF-8 bytes.
+ * </p>
+ * <p>
+ * Frames not starting with {@link #FRAME_MAGIC} use the legacy single event
+ * encoding (id, topic, type, source followed by the payload).
+ * </p>
+ */
+final class EventFrameCodec {
+
+	/** marker for multi-event frames (negative, i.e. never a valid length) */
+	static final int FRAME_MAGIC = 0xE7B0F001;
+
+	/**
+	 * Returns the maximum number of bytes required for encoding the specified
+	 * event into a frame.
+	 */
+	static int getMaxEventSize(final String topic, final String id, final String type, final int payloadSize) {
+		return getMaxUtf8StringSize(topic) + getMaxUtf8StringSize(id) + getMaxUtf8StringSize(type) + 4 + payloadSize;
+	}
+
+	/**
+	 * Returns the maximum number of bytes required for the frame header.
+	 */
+	static int getMaxHeaderSize(final String source) {
+		return 4 + getMaxUtf8StringSize(source) + 4;
+	}
+
+	/**
+	 * Returns the maximum number of bytes required for encoding the specified
+	 * event as a legacy single event message.
+	 */
+	static int getMaxLegacyMessageSize(final String topic, final String id, final String type, final String source, final int payloadSize) {
+		return getMaxUtf8StringSize(id) + getMaxUtf8StringSize(topic) + getMaxUtf8StringSize(type) + getMaxUtf8StringSize(source) + payloadSize;
+	}
+
+	private static int getMaxUtf8StringSize(final String string) {
+		// a char never takes more than three bytes (surrogate pairs take four bytes for two chars)
+		return 4 + (3 * string.length());
+	}
+
+	/**
+	 * Reads a length prefixed UTF-8 string.
+	 */
+	static String readUtf8String(final ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		final String string;
+		if (buffer.hasArray()) {
+			string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		} else {
+			final byte[] bytes = new byte[length];
+			buffer.slice().get(bytes);
+			string = new String(bytes, StandardCharsets.UTF_8);
+		}
+		buffer.position(buffer.position() + length);
+		return string;
+	}
+
+	/**
+	 * Writes an event into a frame.
+	 * <p>
+	 * The caller must ensure that the buffer has at least
+	 * {@link #getMaxEventSize(String, String, String, int)} bytes remaining.
+	 * </p>
+	 */
+	static void writeEvent(final ByteBuffer frame, final String topic, final String id, final String type, final ByteBuffer payload) {
+		writeUtf8String(frame, topic);
+		writeUtf8String(frame, id);
+		writeUtf8String(frame, type);
+		frame.putInt(payload.remaining());
+		// use slice in order to not consume the payload
+		frame.put(payload.slice());
+	}
+
+	/**
+	 * Writes the frame header.
+	 *
+	 * @return the position of the event count (see
+	 *         {@link #writeEventCount(ByteBuffer, int, int)})
+	 */
+	static int writeHeader(final ByteBuffer frame, final String source) {
+		frame.putInt(FRAME_MAGIC);
+		writeUtf8String(frame, source);
+		final int eventCountPosition = frame.position();
+		frame.putInt(0);
+		return eventCountPosition;
+	}
+
+	static void writeEventCount(final ByteBuffer frame, final int eventCountPosition, final int eventCount) {
+		frame.putInt(eventCountPosition, eventCount);
+	}
+
+	/**
+	 * Writes an event as a legacy single event message.
+	 * <p>
+	 * The caller must ensure that the buffer has at least
+	 * {@link #getMaxLegacyMessageSize(String, String, String, String, int)}
+	 * bytes remaining.
+	 * </p>
+	 */
+	static void writeLegacyMessage(final ByteBuffer message, final String topic, final String id, final String type, final String source, final ByteBuffer payload) {
+		writeUtf8String(message, id);
+		writeUtf8String(message, topic);
+		writeUtf8String(message, type);
+		writeUtf8String(message, source);
+		// use slice in order to not consume the payload
+		message.put(payload.slice());
+	}
+
+	/**
+	 * Writes a length prefixed UTF-8 string directly into the buffer.
+	 * <p>
+	 * Unpaired surrogates are replaced with <code>?</code>.
+	 * </p>
+	 */
+	static void writeUtf8String(final ByteBuffer buffer, final String string) {
+		final int lengthPosition = buffer.position();
+		buffer.position(lengthPosition + 4);
+		final int length = string.length();
+		for (int i = 0; i < length; i++) {
+			final char c = string.charAt(i);
+			if (c < 0x80) {
+				buffer.put((byte) c);
+			} else if (c < 0x800) {
+				buffer.put((byte) (0xC0 | (c >> 6)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			} else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && ((i + 1) < length) && Character.isLowSurrogate(string.charAt(i + 1))) {
+					final int codePoint = Character.toCodePoint(c, string.charAt(++i));
+					buffer.put((byte) (0xF0 | (codePoint >> 18)));
+					buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+					buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+					buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+				} else {
+					buffer.put((byte) '?');
+				}
+			} else {
+				buffer.put((byte) (0xE0 | (c >> 12)));
+				buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+		buffer.putInt(lengthPosition, buffer.position() - lengthPosition - 4);
+	}
+
+	private EventFrameCodec() {
+		// empty
+	}
+}
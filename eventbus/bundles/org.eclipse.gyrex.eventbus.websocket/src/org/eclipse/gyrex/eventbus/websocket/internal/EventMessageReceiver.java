@@ -15,12 +15,15 @@ import java.nio.ByteBuffer;
 
 import org.eclipse.gyrex.cloud.services.events.EventMessage;
 
-import org.eclipse.jetty.util.Utf8StringBuilder;
 import org.eclipse.jetty.websocket.api.WebSocketAdapter;
 
 /**
  * A web socket that converts all incoming binary messages into events and
  * forwards them to all local subscribers
+ * <p>
+ * Both, multi-event frames as well as legacy single event messages are
+ * supported (see {@link EventFrameCodec}).
+ * </p>
  */
 final class EventMessageReceiver extends WebSocketAdapter {
 
@@ -39,11 +42,42 @@ final class EventMessageReceiver extends WebSocketAdapter {
 	@Override
 	public void onWebSocketBinary(final byte[] payload, final int offset, final int len) {
 		final ByteBuffer buffer = ByteBuffer.wrap(payload, offset, len);
+		if (buffer.getInt(buffer.position()) == EventFrameCodec.FRAME_MAGIC) {
+			readFrame(buffer);
+		} else {
+			readLegacyMessage(buffer);
+		}
+	}
+
+	private void readFrame(final ByteBuffer buffer) {
+		buffer.getInt(); // magic
+		final String source = EventFrameCodec.readUtf8String(buffer);
+		final int eventCount = buffer.getInt();
 
-		final String id = readNextUtf8String(buffer);
-		final String topic = readNextUtf8String(buffer);
-		final String type = readNextUtf8String(buffer);
-		final String source = readNextUtf8String(buffer);
+		// ignore events from this node
+		if (localNodeId.equals(source))
+			return;
+
+		for (int i = 0; i < eventCount; i++) {
+			final String topic = EventFrameCodec.readUtf8String(buffer);
+			final String id = EventFrameCodec.readUtf8String(buffer);
+			final String type = EventFrameCodec.readUtf8String(buffer);
+			final int payloadLength = buffer.getInt();
+
+			// build event with payload from a slice of the frame
+			final ByteBuffer payload = buffer.slice();
+			payload.limit(payloadLength);
+			buffer.position(buffer.position() + payloadLength);
+
+			dispatcher.onEventMessage(topic, new EventMessage(id, type, payload));
+		}
+	}
+
+	private void readLegacyMessage(final ByteBuffer buffer) {
+		final String id = EventFrameCodec.readUtf8String(buffer);
+		final String topic = EventFrameCodec.readUtf8String(buffer);
+		final String type = EventFrameCodec.readUtf8String(buffer);
+		final String source = EventFrameCodec.readUtf8String(buffer);
 
 		// build event with payload from remaining buffer
 		final EventMessage message = new EventMessage(id, type, buffer.slice());
@@ -53,12 +87,4 @@ final class EventMessageReceiver extends WebSocketAdapter {
 			dispatcher.onEventMessage(topic, message);
 		}
 	}
-
-	private String readNextUtf8String(final ByteBuffer buffer) {
-		final int length = buffer.getInt();
-		final Utf8StringBuilder stringBuilder = new Utf8StringBuilder(length);
-		stringBuilder.append((ByteBuffer) buffer.slice().limit(length));
-		buffer.position(buffer.position() + length);
-		return stringBuilder.toString();
-	}
-}
\ No newline at end of file
+}
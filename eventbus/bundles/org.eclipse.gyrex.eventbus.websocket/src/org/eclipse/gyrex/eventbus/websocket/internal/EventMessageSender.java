@@ -12,12 +12,15 @@
 package org.eclipse.gyrex.eventbus.websocket.internal;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.gyrex.cloud.services.events.EventMessage;
 
 import org.eclipse.jetty.io.ArrayByteBufferPool;
 import org.eclipse.jetty.io.ByteBufferPool;
-import org.eclipse.jetty.util.StringUtil;
 import org.eclipse.jetty.websocket.api.WebSocketAdapter;
 import org.eclipse.jetty.websocket.api.WriteCallback;
 
@@ -29,58 +32,264 @@ import org.slf4j.LoggerFactory;
 /**
  * A web socket that converts events into incoming binary messages and forwards
  * them to the connected remote endpoint
+ * <p>
+ * Events are coalesced into multi-event frames (see {@link EventFrameCodec}).
+ * At most one frame is written at a time. Events sent while a frame is being
+ * written are collected and go out with the next frame. A frame is flushed
+ * when it's full or when the previous write completed. Otherwise it is flushed
+ * immediately unless the previous frame was flushed less than the configured
+ * flush delay ago. Thus, events only wait for further events under load.
+ * </p>
+ * <p>
+ * In legacy mode every event is written as a single event message which is
+ * understood by receivers not supporting multi-event frames.
+ * </p>
  */
 final class EventMessageSender extends WebSocketAdapter {
 
+	private static final class Frame {
+		final ByteBuffer buffer;
+		final int eventCountPosition;
+		int eventCount;
+
+		/**
+		 * Creates a legacy single event message.
+		 */
+		Frame(final ByteBuffer buffer) {
+			this.buffer = buffer;
+			eventCountPosition = -1;
+			eventCount = 1;
+		}
+
+		Frame(final ByteBuffer buffer, final String source) {
+			this.buffer = buffer;
+			eventCountPosition = EventFrameCodec.writeHeader(buffer, source);
+		}
+	}
+
 	private static final Logger LOG = LoggerFactory.getLogger(EventMessageSender.class);
 
 	private final String localINodeId;
+	private final WebsocketEventTransportMetrics metrics;
+	private final ScheduledExecutorService flushScheduler;
+	private final long flushDelayNanos;
+	private final boolean legacyMessages;
 	final ByteBufferPool bufferPool = new ArrayByteBufferPool(1, 50, 100);
 
+	private final Runnable flushTask = new Runnable() {
+		@Override
+		public void run() {
+			synchronized (lock) {
+				flushScheduled = false;
+				closeFrame();
+			}
+			writeNextFrame();
+		}
+	};
+
+	private final Object lock = new Object();
+
+	/** the frame currently collecting events (guarded by lock) */
+	private Frame openFrame;
+
+	/** frames ready for writing (guarded by lock) */
+	private final ArrayDeque<Frame> pendingFrames = new ArrayDeque<>();
+
+	/** indicates if a frame write is in progress (guarded by lock) */
+	private boolean writing;
+
+	/** indicates if a flush has been scheduled (guarded by lock) */
+	private boolean flushScheduled;
+
+	/** time of the last flush in nanoseconds (guarded by lock) */
+	private long lastFlushNanos;
+
 	/**
-	 * Creates a new instance.
+	 * Creates a new instance which writes events without delay.
 	 */
 	EventMessageSender(final String localINodeId) {
+		this(localINodeId, new WebsocketEventTransportMetrics(), null, 0, false);
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param localINodeId
+	 *            the local node id
+	 * @param metrics
+	 *            the metrics to update
+	 * @param flushScheduler
+	 *            the scheduler for delayed flushes (may be <code>null</code>
+	 *            if flush delay is zero)
+	 * @param flushDelayMillis
+	 *            the maximum time in milliseconds an event waits for further
+	 *            events to share a frame with under load (zero to flush
+	 *            immediately)
+	 * @param legacyMessages
+	 *            <code>true</code> if events must be written as legacy single
+	 *            event messages, <code>false</code> otherwise
+	 */
+	EventMessageSender(final String localINodeId, final WebsocketEventTransportMetrics metrics, final ScheduledExecutorService flushScheduler, final long flushDelayMillis, final boolean legacyMessages) {
 		this.localINodeId = localINodeId;
+		this.metrics = metrics;
+		this.flushScheduler = flushScheduler;
+		flushDelayNanos = flushScheduler != null ? TimeUnit.MILLISECONDS.toNanos(flushDelayMillis) : 0;
+		this.legacyMessages = legacyMessages;
+		lastFlushNanos = System.nanoTime() - flushDelayNanos;
+	}
+
+	/**
+	 * Moves the open frame into the list of pending frames.
+	 * <p>
+	 * Must be called with lock held.
+	 * </p>
+	 */
+	private void closeFrame() {
+		final Frame frame = openFrame;
+		if (frame == null)
+			return;
+		openFrame = null;
+		EventFrameCodec.writeEventCount(frame.buffer, frame.eventCountPosition, frame.eventCount);
+		frame.buffer.flip();
+		pendingFrames.add(frame);
+		lastFlushNanos = System.nanoTime();
 	}
 
 	@Override
 	public void onWebSocketClose(final int statusCode, final String reason) {
 		super.onWebSocketClose(statusCode, reason);
+
+		// discard anything not written yet
+		synchronized (lock) {
+			closeFrame();
+			Frame frame;
+			while ((frame = pendingFrames.poll()) != null) {
+				LOG.debug("Discarding {} events not sent before closing ({}).", frame.eventCount, reason);
+				bufferPool.release(frame.buffer);
+			}
+		}
+	}
+
+	/**
+	 * Makes sure the open frame gets written.
+	 * <p>
+	 * Must be called with lock held.
+	 * </p>
+	 */
+	private void scheduleFlush() {
+		if (writing)
+			return; // flushed when the current write completes
+
+		// flush immediately unless events are coming in fast
+		final long remainingDelayNanos = flushDelayNanos - (System.nanoTime() - lastFlushNanos);
+		if (remainingDelayNanos <= 0) {
+			closeFrame();
+			return;
+		}
+
+		if (flushScheduled)
+			return;
+		try {
+			flushScheduler.schedule(flushTask, remainingDelayNanos, TimeUnit.NANOSECONDS);
+			flushScheduled = true;
+		} catch (final RejectedExecutionException e) {
+			// scheduler shut down
+			closeFrame();
+		}
 	}
 
 	public void sendEvent(final String topic, final EventMessage message) {
-		final ByteBuffer buffer = bufferPool.acquire(getSession().getPolicy().getMaxBinaryMessageSize(), false);
-		buffer.clear();
+		if (legacyMessages) {
+			sendLegacyMessage(topic, message);
+			return;
+		}
+
+		final int maxFrameSize = getSession().getPolicy().getMaxBinaryMessageSize();
+		final int maxEventSize = EventFrameCodec.getMaxEventSize(topic, message.getId(), message.getType(), message.getPayload().remaining());
+		if ((EventFrameCodec.getMaxHeaderSize(localINodeId) + maxEventSize) > maxFrameSize) {
+			LOG.error("Unable to send event ({}) to ({}). Event too large for web socket message size limit ({} bytes).", message.getId(), getSession(), maxFrameSize);
+			return;
+		}
+
+		synchronized (lock) {
+			if ((openFrame != null) && (openFrame.buffer.remaining() < maxEventSize)) {
+				closeFrame();
+			}
+			if (openFrame == null) {
+				final ByteBuffer buffer = bufferPool.acquire(maxFrameSize, false);
+				buffer.clear();
+				openFrame = new Frame(buffer, localINodeId);
+			}
+			EventFrameCodec.writeEvent(openFrame.buffer, topic, message.getId(), message.getType(), message.getPayload());
+			openFrame.eventCount++;
+			scheduleFlush();
+		}
 
-		// header
-		writeUtf8String(buffer, message.getId());
-		writeUtf8String(buffer, topic);
-		writeUtf8String(buffer, message.getType());
-		writeUtf8String(buffer, localINodeId);
+		writeNextFrame();
+	}
 
-		// payload (use slice in order to not consume the whole buffer)
-		buffer.put(message.getPayload().slice());
+	private void sendLegacyMessage(final String topic, final EventMessage message) {
+		final int maxMessageSize = getSession().getPolicy().getMaxBinaryMessageSize();
+		if (EventFrameCodec.getMaxLegacyMessageSize(topic, message.getId(), message.getType(), localINodeId, message.getPayload().remaining()) > maxMessageSize) {
+			LOG.error("Unable to send event ({}) to ({}). Event too large for web socket message size limit ({} bytes).", message.getId(), getSession(), maxMessageSize);
+			return;
+		}
 
-		// send asynchronously
+		final ByteBuffer buffer = bufferPool.acquire(maxMessageSize, false);
+		buffer.clear();
+		EventFrameCodec.writeLegacyMessage(buffer, topic, message.getId(), message.getType(), localINodeId, message.getPayload());
 		buffer.flip();
-		getRemote().sendBytes(buffer, new WriteCallback() {
+		synchronized (lock) {
+			pendingFrames.add(new Frame(buffer));
+		}
 
-			@Override
-			public void writeFailed(final Throwable x) {
-				LOG.error("Error writing event ({}) to ({}). {}", message.getId(), getSession(), ExceptionUtils.getRootCauseMessage(x), x);
-				bufferPool.release(buffer);
-			}
+		writeNextFrame();
+	}
 
-			@Override
-			public void writeSuccess() {
-				bufferPool.release(buffer);
+	private void writeCompleted(final Frame frame) {
+		bufferPool.release(frame.buffer);
+		synchronized (lock) {
+			writing = false;
+			// flush anything collected in the meantime
+			if (pendingFrames.isEmpty()) {
+				closeFrame();
 			}
-		});
+		}
+		writeNextFrame();
 	}
 
-	private void writeUtf8String(final ByteBuffer buffer, final String string) {
-		buffer.putInt(string.length());
-		buffer.put(StringUtil.getUtf8Bytes(string));
+	private void writeNextFrame() {
+		final Frame frame;
+		synchronized (lock) {
+			if (writing || pendingFrames.isEmpty())
+				return;
+			frame = pendingFrames.poll();
+			writing = true;
+		}
+
+		// send asynchronously
+		final long writeStarted = metrics.getFramesSentMetric().requestStarted();
+		try {
+			getRemote().sendBytes(frame.buffer, new WriteCallback() {
+
+				@Override
+				public void writeFailed(final Throwable x) {
+					LOG.error("Error writing {} events to ({}). {}", frame.eventCount, getSession(), ExceptionUtils.getRootCauseMessage(x), x);
+					metrics.getFramesSentMetric().requestFailed();
+					writeCompleted(frame);
+				}
+
+				@Override
+				public void writeSuccess() {
+					metrics.getFramesSentMetric().requestFinished(frame.eventCount, System.currentTimeMillis() - writeStarted);
+					metrics.getEventsPerFrameMetric().record(frame.eventCount);
+					writeCompleted(frame);
+				}
+			});
+		} catch (RuntimeException | LinkageError e) {
+			LOG.error("Error writing {} events to ({}). {}", frame.eventCount, getSession(), ExceptionUtils.getRootCauseMessage(e), e);
+			metrics.getFramesSentMetric().requestFailed();
+			writeCompleted(frame);
+		}
 	}
-}
\ No newline at end of file
+}
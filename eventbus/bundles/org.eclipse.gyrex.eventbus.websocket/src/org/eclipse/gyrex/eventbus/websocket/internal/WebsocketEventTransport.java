@@ -19,6 +19,7 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,6 +28,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.gyrex.cloud.admin.ICloudManager;
@@ -36,6 +40,7 @@ import org.eclipse.gyrex.cloud.services.events.EventMessage;
 import org.eclipse.gyrex.cloud.services.events.IEventReceiver;
 import org.eclipse.gyrex.cloud.services.events.IEventTransport;
 import org.eclipse.gyrex.eventbus.websocket.internal.EventMessageReceiver.IEventMessageCallback;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
 import org.eclipse.gyrex.server.Platform;
 import org.eclipse.gyrex.server.settings.SystemSetting;
 
@@ -57,6 +62,8 @@ import org.eclipse.jetty.websocket.servlet.ServletUpgradeResponse;
 import org.eclipse.jetty.websocket.servlet.WebSocketCreator;
 import org.eclipse.jetty.websocket.servlet.WebSocketServletFactory;
 
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
 
 import org.slf4j.Logger;
@@ -76,7 +83,11 @@ import com.google.common.collect.Maps;
  * <p>
  * Sending - When the transport is activated, connections will be established to
  * the Jetty server running on all online nodes. It will be used for sending
- * events.
+ * events. By default, every event is sent as a legacy single event message,
+ * which all nodes understand. Once all nodes of a cluster support them,
+ * multi-event messages can be enabled by setting
+ * <code>gyrex.event.websocket.legacyMessages</code> to <code>false</code>.
+ * Events are then coalesced per node into multi-event messages.
  * </p>
  */
 @SuppressWarnings("restriction")
@@ -85,6 +96,8 @@ public class WebsocketEventTransport implements IEventTransport {
 	private static final Logger LOG = LoggerFactory.getLogger(WebsocketEventTransport.class);
 
 	private static final SystemSetting<Integer> eventsPort = SystemSetting.newIntegerSetting("gyrex.event.websocket.port", "Default port for web socket based event transport.").usingDefault(Platform.getInstancePort(3111)).create();
+	private static final SystemSetting<Integer> flushDelay = SystemSetting.newIntegerSetting("gyrex.event.websocket.flushDelay", "Maximum time in milliseconds an event is delayed under load for coalescing with further events into a single web socket message.").usingDefault(2).create();
+	private static final SystemSetting<Boolean> legacyMessages = SystemSetting.newBooleanSetting("gyrex.event.websocket.legacyMessages", "If set to false, events are coalesced into multi-event messages which are not understood by nodes running earlier versions. Only disable once all nodes of the cluster support multi-event messages.").usingDefault(Boolean.TRUE).create();
 	private static final AtomicReference<Server> serverRef = new AtomicReference<Server>();
 	private static final AtomicReference<WebSocketClient> clientRef = new AtomicReference<WebSocketClient>();
 
@@ -106,6 +119,10 @@ public class WebsocketEventTransport implements IEventTransport {
 
 	volatile Job connectionMonitor;
 
+	private final WebsocketEventTransportMetrics metrics = new WebsocketEventTransportMetrics();
+	private volatile ServiceRegistration<MetricSet> metricsRegistration;
+	private volatile ScheduledExecutorService flushScheduler;
+
 	public WebsocketEventTransport() {
 		eventReceiverListsByTopicId = new ConcurrentHashMap<>();
 	}
@@ -113,6 +130,16 @@ public class WebsocketEventTransport implements IEventTransport {
 	public void activate(final ComponentContext context) {
 		LOG.info("Activating WebsocketEventTransport.");
 
+		// scheduler for delayed flushing of coalesced events
+		flushScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread t = new Thread(r, "WebsocketEventTransport-Flusher");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+
 		// start server
 		startWebSocketServer();
 		try {
@@ -142,6 +169,12 @@ public class WebsocketEventTransport implements IEventTransport {
 				};
 				connectionMonitor.setSystem(true);
 				connectionMonitor.schedule();
+
+				// register metrics
+				final Hashtable<String, Object> metricsProperties = new Hashtable<>(2);
+				metricsProperties.put(Constants.SERVICE_VENDOR, "Eclipse Gyrex");
+				metricsProperties.put(Constants.SERVICE_DESCRIPTION, metrics.getDescription());
+				metricsRegistration = context.getBundleContext().registerService(MetricSet.class, metrics, metricsProperties);
 			} catch (RuntimeException | LinkageError e) {
 				// clean-up client on failure
 				stopWebSocketClient();
@@ -191,7 +224,7 @@ public class WebsocketEventTransport implements IEventTransport {
 				continue;
 			}
 
-			sender = new EventMessageSender(getCloudManager().getLocalInfo().getNodeId());
+			sender = new EventMessageSender(getCloudManager().getLocalInfo().getNodeId(), metrics, flushScheduler, flushDelay.get(), legacyMessages.isTrue());
 
 			if (connectToNextAvailableAddress(new ArrayList<String>(descriptor.getAddresses()).iterator(), sender, client, nodeId)) {
 				newConnections.put(nodeId, sender);
@@ -261,6 +294,22 @@ public class WebsocketEventTransport implements IEventTransport {
 		// stop server and client
 		stopWebSocketServer();
 		stopWebSocketClient();
+
+		final ScheduledExecutorService flushScheduler = this.flushScheduler;
+		if (flushScheduler != null) {
+			flushScheduler.shutdown();
+			this.flushScheduler = null;
+		}
+
+		final ServiceRegistration<MetricSet> metricsRegistration = this.metricsRegistration;
+		if (metricsRegistration != null) {
+			try {
+				metricsRegistration.unregister();
+			} catch (final IllegalStateException e) {
+				// ignore
+			}
+			this.metricsRegistration = null;
+		}
 	}
 
 	@VisibleForTesting
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.eventbus.websocket.internal;
+
+import org.eclipse.gyrex.monitoring.metrics.BaseMetric;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
+import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
+
+/**
+ * Metrics of the web socket event transport.
+ */
+public class WebsocketEventTransportMetrics extends MetricSet {
+
+	private final ThroughputMetric framesSentMetric;
+	private final HistogramMetric eventsPerFrameMetric;
+
+	WebsocketEventTransportMetrics() {
+		super("org.eclipse.gyrex.eventbus.websocket.metrics", "Web socket event transport metrics", new BaseMetric[] { new ThroughputMetric("org.eclipse.gyrex.eventbus.websocket.frames.sent"), new HistogramMetric("org.eclipse.gyrex.eventbus.websocket.frames.sent.events") });
+		framesSentMetric = getMetric(0, ThroughputMetric.class);
+		eventsPerFrameMetric = getMetric(1, HistogramMetric.class);
+	}
+
+	/**
+	 * Returns the metric for the number of events coalesced into a frame.
+	 *
+	 * @return the events per frame metric
+	 */
+	public HistogramMetric getEventsPerFrameMetric() {
+		return eventsPerFrameMetric;
+	}
+
+	/**
+	 * Returns the metric for frames written to remote nodes.
+	 * <p>
+	 * The size unit of the metric is the number of events in a frame.
+	 * </p>
+	 *
+	 * @return the frames sent metric
+	 */
+	public ThroughputMetric getFramesSentMetric() {
+		return framesSentMetric;
+	}
+}
@@ -16,6 +16,47 @@ package org.eclipse.gyrex.eventbus;
  */
 public interface ITopicBuilder {
 
+	/**
+	 * Property for the {@link java.util.concurrent.Executor} used for
+	 * dispatching received events to the topic handlers (value type
+	 * {@link java.util.concurrent.Executor}).
+	 * <p>
+	 * Events of a topic are always dispatched in the order they have been
+	 * received, i.e. the executor will never be used by more than one thread at
+	 * a time for the same topic. If not set, a thread pool shared by all topics
+	 * of the event bus is used.
+	 * </p>
+	 */
+	String PROPERTY_DISPATCH_EXECUTOR = "gyrex.eventbus.dispatch.executor";
+
+	/**
+	 * Property for the maximum number of received events queued for dispatch
+	 * (value type {@link Integer}, default <code>1000</code>).
+	 * 
+	 * @see #PROPERTY_DISPATCH_OVERFLOW_POLICY
+	 */
+	String PROPERTY_DISPATCH_QUEUE_CAPACITY = "gyrex.eventbus.dispatch.queueCapacity";
+
+	/**
+	 * Property for the policy to apply when the dispatch queue is full (value
+	 * type {@link String}, either {@link #DISPATCH_OVERFLOW_BLOCK} or
+	 * {@link #DISPATCH_OVERFLOW_DROP}, default
+	 * {@link #DISPATCH_OVERFLOW_BLOCK}).
+	 */
+	String PROPERTY_DISPATCH_OVERFLOW_POLICY = "gyrex.eventbus.dispatch.overflowPolicy";
+
+	/**
+	 * Overflow policy which blocks the event transport until the dispatch queue
+	 * has space again.
+	 */
+	String DISPATCH_OVERFLOW_BLOCK = "block";
+
+	/**
+	 * Overflow policy which discards received events when the dispatch queue is
+	 * full.
+	 */
+	String DISPATCH_OVERFLOW_DROP = "drop";
+
 	/**
 	 * Adds one or more {@link IEventDeserializer deserializer} to the topic.
 	 * 
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.eventbus.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gyrex.monitoring.metrics.BaseMetric;
+import org.eclipse.gyrex.monitoring.metrics.CapacityMetric;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
+import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
+
+/**
+ * Metrics for dispatching received events.
+ */
+public class EventBusMetrics extends MetricSet {
+
+	private final ThroughputMetric dispatchMetric;
+	private final CapacityMetric dispatchQueueMetric;
+	private final HistogramMetric dispatchQueueLatencyMetric;
+
+	EventBusMetrics(final String nodeId, final long queueCapacity) {
+		super("org.eclipse.gyrex.eventbus.metrics", String.format("Event bus metrics for node %s", nodeId), new BaseMetric[] { new ThroughputMetric("org.eclipse.gyrex.eventbus.dispatch"), new CapacityMetric("org.eclipse.gyrex.eventbus.dispatch.queue", queueCapacity), new HistogramMetric("org.eclipse.gyrex.eventbus.dispatch.queue.latency", TimeUnit.MICROSECONDS) });
+		dispatchMetric = getMetric(0, ThroughputMetric.class);
+		dispatchQueueMetric = getMetric(1, CapacityMetric.class);
+		dispatchQueueLatencyMetric = getMetric(2, HistogramMetric.class);
+	}
+
+	/**
+	 * Returns the metric for events dispatched to handlers.
+	 *
+	 * @return the dispatch metric
+	 */
+	public ThroughputMetric getDispatchMetric() {
+		return dispatchMetric;
+	}
+
+	/**
+	 * Returns the metric for the time events wait in a dispatch queue.
+	 *
+	 * @return the dispatch queue latency metric
+	 */
+	public HistogramMetric getDispatchQueueLatencyMetric() {
+		return dispatchQueueLatencyMetric;
+	}
+
+	/**
+	 * Returns the metric for events queued for dispatch (including events
+	 * dropped because of a full queue).
+	 * <p>
+	 * Note, the capacity reflects the default capacity of a single topic
+	 * queue.
+	 * </p>
+	 *
+	 * @return the dispatch queue metric
+	 */
+	public CapacityMetric getDispatchQueueMetric() {
+		return dispatchQueueMetric;
+	}
+}
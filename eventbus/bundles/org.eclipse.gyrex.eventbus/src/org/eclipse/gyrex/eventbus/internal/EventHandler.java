@@ -13,7 +13,9 @@ package org.eclipse.gyrex.eventbus.internal;
 
 import static java.lang.String.format;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 
 import org.eclipse.gyrex.eventbus.IEventHandler;
@@ -35,14 +37,36 @@ import com.google.common.base.Throwables;
 public abstract class EventHandler {
 
 	static final class EventHandlerMethod extends EventHandler {
+
+		private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class);
+
+		/**
+		 * Creates a method handle bound to the object which can be invoked
+		 * with {@link MethodHandle#invokeExact(Object...)} using signature
+		 * <code>(Object)void</code>.
+		 *
+		 * @return the bound handle or <code>null</code> if the method is not
+		 *         accessible
+		 */
+		private static MethodHandle bind(final Method method, final Object object) {
+			try {
+				return MethodHandles.publicLookup().unreflect(method).bindTo(object).asType(HANDLER_TYPE);
+			} catch (final IllegalAccessException e) {
+				// report when invoked (consistent with reflective access)
+				return null;
+			}
+		}
+
 		private final Method method;
 		private final Class<?> eventType;
 		private final Object object;
+		private final MethodHandle handle;
 
 		EventHandlerMethod(final Method method, final Class<?> eventType, final Object object) {
 			this.method = method;
 			this.eventType = eventType;
 			this.object = object;
+			handle = bind(method, object);
 		}
 
 		@Override
@@ -65,12 +89,12 @@ public abstract class EventHandler {
 
 		@Override
 		public void handleEvent(final Object event) {
+			if (handle == null)
+				throw new IllegalStateException(format("Event handler method (%s) on object (%s) not accessible!", method, object));
 			try {
-				method.invoke(object, event);
-			} catch (final InvocationTargetException e) {
-				Throwables.propagate(e.getCause());
-			} catch (final IllegalAccessException e) {
-				throw new IllegalStateException(format("Event handler method (%s) on object (%s) not accessible!", method, object), e);
+				handle.invokeExact(event);
+			} catch (final Throwable e) {
+				throw Throwables.propagate(e);
 			}
 		}
 
@@ -17,9 +17,11 @@ import static com.google.common.base.Preconditions.checkState;
 import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.gyrex.cloud.services.events.EventMessage;
@@ -72,6 +74,12 @@ public class EventService implements IEventBus {
 
 	private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
 
+	/** default capacity of a topic dispatch queue */
+	static final int DEFAULT_DISPATCH_QUEUE_CAPACITY = Integer.getInteger("gyrex.eventbus.dispatch.queueCapacity", 1000);
+
+	/** number of threads shared by all topics for dispatching received events */
+	private static final int DISPATCH_THREADS = Integer.getInteger("gyrex.eventbus.dispatch.threads", Math.max(2, Runtime.getRuntime().availableProcessors()));
+
 	private final ReflectionService reflectionService = new ReflectionService();
 	private final String nodeId;
 	private final AtomicLong eventCounter = new AtomicLong(0);
@@ -85,12 +93,24 @@ public class EventService implements IEventBus {
 			return t;
 		}
 	});
+	private final ExecutorService dispatchExecutor = Executors.newFixedThreadPool(DISPATCH_THREADS, new ThreadFactory() {
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread t = new Thread(r, "EventService-DispatchThread-" + threadNumber.getAndIncrement());
+			t.setDaemon(true);
+			return t;
+		}
+	});
+	private final EventBusMetrics metrics;
 	private final ConcurrentMap<Topic, TopicEventReceiver> activeTopics = new ConcurrentHashMap<>();
 	private volatile boolean disposed;
 
 	public EventService(final String nodeId, final IServiceProxy<IEventTransport> transportServiceProxy) {
 		this.nodeId = checkNotNull(nodeId);
 		this.transportServiceProxy = checkNotNull(transportServiceProxy);
+		metrics = new EventBusMetrics(nodeId, DEFAULT_DISPATCH_QUEUE_CAPACITY);
 	}
 
 	/**
@@ -131,6 +151,24 @@ public class EventService implements IEventBus {
 		disposed = true;
 		while (activeTopics.size() > 0)
 			deactivateTopic(activeTopics.keySet().iterator().next());
+		dispatchExecutor.shutdownNow();
+	}
+
+	/**
+	 * Returns the executor shared by all topics for dispatching received
+	 * events.
+	 *
+	 * @return the shared dispatch executor
+	 */
+	Executor getDispatchExecutor() {
+		return dispatchExecutor;
+	}
+
+	/**
+	 * @return the event bus metrics
+	 */
+	public EventBusMetrics getMetrics() {
+		return metrics;
 	}
 
 	ReflectionService getReflectionService() {
@@ -18,7 +18,9 @@ import org.eclipse.gyrex.cloud.services.events.IEventTransport;
 import org.eclipse.gyrex.common.services.BundleServiceHelper;
 import org.eclipse.gyrex.eventbus.IEventBus;
 import org.eclipse.gyrex.eventbus.ITopicBuilder;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
 
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
 
 import org.slf4j.Logger;
@@ -33,6 +35,7 @@ public class EventServiceComponent implements IEventBus {
 
 	private volatile EventService eventService;
 	private BundleServiceHelper serviceHelper;
+	private ServiceRegistration<MetricSet> metricsRegistration;
 
 	public void activate(final ComponentContext context) {
 		LOG.debug("Activating event bus ({})", this);
@@ -40,10 +43,19 @@ public class EventServiceComponent implements IEventBus {
 		serviceHelper = new BundleServiceHelper(context.getBundleContext());
 		final String nodeId = serviceHelper.trackService(INodeEnvironment.class).getService().getNodeId();
 		eventService = new EventService(nodeId, serviceHelper.trackService(IEventTransport.class));
+		metricsRegistration = serviceHelper.registerService(MetricSet.class, eventService.getMetrics(), "Eclipse Gyrex", eventService.getMetrics().getDescription(), null, null);
 	}
 
 	public void deactivate(final ComponentContext context) {
 		LOG.debug("Deactivating event bus ({})", this);
+		if (metricsRegistration != null) {
+			try {
+				metricsRegistration.unregister();
+			} catch (final IllegalStateException e) {
+				// already unregistered
+			}
+			metricsRegistration = null;
+		}
 		if (eventService != null) {
 			eventService.dispose();
 			eventService = null;
@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.gyrex.eventbus.internal;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static java.lang.String.format;
@@ -23,6 +24,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -31,6 +33,8 @@ import org.eclipse.gyrex.cloud.services.events.EventMessage;
 import org.eclipse.gyrex.eventbus.IEventDeserializer;
 import org.eclipse.gyrex.eventbus.IEventSerializer;
 import org.eclipse.gyrex.eventbus.ITopic;
+import org.eclipse.gyrex.eventbus.ITopicBuilder;
+import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
 
 import org.apache.commons.lang.exception.ExceptionUtils;
 
@@ -46,6 +50,17 @@ public class Topic implements ITopic {
 
 	private static final Logger LOG = LoggerFactory.getLogger(Topic.class);
 
+	private static TopicDispatcher createDispatcher(final String id, final Map<String, Object> properties, final EventService eventService) {
+		final Object executor = properties.get(ITopicBuilder.PROPERTY_DISPATCH_EXECUTOR);
+		checkArgument((executor == null) || (executor instanceof Executor), "property '%s' must be of type Executor", ITopicBuilder.PROPERTY_DISPATCH_EXECUTOR);
+		final Object capacity = properties.get(ITopicBuilder.PROPERTY_DISPATCH_QUEUE_CAPACITY);
+		checkArgument((capacity == null) || ((capacity instanceof Integer) && ((Integer) capacity > 0)), "property '%s' must be a positive Integer", ITopicBuilder.PROPERTY_DISPATCH_QUEUE_CAPACITY);
+		final Object overflowPolicy = properties.get(ITopicBuilder.PROPERTY_DISPATCH_OVERFLOW_POLICY);
+		checkArgument((overflowPolicy == null) || ITopicBuilder.DISPATCH_OVERFLOW_BLOCK.equals(overflowPolicy) || ITopicBuilder.DISPATCH_OVERFLOW_DROP.equals(overflowPolicy), "property '%s' must be either '%s' or '%s'", ITopicBuilder.PROPERTY_DISPATCH_OVERFLOW_POLICY, ITopicBuilder.DISPATCH_OVERFLOW_BLOCK, ITopicBuilder.DISPATCH_OVERFLOW_DROP);
+
+		return new TopicDispatcher(id, executor != null ? (Executor) executor : eventService.getDispatchExecutor(), capacity != null ? (Integer) capacity : EventService.DEFAULT_DISPATCH_QUEUE_CAPACITY, ITopicBuilder.DISPATCH_OVERFLOW_DROP.equals(overflowPolicy), eventService.getMetrics());
+	}
+
 	private final String id;
 	private final EventService eventService;
 	private final ConcurrentMap<Class<?>, IEventSerializer<Object>> serializersByEventType;
@@ -53,6 +68,7 @@ public class Topic implements ITopic {
 	private final Multimap<Class<?>, EventHandler> eventHandlersByType = HashMultimap.create();
 	private final ReadWriteLock eventHandlersByTypeLock = new ReentrantReadWriteLock();
 	private final AtomicBoolean active = new AtomicBoolean(false);
+	private final TopicDispatcher dispatcher;
 	private volatile boolean closed = false;
 
 	Topic(final String id, final Map<String, Object> properties, final Map<Class<?>, IEventSerializer<Object>> serializers, final Map<Class<?>, IEventDeserializer<Object>> deserializers, final EventService eventService) {
@@ -61,6 +77,7 @@ public class Topic implements ITopic {
 		for (final Entry<Class<?>, IEventDeserializer<Object>> e : deserializers.entrySet())
 			deserializersByEventTypeClassName.put(e.getKey().getName(), e.getValue());
 		this.eventService = eventService;
+		dispatcher = createDispatcher(id, properties, eventService);
 	}
 
 	private void activateIfNecessary() {
@@ -90,6 +107,9 @@ public class Topic implements ITopic {
 		if (active.compareAndSet(true, false))
 			getEventService().deactivateTopic(this);
 
+		// discard pending events
+		dispatcher.close();
+
 		// clear directly; no more locks necessary after close
 		eventHandlersByType.clear();
 	}
@@ -110,12 +130,65 @@ public class Topic implements ITopic {
 	}
 
 	/**
-	 * Dispatches the specified event message to all compatible, interested
-	 * event handlers.
+	 * Queues the specified event message for dispatching to all compatible,
+	 * interested event handlers.
+	 * <p>
+	 * Event messages are deserialized and dispatched asynchronously but in the
+	 * order they have been received.
+	 * </p>
 	 *
 	 * @param eventMessage
 	 */
 	public void dispatchEvent(final EventMessage eventMessage) {
+		if (closed) {
+			LOG.trace("Ignoring event message ({}) for topic ({}). Topic is closed.", eventMessage, this);
+			return;
+		}
+		LOG.trace("Queuing event message ({}) for topic ({}).", eventMessage, this);
+		dispatcher.dispatch(new Runnable() {
+			@Override
+			public void run() {
+				dispatchEventNow(eventMessage);
+			}
+
+			@Override
+			public String toString() {
+				return eventMessage.toString();
+			}
+		});
+	}
+
+	/**
+	 * Safe dispatch of an event to a given handlers.
+	 * <p>
+	 * Any error is logged but not propagated.
+	 * </p>
+	 *
+	 * @param event
+	 * @param handler
+	 */
+	@VisibleForTesting
+	void dispatchEvent(final Object event, final EventHandler handler) {
+		LOG.trace("Dispatching event ({}) to handler ({})", event, handler);
+		final ThroughputMetric dispatchMetric = getEventService().getMetrics().getDispatchMetric();
+		final long requestStarted = dispatchMetric.requestStarted();
+		try {
+			handler.handleEvent(event);
+			dispatchMetric.requestFinished(1, System.currentTimeMillis() - requestStarted);
+		} catch (Exception | LinkageError e) {
+			dispatchMetric.requestFailed();
+			LOG.error("Unable to dispatch event ({}, topic {}) to handler ({}). {}", event, getId(), handler, ExceptionUtils.getRootCause(e), e);
+		}
+	}
+
+	/**
+	 * Dispatches the specified event message to all compatible, interested
+	 * event handlers in the calling thread.
+	 *
+	 * @param eventMessage
+	 */
+	@VisibleForTesting
+	void dispatchEventNow(final EventMessage eventMessage) {
 		if (closed) {
 			LOG.trace("Ignoring event message ({}) for topic ({}). Topic is closed.", eventMessage, this);
 			return;
@@ -142,28 +215,14 @@ public class Topic implements ITopic {
 		}
 	}
 
-	/**
-	 * Safe dispatch of an event to a given handlers.
-	 * <p>
-	 * Any error is logged but not propagated.
-	 * </p>
-	 *
-	 * @param event
-	 * @param handler
-	 */
 	@VisibleForTesting
-	void dispatchEvent(final Object event, final EventHandler handler) {
-		LOG.trace("Dispatching event ({}) to handler ({})", event, handler);
-		try {
-			handler.handleEvent(event);
-		} catch (Exception | LinkageError e) {
-			LOG.error("Unable to dispatch event ({}, topic {}) to handler ({}). {}", event, getId(), handler, ExceptionUtils.getRootCause(e), e);
-		}
+	Collection<IEventDeserializer<Object>> getDeserializers(final EventMessage eventMessage) {
+		return deserializersByEventTypeClassName.get(eventMessage.getType());
 	}
 
 	@VisibleForTesting
-	Collection<IEventDeserializer<Object>> getDeserializers(final EventMessage eventMessage) {
-		return deserializersByEventTypeClassName.get(eventMessage.getType());
+	TopicDispatcher getDispatcher() {
+		return dispatcher;
 	}
 
 	EventService getEventService() {
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.eventbus.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * A bounded, serial dispatch queue for a single topic.
+ * <p>
+ * Tasks submitted to the dispatcher are executed in submission order by at
+ * most one thread at a time. Dispatchers of different topics share the
+ * underlying executor and thus run in parallel. A dispatcher only occupies an
+ * executor thread for a limited number of tasks in a row before giving other
+ * topics a chance.
+ * </p>
+ * <p>
+ * When the queue is full, the submitting thread is either blocked until space
+ * becomes available or the task is dropped.
+ * </p>
+ */
+final class TopicDispatcher {
+
+	static final class QueuedTask {
+		final Runnable task;
+		final long queuedNanos;
+
+		QueuedTask(final Runnable task, final long queuedNanos) {
+			this.task = task;
+			this.queuedNanos = queuedNanos;
+		}
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(TopicDispatcher.class);
+
+	/** maximum number of tasks executed before releasing the thread */
+	private static final int MAX_TASKS_PER_RUN = 64;
+
+	private final String topicId;
+	private final Executor executor;
+	private final int capacity;
+	private final boolean dropOnOverflow;
+	private final EventBusMetrics metrics;
+	private final Queue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+	private final Semaphore permits;
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
+	private final Runnable drain = new Runnable() {
+		@Override
+		public void run() {
+			drain();
+		}
+	};
+	private volatile boolean closed;
+
+	TopicDispatcher(final String topicId, final Executor executor, final int capacity, final boolean dropOnOverflow, final EventBusMetrics metrics) {
+		checkArgument(capacity > 0, "capacity must be greater than zero");
+		this.topicId = topicId;
+		this.executor = checkNotNull(executor);
+		this.capacity = capacity;
+		this.dropOnOverflow = dropOnOverflow;
+		this.metrics = checkNotNull(metrics);
+		permits = new Semaphore(capacity);
+	}
+
+	private boolean acquire() {
+		if (permits.tryAcquire())
+			return true;
+		if (dropOnOverflow)
+			return false;
+
+		LOG.trace("Dispatch queue of topic ({}) is full. Waiting for space.", topicId);
+		try {
+			permits.acquire();
+			return true;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Closes the dispatcher.
+	 * <p>
+	 * Any pending tasks are discarded. Threads blocked in
+	 * {@link #dispatch(Runnable)} are released.
+	 * </p>
+	 */
+	void close() {
+		if (closed)
+			return;
+		closed = true;
+		QueuedTask discarded;
+		while ((discarded = queue.poll()) != null) {
+			metrics.getDispatchQueueMetric().channelFinished();
+			LOG.trace("Discarding queued task ({}) of closed topic ({}).", discarded.task, topicId);
+		}
+		// release any blocked thread
+		permits.release(capacity);
+	}
+
+	/**
+	 * Enqueues the specified task for execution.
+	 *
+	 * @param task
+	 *            the task
+	 * @return <code>true</code> if the task was queued, <code>false</code> if
+	 *         it was discarded because the dispatcher is closed or the queue is
+	 *         full
+	 */
+	boolean dispatch(final Runnable task) {
+		if (closed)
+			return false;
+
+		final long start = System.nanoTime();
+		if (!acquire()) {
+			metrics.getDispatchQueueMetric().channelDenied();
+			LOG.warn("Dispatch queue of topic ({}) is full. Dropping event.", topicId);
+			return false;
+		}
+		if (closed)
+			return false;
+
+		final long queuedNanos = System.nanoTime();
+		metrics.getDispatchQueueMetric().channelStarted(TimeUnit.NANOSECONDS.toMillis(queuedNanos - start));
+		queue.add(new QueuedTask(task, queuedNanos));
+		scheduleIfNecessary();
+		return true;
+	}
+
+	@VisibleForTesting
+	void drain() {
+		try {
+			for (int i = 0; (i < MAX_TASKS_PER_RUN) && !closed; i++) {
+				final QueuedTask queuedTask = queue.poll();
+				if (queuedTask == null)
+					return;
+
+				permits.release();
+				metrics.getDispatchQueueMetric().channelFinished();
+				metrics.getDispatchQueueLatencyMetric().record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - queuedTask.queuedNanos));
+				try {
+					queuedTask.task.run();
+				} catch (RuntimeException | LinkageError | AssertionError e) {
+					LOG.error("Unhandled error while dispatching in topic ({}). {}", topicId, e.getMessage(), e);
+				}
+			}
+		} finally {
+			scheduled.set(false);
+			// re-schedule if tasks were added concurrently or are remaining
+			if (!queue.isEmpty() && !closed) {
+				scheduleIfNecessary();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of tasks waiting for execution.
+	 *
+	 * @return the number of queued tasks
+	 */
+	int getQueueSize() {
+		return capacity - permits.availablePermits();
+	}
+
+	private void scheduleIfNecessary() {
+		if (!scheduled.compareAndSet(false, true))
+			return;
+
+		try {
+			executor.execute(drain);
+		} catch (final RejectedExecutionException e) {
+			scheduled.set(false);
+			LOG.warn("Unable to dispatch events of topic ({}). {}", topicId, e.getMessage());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TopicDispatcher [" + topicId + "]";
+	}
+}
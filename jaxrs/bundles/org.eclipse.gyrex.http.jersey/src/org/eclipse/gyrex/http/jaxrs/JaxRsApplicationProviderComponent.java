@@ -16,6 +16,7 @@ import org.eclipse.gyrex.http.application.Application;
 import org.eclipse.gyrex.http.application.provider.ApplicationProvider;
 import org.eclipse.gyrex.http.jaxrs.internal.JaxRsDebug;
 import org.eclipse.gyrex.http.jaxrs.internal.ScanningJaxRsApplication;
+import org.eclipse.gyrex.server.internal.scanning.BundleAnnotationIndex;
 
 import org.eclipse.core.runtime.CoreException;
 
@@ -100,6 +101,10 @@ public class JaxRsApplicationProviderComponent extends ApplicationProvider {
 
 		// remember bundle for later use
 		bundleContext = context.getBundleContext();
+
+		// start building the annotation index early
+		// (allows to scan multiple bundles in parallel)
+		BundleAnnotationIndex.getInstance().prefetch(bundleContext.getBundle());
 	}
 
 	@Override
@@ -16,6 +16,8 @@ import java.util.Set;
 import javax.ws.rs.Path;
 import javax.ws.rs.ext.Provider;
 
+import org.eclipse.gyrex.server.internal.scanning.BundleAnnotationIndex;
+
 import org.osgi.framework.Bundle;
 import org.osgi.framework.wiring.BundleWiring;
 
@@ -25,7 +27,6 @@ import org.slf4j.LoggerFactory;
 import com.sun.jersey.api.core.DefaultResourceConfig;
 import com.sun.jersey.core.spi.scanning.ScannerException;
 import com.sun.jersey.spi.container.ReloadListener;
-import com.sun.jersey.spi.scanning.PathProviderScannerListener;
 
 /**
  * A Jersey resource configuration which scans a bundle for annotated classes.
@@ -48,6 +49,7 @@ public class BundleScanningResourceConfig extends DefaultResourceConfig implemen
 	@Override
 	public void onReload() {
 		getClasses().clear();
+		BundleAnnotationIndex.getInstance().invalidate(bundle);
 		scan();
 	}
 
@@ -66,10 +68,12 @@ public class BundleScanningResourceConfig extends DefaultResourceConfig implemen
 			throw new ScannerException(String.format("No class loader available for bundle '%s'", bundle));
 		}
 
-		final PathProviderScannerListener scannerListener = new PathProviderScannerListener(loader);
-		new BundleScanner(bundle, bundleWiring, loader).scan(scannerListener);
-
-		final Set<Class<?>> annotatedClasses = scannerListener.getAnnotatedClasses();
+		final Set<Class<?>> annotatedClasses;
+		try {
+			annotatedClasses = BundleAnnotationIndex.getInstance().getAnnotatedClasses(bundle, loader, Path.class, Provider.class);
+		} catch (final IllegalStateException e) {
+			throw new ScannerException(e.getMessage(), e);
+		}
 		if (annotatedClasses.isEmpty()) {
 			LOG.warn("No JAX-RS annotated classed found in bundle '{}'.", bundle);
 		} else {
@@ -17,6 +17,8 @@ import java.util.Set;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 
+import org.eclipse.gyrex.server.internal.scanning.BundleAnnotationIndex;
+
 import org.osgi.framework.Bundle;
 import org.osgi.framework.wiring.BundleWiring;
 
@@ -25,7 +27,6 @@ import org.slf4j.LoggerFactory;
 
 import com.sun.jersey.core.spi.scanning.ScannerException;
 import com.sun.jersey.spi.container.ReloadListener;
-import com.sun.jersey.spi.scanning.AnnotationScannerListener;
 
 /**
  * A scanner which scans a bundle for classes annotated with WebServlet.
@@ -56,6 +57,7 @@ public class WebServletScanner implements ReloadListener {
 	@Override
 	public void onReload() {
 		getClasses().clear();
+		BundleAnnotationIndex.getInstance().invalidate(bundle);
 		scan();
 	}
 
@@ -75,10 +77,12 @@ public class WebServletScanner implements ReloadListener {
 			throw new ScannerException(String.format("No class loader available for bundle '%s'", bundle));
 		}
 
-		final AnnotationScannerListener scannerListener = new AnnotationScannerListener(loader, WebServlet.class);
-		new BundleScanner(bundle, bundleWiring, loader).scan(scannerListener);
-
-		final Set<Class<?>> annotatedClasses = scannerListener.getAnnotatedClasses();
+		final Set<Class<?>> annotatedClasses;
+		try {
+			annotatedClasses = BundleAnnotationIndex.getInstance().getAnnotatedClasses(bundle, loader, WebServlet.class);
+		} catch (final IllegalStateException e) {
+			throw new ScannerException(e.getMessage(), e);
+		}
 		if (annotatedClasses.isEmpty()) {
 			LOG.warn("No JAX-RS annotated classed found in bundle '{}'.", bundle);
 		} else {
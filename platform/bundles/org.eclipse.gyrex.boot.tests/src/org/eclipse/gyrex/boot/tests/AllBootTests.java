@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.gyrex.boot.tests;
 
+import org.eclipse.gyrex.server.internal.scanning.BundleAnnotationIndexTest;
 import org.eclipse.gyrex.server.settings.SystemSettingTest;
 
 import org.junit.runner.RunWith;
@@ -18,7 +19,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ SystemSettingTest.class })
+@SuiteClasses({ SystemSettingTest.class, BundleAnnotationIndexTest.class })
 public class AllBootTests {
 
 }
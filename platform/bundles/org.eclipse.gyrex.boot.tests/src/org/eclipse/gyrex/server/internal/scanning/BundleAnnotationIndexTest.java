@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.server.internal.scanning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.wiring.BundleWiring;
+
+import org.apache.commons.io.FileUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests scanning, persisting and invalidating the {@link BundleAnnotationIndex}
+ * of a bundle.
+ */
+public class BundleAnnotationIndexTest {
+
+	@Indexed
+	public static class AddedByUpdate {
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	public static @interface Indexed {
+	}
+
+	@Indexed
+	public class InnerClass {
+	}
+
+	@NotVisible
+	public static class NotVisibleAnnotated {
+	}
+
+	@Retention(RetentionPolicy.CLASS)
+	@Target(ElementType.TYPE)
+	public static @interface NotVisible {
+	}
+
+	@Indexed
+	static class PackageVisibleNested {
+	}
+
+	@Indexed
+	public static class PublicNested {
+	}
+
+	private static String toResourceName(final Class<?> type) {
+		return type.getName().replace('.', '/') + ".class";
+	}
+
+	private File indexDirectory;
+	private final List<String> resources = new ArrayList<String>();
+	private final AtomicInteger scans = new AtomicInteger();
+	private volatile long lastModified = 1000;
+	private Bundle bundle;
+
+	private Bundle createBundle() {
+		final ClassLoader loader = getClass().getClassLoader();
+		final BundleWiring wiring = (BundleWiring) Proxy.newProxyInstance(loader, new Class<?>[] { BundleWiring.class }, new InvocationHandler() {
+			@Override
+			public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+				if (method.getName().equals("getClassLoader"))
+					return loader;
+				if (method.getName().equals("listResources")) {
+					scans.incrementAndGet();
+					return new ArrayList<String>(resources);
+				}
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+		return (Bundle) Proxy.newProxyInstance(loader, new Class<?>[] { Bundle.class }, new InvocationHandler() {
+			@Override
+			public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+				if (method.getName().equals("getBundleId"))
+					return 42L;
+				if (method.getName().equals("getSymbolicName"))
+					return "test.bundle";
+				if (method.getName().equals("getLastModified"))
+					return lastModified;
+				if (method.getName().equals("adapt") && (args[0] == BundleWiring.class))
+					return wiring;
+				if (method.getName().equals("toString"))
+					return "test.bundle [42]";
+				if (method.getName().equals("hashCode"))
+					return 42;
+				if (method.getName().equals("equals"))
+					return proxy == args[0];
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	private Set<Class<?>> getIndexedClasses(final BundleAnnotationIndex index) {
+		return index.getAnnotatedClasses(bundle, getClass().getClassLoader(), Indexed.class);
+	}
+
+	private Properties readIndexFile(final BundleAnnotationIndex index) throws IOException {
+		final Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(index.getIndexFile(bundle))) {
+			properties.load(in);
+		}
+		return properties;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		indexDirectory = Files.createTempDirectory("annotation-index").toFile();
+		Collections.addAll(resources, toResourceName(PublicNested.class), toResourceName(PackageVisibleNested.class), toResourceName(InnerClass.class), toResourceName(NotVisibleAnnotated.class), toResourceName(Indexed.class), toResourceName(getClass()));
+		bundle = createBundle();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtils.deleteQuietly(indexDirectory);
+	}
+
+	@Test
+	public void testBundleUpdateInvalidatesIndex() throws Exception {
+		final BundleAnnotationIndex index = new BundleAnnotationIndex(indexDirectory);
+		assertEquals(Collections.<Class<?>> singleton(PublicNested.class), getIndexedClasses(index));
+		assertEquals(1, scans.get());
+
+		// update the bundle
+		resources.add(toResourceName(AddedByUpdate.class));
+		lastModified++;
+
+		assertEquals(new HashSet<Class<?>>(Arrays.<Class<?>> asList(PublicNested.class, AddedByUpdate.class)), getIndexedClasses(index));
+		assertEquals("updated bundle must be scanned again", 2, scans.get());
+		assertEquals(String.valueOf(lastModified), readIndexFile(index).getProperty("bundle.lastModified"));
+
+		// persisted index of the updated bundle is used after restart
+		assertEquals(2, getIndexedClasses(new BundleAnnotationIndex(indexDirectory)).size());
+		assertEquals(2, scans.get());
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		final BundleAnnotationIndex index = new BundleAnnotationIndex(indexDirectory);
+		getIndexedClasses(index);
+		assertTrue(index.getIndexFile(bundle).isFile());
+
+		index.invalidate(bundle);
+		assertFalse("index file must be deleted", index.getIndexFile(bundle).isFile());
+
+		assertEquals(Collections.<Class<?>> singleton(PublicNested.class), getIndexedClasses(index));
+		assertEquals(2, scans.get());
+	}
+
+	@Test
+	public void testPersistedIndexReused() throws Exception {
+		assertEquals(Collections.<Class<?>> singleton(PublicNested.class), getIndexedClasses(new BundleAnnotationIndex(indexDirectory)));
+		assertEquals(1, scans.get());
+
+		final Properties properties = readIndexFile(new BundleAnnotationIndex(indexDirectory));
+		assertEquals("test.bundle", properties.getProperty("bundle.symbolicName"));
+		assertEquals(String.valueOf(lastModified), properties.getProperty("bundle.lastModified"));
+		assertEquals(PublicNested.class.getName(), properties.getProperty("a." + Indexed.class.getName()));
+
+		// a new instance (i.e. a restart) must not scan again
+		assertEquals(Collections.<Class<?>> singleton(PublicNested.class), getIndexedClasses(new BundleAnnotationIndex(indexDirectory)));
+		assertEquals("persisted index must be reused", 1, scans.get());
+
+		// but a persisted index of another bundle must not be used
+		properties.setProperty("bundle.symbolicName", "other.bundle");
+		try (OutputStream out = new FileOutputStream(new BundleAnnotationIndex(indexDirectory).getIndexFile(bundle))) {
+			properties.store(out, null);
+		}
+		getIndexedClasses(new BundleAnnotationIndex(indexDirectory));
+		assertEquals(2, scans.get());
+	}
+
+	@Test
+	public void testScan() throws Exception {
+		final BundleAnnotationIndex index = new BundleAnnotationIndex(indexDirectory);
+
+		// only public top level or public static nested classes with runtime visible annotations
+		assertEquals(Collections.<Class<?>> singleton(PublicNested.class), getIndexedClasses(index));
+		assertTrue(index.getAnnotatedClasses(bundle, getClass().getClassLoader(), NotVisible.class).isEmpty());
+
+		// scanned once
+		getIndexedClasses(index);
+		assertEquals(1, scans.get());
+	}
+}
@@ -21,4 +21,5 @@ public class BootDebug extends BundleDebugOptions {
 	public static boolean debug;
 	public static boolean roles;
 	public static boolean operationMode;
+	public static boolean annotationIndex;
 }
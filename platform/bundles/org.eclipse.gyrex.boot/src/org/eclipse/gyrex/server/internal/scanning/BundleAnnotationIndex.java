@@ -0,0 +1,451 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.server.internal.scanning;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.gyrex.boot.internal.BootActivator;
+import org.eclipse.gyrex.boot.internal.BootDebug;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.wiring.BundleWiring;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of the classes in a bundle by their class level annotations.
+ * <p>
+ * Scanning all class files of a bundle is expensive. Therefore, the index of
+ * a bundle is computed only once (on a shared pool of threads, i.e. bundles
+ * are scanned in parallel) and persisted in the state location keyed by bundle
+ * id and bundle last modification time. Subsequent starts re-use the persisted
+ * index as long as the bundle has not been updated.
+ * </p>
+ * <p>
+ * Only runtime visible annotations of public top level classes and public
+ * static nested classes are indexed (same as Jersey's annotation scanner).
+ * </p>
+ * <p>
+ * The index is shared by all bundles which discover annotated classes, eg.
+ * JAX-RS resources or job types.
+ * </p>
+ */
+public final class BundleAnnotationIndex {
+
+	/**
+	 * Collects the class level annotations of a class.
+	 */
+	private static final class AnnotatedClassVisitor extends ClassVisitor {
+
+		private final Map<String, Set<String>> index;
+		private final List<String> annotations = new ArrayList<String>(4);
+		private String className;
+		private boolean scoped;
+
+		AnnotatedClassVisitor(final Map<String, Set<String>> index) {
+			super(Opcodes.ASM5);
+			this.index = index;
+		}
+
+		@Override
+		public void visit(final int version, final int access, final String name, final String signature, final String superName, final String[] interfaces) {
+			className = name;
+			scoped = (access & Opcodes.ACC_PUBLIC) != 0;
+			annotations.clear();
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(final String desc, final boolean visible) {
+			if (visible) {
+				annotations.add(Type.getType(desc).getClassName());
+			}
+			return null;
+		}
+
+		@Override
+		public void visitEnd() {
+			if (!scoped || annotations.isEmpty())
+				return;
+			final String name = className.replace('/', '.');
+			for (final String annotation : annotations) {
+				Set<String> classNames = index.get(annotation);
+				if (classNames == null) {
+					classNames = new TreeSet<String>();
+					index.put(annotation, classNames);
+				}
+				classNames.add(name);
+			}
+		}
+
+		@Override
+		public void visitInnerClass(final String name, final String outerName, final String innerName, final int access) {
+			// nested classes must be public static
+			if (className.equals(name)) {
+				scoped = ((access & Opcodes.ACC_PUBLIC) != 0) && ((access & Opcodes.ACC_STATIC) != 0);
+			}
+		}
+	}
+
+	/**
+	 * The index of a bundle.
+	 */
+	private static final class BundleIndex {
+		final long lastModified;
+		final Future<Map<String, Set<String>>> index;
+
+		BundleIndex(final long lastModified, final Future<Map<String, Set<String>>> index) {
+			this.lastModified = lastModified;
+			this.index = index;
+		}
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(BundleAnnotationIndex.class);
+
+	/** version of the persisted index format */
+	private static final String INDEX_VERSION = "1";
+
+	private static final String KEY_VERSION = "index.version";
+	private static final String KEY_SYMBOLIC_NAME = "bundle.symbolicName";
+	private static final String KEY_LAST_MODIFIED = "bundle.lastModified";
+	private static final String KEY_ANNOTATION_PREFIX = "a.";
+
+	private static final int SCAN_THREADS = Integer.getInteger("gyrex.bundle.scanner.threads", Runtime.getRuntime().availableProcessors());
+
+	private static final BundleAnnotationIndex instance = new BundleAnnotationIndex();
+
+	/**
+	 * Returns the shared instance.
+	 *
+	 * @return the shared instance
+	 */
+	public static BundleAnnotationIndex getInstance() {
+		return instance;
+	}
+
+	private final ConcurrentMap<Long, BundleIndex> indexByBundleId = new ConcurrentHashMap<Long, BundleIndex>();
+	private final ThreadPoolExecutor scanExecutor;
+	private final File indexDirectory;
+
+	private BundleAnnotationIndex() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new instance persisting into the specified directory.
+	 * <p>
+	 * This constructor is only visible for testing purposes.
+	 * </p>
+	 *
+	 * @param indexDirectory
+	 *            the directory to persist the index files to (maybe
+	 *            <code>null</code> to use the state location)
+	 */
+	BundleAnnotationIndex(final File indexDirectory) {
+		this.indexDirectory = indexDirectory;
+		scanExecutor = new ThreadPoolExecutor(SCAN_THREADS, SCAN_THREADS, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread t = new Thread(r, "Gyrex Bundle Annotation Scanner " + threadNumber.getAndIncrement());
+				t.setDaemon(true);
+				t.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+					@Override
+					public void uncaughtException(final Thread t, final Throwable e) {
+						LOG.error("Unhandled error scanning bundle. {}", ExceptionUtils.getRootCauseMessage(e), e);
+					}
+				});
+				return t;
+			}
+		});
+		scanExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Returns all classes of a bundle which are annotated with at least one of
+	 * the specified annotations.
+	 * <p>
+	 * Blocks until the index of the bundle is available.
+	 * </p>
+	 *
+	 * @param bundle
+	 *            the bundle
+	 * @param loader
+	 *            the class loader to load the classes with
+	 * @param annotationTypes
+	 *            the annotations
+	 * @return the annotated classes
+	 * @throws IllegalStateException
+	 *             if the bundle could not be scanned or a class could not be
+	 *             loaded
+	 */
+	@SafeVarargs
+	public final Set<Class<?>> getAnnotatedClasses(final Bundle bundle, final ClassLoader loader, final Class<? extends Annotation>... annotationTypes) {
+		final Map<String, Set<String>> index = getIndex(bundle);
+		final Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+		for (final Class<? extends Annotation> annotationType : annotationTypes) {
+			final Set<String> classNames = index.get(annotationType.getName());
+			if (classNames == null) {
+				continue;
+			}
+			for (final String className : classNames) {
+				try {
+					classes.add(loader.loadClass(className));
+				} catch (final ClassNotFoundException | LinkageError e) {
+					throw new IllegalStateException(String.format("Unable to load class '%s' from bundle '%s': %s", className, bundle, ExceptionUtils.getRootCauseMessage(e)), e);
+				}
+			}
+		}
+		return classes;
+	}
+
+	private Map<String, Set<String>> getIndex(final Bundle bundle) {
+		final BundleIndex bundleIndex = getOrCreateIndex(bundle, false);
+		try {
+			return bundleIndex.index.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(String.format("Interrupted while scanning bundle '%s'", bundle), e);
+		} catch (final ExecutionException e) {
+			// forget failed index (allows to try again)
+			indexByBundleId.remove(bundle.getBundleId(), bundleIndex);
+			final Throwable cause = e.getCause();
+			if (cause instanceof IllegalStateException)
+				throw (IllegalStateException) cause;
+			throw new IllegalStateException(String.format("Error scanning bundle '%s': %s", bundle, ExceptionUtils.getRootCauseMessage(cause)), cause);
+		}
+	}
+
+	File getIndexFile(final Bundle bundle) {
+		if (indexDirectory != null)
+			return new File(indexDirectory, bundle.getBundleId() + ".properties");
+
+		// don't persist in development mode (bundles may change without being updated)
+		if (BootActivator.isDevMode())
+			return null;
+		try {
+			final BootActivator activator = BootActivator.getInstance();
+			if (activator == null)
+				return null;
+			return activator.getStateLocation(activator.getBundle()).append("annotation-index").append(bundle.getBundleId() + ".properties").toFile();
+		} catch (final IllegalStateException e) {
+			// inactive or no instance location
+			return null;
+		}
+	}
+
+	private BundleIndex getOrCreateIndex(final Bundle bundle, final boolean async) {
+		final Long bundleId = bundle.getBundleId();
+		final long lastModified = bundle.getLastModified();
+		while (true) {
+			final BundleIndex bundleIndex = indexByBundleId.get(bundleId);
+			if ((bundleIndex != null) && (bundleIndex.lastModified == lastModified))
+				return bundleIndex;
+
+			final FutureTask<Map<String, Set<String>>> task = new FutureTask<Map<String, Set<String>>>(new Callable<Map<String, Set<String>>>() {
+				@Override
+				public Map<String, Set<String>> call() throws Exception {
+					return loadOrScan(bundle, lastModified);
+				}
+			});
+			final BundleIndex newIndex = new BundleIndex(lastModified, task);
+			if ((bundleIndex == null) ? (indexByBundleId.putIfAbsent(bundleId, newIndex) == null) : indexByBundleId.replace(bundleId, bundleIndex, newIndex)) {
+				if (async) {
+					scanExecutor.execute(task);
+				} else {
+					task.run();
+				}
+				return newIndex;
+			}
+		}
+	}
+
+	/**
+	 * Discards the index of the specified bundle.
+	 * <p>
+	 * The bundle will be scanned again the next time its index is requested.
+	 * </p>
+	 *
+	 * @param bundle
+	 *            the bundle
+	 */
+	public void invalidate(final Bundle bundle) {
+		indexByBundleId.remove(bundle.getBundleId());
+		final File indexFile = getIndexFile(bundle);
+		if ((indexFile != null) && indexFile.isFile() && !indexFile.delete()) {
+			LOG.warn("Unable to delete annotation index file '{}'.", indexFile);
+		}
+	}
+
+	Map<String, Set<String>> loadOrScan(final Bundle bundle, final long lastModified) {
+		final File indexFile = getIndexFile(bundle);
+		if ((indexFile != null) && indexFile.isFile()) {
+			final Map<String, Set<String>> index = readIndex(indexFile, bundle, lastModified);
+			if (index != null) {
+				if (BootDebug.annotationIndex) {
+					LOG.debug("Using persisted annotation index for bundle '{}'.", bundle);
+				}
+				return index;
+			}
+		}
+
+		final Map<String, Set<String>> index = scan(bundle);
+		if (indexFile != null) {
+			writeIndex(indexFile, bundle, lastModified, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Computes the index of a bundle asynchronously.
+	 * <p>
+	 * This allows to scan multiple bundles in parallel in advance.
+	 * </p>
+	 *
+	 * @param bundle
+	 *            the bundle
+	 */
+	public void prefetch(final Bundle bundle) {
+		getOrCreateIndex(bundle, true);
+	}
+
+	private Map<String, Set<String>> readIndex(final File indexFile, final Bundle bundle, final long lastModified) {
+		final Properties props = new Properties();
+		InputStream in = null;
+		try {
+			in = new FileInputStream(indexFile);
+			props.load(in);
+		} catch (final IOException e) {
+			LOG.warn("Unable to read annotation index file '{}'. {}", indexFile, ExceptionUtils.getRootCauseMessage(e));
+			return null;
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+
+		// check that the index matches the bundle
+		if (!INDEX_VERSION.equals(props.getProperty(KEY_VERSION)) || !StringUtils.equals(bundle.getSymbolicName(), props.getProperty(KEY_SYMBOLIC_NAME)) || !String.valueOf(lastModified).equals(props.getProperty(KEY_LAST_MODIFIED)))
+			return null;
+
+		final Map<String, Set<String>> index = new HashMap<String, Set<String>>();
+		for (final String key : props.stringPropertyNames()) {
+			if (key.startsWith(KEY_ANNOTATION_PREFIX)) {
+				final Set<String> classNames = new TreeSet<String>();
+				Collections.addAll(classNames, StringUtils.split(props.getProperty(key), ','));
+				index.put(key.substring(KEY_ANNOTATION_PREFIX.length()), classNames);
+			}
+		}
+		return index;
+	}
+
+	private Map<String, Set<String>> scan(final Bundle bundle) {
+		if (BootDebug.annotationIndex) {
+			LOG.debug("Building annotation index for bundle '{}'.", bundle);
+		}
+
+		final BundleWiring bundleWiring = bundle.adapt(BundleWiring.class);
+		if (null == bundleWiring)
+			throw new IllegalStateException(String.format("No wiring available for bundle '%s'", bundle));
+
+		final ClassLoader loader = bundleWiring.getClassLoader();
+		if (null == loader)
+			throw new IllegalStateException(String.format("No class loader available for bundle '%s'", bundle));
+
+		final Collection<String> resources = bundleWiring.listResources("/", "*.class", BundleWiring.LISTRESOURCES_LOCAL | BundleWiring.LISTRESOURCES_RECURSE);
+		if (null == resources)
+			throw new IllegalStateException(String.format("No resources available for bundle '%s'", bundle));
+
+		final Map<String, Set<String>> index = new HashMap<String, Set<String>>();
+		final AnnotatedClassVisitor visitor = new AnnotatedClassVisitor(index);
+		for (final String resource : resources) {
+			InputStream in = null;
+			try {
+				in = loader.getResourceAsStream(resource);
+				if (in == null) {
+					continue;
+				}
+				new ClassReader(in).accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+			} catch (final IOException | RuntimeException e) {
+				throw new IllegalStateException(String.format("Error scanning resource '%s': %s", resource, ExceptionUtils.getRootCauseMessage(e)), e);
+			} finally {
+				IOUtils.closeQuietly(in);
+			}
+		}
+		return index;
+	}
+
+	private void writeIndex(final File indexFile, final Bundle bundle, final long lastModified, final Map<String, Set<String>> index) {
+		final Properties props = new Properties();
+		props.setProperty(KEY_VERSION, INDEX_VERSION);
+		props.setProperty(KEY_SYMBOLIC_NAME, bundle.getSymbolicName());
+		props.setProperty(KEY_LAST_MODIFIED, String.valueOf(lastModified));
+		for (final Entry<String, Set<String>> entry : index.entrySet()) {
+			props.setProperty(KEY_ANNOTATION_PREFIX + entry.getKey(), StringUtils.join(entry.getValue(), ','));
+		}
+
+		// write to temporary file first in order to never expose partially written files
+		final File tempFile = new File(indexFile.getPath() + ".tmp");
+		OutputStream out = null;
+		try {
+			if (!indexFile.getParentFile().isDirectory() && !indexFile.getParentFile().mkdirs())
+				throw new IOException("unable to create directory " + indexFile.getParentFile());
+			out = new FileOutputStream(tempFile);
+			props.store(out, "Annotation index of bundle " + bundle.getSymbolicName());
+			out.close();
+			out = null;
+			if ((indexFile.exists() && !indexFile.delete()) || !tempFile.renameTo(indexFile))
+				throw new IOException("unable to rename " + tempFile);
+		} catch (final IOException e) {
+			LOG.warn("Unable to write annotation index file '{}'. {}", indexFile, ExceptionUtils.getRootCauseMessage(e));
+			tempFile.delete();
+		} finally {
+			IOUtils.closeQuietly(out);
+		}
+	}
+}
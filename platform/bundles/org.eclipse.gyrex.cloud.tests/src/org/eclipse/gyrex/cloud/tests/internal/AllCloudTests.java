@@ -13,7 +13,10 @@ package org.eclipse.gyrex.cloud.tests.internal;
 
 import org.eclipse.gyrex.cloud.tests.internal.locking.ZooKeeperLockTestSuite;
 import org.eclipse.gyrex.cloud.tests.internal.queue.ZooKeeperQueueTests;
+import org.eclipse.gyrex.cloud.tests.internal.state.ZooKeeperNodeStatePublisherTests;
 import org.eclipse.gyrex.cloud.tests.internal.zookeeper.FlappingTest;
+import org.eclipse.gyrex.cloud.tests.internal.zookeeper.ZooKeeperExecutorTest;
+import org.eclipse.gyrex.cloud.tests.internal.zookeeper.ZooKeeperGateAsyncTests;
 import org.eclipse.gyrex.cloud.tests.internal.zookeeper.preferences.AllZooKeeperPreferencesNonEnsembleTests;
 import org.eclipse.gyrex.junit.GyrexServerResource;
 
@@ -23,7 +26,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ FlappingTest.class, ZooKeeperQueueTests.class, ZooKeeperLockTestSuite.class, AllZooKeeperPreferencesNonEnsembleTests.class })
+@SuiteClasses({ NodeMetricsTest.class, FlappingTest.class, ZooKeeperExecutorTest.class, ZooKeeperGateAsyncTests.class, ZooKeeperQueueTests.class, ZooKeeperNodeStatePublisherTests.class, ZooKeeperLockTestSuite.class, AllZooKeeperPreferencesNonEnsembleTests.class })
 public class AllCloudTests {
 
 	@ClassRule
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.tests.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.gyrex.cloud.internal.NodeMetrics;
+
+import org.junit.Test;
+
+public class NodeMetricsTest {
+
+	private static long[] newValues() {
+		final long[] values = new long[NodeMetrics.NAMES.length];
+		Arrays.fill(values, 1000L);
+		return values;
+	}
+
+	private static int indexOf(final String name) {
+		return Arrays.asList(NodeMetrics.NAMES).indexOf(name);
+	}
+
+	@Test
+	public void testChanged() throws Exception {
+		final NodeMetrics earlier = new NodeMetrics(1, newValues());
+
+		// counters never trigger
+		long[] values = newValues();
+		values[indexOf("uptime")] = 5000L;
+		values[indexOf("os.processCpuTime")] = 5000L;
+		assertFalse(new NodeMetrics(2, values).isChanged(earlier, 0.05));
+
+		// gauges within threshold
+		values = newValues();
+		values[indexOf("heap.used")] = 1040L;
+		assertFalse(new NodeMetrics(2, values).isChanged(earlier, 0.05));
+
+		// gauges beyond threshold
+		values[indexOf("heap.used")] = 1060L;
+		assertTrue(new NodeMetrics(2, values).isChanged(earlier, 0.05));
+
+		// constants on any change
+		values = newValues();
+		values[indexOf("heap.max")] = 1001L;
+		assertTrue(new NodeMetrics(2, values).isChanged(earlier, 0.05));
+	}
+
+	@Test
+	public void testRecord() throws Exception {
+		final long[] values = newValues();
+		values[indexOf("os.systemLoadAverage")] = 125L;
+		values[indexOf("os.openFileDescriptorCount")] = -1L;
+		final NodeMetrics metrics = new NodeMetrics(12345L, values);
+
+		final byte[] record = metrics.toByteArray();
+		assertEquals(11 + (NodeMetrics.NAMES.length * 8), record.length);
+
+		final NodeMetrics read = NodeMetrics.fromByteArray(record);
+		assertEquals(12345L, read.getTimestamp());
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(NodeMetrics.NAMES[i], values[i], read.getValue(i));
+		}
+		assertEquals("1.25", read.toMap().get("os.systemLoadAverage"));
+		assertEquals("-1", read.toMap().get("os.openFileDescriptorCount"));
+	}
+}
@@ -31,9 +31,11 @@ import java.util.concurrent.TimeoutException;
 import org.eclipse.gyrex.cloud.internal.CloudState;
 import org.eclipse.gyrex.cloud.internal.NodeInfo;
 import org.eclipse.gyrex.cloud.internal.locking.ExclusiveLockImpl;
+import org.eclipse.gyrex.cloud.internal.locking.ZooKeeperLockService;
 import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGateListener;
+import org.eclipse.gyrex.cloud.services.locking.IExclusiveLock;
 import org.eclipse.gyrex.junit.GyrexServerResource;
 
 import org.junit.After;
@@ -161,6 +163,76 @@ public class ExclusiveLockTests {
 		}
 	}
 
+	@Test
+	public void testAcquire004Handoff() throws Exception {
+		final String lockId = "test." + ZooKeeperGate.get().getSessionId() + "." + System.currentTimeMillis();
+
+		final ExclusiveLockImpl lock1 = executorService.submit(newAcquireLockCall(new ExclusiveLockImpl(nodeInfo, lockId, null), 0)).get(15, TimeUnit.SECONDS);
+		assertTrue(lock1.isValid());
+		assertEquals("no handoff expected for uncontended lock", -1, lock1.getHandoffLatency());
+
+		// second lock must wait for the first one
+		final ExclusiveLockImpl lock2 = new ExclusiveLockImpl(nodeInfo, lockId, null);
+		final Future<ExclusiveLockImpl> lock2f = executorService.submit(newAcquireLockCall(lock2, 0));
+		try {
+			lock2f.get(1, TimeUnit.SECONDS);
+			fail("timeout expected, call should not succeed while lock1 is active");
+		} catch (final TimeoutException e) {
+			// good
+		}
+
+		// release lock 1 and check that lock 2 is woken up by the deletion watch
+		// (i.e. much faster than the re-check interval)
+		lock1.release();
+		final ExclusiveLockImpl lock2lock = lock2f.get(2, TimeUnit.SECONDS);
+		assertTrue(lock2lock.isValid());
+		assertTrue("handoff latency must be recorded", lock2lock.getHandoffLatency() >= 0);
+		assertTrue("handoff took too long: " + lock2lock.getHandoffLatency() + "ms", lock2lock.getHandoffLatency() < 2000);
+
+		lock2lock.release();
+		assertFalse(lock2lock.isValid());
+	}
+
+	@Test
+	public void testAcquire005LocalQueue() throws Exception {
+		final String lockId = "test." + ZooKeeperGate.get().getSessionId() + "." + System.currentTimeMillis();
+		final ZooKeeperLockService lockService = new ZooKeeperLockService(nodeInfo);
+
+		final IExclusiveLock lock1 = lockService.acquireExclusiveLock(lockId, null, 0);
+		assertTrue(lock1.isValid());
+
+		// second thread on this node must be queued locally
+		final Future<IExclusiveLock> lock2f = executorService.submit(new Callable<IExclusiveLock>() {
+			@Override
+			public IExclusiveLock call() throws Exception {
+				return lockService.acquireExclusiveLock(lockId, null, 0);
+			}
+		});
+		try {
+			lock2f.get(1, TimeUnit.SECONDS);
+			fail("timeout expected, call should not succeed while lock1 is active");
+		} catch (final TimeoutException e) {
+			// good
+		}
+		assertEquals("only one lock node per node allowed in ZooKeeper", 1, ZooKeeperGate.get().readChildrenNames(IZooKeeperLayout.PATH_LOCKS_EXCLUSIVE.append(lockId), null).size());
+
+		// timeout must work for locally queued threads
+		try {
+			lockService.acquireExclusiveLock(lockId, null, 200);
+			fail("timeout expected");
+		} catch (final TimeoutException e) {
+			// good
+		}
+
+		// release lock 1 and check lock 2 is handed the lock
+		lock1.release();
+		final IExclusiveLock lock2 = lock2f.get(10, TimeUnit.SECONDS);
+		assertTrue(lock2.isValid());
+
+		lock2.release();
+		assertFalse(lock2.isValid());
+	}
+
 	@Test
 	public void testDisconnect001() throws Exception {
 		final String lockId = "test." + ZooKeeperGate.get().getSessionId() + "." + System.currentTimeMillis();
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2011, 2012 Gunnar Wagenknecht and others.
+ * Copyright (c) 2011, 2014 Gunnar Wagenknecht and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the terms of the
@@ -12,6 +12,7 @@
 package org.eclipse.gyrex.cloud.tests.internal.queue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -20,12 +21,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.gyrex.cloud.internal.queue.ZooKeeperQueue;
 import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
 import org.eclipse.gyrex.cloud.services.queue.IMessage;
+import org.eclipse.gyrex.cloud.services.queue.IQueue;
+import org.eclipse.gyrex.cloud.services.queue.IQueueListener;
 import org.eclipse.gyrex.cloud.services.queue.IQueueServiceProperties;
 import org.eclipse.gyrex.junit.GyrexServerResource;
 
@@ -173,4 +177,90 @@ public class ZooKeeperQueueTests {
 		assertNull("no message should be in queue", queue.consumeMessage(1, TimeUnit.SECONDS));
 	}
 
+	@Test
+	public void test005ConsumeWakesUpOnNewMessage() throws Exception {
+		final byte[] message = "Hallo ".concat(String.valueOf(System.currentTimeMillis())).getBytes();
+
+		// send message delayed from a different thread
+		final Thread sender = new Thread("Delayed Queue Sender") {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(500);
+					queue.sendMessage(message);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+
+		// prime the local cache with an empty queue
+		assertNull("no message should be in queue", queue.consumeMessage(0, null));
+
+		// consume must be woken up by the child watch (and not wait the full timeout)
+		final long start = System.currentTimeMillis();
+		sender.start();
+		final IMessage consumedMessage = queue.consumeMessage(20, TimeUnit.SECONDS);
+		final long duration = System.currentTimeMillis() - start;
+		sender.join();
+
+		assertNotNull("message must not be null", consumedMessage);
+		assertTrue("message content must match", Arrays.equals(message, consumedMessage.getBody()));
+		assertTrue("consumer should have been woken up by the watch (took " + duration + "ms)", duration < TimeUnit.SECONDS.toMillis(10));
+	}
+
+	@Test
+	public void test006ReceiveManyMessagesInBatches() throws Exception {
+		final int count = 150;
+		for (int i = 0; i < count; i++) {
+			queue.sendMessage(("Message " + i).getBytes());
+		}
+
+		// receive all messages (more than one read batch)
+		final List<IMessage> messages = queue.receiveMessages(count, null);
+		assertEquals("all messages must be received", count, messages.size());
+
+		// order must be preserved
+		for (int i = 0; i < count; i++) {
+			assertTrue("message order must be preserved", Arrays.equals(("Message " + i).getBytes(), messages.get(i).getBody()));
+		}
+	}
+
+	@Test
+	public void test007ListenerNotifiedOnNewMessage() throws Exception {
+		final Semaphore notifications = new Semaphore(0);
+		final IQueueListener listener = new IQueueListener() {
+			@Override
+			public void messagesAdded(final IQueue queue) {
+				notifications.release();
+			}
+		};
+
+		// message sent before registration is reported once the listener is added
+		queue.sendMessage("Message 0".getBytes());
+		queue.addQueueListener(listener);
+		try {
+			assertTrue("listener must be notified about queued message", notifications.tryAcquire(10, TimeUnit.SECONDS));
+
+			// new message must be reported
+			queue.sendMessage("Message 1".getBytes());
+			assertTrue("listener must be notified about new message", notifications.tryAcquire(10, TimeUnit.SECONDS));
+
+			// removal must not be reported
+			final List<IMessage> messages = queue.receiveMessages(2, null);
+			assertEquals("all messages must be received", 2, messages.size());
+			for (final IMessage message : messages) {
+				queue.deleteMessage(message);
+			}
+			assertFalse("listener must not be notified about removed messages", notifications.tryAcquire(1, TimeUnit.SECONDS));
+		} finally {
+			queue.removeQueueListener(listener);
+		}
+
+		// no notifications after removal
+		notifications.drainPermits();
+		queue.sendMessage("Message 2".getBytes());
+		assertFalse("removed listener must not be notified", notifications.tryAcquire(1, TimeUnit.SECONDS));
+	}
+
 }
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.tests.internal.state;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.gyrex.cloud.internal.state.ZooKeeperNodeStatePublisher;
+import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
+import org.eclipse.gyrex.cloud.services.state.query.INodeStateInfo;
+import org.eclipse.gyrex.junit.GyrexServerResource;
+
+import org.apache.zookeeper.CreateMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/**
+ * Tests the cache of {@link ZooKeeperNodeStatePublisher}.
+ */
+public class ZooKeeperNodeStatePublisherTests {
+
+	@ClassRule
+	public static final GyrexServerResource server = new GyrexServerResource();
+
+	private static final String NODE_ID = "nodeStatePublisherTests";
+	private static final long TIMEOUT = 10000L;
+
+	private ZooKeeperGate gate;
+	private ZooKeeperNodeStatePublisher publisher;
+
+	private List<? extends INodeStateInfo> awaitState(final int expectedSize, final String pid, final String expectedValue) throws InterruptedException {
+		// watches are delivered asynchronously
+		final long deadline = System.currentTimeMillis() + TIMEOUT;
+		List<? extends INodeStateInfo> infos = publisher.findByNodeId(NODE_ID);
+		while (!hasState(infos, expectedSize, pid, expectedValue) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(20);
+			infos = publisher.findByNodeId(NODE_ID);
+		}
+		assertTrue("timeout waiting for state " + pid + "=" + expectedValue + " in " + infos, hasState(infos, expectedSize, pid, expectedValue));
+		return infos;
+	}
+
+	private void awaitCachedPathCount(final int expectedCount) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT;
+		while ((publisher.getCachedPathCount() != expectedCount) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(20);
+		}
+		assertEquals(expectedCount, publisher.getCachedPathCount());
+	}
+
+	private boolean hasState(final List<? extends INodeStateInfo> infos, final int expectedSize, final String pid, final String expectedValue) {
+		if (infos.size() != expectedSize)
+			return false;
+		if (pid == null)
+			return true;
+		for (final INodeStateInfo info : infos) {
+			if (pid.equals(info.getServicePid()))
+				return expectedValue.equals(info.getStateData().get("value"));
+		}
+		return false;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		gate = ZooKeeperGate.get();
+		gate.deletePath(IZooKeeperLayout.PATH_NODES_STATE_BY_NODE_ID.append(NODE_ID));
+		publisher = new ZooKeeperNodeStatePublisher(NODE_ID);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		publisher.shutdown();
+		gate.deletePath(IZooKeeperLayout.PATH_NODES_STATE_BY_NODE_ID.append(NODE_ID));
+	}
+
+	@Test
+	public void testCacheHit() throws Exception {
+		writeState("pid1", "1");
+
+		final List<? extends INodeStateInfo> infos = publisher.findByNodeId(NODE_ID);
+		assertEquals(1, infos.size());
+		assertEquals(NODE_ID, infos.get(0).getNodeId());
+		assertEquals("pid1", infos.get(0).getServicePid());
+		assertEquals("1", infos.get(0).getStateData().get("value"));
+		assertEquals(1, publisher.getCachedPathCount());
+
+		// must be served from the cache
+		assertSame(infos, publisher.findByNodeId(NODE_ID));
+		assertSame(infos, publisher.findByNodeId(NODE_ID));
+		assertEquals(1, publisher.getCachedPathCount());
+	}
+
+	@Test
+	public void testInvalidation() throws Exception {
+		writeState("pid1", "1");
+		final List<? extends INodeStateInfo> initial = awaitState(1, "pid1", "1");
+
+		// child added
+		writeState("pid2", "2");
+		final List<? extends INodeStateInfo> added = awaitState(2, "pid2", "2");
+		assertNotSame(initial, added);
+
+		// data changed
+		writeState("pid1", "changed");
+		awaitState(2, "pid1", "changed");
+
+		// child removed
+		gate.deletePath(IZooKeeperLayout.PATH_NODES_STATE_BY_NODE_ID.append(NODE_ID).append("pid2"));
+		awaitState(1, "pid1", "changed");
+
+		// still cached after all the changes
+		final List<? extends INodeStateInfo> infos = publisher.findByNodeId(NODE_ID);
+		assertSame(infos, publisher.findByNodeId(NODE_ID));
+		assertEquals(1, publisher.getCachedPathCount());
+	}
+
+	@Test
+	public void testMissingNotCached() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			assertTrue(publisher.findByNodeId("missing" + i).isEmpty());
+			assertTrue(publisher.findByServicePid("missing" + i).isEmpty());
+		}
+		assertEquals(0, publisher.getCachedPathCount());
+
+		// created later
+		writeState("pid1", "1");
+		awaitState(1, "pid1", "1");
+		assertEquals(1, publisher.getCachedPathCount());
+	}
+
+	@Test
+	public void testRemoval() throws Exception {
+		writeState("pid1", "1");
+		awaitState(1, "pid1", "1");
+		assertEquals(1, publisher.getCachedPathCount());
+
+		// removing the last state removes the node path
+		publisher.remove("pid1");
+		awaitCachedPathCount(0);
+		assertTrue(publisher.findByNodeId(NODE_ID).isEmpty());
+		assertEquals(0, publisher.getCachedPathCount());
+	}
+
+	private void writeState(final String pid, final String value) throws Exception {
+		gate.writeRecord(IZooKeeperLayout.PATH_NODES_STATE_BY_NODE_ID.append(NODE_ID).append(pid), CreateMode.EPHEMERAL, "value=" + value + "\n");
+	}
+}
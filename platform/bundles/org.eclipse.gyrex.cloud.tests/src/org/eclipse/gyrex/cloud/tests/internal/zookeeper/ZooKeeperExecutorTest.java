@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.tests.internal.zookeeper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperExecutor;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperExecutor.SerialExecutor;
+
+import org.junit.Test;
+
+public class ZooKeeperExecutorTest {
+
+	@Test
+	public void testOrdering() throws Exception {
+		final int serviceCount = 50;
+		final int taskCount = 100;
+		final List<List<Integer>> results = new ArrayList<List<Integer>>();
+		final CountDownLatch done = new CountDownLatch(serviceCount * taskCount);
+		final List<SerialExecutor> executors = new ArrayList<SerialExecutor>();
+		for (int s = 0; s < serviceCount; s++) {
+			results.add(Collections.synchronizedList(new ArrayList<Integer>()));
+			executors.add(ZooKeeperExecutor.getInstance().newSerialExecutor());
+		}
+
+		// submit interleaved
+		for (int i = 0; i < taskCount; i++) {
+			for (int s = 0; s < serviceCount; s++) {
+				final List<Integer> result = results.get(s);
+				final int value = i;
+				executors.get(s).execute(new Runnable() {
+					@Override
+					public void run() {
+						result.add(value);
+						done.countDown();
+					}
+				});
+			}
+		}
+
+		assertTrue("timeout waiting for tasks", done.await(30, TimeUnit.SECONDS));
+		for (int s = 0; s < serviceCount; s++) {
+			final List<Integer> result = results.get(s);
+			assertEquals(taskCount, result.size());
+			for (int i = 0; i < taskCount; i++) {
+				assertEquals("wrong order for service " + s, Integer.valueOf(i), result.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testShutdown() throws Exception {
+		final SerialExecutor executor = ZooKeeperExecutor.getInstance().newSerialExecutor();
+		final CountDownLatch blocker = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(2);
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					blocker.await(10, TimeUnit.SECONDS);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				done.countDown();
+			}
+		});
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+			}
+		});
+
+		executor.shutdown();
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					// empty
+				}
+			});
+			fail("execution after shutdown must be rejected");
+		} catch (final RejectedExecutionException e) {
+			// good
+		}
+
+		// previously submitted tasks must still execute
+		blocker.countDown();
+		assertTrue("timeout waiting for tasks", done.await(10, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.tests.internal.zookeeper;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperHelper;
+import org.eclipse.gyrex.junit.GyrexServerResource;
+
+import org.eclipse.core.runtime.IPath;
+
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.BadVersionException;
+import org.apache.zookeeper.KeeperException.Code;
+import org.apache.zookeeper.KeeperException.NoAuthException;
+import org.apache.zookeeper.KeeperException.NoNodeException;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.ZooDefs;
+import org.apache.zookeeper.data.ACL;
+import org.apache.zookeeper.data.Stat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class ZooKeeperGateAsyncTests {
+
+	@ClassRule
+	public static final GyrexServerResource server = new GyrexServerResource();
+
+	private ZooKeeperGate gate;
+	private IPath testPath;
+
+	@Before
+	public void setUp() throws Exception {
+		gate = ZooKeeperGate.get();
+		testPath = IZooKeeperLayout.PATH_GYREX_ROOT.append("tests").append(ZooKeeperGateAsyncTests.class.getSimpleName());
+		gate.deletePath(testPath);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		gate.deletePath(testPath);
+	}
+
+	@Test
+	public void testCreateReadDelete() throws Exception {
+		final IPath path = testPath.append("a/b/c");
+		assertEquals(path, ZooKeeperHelper.getResult(gate.createPathAsync(path, CreateMode.PERSISTENT, "test".getBytes("UTF-8"))));
+		assertTrue(ZooKeeperHelper.getResult(gate.existsAsync(path, null)));
+
+		final Stat stat = new Stat();
+		assertArrayEquals("test".getBytes("UTF-8"), ZooKeeperHelper.getResult(gate.readRecordAsync(path, null, stat)));
+		assertEquals(0, stat.getVersion());
+
+		ZooKeeperHelper.getResult(gate.deletePathAsync(testPath.append("a")));
+		assertFalse(ZooKeeperHelper.getResult(gate.existsAsync(path, null)));
+		assertFalse(gate.exists(testPath.append("a")));
+
+		try {
+			ZooKeeperHelper.getResult(gate.readRecordAsync(path, null, null));
+			fail("NoNodeException expected");
+		} catch (final NoNodeException e) {
+			// good
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void testDeleteFailure() throws Exception {
+		// deleting a child requires DELETE permission on the parent
+		final IPath parent = testPath.append("locked");
+		final IPath child = parent.append("c");
+		gate.createPath(child, CreateMode.PERSISTENT);
+		final int perms = ZooDefs.Perms.ALL & ~ZooDefs.Perms.DELETE;
+		gate.getZooKeeper().setACL(parent.toString(), Collections.singletonList(new ACL(perms, ZooDefs.Ids.ANYONE_ID_UNSAFE)), -1);
+		try {
+			try {
+				ZooKeeperHelper.getResult(gate.deletePathAsync(child));
+				fail("NoAuthException expected");
+			} catch (final NoAuthException e) {
+				assertEquals(child.toString(), e.getPath());
+			}
+			assertTrue(gate.exists(child));
+		} finally {
+			gate.getZooKeeper().setACL(parent.toString(), ZooDefs.Ids.OPEN_ACL_UNSAFE, -1);
+		}
+
+		// version check
+		try {
+			ZooKeeperHelper.getResult(gate.deletePathAsync(child, 5));
+			fail("BadVersionException expected");
+		} catch (final BadVersionException e) {
+			// good
+		}
+		assertTrue(gate.exists(child));
+	}
+
+	@Test
+	public void testMulti() throws Exception {
+		gate.createPath(testPath, CreateMode.PERSISTENT);
+
+		// failing transaction must not apply anything
+		final List<Op> failing = Arrays.asList(Op.create(testPath.append("m1").toString(), null, ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT), Op.delete(testPath.append("missing").toString(), -1));
+		try {
+			ZooKeeperHelper.getResult(gate.multiAsync(failing));
+			fail("KeeperException expected");
+		} catch (final KeeperException e) {
+			assertEquals(Code.NONODE, e.code());
+			assertEquals(testPath.append("missing").toString(), e.getPath());
+		}
+		assertFalse(gate.exists(testPath.append("m1")));
+
+		final List<Op> ops = Arrays.asList(Op.create(testPath.append("m1").toString(), null, ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT), Op.create(testPath.append("m2").toString(), null, ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT));
+		assertEquals(2, ZooKeeperHelper.getResult(gate.multiAsync(ops)).size());
+		assertTrue(gate.exists(testPath.append("m1")));
+		assertTrue(gate.exists(testPath.append("m2")));
+	}
+
+	@Test
+	public void testPipelinedReads() throws Exception {
+		final int count = 200;
+		for (int i = 0; i < count; i++) {
+			gate.createPath(testPath.append("n" + i), CreateMode.PERSISTENT, String.valueOf(i));
+		}
+
+		// issue all reads before waiting for any result
+		final List<CompletableFuture<byte[]>> reads = new ArrayList<CompletableFuture<byte[]>>(count);
+		for (int i = 0; i < count; i++) {
+			reads.add(gate.readRecordAsync(testPath.append("n" + i), null, null));
+		}
+		for (int i = 0; i < count; i++) {
+			assertEquals(String.valueOf(i), new String(ZooKeeperHelper.getResult(reads.get(i)), "UTF-8"));
+		}
+
+		assertEquals(count, ZooKeeperHelper.getResult(gate.readChildrenNamesAsync(testPath, null, null)).size());
+	}
+
+	@Test
+	public void testWriteRecord() throws Exception {
+		final IPath path = testPath.append("w");
+		assertEquals(1, ZooKeeperHelper.getResult(gate.writeRecordAsync(path, CreateMode.PERSISTENT, "1".getBytes("UTF-8"))).getVersion());
+		assertEquals(2, ZooKeeperHelper.getResult(gate.writeRecordAsync(path, "2".getBytes("UTF-8"), 1)).getVersion());
+		try {
+			ZooKeeperHelper.getResult(gate.writeRecordAsync(path, "3".getBytes("UTF-8"), 1));
+			fail("BadVersionException expected");
+		} catch (final BadVersionException e) {
+			// good
+		}
+		assertEquals("2", gate.readRecord(path, (String) null, null));
+	}
+}
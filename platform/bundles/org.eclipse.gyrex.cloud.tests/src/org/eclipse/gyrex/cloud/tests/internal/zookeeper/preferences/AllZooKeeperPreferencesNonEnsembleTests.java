@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -19,7 +19,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ ZooKeeperPreferencesTests.class, ZooKeeperPreferencesSimpleStressTests.class })
+@SuiteClasses({ ZooKeeperPreferencesFormatTests.class, ZooKeeperPreferencesTests.class, ZooKeeperPreferencesSimpleStressTests.class })
 public class AllZooKeeperPreferencesNonEnsembleTests {
 	@ClassRule
 	public static final GyrexServerResource server = new GyrexServerResource();
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.tests.internal.zookeeper.preferences;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gyrex.cloud.internal.preferences.ZooKeeperPreferencesFormat;
+
+/**
+ * Measures the size and the encode/decode throughput of preference records in
+ * the binary and the legacy format.
+ * <p>
+ * This is not part of the test suite. Run it as a plain Java application with
+ * the cloud bundle on the class path. The first argument optionally specifies
+ * the number of properties per record, the second the number of iterations.
+ * </p>
+ */
+public class ZooKeeperPreferencesFormatBenchmark {
+
+	private static final int DEFAULT_PROPERTIES = 20;
+	private static final int DEFAULT_ITERATIONS = 200000;
+
+	private static Properties createProperties(final int count) {
+		final Properties properties = new Properties();
+		for (int i = 0; i < count; i++) {
+			properties.setProperty("org.eclipse.gyrex.test.key" + i, "some value with spaces, = and : and \u00e4\u00f6\u00fc " + i);
+		}
+		return properties;
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PROPERTIES;
+		final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+		final Properties properties = createProperties(count);
+
+		// warm up
+		run(properties, iterations, false);
+
+		run(properties, iterations, true);
+	}
+
+	private static void print(final String name, final String operation, final int iterations, final long duration) {
+		System.out.printf("%-6s %-6s %8d ns/record %10d records/s%n", name, operation, duration / iterations, (iterations * TimeUnit.SECONDS.toNanos(1)) / Math.max(1, duration));
+	}
+
+	private static void run(final Properties properties, final int iterations, final boolean print) throws Exception {
+		final byte[] binary = ZooKeeperPreferencesFormat.encodeBinary(properties);
+		final byte[] legacy = ZooKeeperPreferencesFormat.encodeLegacy(properties);
+
+		long started = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			ZooKeeperPreferencesFormat.encodeBinary(properties);
+		}
+		final long binaryEncodeTime = System.nanoTime() - started;
+
+		started = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			ZooKeeperPreferencesFormat.decode(binary);
+		}
+		final long binaryDecodeTime = System.nanoTime() - started;
+
+		started = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			ZooKeeperPreferencesFormat.encodeLegacy(properties);
+		}
+		final long legacyEncodeTime = System.nanoTime() - started;
+
+		started = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			ZooKeeperPreferencesFormat.decode(legacy);
+		}
+		final long legacyDecodeTime = System.nanoTime() - started;
+
+		if (!properties.equals(ZooKeeperPreferencesFormat.decode(binary)) || !properties.equals(ZooKeeperPreferencesFormat.decode(legacy)))
+			throw new IllegalStateException("records don't match properties");
+
+		if (print) {
+			System.out.printf("%d properties: binary %d bytes, legacy %d bytes%n", properties.size(), binary.length, legacy.length);
+			print("binary", "encode", iterations, binaryEncodeTime);
+			print("binary", "decode", iterations, binaryDecodeTime);
+			print("legacy", "encode", iterations, legacyEncodeTime);
+			print("legacy", "decode", iterations, legacyDecodeTime);
+		}
+	}
+
+	private ZooKeeperPreferencesFormatBenchmark() {
+		// empty
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.tests.internal.zookeeper.preferences;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.eclipse.gyrex.cloud.internal.preferences.ZooKeeperPreferencesFormat;
+
+import org.junit.Test;
+
+/**
+ * Verifies the preference record format and its compatibility with the
+ * legacy format.
+ */
+public class ZooKeeperPreferencesFormatTests {
+
+	private static final int PROPERTIES = 20;
+
+	private static Properties createProperties() {
+		final Properties properties = new Properties();
+		for (int i = 0; i < PROPERTIES; i++) {
+			properties.setProperty("org.eclipse.gyrex.test.key" + i, "some value with spaces, = and : and \u00e4\u00f6\u00fc " + i);
+		}
+		return properties;
+	}
+
+	@Test
+	public void testCorruptRecord() throws Exception {
+		final byte[] record = ZooKeeperPreferencesFormat.encodeBinary(createProperties());
+		try {
+			ZooKeeperPreferencesFormat.decode(Arrays.copyOf(record, record.length - 1));
+			fail("truncated record must not be decoded");
+		} catch (final IOException e) {
+			// expected
+		}
+		try {
+			ZooKeeperPreferencesFormat.decode(Arrays.copyOf(record, record.length + 1));
+			fail("record with trailing bytes must not be decoded");
+		} catch (final IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testDecodeLegacy() throws Exception {
+		final Properties decoded = ZooKeeperPreferencesFormat.decode("#Thu Jan 09 10:00:00 CET 2014\ngyrex.preferences.version=1\nkey=value\\=1\n".getBytes("ISO-8859-1"));
+		assertEquals(1, decoded.size());
+		assertEquals("value=1", decoded.getProperty("key"));
+
+		// unsupported versions
+		assertNull(ZooKeeperPreferencesFormat.decode("key=value\n".getBytes("ISO-8859-1")));
+		assertNull(ZooKeeperPreferencesFormat.decode("gyrex.preferences.version=2\n".getBytes("ISO-8859-1")));
+		assertNull(ZooKeeperPreferencesFormat.decode(new byte[] { 0, 99 }));
+
+		// no data
+		assertEquals(0, ZooKeeperPreferencesFormat.decode(null).size());
+	}
+
+	@Test
+	public void testDefaultFormat() throws Exception {
+		// legacy format must be written unless binary format is enabled explicitly
+		final Properties properties = createProperties();
+		final byte[] record = ZooKeeperPreferencesFormat.encode(properties);
+		assertEquals("legacy record must start with a comment", '#', record[0]);
+		assertEquals(properties, ZooKeeperPreferencesFormat.decode(record));
+	}
+
+	@Test
+	public void testRecordSize() throws Exception {
+		final Properties properties = createProperties();
+		assertTrue("binary record must be smaller", ZooKeeperPreferencesFormat.encodeBinary(properties).length < ZooKeeperPreferencesFormat.encodeLegacy(properties).length);
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		final Properties properties = createProperties();
+		properties.setProperty("", "");
+		properties.setProperty("long", new String(new char[100000]).replace('\0', 'x'));
+
+		final byte[] record = ZooKeeperPreferencesFormat.encodeBinary(properties);
+		assertEquals(properties, ZooKeeperPreferencesFormat.decode(record));
+		assertEquals(properties, ZooKeeperPreferencesFormat.decode(ZooKeeperPreferencesFormat.encodeLegacy(properties)));
+
+		// binary encoding must be deterministic
+		final Properties copy = new Properties();
+		copy.putAll(properties);
+		assertArrayEquals(record, ZooKeeperPreferencesFormat.encodeBinary(copy));
+		assertEquals(0, ZooKeeperPreferencesFormat.decode(ZooKeeperPreferencesFormat.encodeBinary(new Properties())).size());
+		assertEquals(0, ZooKeeperPreferencesFormat.decode(ZooKeeperPreferencesFormat.encodeLegacy(new Properties())).size());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -19,8 +19,11 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Properties;
+
 import org.eclipse.gyrex.cloud.internal.CloudDebug;
 import org.eclipse.gyrex.cloud.internal.preferences.ZooKeeperBasedPreferences;
+import org.eclipse.gyrex.cloud.internal.preferences.ZooKeeperPreferencesFormat;
 import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
 import org.eclipse.gyrex.cloud.tests.internal.CloudTestsActivator;
@@ -33,8 +36,10 @@ import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChange
 import org.eclipse.core.runtime.preferences.IPreferencesService;
 
 import org.osgi.service.prefs.BackingStoreException;
+import org.osgi.service.prefs.Preferences;
 
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
 
 import org.junit.After;
 import org.junit.Before;
@@ -199,6 +204,93 @@ public class ZooKeeperPreferencesTests extends ZooKeeperLoggingTestCase {
 		assertTrue("test node path must exists in ZooKeeper after sync", ZooKeeperGate.get().exists(testNodeZkPath));
 	}
 
+	@Test
+	public void test06FlushTree() throws Exception {
+		// create preference tree
+		final TestablePreferences rootNode = new TestablePreferences(preferencesRoot, testablePreferenceName, service);
+		final String testNodeName = "testNode" + System.currentTimeMillis();
+		final TestablePreferences testNode = create(rootNode, testNodeName);
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 10; j++) {
+				testNode.node("child" + i + "/grandchild" + j).put(KEY, VALUE + i + j);
+			}
+		}
+
+		// flush the whole tree at once
+		rootNode.flush();
+
+		// all paths must exist in ZooKeeper
+		final IPath testNodeZkPath = new Path(testNode.testableGetZooKeeperPath());
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 10; j++) {
+				final TestablePreferences grandchild = (TestablePreferences) testNode.node("child" + i + "/grandchild" + j);
+				assertEquals("created node must be at version 0", 0, grandchild.testableGetPropertiesVersion());
+				assertTrue("path must exists in ZooKeeper after flush", ZooKeeperGate.get().exists(testNodeZkPath.append("child" + i).append("grandchild" + j)));
+			}
+		}
+
+		// modify one node and remove another
+		final TestablePreferences modified = (TestablePreferences) testNode.node("child1/grandchild1");
+		modified.put(KEY, "modified");
+		final TestablePreferences unmodified = (TestablePreferences) testNode.node("child1/grandchild2");
+		unmodified.put(KEY, "reverted");
+		unmodified.put(KEY, VALUE + 1 + 2);
+		testNode.node("child2").removeNode();
+
+		// flush again
+		rootNode.flush();
+
+		// only the modified node must be written
+		final Stat stat = new Stat();
+		final Properties record = ZooKeeperPreferencesFormat.decode(ZooKeeperGate.get().readRecord(testNodeZkPath.append("child1").append("grandchild1"), stat));
+		assertEquals("modified value must be written", "modified", record.getProperty(KEY));
+		assertEquals("properties version must be consistent", stat.getVersion(), modified.testableGetPropertiesVersion());
+		assertEquals("unmodified node must not be written", 0, unmodified.testableGetPropertiesVersion());
+		assertFalse("removed path must not exists in ZooKeeper after flush", ZooKeeperGate.get().exists(testNodeZkPath.append("child2")));
+		assertTrue("path must still exists in ZooKeeper after flush", ZooKeeperGate.get().exists(testNodeZkPath.append("child3").append("grandchild3")));
+	}
+
+	@Test
+	public void test07SyncTree() throws Exception {
+		// create and flush preference tree
+		final TestablePreferences rootNode = new TestablePreferences(preferencesRoot, testablePreferenceName, service);
+		final String testNodeName = "testNode" + System.currentTimeMillis();
+		final TestablePreferences testNode = create(rootNode, testNodeName);
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 10; j++) {
+				testNode.node("child" + i + "/grandchild" + j).put(KEY, VALUE + i + j);
+			}
+		}
+		rootNode.flush();
+
+		// sync the tree into a second preference hierarchy
+		final TestablePreferencesService otherService = new TestablePreferencesService("other");
+		try {
+			final TestablePreferences otherRootNode = new TestablePreferences(preferencesRoot, testablePreferenceName, otherService);
+			final Preferences otherTestNode = otherRootNode.node(testNodeName);
+			otherTestNode.sync();
+			for (int i = 0; i < 10; i++) {
+				for (int j = 0; j < 10; j++) {
+					assertEquals("synced value must match", VALUE + i + j, otherTestNode.node("child" + i + "/grandchild" + j).get(KEY, null));
+				}
+			}
+
+			// modify, remove and add nodes remotely
+			testNode.node("child1/grandchild1").put(KEY, "modified");
+			testNode.node("child2").removeNode();
+			testNode.node("child3/added").put(KEY, VALUE);
+			rootNode.flush();
+
+			// sync again
+			otherTestNode.sync();
+			assertEquals("modified value must be synced", "modified", otherTestNode.node("child1/grandchild1").get(KEY, null));
+			assertFalse("removed node must be synced", otherTestNode.nodeExists("child2"));
+			assertEquals("added node must be synced", VALUE, otherTestNode.node("child3/added").get(KEY, null));
+		} finally {
+			otherService.shutdown();
+		}
+	}
+
 	private void testCreateNode(final boolean flushUsingParent) throws Exception {
 		// create preference tree
 		final TestablePreferences rootNode = new TestablePreferences(preferencesRoot, testablePreferenceName, service);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -14,14 +14,19 @@ package org.eclipse.gyrex.cloud.internal;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.gyrex.cloud.environment.INodeEnvironment;
+import org.eclipse.gyrex.cloud.internal.locking.ZooKeeperLockMetrics;
 import org.eclipse.gyrex.cloud.internal.locking.ZooKeeperLockService;
+import org.eclipse.gyrex.cloud.internal.preferences.ZooKeeperPreferencesMetrics;
 import org.eclipse.gyrex.cloud.internal.queue.ZooKeeperQueueService;
 import org.eclipse.gyrex.cloud.internal.state.ZooKeeperNodeStateService;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperExecutor;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperExecutorMetrics;
 import org.eclipse.gyrex.cloud.services.locking.ILockService;
 import org.eclipse.gyrex.cloud.services.queue.IQueueService;
 import org.eclipse.gyrex.cloud.services.state.query.INodeStateQueryService;
 import org.eclipse.gyrex.common.runtime.BaseBundleActivator;
 import org.eclipse.gyrex.common.services.IServiceProxy;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
 
 import org.eclipse.core.runtime.preferences.IPreferencesService;
 import org.eclipse.osgi.util.NLS;
@@ -66,6 +71,7 @@ public class CloudActivator extends BaseBundleActivator {
 	private ServiceRegistration<IQueueService> queueServiceRegistration;
 
 	private ServiceRegistration<ILockService> lockServiceRegistration;
+	private ServiceRegistration<MetricSet> lockMetricsRegistration;
 
 	private ServiceRegistration<INodeStateQueryService> nodeStateServiceRegistration;
 
@@ -94,6 +100,13 @@ public class CloudActivator extends BaseBundleActivator {
 		nodeEnvironment = new NodeEnvironmentImpl();
 		getServiceHelper().registerService(INodeEnvironment.SERVICE_NAME, nodeEnvironment, "Eclipse Gyrex", "Node environment service.", null, null);
 
+		// register metrics of the shared ZooKeeper executor
+		final ZooKeeperExecutorMetrics executorMetrics = ZooKeeperExecutor.getInstance().getMetrics();
+		getServiceHelper().registerService(MetricSet.class, executorMetrics, "Eclipse Gyrex", executorMetrics.getDescription(), null, null);
+
+		// register metrics of the ZooKeeper based preferences
+		getServiceHelper().registerService(MetricSet.class, ZooKeeperPreferencesMetrics.getInstance(), "Eclipse Gyrex", ZooKeeperPreferencesMetrics.getInstance().getDescription(), null, null);
+
 		// register node with cloud
 		CloudState.registerNode();
 	}
@@ -147,6 +160,7 @@ public class CloudActivator extends BaseBundleActivator {
 			LOG.debug("Starting cloud services");
 		}
 		lockServiceRegistration = getServiceHelper().registerService(ILockService.class, new ZooKeeperLockService(nodeInfo), "Eclipse Gyrex", "ZooKeeper base lock service.", null, null);
+		lockMetricsRegistration = getServiceHelper().registerService(MetricSet.class, ZooKeeperLockMetrics.getInstance(), "Eclipse Gyrex", ZooKeeperLockMetrics.getInstance().getDescription(), null, null);
 		queueServiceRegistration = getServiceHelper().registerService(IQueueService.class, new ZooKeeperQueueService(), "Eclipse Gyrex", "ZooKeeper base queue service.", null, null);
 
 		nodeStateService = new ZooKeeperNodeStateService(getBundle().getBundleContext(), nodeEnvironment.getNodeId());
@@ -163,6 +177,11 @@ public class CloudActivator extends BaseBundleActivator {
 			lockServiceRegistration.unregister();
 			this.lockServiceRegistration = null;
 		}
+		final ServiceRegistration<MetricSet> lockMetricsRegistration = this.lockMetricsRegistration;
+		if (lockMetricsRegistration != null) {
+			lockMetricsRegistration.unregister();
+			this.lockMetricsRegistration = null;
+		}
 		final ServiceRegistration<IQueueService> queueServiceRegistration = this.queueServiceRegistration;
 		if (queueServiceRegistration != null) {
 			queueServiceRegistration.unregister();
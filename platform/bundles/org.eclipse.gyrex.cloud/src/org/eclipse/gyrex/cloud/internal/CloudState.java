@@ -766,8 +766,10 @@ public class CloudState implements ZooKeeperGateListener {
 		createOrRestoreEphemeralNodeRecord(IZooKeeperLayout.PATH_NODES_ONLINE, node, getNodeSignature(node));
 
 		// start node metrics publisher (cpu load, memory resources)
-		// (disabled for now, we better have to understand the use cases and ZooKeeper impacts)
-		//NodeMetricsReporter.start();
+		// (opt-in; it only writes changed metrics but we better have to understand the use cases and ZooKeeper impacts)
+		if (NodeMetricsReporter.isEnabled()) {
+			NodeMetricsReporter.start();
+		}
 
 		// start cloud services
 		CloudActivator.getInstance().startCloudServices(node);
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A sample of node metrics and its binary record format.
+ * <p>
+ * The record is written to ZooKeeper by {@link NodeMetricsReporter}. It
+ * consists of a format version byte, the sample timestamp, the number of
+ * values and the values in the order of {@link #NAMES}. All values are
+ * <code>long</code>s. The system load average is stored in hundredths. Values
+ * not available on the node are <code>-1</code>. Readers must ignore values
+ * beyond the names they know (newer format) and treat missing values as not
+ * available (older format).
+ * </p>
+ */
+public final class NodeMetrics {
+
+	/** a value which is (almost) fixed for the lifetime of a node */
+	private static final int CONSTANT = 0;
+
+	/** a value which goes up and down */
+	private static final int GAUGE = 1;
+
+	/** a value which always increases (never triggers a report) */
+	private static final int COUNTER = 2;
+
+	/** the metric names (in record order) */
+	public static final String[] NAMES = { "os.availableProcessors", "os.systemLoadAverage", "os.committedVirtualMemorySize", "os.totalSwapSpaceSize", "os.freeSwapSpaceSize", "os.processCpuTime", "os.freePhysicalMemorySize", "os.totalPhysicalMemorySize", "os.openFileDescriptorCount", "os.maxFileDescriptorCount", "heap.used", "heap.committed", "heap.max", "heap.init", "nonHeap.used", "nonHeap.committed", "nonHeap.max", "nonHeap.init", "thread.count", "thread.peak", "thread.totalStarted", "uptime" };
+
+	private static final int[] KINDS = { CONSTANT, GAUGE, GAUGE, CONSTANT, GAUGE, COUNTER, GAUGE, CONSTANT, GAUGE, CONSTANT, GAUGE, GAUGE, CONSTANT, CONSTANT, GAUGE, GAUGE, CONSTANT, CONSTANT, GAUGE, CONSTANT, COUNTER, COUNTER };
+
+	static final int OS_AVAILABLE_PROCESSORS = 0;
+	static final int OS_SYSTEM_LOAD_AVERAGE = 1;
+	static final int OS_COMMITTED_VIRTUAL_MEMORY_SIZE = 2;
+	static final int OS_TOTAL_SWAP_SPACE_SIZE = 3;
+	static final int OS_FREE_SWAP_SPACE_SIZE = 4;
+	static final int OS_PROCESS_CPU_TIME = 5;
+	static final int OS_FREE_PHYSICAL_MEMORY_SIZE = 6;
+	static final int OS_TOTAL_PHYSICAL_MEMORY_SIZE = 7;
+	static final int OS_OPEN_FILE_DESCRIPTOR_COUNT = 8;
+	static final int OS_MAX_FILE_DESCRIPTOR_COUNT = 9;
+	static final int HEAP_USED = 10;
+	static final int HEAP_COMMITTED = 11;
+	static final int HEAP_MAX = 12;
+	static final int HEAP_INIT = 13;
+	static final int NON_HEAP_USED = 14;
+	static final int NON_HEAP_COMMITTED = 15;
+	static final int NON_HEAP_MAX = 16;
+	static final int NON_HEAP_INIT = 17;
+	static final int THREAD_COUNT = 18;
+	static final int THREAD_PEAK = 19;
+	static final int THREAD_TOTAL_STARTED = 20;
+	static final int UPTIME = 21;
+
+	private static final byte FORMAT_VERSION = 1;
+
+	/**
+	 * Reads a metrics record.
+	 *
+	 * @param record
+	 *            the record bytes
+	 * @return the metrics
+	 * @throws IOException
+	 *             if the record is invalid
+	 */
+	public static NodeMetrics fromByteArray(final byte[] record) throws IOException {
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+		final byte version = in.readByte();
+		if (version != FORMAT_VERSION)
+			throw new IOException(String.format("Unsupported node metrics format version %d", version));
+		final long timestamp = in.readLong();
+		final int count = in.readUnsignedShort();
+		final long[] values = new long[NAMES.length];
+		Arrays.fill(values, -1L);
+		for (int i = 0; i < count; i++) {
+			final long value = in.readLong();
+			if (i < values.length) {
+				values[i] = value;
+			}
+		}
+		return new NodeMetrics(timestamp, values);
+	}
+
+	private final long timestamp;
+	private final long[] values;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param timestamp
+	 *            the sample time (in milliseconds)
+	 * @param values
+	 *            the values (in the order of {@link #NAMES})
+	 */
+	public NodeMetrics(final long timestamp, final long[] values) {
+		if (values.length != NAMES.length)
+			throw new IllegalArgumentException(String.format("expected %d values but got %d", NAMES.length, values.length));
+		this.timestamp = timestamp;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the sample time.
+	 *
+	 * @return the sample time (in milliseconds)
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Returns a metric value.
+	 *
+	 * @param index
+	 *            the metric index in {@link #NAMES}
+	 * @return the value (<code>-1</code> if not available)
+	 */
+	public long getValue(final int index) {
+		return values[index];
+	}
+
+	/**
+	 * Indicates if this sample differs significantly from an earlier one.
+	 * <p>
+	 * Constant values differ if they are not equal. Gauges differ if they
+	 * changed by more than the specified fraction of the earlier value.
+	 * Counters (eg., CPU time, uptime) are expected to change and thus never
+	 * differ.
+	 * </p>
+	 *
+	 * @param earlier
+	 *            the earlier sample
+	 * @param threshold
+	 *            the relative change (eg., <code>0.05</code> for 5%)
+	 * @return <code>true</code> if the samples differ, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean isChanged(final NodeMetrics earlier, final double threshold) {
+		for (int i = 0; i < values.length; i++) {
+			final long value = values[i];
+			final long earlierValue = earlier.values[i];
+			switch (KINDS[i]) {
+				case CONSTANT:
+					if (value != earlierValue)
+						return true;
+					break;
+
+				case GAUGE:
+					if (Math.abs(value - earlierValue) > (Math.abs(earlierValue) * threshold))
+						return true;
+					break;
+
+				default:
+					break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the metrics as a map of human readable values.
+	 *
+	 * @return a map of metric names and values (in the order of {@link #NAMES})
+	 */
+	public Map<String, String> toMap() {
+		final Map<String, String> map = new LinkedHashMap<String, String>(NAMES.length);
+		for (int i = 0; i < values.length; i++) {
+			if (i == OS_SYSTEM_LOAD_AVERAGE) {
+				map.put(NAMES[i], String.valueOf(values[i] / 100d));
+			} else {
+				map.put(NAMES[i], String.valueOf(values[i]));
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Writes the metrics record.
+	 *
+	 * @return the record bytes
+	 */
+	public byte[] toByteArray() {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(11 + (values.length * 8));
+		final DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(FORMAT_VERSION);
+			out.writeLong(timestamp);
+			out.writeShort(values.length);
+			for (final long value : values) {
+				out.writeLong(value);
+			}
+		} catch (final IOException e) {
+			// not possible with ByteArrayOutputStream
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("NodeMetrics [%tc, %s]", timestamp, toMap());
+	}
+}
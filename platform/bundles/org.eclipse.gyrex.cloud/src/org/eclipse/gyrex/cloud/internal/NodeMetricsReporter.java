@@ -11,19 +11,13 @@
  *******************************************************************************/
 package org.eclipse.gyrex.cloud.internal;
 
-import java.io.ByteArrayOutputStream;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryUsage;
 import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.RuntimeMXBean;
 import java.lang.management.ThreadMXBean;
-import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.Enumeration;
-import java.util.Properties;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.Arrays;
 
 import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
@@ -34,9 +28,6 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
-import org.apache.commons.lang.CharEncoding;
-import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.SystemUtils;
 import org.apache.zookeeper.CreateMode;
 
 import org.slf4j.Logger;
@@ -44,26 +35,84 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Constantly writes metrics to ZooKeeper
+ * <p>
+ * Metrics are sampled at a configurable interval (system property
+ * <code>gyrex.cloud.nodeMetrics.interval</code>, default 60 seconds) and
+ * written as a compact {@link NodeMetrics binary record}. In order to not
+ * create constant write load in large clouds, a sample is only written if it
+ * {@link NodeMetrics#isChanged(NodeMetrics, double) changed} beyond a threshold
+ * (<code>gyrex.cloud.nodeMetrics.threshold</code>, default 0.05) or the last
+ * written record is older than a maximum age
+ * (<code>gyrex.cloud.nodeMetrics.maxAge</code>, default 10 intervals).
+ * </p>
+ * <p>
+ * The reporter must be enabled explicitly using system property
+ * <code>gyrex.cloud.nodeMetrics.enabled</code>.
+ * </p>
  */
 public class NodeMetricsReporter extends Job implements IShutdownParticipant {
 
+	/**
+	 * Typed access to the extended operating system metrics of the Java
+	 * runtime.
+	 * <p>
+	 * Isolated in a separate class because <code>com.sun.management</code>
+	 * may not be available.
+	 * </p>
+	 */
+	private static final class ExtendedOperatingSystemSampler {
+
+		static ExtendedOperatingSystemSampler create(final OperatingSystemMXBean operatingSystemMXBean) {
+			try {
+				if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean)
+					return new ExtendedOperatingSystemSampler((com.sun.management.OperatingSystemMXBean) operatingSystemMXBean);
+			} catch (final LinkageError e) {
+				// not available
+			}
+			return null;
+		}
+
+		private final com.sun.management.OperatingSystemMXBean operatingSystemMXBean;
+		private final com.sun.management.UnixOperatingSystemMXBean unixOperatingSystemMXBean;
+
+		private ExtendedOperatingSystemSampler(final com.sun.management.OperatingSystemMXBean operatingSystemMXBean) {
+			this.operatingSystemMXBean = operatingSystemMXBean;
+			unixOperatingSystemMXBean = operatingSystemMXBean instanceof com.sun.management.UnixOperatingSystemMXBean ? (com.sun.management.UnixOperatingSystemMXBean) operatingSystemMXBean : null;
+		}
+
+		void sample(final long[] values) {
+			values[NodeMetrics.OS_COMMITTED_VIRTUAL_MEMORY_SIZE] = operatingSystemMXBean.getCommittedVirtualMemorySize();
+			values[NodeMetrics.OS_TOTAL_SWAP_SPACE_SIZE] = operatingSystemMXBean.getTotalSwapSpaceSize();
+			values[NodeMetrics.OS_FREE_SWAP_SPACE_SIZE] = operatingSystemMXBean.getFreeSwapSpaceSize();
+			values[NodeMetrics.OS_PROCESS_CPU_TIME] = operatingSystemMXBean.getProcessCpuTime();
+			values[NodeMetrics.OS_FREE_PHYSICAL_MEMORY_SIZE] = operatingSystemMXBean.getFreePhysicalMemorySize();
+			values[NodeMetrics.OS_TOTAL_PHYSICAL_MEMORY_SIZE] = operatingSystemMXBean.getTotalPhysicalMemorySize();
+			if (unixOperatingSystemMXBean != null) {
+				values[NodeMetrics.OS_OPEN_FILE_DESCRIPTOR_COUNT] = unixOperatingSystemMXBean.getOpenFileDescriptorCount();
+				values[NodeMetrics.OS_MAX_FILE_DESCRIPTOR_COUNT] = unixOperatingSystemMXBean.getMaxFileDescriptorCount();
+			}
+		}
+	}
+
 	/** scheduling delay */
-	private static final long DELAY = 60000l;
+	private static final long DELAY = Long.getLong("gyrex.cloud.nodeMetrics.interval", 60000L);
+
+	/** maximum age of a written record before writing an unchanged sample */
+	private static final long MAX_AGE = Long.getLong("gyrex.cloud.nodeMetrics.maxAge", 10 * DELAY);
+
+	/** relative change of a metric value which triggers writing a sample */
+	private static final double THRESHOLD = Double.parseDouble(System.getProperty("gyrex.cloud.nodeMetrics.threshold", "0.05"));
+
 	private static final NodeMetricsReporter instance = new NodeMetricsReporter();
 	private static final Logger LOG = LoggerFactory.getLogger(NodeMetricsReporter.class);
 
-	private static String getUsingReflection(final Object bean, final String methodName) {
-		try {
-			final Method method = bean.getClass().getMethod(methodName, (Class[]) null);
-			final Object result = method.invoke(method, (Object[]) null);
-			if (result == null) {
-				return StringUtils.EMPTY;
-			}
-			return String.valueOf(result);
-		} catch (final Exception e) {
-			// ignore
-			return StringUtils.EMPTY;
-		}
+	/**
+	 * Indicates if node metrics reporting is enabled.
+	 *
+	 * @return <code>true</code> if enabled, <code>false</code> otherwise
+	 */
+	static boolean isEnabled() {
+		return Boolean.getBoolean("gyrex.cloud.nodeMetrics.enabled") && (DELAY > 0);
 	}
 
 	static void start() {
@@ -71,6 +120,7 @@ public class NodeMetricsReporter extends Job implements IShutdownParticipant {
 			LOG.debug("Starting node metrics report job.");
 		}
 		final CloudActivator activator = CloudActivator.getInstance();
+		instance.reported = null;
 		instance.schedule(DELAY);
 		activator.addShutdownParticipant(instance);
 	}
@@ -84,10 +134,25 @@ public class NodeMetricsReporter extends Job implements IShutdownParticipant {
 		activator.removeShutdownParticipant(instance);
 	}
 
+	private final OperatingSystemMXBean operatingSystemMXBean;
+	private final ExtendedOperatingSystemSampler extendedOperatingSystemSampler;
+	private final MemoryMXBean memoryMXBean;
+	private final ThreadMXBean threadMXBean;
+	private final RuntimeMXBean runtimeMXBean;
+
+	/** the last sample written to ZooKeeper */
+	private volatile NodeMetrics reported;
+
 	private NodeMetricsReporter() {
 		super("Node Metrics Reporter");
 		setSystem(true);
 		setPriority(DECORATE);
+
+		operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+		extendedOperatingSystemSampler = ExtendedOperatingSystemSampler.create(operatingSystemMXBean);
+		memoryMXBean = ManagementFactory.getMemoryMXBean();
+		threadMXBean = ManagementFactory.getThreadMXBean();
+		runtimeMXBean = ManagementFactory.getRuntimeMXBean();
 	}
 
 	@Override
@@ -97,57 +162,22 @@ public class NodeMetricsReporter extends Job implements IShutdownParticipant {
 		}
 
 		try {
-			final Properties metrics = new Properties() {
-				private static final long serialVersionUID = 1L;
+			final NodeMetrics metrics = sample();
 
-				@Override
-				public synchronized Enumeration<Object> keys() {
-					return Collections.enumeration(keySet());
+			// skip writing if nothing changed significantly
+			final NodeMetrics last = reported;
+			if ((last != null) && ((metrics.getTimestamp() - last.getTimestamp()) < MAX_AGE) && !metrics.isChanged(last, THRESHOLD)) {
+				if (CloudDebug.nodeMetrics) {
+					LOG.debug("Node metrics unchanged since {}. Skipping report.", last.getTimestamp());
 				}
+				return Status.OK_STATUS;
+			}
 
-				@Override
-				public Set<Object> keySet() {
-					return new TreeSet<Object>(super.keySet());
-				}
-			};
-			final OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
-			metrics.setProperty("os.availableProcessors", String.valueOf(operatingSystemMXBean.getAvailableProcessors()));
-			metrics.setProperty("os.systemLoadAverage", String.valueOf(operatingSystemMXBean.getSystemLoadAverage()));
-			metrics.setProperty("os.committedVirtualMemorySize", getUsingReflection(operatingSystemMXBean, "getCommittedVirtualMemorySize"));
-			metrics.setProperty("os.totalSwapSpaceSize", getUsingReflection(operatingSystemMXBean, "getTotalSwapSpaceSize"));
-			metrics.setProperty("os.freeSwapSpaceSize", getUsingReflection(operatingSystemMXBean, "getFreeSwapSpaceSize"));
-			metrics.setProperty("os.processCpuTime", getUsingReflection(operatingSystemMXBean, "getProcessCpuTime"));
-			metrics.setProperty("os.freePhysicalMemorySize", getUsingReflection(operatingSystemMXBean, "getFreePhysicalMemorySize"));
-			metrics.setProperty("os.totalPhysicalMemorySize", getUsingReflection(operatingSystemMXBean, "getTotalPhysicalMemorySize"));
-			metrics.setProperty("os.openFileDescriptorCount", getUsingReflection(operatingSystemMXBean, "getOpenFileDescriptorCount"));
-			metrics.setProperty("os.maxFileDescriptorCount", getUsingReflection(operatingSystemMXBean, "getMaxFileDescriptorCount"));
-
-			final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
-			final MemoryUsage heapMemoryUsage = memoryMXBean.getHeapMemoryUsage();
-			metrics.setProperty("heap.used", String.valueOf(heapMemoryUsage.getUsed()));
-			metrics.setProperty("heap.committed", String.valueOf(heapMemoryUsage.getCommitted()));
-			metrics.setProperty("heap.max", String.valueOf(heapMemoryUsage.getMax()));
-			metrics.setProperty("heap.init", String.valueOf(heapMemoryUsage.getInit()));
-			final MemoryUsage nonHeapMemoryUsage = memoryMXBean.getNonHeapMemoryUsage();
-			metrics.setProperty("nonHeap.used", String.valueOf(nonHeapMemoryUsage.getUsed()));
-			metrics.setProperty("nonHeap.committed", String.valueOf(nonHeapMemoryUsage.getCommitted()));
-			metrics.setProperty("nonHeap.max", String.valueOf(nonHeapMemoryUsage.getMax()));
-			metrics.setProperty("nonHeap.init", String.valueOf(nonHeapMemoryUsage.getInit()));
-
-			final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
-			metrics.setProperty("thread.count", String.valueOf(threadMXBean.getThreadCount()));
-			metrics.setProperty("thread.peak", String.valueOf(threadMXBean.getPeakThreadCount()));
-			metrics.setProperty("thread.totalStarted", String.valueOf(threadMXBean.getTotalStartedThreadCount()));
-
-			final RuntimeMXBean runtimeMXBean = ManagementFactory.getRuntimeMXBean();
-			metrics.setProperty("uptime", String.valueOf(runtimeMXBean.getUptime()));
-
-			final ByteArrayOutputStream out = new ByteArrayOutputStream();
 			final NodeInfo nodeInfo = CloudState.getNodeInfo();
-			metrics.store(out, String.valueOf(nodeInfo));
-			ZooKeeperGate.get().writeRecord(IZooKeeperLayout.PATH_NODES_METRICS.append(nodeInfo.getNodeId()), CreateMode.PERSISTENT, out.toByteArray());
+			ZooKeeperGate.get().writeRecord(IZooKeeperLayout.PATH_NODES_METRICS.append(nodeInfo.getNodeId()), CreateMode.PERSISTENT, metrics.toByteArray());
+			reported = metrics;
 			if (CloudDebug.nodeMetrics) {
-				LOG.debug("Node metrics reported successfully.{}{}", SystemUtils.LINE_SEPARATOR, new String(out.toByteArray(), CharEncoding.ISO_8859_1));
+				LOG.debug("Node metrics reported successfully. {}", metrics);
 			}
 		} catch (final Exception e) {
 			LOG.warn("Failed to update node metrics. {}", e.getMessage());
@@ -159,6 +189,37 @@ public class NodeMetricsReporter extends Job implements IShutdownParticipant {
 		return Status.OK_STATUS;
 	}
 
+	private NodeMetrics sample() {
+		final long[] values = new long[NodeMetrics.NAMES.length];
+		Arrays.fill(values, -1L);
+
+		values[NodeMetrics.OS_AVAILABLE_PROCESSORS] = operatingSystemMXBean.getAvailableProcessors();
+		final double systemLoadAverage = operatingSystemMXBean.getSystemLoadAverage();
+		values[NodeMetrics.OS_SYSTEM_LOAD_AVERAGE] = systemLoadAverage >= 0 ? Math.round(systemLoadAverage * 100) : -1L;
+		if (extendedOperatingSystemSampler != null) {
+			extendedOperatingSystemSampler.sample(values);
+		}
+
+		final MemoryUsage heapMemoryUsage = memoryMXBean.getHeapMemoryUsage();
+		values[NodeMetrics.HEAP_USED] = heapMemoryUsage.getUsed();
+		values[NodeMetrics.HEAP_COMMITTED] = heapMemoryUsage.getCommitted();
+		values[NodeMetrics.HEAP_MAX] = heapMemoryUsage.getMax();
+		values[NodeMetrics.HEAP_INIT] = heapMemoryUsage.getInit();
+		final MemoryUsage nonHeapMemoryUsage = memoryMXBean.getNonHeapMemoryUsage();
+		values[NodeMetrics.NON_HEAP_USED] = nonHeapMemoryUsage.getUsed();
+		values[NodeMetrics.NON_HEAP_COMMITTED] = nonHeapMemoryUsage.getCommitted();
+		values[NodeMetrics.NON_HEAP_MAX] = nonHeapMemoryUsage.getMax();
+		values[NodeMetrics.NON_HEAP_INIT] = nonHeapMemoryUsage.getInit();
+
+		values[NodeMetrics.THREAD_COUNT] = threadMXBean.getThreadCount();
+		values[NodeMetrics.THREAD_PEAK] = threadMXBean.getPeakThreadCount();
+		values[NodeMetrics.THREAD_TOTAL_STARTED] = threadMXBean.getTotalStartedThreadCount();
+
+		values[NodeMetrics.UPTIME] = runtimeMXBean.getUptime();
+
+		return new NodeMetrics(System.currentTimeMillis(), values);
+	}
+
 	@Override
 	public void shutdown() throws Exception {
 		cancel();
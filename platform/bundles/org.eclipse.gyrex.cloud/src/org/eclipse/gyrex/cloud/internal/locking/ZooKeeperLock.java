@@ -22,6 +22,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.gyrex.cloud.internal.CloudActivator;
 import org.eclipse.gyrex.cloud.internal.CloudDebug;
@@ -120,6 +121,10 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 			// get gate
 			final ZooKeeperGate zk = ZooKeeperGate.get();
 
+			// track timing for metrics
+			final long acquireStartNanos = System.nanoTime();
+			long predecessorDeletedNanos = 0;
+
 			// start acquire loop
 			ACQUIRE_LOOP: do {
 				if (CloudDebug.zooKeeperLockService) {
@@ -147,6 +152,7 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 
 				// 3. If the pathname created in step 1 has the lowest sequence number suffix, the client has the lock and the client exits the protocol.
 				if (isActiveLock()) {
+					recordAcquired(acquireStartNanos, predecessorDeletedNanos);
 					notifyLockAcquired();
 					return true;
 				}
@@ -172,28 +178,31 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 				// 4. The client calls exists( ) with the watch flag set on the path in the lock directory with the next lowest sequence number.
 				// 5. if exists( ) returns false, go to step 2. Otherwise, wait for a notification for the pathname from the previous step before going to step 2.
 				final IPath pathToPreceedingNode = lockNodePath.append(precedingNodeName);
-				if (zk.exists(pathToPreceedingNode)) {
+				final WaitForDeletionMonitor deletionMonitor = new WaitForDeletionMonitor();
+				if (zk.exists(pathToPreceedingNode, deletionMonitor)) {
 					// the lock is still taken, wait for the predecessor go away
-					// TODO: we really need to fix ZooKeeper in order to allow removal of transient watches
-					// for now we just sleep a little and re-try again
+					// note, the watch cannot be removed in case we time out; it will be
+					// cleared by ZooKeeper when the predecessor is deleted eventually
 					// (https://bugs.eclipse.org/bugs/show_bug.cgi?id=350927)
-					final long maxSleepTime = timeout <= 0 ? 5000L : Math.max((abortTime - System.currentTimeMillis() - 500), 50L);
-					long sleepTime = 250L;
 					while ((timeout <= 0) || (abortTime > System.currentTimeMillis())) {
-						if (!zk.exists(pathToPreceedingNode)) {
+						final long waitTime = timeout <= 0 ? MAX_DELETION_WAIT_TIME : Math.min(Math.max(abortTime - System.currentTimeMillis(), 1L), MAX_DELETION_WAIT_TIME);
+						if (CloudDebug.zooKeeperLockService) {
+							LOG.debug("Waiting {}ms for deletion of preceding lock {}/{}", new Object[] { waitTime, lockNodePath, precedingNodeName });
+						}
+
+						if (deletionMonitor.await(waitTime)) {
 							// node has been removed
+							predecessorDeletedNanos = deletionMonitor.getDeletionTime();
 							continue ACQUIRE_LOOP;
 						}
 
-						if (CloudDebug.zooKeeperLockService) {
-							LOG.debug("Sleeping {}ms lock {}/{}", new Object[] { sleepTime, lockNodePath, myLockName });
+						// re-check (and re-arm the watch) in case a notification got lost
+						// (eg. the watch fired because of a data change or a connection loss)
+						if (!zk.exists(pathToPreceedingNode, deletionMonitor)) {
+							// node has been removed
+							predecessorDeletedNanos = System.nanoTime();
+							continue ACQUIRE_LOOP;
 						}
-
-						// sleep
-						Thread.sleep(sleepTime);
-
-						// update sleep time
-						sleepTime = Math.min(sleepTime * 2, maxSleepTime);
 					}
 				}
 
@@ -493,7 +502,8 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 	 */
 	static class WaitForDeletionMonitor extends ZooKeeperMonitor {
 
-		private static CountDownLatch deletionHappend = new CountDownLatch(1);
+		private final CountDownLatch deletionHappend = new CountDownLatch(1);
+		private volatile long deletionTime;
 
 		public boolean await(final long timeout) throws InterruptedException {
 			if (timeout > 0)
@@ -504,8 +514,20 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 			}
 		}
 
+		/**
+		 * Returns the {@link System#nanoTime()} when the deletion was
+		 * notified.
+		 *
+		 * @return the deletion time (only valid after {@link #await(long)}
+		 *         returned <code>true</code>)
+		 */
+		public long getDeletionTime() {
+			return deletionTime;
+		}
+
 		@Override
 		protected void pathDeleted(final String path) {
+			deletionTime = System.nanoTime();
 			deletionHappend.countDown();
 		};
 
@@ -513,6 +535,9 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 
 	private static final String SEPARATOR = "__";
 
+	/** max time to wait for a deletion notification before re-checking */
+	static final long MAX_DELETION_WAIT_TIME = 5000L;
+
 	private static final String LOCK_NAME_PREFIX = "lock-";
 	private static final Logger LOG = LoggerFactory.getLogger(ZooKeeperLock.class);
 
@@ -584,6 +609,11 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 	volatile String myRecoveryKey;
 	volatile String activeLockName;
 
+	private volatile long acquireWaitTime = -1;
+	private volatile long handoffLatency = -1;
+
+	private final AtomicReference<Runnable> killCallback = new AtomicReference<Runnable>();
+
 	/**
 	 * Creates a new lock instance.
 	 * 
@@ -691,6 +721,34 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 		activeLockName = null;
 	}
 
+	private void fireKillCallback() {
+		final Runnable callback = killCallback.getAndSet(null);
+		if (callback != null) {
+			callback.run();
+		}
+	}
+
+	/**
+	 * Returns the time it took to acquire the lock.
+	 * 
+	 * @return the acquire wait time in milliseconds (or <code>-1</code> if
+	 *         not acquired)
+	 */
+	public final long getAcquireWaitTime() {
+		return acquireWaitTime;
+	}
+
+	/**
+	 * Returns the time between the deletion of the preceding lock node and
+	 * the acquisition of this lock.
+	 * 
+	 * @return the handoff latency in milliseconds (or <code>-1</code> if the
+	 *         lock was acquired without waiting for a preceding lock)
+	 */
+	public final long getHandoffLatency() {
+		return handoffLatency;
+	}
+
 	@Override
 	public String getId() {
 		return lockId;
@@ -737,6 +795,12 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 		}
 		details.append(", lockName=").append(myLockName);
 		details.append(", activeLockName=").append(activeLockName);
+		if (acquireWaitTime >= 0) {
+			details.append(", acquireWaitTime=").append(acquireWaitTime).append("ms");
+		}
+		if (handoffLatency >= 0) {
+			details.append(", handoffLatency=").append(handoffLatency).append("ms");
+		}
 		return details.toString();
 	}
 
@@ -804,6 +868,9 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 				execute(new DeleteLockNode());
 			}
 
+			// release callback before notification (listeners may re-acquire)
+			fireKillCallback();
+
 			// sent notification
 			notifyLockReleased(killReason);
 		} catch (final SessionExpiredException e) {
@@ -811,6 +878,9 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 			if (CloudDebug.zooKeeperLockService) {
 				LOG.debug("ZooKeeper session expired. Relying on ZooKeeper server to remove lock node {}/{}", lockNodePath, myLockName);
 			}
+			// release callback before notification (listeners may re-acquire)
+			fireKillCallback();
+
 			// sent notification
 			notifyLockReleased(KillReason.ZOOKEEPER_DISCONNECT);
 		} catch (final Exception e) {
@@ -823,6 +893,9 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 		} finally {
 			// close the service
 			close();
+
+			// notify callback (if not done already)
+			fireKillCallback();
 		}
 	}
 
@@ -867,6 +940,16 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 		}
 	}
 
+	void recordAcquired(final long acquireStartNanos, final long predecessorDeletedNanos) {
+		final long now = System.nanoTime();
+		acquireWaitTime = TimeUnit.NANOSECONDS.toMillis(now - acquireStartNanos);
+		ZooKeeperLockMetrics.getInstance().getAcquireWaitTimeMetric().record(acquireWaitTime);
+		if (predecessorDeletedNanos != 0) {
+			handoffLatency = TimeUnit.NANOSECONDS.toMillis(now - predecessorDeletedNanos);
+			ZooKeeperLockMetrics.getInstance().getHandoffLatencyMetric().record(handoffLatency);
+		}
+	}
+
 	@Override
 	protected void reconnect() {
 		// only process event if this lock was active when suspended
@@ -921,6 +1004,17 @@ public abstract class ZooKeeperLock<T extends IDistributedLock> extends ZooKeepe
 		}
 	}
 
+	/**
+	 * Sets a callback which is invoked after the lock has been killed (i.e.
+	 * released or lost).
+	 * 
+	 * @param killCallback
+	 *            the callback (may be <code>null</code>)
+	 */
+	void setKillCallback(final Runnable killCallback) {
+		this.killCallback.set(killCallback);
+	}
+
 	private boolean shouldDeleteOnKill(final KillReason killReason) {
 		switch (killReason) {
 			case LOCK_DELETED:
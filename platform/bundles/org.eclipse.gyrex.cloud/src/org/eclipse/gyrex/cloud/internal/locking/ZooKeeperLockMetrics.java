@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.internal.locking;
+
+import org.eclipse.gyrex.monitoring.metrics.BaseMetric;
+import org.eclipse.gyrex.monitoring.metrics.CapacityMetric;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
+
+/**
+ * Metrics of the ZooKeeper lock service.
+ */
+public class ZooKeeperLockMetrics extends MetricSet {
+
+	private static final ZooKeeperLockMetrics instance = new ZooKeeperLockMetrics();
+
+	/**
+	 * Returns the shared instance.
+	 * 
+	 * @return the shared instance
+	 */
+	public static ZooKeeperLockMetrics getInstance() {
+		return instance;
+	}
+
+	private final HistogramMetric acquireWaitTimeMetric;
+	private final HistogramMetric handoffLatencyMetric;
+	private final CapacityMetric localLocksMetric;
+	private final HistogramMetric localQueueLengthMetric;
+
+	private ZooKeeperLockMetrics() {
+		super("org.eclipse.gyrex.cloud.locking.metrics", "ZooKeeper lock service metrics", new BaseMetric[] { new HistogramMetric("org.eclipse.gyrex.cloud.locking.acquireWaitTime"), new HistogramMetric("org.eclipse.gyrex.cloud.locking.handoffLatency"), new CapacityMetric("org.eclipse.gyrex.cloud.locking.local", 0), new HistogramMetric("org.eclipse.gyrex.cloud.locking.local.queueLength") });
+		acquireWaitTimeMetric = getMetric(0, HistogramMetric.class);
+		handoffLatencyMetric = getMetric(1, HistogramMetric.class);
+		localLocksMetric = getMetric(2, CapacityMetric.class);
+		localQueueLengthMetric = getMetric(3, HistogramMetric.class);
+	}
+
+	/**
+	 * Returns the metric for the time it took to acquire a lock.
+	 * 
+	 * @return the acquire wait time metric
+	 */
+	public HistogramMetric getAcquireWaitTimeMetric() {
+		return acquireWaitTimeMetric;
+	}
+
+	/**
+	 * Returns the metric for the time between the deletion of a preceding lock
+	 * node and the acquisition of the waiting lock.
+	 * 
+	 * @return the handoff latency metric
+	 */
+	public HistogramMetric getHandoffLatencyMetric() {
+		return handoffLatencyMetric;
+	}
+
+	/**
+	 * Returns the metric for exclusive locks held by this node.
+	 * <p>
+	 * The wait time is the time a thread waited for other threads on this
+	 * node holding the same lock. Denied requests are threads which timed
+	 * out while waiting.
+	 * </p>
+	 * 
+	 * @return the local locks metric
+	 */
+	public CapacityMetric getLocalLocksMetric() {
+		return localLocksMetric;
+	}
+
+	/**
+	 * Returns the metric for the number of threads on this node already
+	 * waiting for the same lock when a thread requests a lock.
+	 * 
+	 * @return the local queue length metric
+	 */
+	public HistogramMetric getLocalQueueLengthMetric() {
+		return localQueueLengthMetric;
+	}
+}
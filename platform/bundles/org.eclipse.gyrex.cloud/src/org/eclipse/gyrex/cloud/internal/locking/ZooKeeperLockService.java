@@ -13,7 +13,12 @@ package org.eclipse.gyrex.cloud.internal.locking;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.gyrex.cloud.internal.NodeInfo;
 import org.eclipse.gyrex.cloud.services.locking.IDurableLock;
@@ -25,11 +30,29 @@ import org.eclipse.core.runtime.IStatus;
 
 /**
  * ZooKeeper based {@link ILockService} implementation.
+ * <p>
+ * Threads of this node competing for the same exclusive lock are queued in a
+ * node-local fair queue first. Thus, at most one lock node per lock and node
+ * is queued in ZooKeeper at any time.
+ * </p>
  */
 public class ZooKeeperLockService implements ILockService {
 
+	/**
+	 * A node-local queue of threads waiting for the same exclusive lock.
+	 */
+	private static final class LocalLockQueue {
+
+		final Semaphore permit = new Semaphore(1, true);
+
+		/** number of threads using this queue (guarded by localLockQueues) */
+		int users;
+	}
+
 	private final NodeInfo nodeInfo;
 
+	private final Map<String, LocalLockQueue> localLockQueues = new HashMap<String, LocalLockQueue>();
+
 	public ZooKeeperLockService(final NodeInfo nodeInfo) {
 		checkArgument(nodeInfo != null, "node info must not be null");
 		this.nodeInfo = nodeInfo;
@@ -42,7 +65,65 @@ public class ZooKeeperLockService implements ILockService {
 
 	@Override
 	public IExclusiveLock acquireExclusiveLock(final String lockId, final ILockMonitor<IExclusiveLock> callback, final long timeout) throws InterruptedException, TimeoutException {
-		return new ExclusiveLockImpl(nodeInfo, lockId, callback).acquire(timeout);
+		final long abortTime = System.currentTimeMillis() + timeout;
+		final ZooKeeperLockMetrics metrics = ZooKeeperLockMetrics.getInstance();
+
+		// wait for other threads of this node holding the lock
+		final LocalLockQueue queue = openLocalLockQueue(lockId);
+		final long waitStart = System.currentTimeMillis();
+		try {
+			metrics.getLocalQueueLengthMetric().record(queue.permit.getQueueLength());
+			if (timeout > 0) {
+				if (!queue.permit.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+					metrics.getLocalLocksMetric().channelDenied();
+					throw new TimeoutException(String.format("Unable to acquire lock %s within the given timeout. The lock is held by another thread of this node.", lockId));
+				}
+			} else {
+				queue.permit.acquire();
+			}
+		} catch (InterruptedException | TimeoutException | RuntimeException e) {
+			closeLocalLockQueue(lockId, queue);
+			throw e;
+		}
+		metrics.getLocalLocksMetric().channelStarted(System.currentTimeMillis() - waitStart);
+
+		// release the local queue once the lock is gone
+		final AtomicBoolean released = new AtomicBoolean();
+		final Runnable releaseLocal = new Runnable() {
+			@Override
+			public void run() {
+				if (released.compareAndSet(false, true)) {
+					metrics.getLocalLocksMetric().channelFinished();
+					queue.permit.release();
+					closeLocalLockQueue(lockId, queue);
+				}
+			}
+		};
+
+		// acquire the lock in ZooKeeper
+		boolean acquired = false;
+		try {
+			final long remainingTimeout = timeout > 0 ? abortTime - System.currentTimeMillis() : timeout;
+			if ((timeout > 0) && (remainingTimeout <= 0))
+				throw new TimeoutException(String.format("Unable to acquire lock %s within the given timeout.", lockId));
+			final ExclusiveLockImpl lock = new ExclusiveLockImpl(nodeInfo, lockId, callback);
+			lock.setKillCallback(releaseLocal);
+			final IExclusiveLock result = lock.acquire(remainingTimeout);
+			acquired = true;
+			return result;
+		} finally {
+			if (!acquired) {
+				releaseLocal.run();
+			}
+		}
+	}
+
+	private void closeLocalLockQueue(final String lockId, final LocalLockQueue queue) {
+		synchronized (localLockQueues) {
+			if (--queue.users == 0) {
+				localLockQueues.remove(lockId);
+			}
+		}
 	}
 
 	@Override
@@ -55,6 +136,18 @@ public class ZooKeeperLockService implements ILockService {
 		return new ExclusiveLockImpl(nodeInfo, lockId, null).getStatus();
 	}
 
+	private LocalLockQueue openLocalLockQueue(final String lockId) {
+		synchronized (localLockQueues) {
+			LocalLockQueue queue = localLockQueues.get(lockId);
+			if (queue == null) {
+				queue = new LocalLockQueue();
+				localLockQueues.put(lockId, queue);
+			}
+			queue.users++;
+			return queue;
+		}
+	}
+
 	@Override
 	public IDurableLock recoverDurableLock(final String lockId, final ILockMonitor<IDurableLock> callback, final String recoveryKey) throws IllegalArgumentException {
 		return new DurableLockImpl(nodeInfo, lockId, callback).recover(recoveryKey);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2010, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -11,27 +11,25 @@
  *******************************************************************************/
 package org.eclipse.gyrex.cloud.internal.preferences;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.gyrex.cloud.internal.CloudDebug;
+import org.eclipse.gyrex.cloud.internal.preferences.ZooKeeperPreferencesService.RemoteNodeData;
 import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
 
 import org.eclipse.core.runtime.IPath;
@@ -46,6 +44,13 @@ import org.osgi.service.prefs.Preferences;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang.CharEncoding;
 import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.BadVersionException;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.OpResult;
+import org.apache.zookeeper.OpResult.SetDataResult;
+import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.data.Stat;
 
 import org.slf4j.Logger;
@@ -56,26 +61,47 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 
-	private static final class SortedProperties extends Properties {
-		private static final long serialVersionUID = 1L;
+	/**
+	 * A change collected for a multi-operation flush (see
+	 * {@link ZooKeeperBasedPreferences#saveTree()}).
+	 */
+	private static final class TreeChange {
 
-		@Override
-		public synchronized Enumeration<Object> keys() {
-			return Collections.enumeration(keySet());
-		}
+		/** the node written (or the parent of the removed child) */
+		final ZooKeeperBasedPreferences node;
+
+		/** the removed child (<code>null</code> if properties are written) */
+		final ZooKeeperBasedPreferences removedChild;
+
+		/** the operations to execute */
+		final List<Op> ops;
 
-		@Override
-		public Set<Object> keySet() {
-			return new TreeSet<Object>(super.keySet());
+		/** the properties written (<code>null</code> if a child is removed) */
+		final Properties savedProperties;
+
+		/** the estimated number of bytes sent to ZooKeeper */
+		final int size;
+
+		TreeChange(final ZooKeeperBasedPreferences node, final ZooKeeperBasedPreferences removedChild, final List<Op> ops, final Properties savedProperties, final int size) {
+			this.node = node;
+			this.removedChild = removedChild;
+			this.ops = ops;
+			this.savedProperties = savedProperties;
+			this.size = size;
 		}
 	}
 
 	private static final long RELOAD_AGE = Long.getLong("gyrex.preferences.reloadAfter", 3000L);
 
-	private static final Logger LOG = LoggerFactory.getLogger(ZooKeeperBasedPreferences.class);
+	/** flush trees using ZooKeeper multi-operations (unless disabled) */
+	private static final boolean MULTI_OPERATION_FLUSH = !Boolean.getBoolean("gyrex.preferences.flushNodeByNode");
+	private static final int MULTI_OPERATION_FLUSH_MAX_OPS = Integer.getInteger("gyrex.preferences.flushMaxOperations", 500);
+	private static final int MULTI_OPERATION_FLUSH_MAX_BYTES = Integer.getInteger("gyrex.preferences.flushMaxBytes", 512 * 1024);
 
-	private static final String VERSION_KEY = "gyrex.preferences.version"; //$NON-NLS-1$
-	private static final String VERSION_VALUE = "1"; //$NON-NLS-1$
+	/** maximum number of nodes read from ZooKeeper at once during sync */
+	private static final int SYNC_MAX_BATCH_SIZE = Integer.getInteger("gyrex.preferences.syncMaxBatchSize", 500);
+
+	private static final Logger LOG = LoggerFactory.getLogger(ZooKeeperBasedPreferences.class);
 
 	private static final String[] EMPTY_NAMES_ARRAY = new String[0];
 	private static final String PATH_SEPARATOR = String.valueOf(IPath.SEPARATOR);
@@ -109,6 +135,12 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 	/** indicates if the node has been removed */
 	volatile boolean removed;
 
+	/** indicates if properties have been modified locally since the last flush */
+	volatile boolean propertiesModified;
+
+	/** the properties last loaded from or written to ZooKeeper */
+	private Properties savedProperties; // guarded by propertiesModificationLock
+
 	/** ZooKeeper version of the properties object */
 	volatile int propertiesVersion = -1;
 
@@ -267,6 +299,72 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 		}
 	}
 
+	/**
+	 * Collects the changes of this node and all its children for
+	 * {@link #saveTree()}.
+	 * <p>
+	 * The {@link #childrenModifyLock} and the
+	 * {@link #propertiesModificationLock} of every visited node will be
+	 * acquired. The node is added to the specified list of locked nodes and
+	 * the caller must release the locks when done.
+	 * </p>
+	 * 
+	 * @param changes
+	 *            the list to add the changes to
+	 * @param lockedNodes
+	 *            the list to add the locked nodes to
+	 * @throws Exception
+	 */
+	private void collectTreeChanges(final List<TreeChange> changes, final List<ZooKeeperBasedPreferences> lockedNodes) throws Exception {
+		// don't do anything if removed or inactive
+		if (removed || !service.isActive(this)) {
+			return;
+		}
+
+		// a node without version was either never flushed or never loaded
+		// (we must load it in order to know if it exists in ZooKeeper)
+		if (propertiesVersion < 0) {
+			ensureLoaded();
+		}
+
+		// prevent concurrent modifications (will be released by #saveTree)
+		childrenModifyLock.lock();
+		propertiesModificationLock.lock();
+		lockedNodes.add(this);
+
+		if (removed) {
+			return;
+		}
+
+		// write properties only if they have been modified locally or the node does not exist in ZooKeeper
+		if ((propertiesVersion < 0) || propertiesModified) {
+			// compare properties (records may differ, eg. legacy records contain a date)
+			if ((propertiesVersion > -1) && properties.equals(savedProperties)) {
+				// modifications have been reverted
+				propertiesModified = false;
+			} else {
+				final byte[] bytes = ZooKeeperPreferencesFormat.encode(properties);
+				final Op op = propertiesVersion < 0 ? Op.create(zkPath, bytes, ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT) : Op.setData(zkPath, bytes, propertiesVersion);
+				changes.add(new TreeChange(this, null, Collections.singletonList(op), (Properties) properties.clone(), zkPath.length() + bytes.length));
+			}
+		}
+
+		// initialize children version (see #flush)
+		childrenVersion = Math.max(0, childrenVersion);
+
+		// remove children marked for removal
+		for (final ZooKeeperBasedPreferences child : pendingChildRemovals.values()) {
+			final List<Op> ops = new ArrayList<Op>();
+			service.readRemoveOperations(child.zkPath, child.propertiesVersion, child.childrenVersion, ops);
+			changes.add(new TreeChange(this, child, ops, null, ops.size() * child.zkPath.length()));
+		}
+
+		// collect children
+		for (final ZooKeeperBasedPreferences child : children.values()) {
+			child.collectTreeChanges(changes, lockedNodes);
+		}
+	}
+
 	protected BackingStoreException createBackingStoreException(final String action, final Exception cause) {
 		return new BackingStoreException(String.format("Error %s (node %s). %s", action, absolutePath(), null != cause.getMessage() ? cause.getMessage() : ExceptionUtils.getMessage(cause)), cause);
 	}
@@ -348,6 +446,7 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 				}
 				return;
 			}
+			propertiesModified = true;
 		} finally {
 			propertiesModificationLock.unlock();
 		}
@@ -496,6 +595,19 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 
 	@Override
 	public void flush() throws BackingStoreException {
+		flush(MULTI_OPERATION_FLUSH);
+	}
+
+	/**
+	 * Implements {@link #flush()}.
+	 * 
+	 * @param multiOperation
+	 *            <code>true</code> if the tree should be saved using ZooKeeper
+	 *            multi-operations, <code>false</code> if it should be saved
+	 *            node by node
+	 * @throws BackingStoreException
+	 */
+	private void flush(final boolean multiOperation) throws BackingStoreException {
 		if (CloudDebug.zooKeeperPreferences) {
 			LOG.debug("Flushing node {} (version {}, cversion {})", new Object[] { this, propertiesVersion, childrenVersion });
 		}
@@ -511,26 +623,30 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 		try {
 			checkRemoved();
 
-			// prevent concurrent property modification (eg. remote _and_ local flush)
-			propertiesModificationLock.lock();
-			try {
-				checkRemoved();
+			// save the whole tree in as few ZooKeeper transactions as possible
+			// (falls back to saving node by node if ZooKeeper rejects the transaction)
+			if (!multiOperation || !saveTree()) {
+				// prevent concurrent property modification (eg. remote _and_ local flush)
+				propertiesModificationLock.lock();
+				try {
+					checkRemoved();
 
-				// save properties
-				saveProperties();
-			} finally {
-				propertiesModificationLock.unlock();
-			}
+					// save properties
+					saveProperties();
+				} finally {
+					propertiesModificationLock.unlock();
+				}
 
-			// initialize children version
-			// (this is required in order to work around a concurrency issue in ZooKeeper;
-			// when saving properties the node might be created; in this case the cversion start
-			// with 0; this conflicts with our loadChildren logic which)
-			// TODO: we may be able to solve this when upgrading to ZooKeeper 3.4 and implementing multi-operations
-			childrenVersion = Math.max(0, childrenVersion);
+				// initialize children version
+				// (this is required in order to work around a concurrency issue in ZooKeeper;
+				// when saving properties the node might be created; in this case the cversion start
+				// with 0; this conflicts with our loadChildren logic which)
+				// note, this is not an issue with #saveTree which creates the whole tree in one transaction
+				childrenVersion = Math.max(0, childrenVersion);
 
-			// save children
-			saveChildren();
+				// save children
+				saveChildren();
+			}
 		} catch (final Exception e) {
 			// re-throw any exception as BackingStoreException
 			throw createBackingStoreException("flushing node", e);
@@ -806,23 +922,21 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 
 			// load remote properties
 			// (note, can be null if there is a node in ZooKeeper but without data)
-			final Properties loadedProps = new Properties();
-			if (remotePropertyBytes != null) {
-				loadedProps.load(new ByteArrayInputStream(remotePropertyBytes));
-
-				// check version
-				final Object formatVersion = loadedProps.remove(VERSION_KEY);
-				if ((formatVersion == null) || !VERSION_VALUE.equals(formatVersion)) {
-					// ignore for now
-					LOG.warn("Properties with incompatible storage format version ({}) found for node {}.", formatVersion, this);
-					return;
-				}
+			final Properties loadedProps = ZooKeeperPreferencesFormat.decode(remotePropertyBytes);
+			if (loadedProps == null) {
+				// ignore for now
+				LOG.warn("Properties with incompatible storage format version found for node {}.", this);
+				return;
 			}
 
 			// update properties version (after they were de-serialized successfully)
 			this.propertiesVersion = propertiesVersion;
+			savedProperties = loadedProps;
 			propertiesLoadTimestamp = System.currentTimeMillis();
 
+			// any local modification is replaced below
+			propertiesModified = false;
+
 			// collect all property names
 			final Set<String> propertyNames = new HashSet<String>();
 			propertyNames.addAll(loadedProps.stringPropertyNames());
@@ -1031,6 +1145,7 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 				}
 				return;
 			}
+			propertiesModified = true;
 		} finally {
 			propertiesModificationLock.unlock();
 		}
@@ -1245,7 +1360,7 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 
 			// recursively flush children (which will create any new path in ZooKeeper)
 			for (final ZooKeeperBasedPreferences child : children.values()) {
-				child.flush();
+				child.flush(false);
 			}
 
 			// remove children marked for removal
@@ -1286,23 +1401,23 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 				return;
 			}
 
-			// collect properties to save
-			final Properties toSave = new SortedProperties();
-			for (final String key : properties.stringPropertyNames()) {
-				final String value = properties.getProperty(key);
-				if (value != null) {
-					toSave.put(key, value);
-				}
+			// nothing to save if the node exists in ZooKeeper and wasn't modified locally
+			if ((propertiesVersion > -1) && !propertiesModified) {
+				return;
 			}
-			toSave.put(VERSION_KEY, VERSION_VALUE);
 
-			// convert to bytes
-			final ByteArrayOutputStream out = new ByteArrayOutputStream();
-			toSave.store(out, null);
+			// nothing to save if modifications have been reverted
+			if ((propertiesVersion > -1) && properties.equals(savedProperties)) {
+				propertiesModified = false;
+				return;
+			}
 
 			// save record data
 			// (note, we do it within the lock in order to get proper stats/version info)
-			propertiesVersion = service.writeProperties(zkPath, out.toByteArray(), propertiesVersion);
+			final byte[] bytes = ZooKeeperPreferencesFormat.encode(properties);
+			propertiesVersion = service.writeProperties(zkPath, bytes, propertiesVersion);
+			savedProperties = (Properties) properties.clone();
+			propertiesModified = false;
 			propertiesLoadTimestamp = System.currentTimeMillis();
 
 			if (CloudDebug.zooKeeperPreferences) {
@@ -1313,6 +1428,113 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 		}
 	}
 
+	/**
+	 * Saves this node and all its children using ZooKeeper multi-operations.
+	 * <p>
+	 * The changes of the whole tree are collected and written in as few
+	 * transactions as possible (usually one) instead of writing node by node.
+	 * Only properties of nodes which have been modified locally or which do not
+	 * exist in ZooKeeper are written. Children removed locally are deleted
+	 * within the same transaction. All writes carry the expected version so
+	 * that concurrent remote modifications let the transaction fail.
+	 * </p>
+	 * <p>
+	 * The locks of all nodes in the tree are held until the transactions
+	 * finished.
+	 * </p>
+	 * 
+	 * @return <code>true</code> if the tree was saved, <code>false</code> if
+	 *         ZooKeeper rejected a transaction (eg. because a node was created
+	 *         concurrently) and the tree must be saved node by node
+	 * @throws Exception
+	 */
+	private boolean saveTree() throws Exception {
+		if (CloudDebug.zooKeeperPreferences) {
+			LOG.debug("Saving tree of node {} (version {}, cversion {})", new Object[] { this, propertiesVersion, childrenVersion });
+		}
+
+		final List<ZooKeeperBasedPreferences> lockedNodes = new ArrayList<ZooKeeperBasedPreferences>();
+		try {
+			// collect changes
+			final List<TreeChange> changes = new ArrayList<TreeChange>();
+			collectTreeChanges(changes, lockedNodes);
+
+			// the parents of this node must exist before it can be created
+			String createParentsOf = propertiesVersion < 0 ? zkPath : null;
+
+			int transactions = 0;
+			int next = 0;
+			while (next < changes.size()) {
+				// fill a transaction
+				// (note, the changes of a single node are never split across transactions)
+				final List<Op> ops = new ArrayList<Op>();
+				int size = 0;
+				int end = next;
+				while (end < changes.size()) {
+					final TreeChange change = changes.get(end);
+					if ((end > next) && (((ops.size() + change.ops.size()) > MULTI_OPERATION_FLUSH_MAX_OPS) || ((size + change.size) > MULTI_OPERATION_FLUSH_MAX_BYTES))) {
+						break;
+					}
+					ops.addAll(change.ops);
+					size += change.size;
+					end++;
+				}
+
+				// write
+				final List<OpResult> results;
+				if (ops.isEmpty()) {
+					results = Collections.emptyList();
+				} else {
+					try {
+						results = service.writeTree(ops, createParentsOf);
+						transactions++;
+					} catch (final BadVersionException e) {
+						// concurrent modification (this would fail node by node as well)
+						throw e;
+					} catch (final KeeperException e) {
+						// eg., a node was created or a child was added concurrently
+						// (retry node by node, which is able to handle that)
+						if (CloudDebug.zooKeeperPreferences) {
+							LOG.debug("Unable to save tree of node {} in a single transaction. Saving node by node. ({})", this, ExceptionUtils.getRootCauseMessage(e));
+						}
+						return false;
+					}
+					createParentsOf = null;
+				}
+
+				// update nodes
+				int resultIndex = 0;
+				for (int i = next; i < end; i++) {
+					final TreeChange change = changes.get(i);
+					if (null == change.removedChild) {
+						// a created node starts with version 0 (see ZooKeeperPreferencesService.WriteProperties)
+						final OpResult result = results.get(resultIndex);
+						change.node.propertiesVersion = result instanceof SetDataResult ? ((SetDataResult) result).getStat().getVersion() : 0;
+						change.node.savedProperties = change.savedProperties;
+						change.node.propertiesModified = false;
+						change.node.propertiesLoadTimestamp = System.currentTimeMillis();
+					} else if (change.node.pendingChildRemovals.get(change.removedChild.name()) == change.removedChild) {
+						change.node.pendingChildRemovals.remove(change.removedChild.name());
+					}
+					resultIndex += change.ops.size();
+				}
+				next = end;
+			}
+
+			if (CloudDebug.zooKeeperPreferences) {
+				LOG.debug("Saved tree of node {} ({} changes in {} transactions)", new Object[] { this, changes.size(), transactions });
+			}
+			return true;
+		} finally {
+			// release locks in reverse order
+			for (int i = lockedNodes.size() - 1; i >= 0; i--) {
+				final ZooKeeperBasedPreferences node = lockedNodes.get(i);
+				node.propertiesModificationLock.unlock();
+				node.childrenModifyLock.unlock();
+			}
+		}
+	}
+
 	/**
 	 * Indicates if the node should been loaded.
 	 * <p>
@@ -1358,6 +1580,12 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 	 * It's called by {@link #sync()} in order to sync the whole tree first
 	 * before flushing any content.
 	 * </p>
+	 * <p>
+	 * The tree is walked breadth-first. The properties and children of all
+	 * nodes of a level are read from ZooKeeper at once using asynchronous
+	 * operations pipelined over the ZooKeeper session. The results are then
+	 * applied to each node while holding only the locks of that node.
+	 * </p>
 	 * 
 	 * @throws BackingStoreException
 	 */
@@ -1368,50 +1596,113 @@ public abstract class ZooKeeperBasedPreferences implements IEclipsePreferences {
 
 		// check connection
 		ensureLoaded();
+		checkRemoved();
 
-		// prevent concurrent children modification (eg. remote _and_ local flush)
-		childrenModifyLock.lock();
-		try {
-			checkRemoved();
+		final long start = System.nanoTime();
+		int syncedNodes = 0;
 
-			// prevent concurrent property modification (eg. remote _and_ local flush)
-			propertiesModificationLock.lock();
-			try {
-				checkRemoved();
+		// walk the tree breadth-first; all nodes of a level are read from ZooKeeper
+		// at once and the results are applied node by node using short per-node locks
+		List<ZooKeeperBasedPreferences> level = Collections.singletonList(this);
+		while (!level.isEmpty()) {
+			final List<ZooKeeperBasedPreferences> nextLevel = new ArrayList<ZooKeeperBasedPreferences>();
+			for (int i = 0; i < level.size(); i += SYNC_MAX_BATCH_SIZE) {
+				final List<RemoteNodeData> remoteNodes;
+				try {
+					remoteNodes = service.readNodes(level.subList(i, Math.min(level.size(), i + SYNC_MAX_BATCH_SIZE)));
+				} catch (final Exception e) {
+					// throw
+					throw createBackingStoreException("refreshing node data", e);
+				}
 
-				// check that the node exists in ZooKeeper, i.e. was flushed at least once
-				if (propertiesVersion == -1) {
-					final Stat versionInfo = service.getVersionInfo(zkPath);
-					if (null == versionInfo) {
-						// this is a new node, it was never flushed so there is no way we can refresh properties and children
-						if (CloudDebug.zooKeeperPreferences) {
-							LOG.debug("Sync aborted for node {} (version {}, cversion {}): it was never flushed and does not exists in ZooKeeper.", new Object[] { this, propertiesVersion, childrenVersion });
-						}
-						return;
+				for (final RemoteNodeData remoteNode : remoteNodes) {
+					if (remoteNode.node.syncWith(remoteNode)) {
+						nextLevel.addAll(remoteNode.node.children.values());
 					}
 				}
+				syncedNodes += remoteNodes.size();
+			}
+			level = nextLevel;
+		}
 
-				// refresh properties & children (override any local changes)
-				service.refreshProperties(zkPath, true);
-				service.refreshChildren(zkPath, true);
-			} catch (final Exception e) {
-				// throw
-				throw createBackingStoreException("refreshing node data", e);
+		final ZooKeeperPreferencesMetrics metrics = ZooKeeperPreferencesMetrics.getInstance();
+		metrics.getSyncTimeMetric().record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		metrics.getSyncTreeSizeMetric().record(syncedNodes);
+
+		if (CloudDebug.zooKeeperPreferences) {
+			LOG.debug("Synced node {} (version {}, cversion {}, {} nodes)", new Object[] { this, propertiesVersion, childrenVersion, syncedNodes });
+		}
+	}
+
+	/**
+	 * Applies data read from ZooKeeper during {@link #syncTree()}.
+	 * <p>
+	 * Any local changes will be overridden with what is in ZooKeeper. However,
+	 * data will not be applied if a newer version was loaded or flushed
+	 * concurrently.
+	 * </p>
+	 * 
+	 * @param remoteNode
+	 *            the data read from ZooKeeper
+	 * @return <code>true</code> if the children of the node need to be synced
+	 *         as well, <code>false</code> otherwise
+	 * @throws BackingStoreException
+	 */
+	private boolean syncWith(final RemoteNodeData remoteNode) throws BackingStoreException {
+		// ignore nodes removed concurrently
+		if (removed || !service.isActive(this))
+			return false;
+
+		if (!remoteNode.exists) {
+			if (propertiesVersion == -1) {
+				// this is a new node, it was never flushed so there is no way we can refresh properties and children
+				if (CloudDebug.zooKeeperPreferences) {
+					LOG.debug("Sync aborted for node {} (version {}, cversion {}): it was never flushed and does not exists in ZooKeeper.", new Object[] { this, propertiesVersion, childrenVersion });
+				}
+				return false;
+			}
+
+			if (CloudDebug.zooKeeperPreferences) {
+				LOG.debug("Node {} (version {}, cversion {}) does not exist in ZooKeeper. Removing node.", new Object[] { this, propertiesVersion, childrenVersion });
+			}
+
+			// the node was removed remotely, thus we need to remove it locally
+			// note, we do it the long way in order to trigger proper events
+			try {
+				removeNode(true);
+			} catch (final Exception ignored) {
+				// assume the node is removed anyway
+				service.deactivateNode(this);
+			}
+			return false;
+		}
+
+		try {
+			// prevent concurrent property modification (eg. remote _and_ local flush)
+			propertiesModificationLock.lock();
+			try {
+				if (remoteNode.propertiesStat.getVersion() >= propertiesVersion) {
+					loadProperties(remoteNode.propertyBytes, remoteNode.propertiesStat.getVersion());
+				}
 			} finally {
 				propertiesModificationLock.unlock();
 			}
 
-			// sync children
-			for (final ZooKeeperBasedPreferences child : children.values()) {
-				child.syncTree();
+			// prevent concurrent children modification (eg. remote _and_ local flush)
+			childrenModifyLock.lock();
+			try {
+				if (remoteNode.childrenStat.getCversion() >= childrenVersion) {
+					loadChildren(remoteNode.childrenNames, remoteNode.childrenStat.getCversion());
+				}
+			} finally {
+				childrenModifyLock.unlock();
 			}
-		} finally {
-			childrenModifyLock.unlock();
+		} catch (final Exception e) {
+			// throw
+			throw createBackingStoreException("refreshing node data", e);
 		}
 
-		if (CloudDebug.zooKeeperPreferences) {
-			LOG.debug("Synced node {} (version {}, cversion {})", new Object[] { this, propertiesVersion, childrenVersion });
-		}
+		return !removed;
 	}
 
 	/**
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.internal.preferences;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The format of preference node records stored in ZooKeeper.
+ * <p>
+ * By default, records are written using {@link Properties#store} like earlier
+ * versions did. They always start with a comment. Thus, nodes running earlier
+ * versions can still read them.
+ * </p>
+ * <p>
+ * Once all nodes of a cloud are able to read it, a compact binary format can
+ * be enabled using system property <code>gyrex.preferences.binaryFormat</code>.
+ * The first byte is always <code>0</code> followed by the format version.
+ * Next is the number of properties followed by all properties sorted by key.
+ * Keys and values are written as UTF-8 bytes prefixed with their length. All
+ * numbers are encoded as variable-length integers (7 bits per byte, least
+ * significant group first).
+ * </p>
+ * <p>
+ * Both formats are always supported when reading.
+ * </p>
+ */
+public class ZooKeeperPreferencesFormat {
+
+	private static final class SortedProperties extends Properties {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public synchronized Enumeration<Object> keys() {
+			return Collections.enumeration(keySet());
+		}
+
+		@Override
+		public Set<Object> keySet() {
+			return new TreeSet<Object>(super.keySet());
+		}
+	}
+
+	private static final boolean WRITE_BINARY_FORMAT = Boolean.getBoolean("gyrex.preferences.binaryFormat");
+
+	private static final byte BINARY_MARKER = 0;
+	private static final byte BINARY_VERSION = 2;
+
+	private static final String LEGACY_VERSION_KEY = "gyrex.preferences.version"; //$NON-NLS-1$
+	private static final String LEGACY_VERSION_VALUE = "1"; //$NON-NLS-1$
+
+	/**
+	 * Reads the properties from the specified record.
+	 * 
+	 * @param record
+	 *            the record bytes (may be <code>null</code> if there is a node
+	 *            in ZooKeeper but without data)
+	 * @return the properties (maybe <code>null</code> if the record was
+	 *         written in an unsupported format version)
+	 * @throws IOException
+	 *             if the record is corrupt
+	 */
+	public static Properties decode(final byte[] record) throws IOException {
+		if (record == null)
+			return new Properties();
+
+		if ((record.length == 0) || (record[0] != BINARY_MARKER))
+			return decodeLegacy(record);
+
+		try {
+			final ByteBuffer buffer = ByteBuffer.wrap(record);
+			buffer.get(); // marker
+			if (buffer.get() != BINARY_VERSION)
+				return null;
+
+			final Properties properties = new Properties();
+			for (int i = readVarInt(buffer); i > 0; i--) {
+				final String key = readString(buffer);
+				properties.put(key, readString(buffer));
+			}
+			if (buffer.hasRemaining())
+				throw new IOException(String.format("corrupt record: %d unexpected bytes", buffer.remaining()));
+			return properties;
+		} catch (final BufferUnderflowException e) {
+			throw new IOException("corrupt record: unexpected end of data", e);
+		}
+	}
+
+	private static Properties decodeLegacy(final byte[] record) throws IOException {
+		final Properties properties = new Properties();
+		properties.load(new ByteArrayInputStream(record));
+
+		// check version
+		final Object formatVersion = properties.remove(LEGACY_VERSION_KEY);
+		if ((formatVersion == null) || !LEGACY_VERSION_VALUE.equals(formatVersion))
+			return null;
+
+		return properties;
+	}
+
+	/**
+	 * Writes the specified properties into a record using the configured
+	 * format.
+	 * 
+	 * @param properties
+	 *            the properties to write
+	 * @return the record bytes
+	 * @throws IOException
+	 * @see #encodeBinary(Properties)
+	 * @see #encodeLegacy(Properties)
+	 */
+	public static byte[] encode(final Properties properties) throws IOException {
+		if (WRITE_BINARY_FORMAT)
+			return encodeBinary(properties);
+		return encodeLegacy(properties);
+	}
+
+	/**
+	 * Writes the specified properties into a record using the binary format.
+	 * <p>
+	 * The record is deterministic, i.e. the same properties always result in
+	 * the same bytes.
+	 * </p>
+	 * 
+	 * @param properties
+	 *            the properties to write
+	 * @return the record bytes
+	 * @throws IOException
+	 */
+	public static byte[] encodeBinary(final Properties properties) throws IOException {
+		// collect & sort keys
+		final String[] keys = properties.stringPropertyNames().toArray(new String[0]);
+		Arrays.sort(keys);
+
+		// convert to bytes
+		final byte[][] strings = new byte[keys.length * 2][];
+		int size = 2 + getVarIntSize(keys.length);
+		for (int i = 0; i < keys.length; i++) {
+			strings[2 * i] = keys[i].getBytes(StandardCharsets.UTF_8);
+			strings[(2 * i) + 1] = properties.getProperty(keys[i]).getBytes(StandardCharsets.UTF_8);
+			size += getVarIntSize(strings[2 * i].length) + strings[2 * i].length;
+			size += getVarIntSize(strings[(2 * i) + 1].length) + strings[(2 * i) + 1].length;
+		}
+
+		// write record
+		final ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.put(BINARY_MARKER);
+		buffer.put(BINARY_VERSION);
+		writeVarInt(buffer, keys.length);
+		for (final byte[] string : strings) {
+			writeVarInt(buffer, string.length);
+			buffer.put(string);
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Writes the specified properties into a record using the format written
+	 * by earlier versions.
+	 * <p>
+	 * Note, the record contains the current date as a comment, i.e. the same
+	 * properties don't always result in the same bytes.
+	 * </p>
+	 * 
+	 * @param properties
+	 *            the properties to write
+	 * @return the record bytes
+	 * @throws IOException
+	 */
+	public static byte[] encodeLegacy(final Properties properties) throws IOException {
+		// collect properties to save
+		final Properties toSave = new SortedProperties();
+		for (final String key : properties.stringPropertyNames()) {
+			final String value = properties.getProperty(key);
+			if (value != null) {
+				toSave.put(key, value);
+			}
+		}
+		toSave.put(LEGACY_VERSION_KEY, LEGACY_VERSION_VALUE);
+
+		// convert to bytes
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		toSave.store(out, null);
+		return out.toByteArray();
+	}
+
+	private static int getVarIntSize(final int value) {
+		int remaining = value;
+		int size = 1;
+		while ((remaining & ~0x7F) != 0) {
+			remaining >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+	private static String readString(final ByteBuffer buffer) throws IOException {
+		final int length = readVarInt(buffer);
+		if (length > buffer.remaining())
+			throw new IOException(String.format("corrupt record: string length %d exceeds remaining %d bytes", length, buffer.remaining()));
+		final String string = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return string;
+	}
+
+	private static int readVarInt(final ByteBuffer buffer) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (value < 0)
+					throw new IOException("corrupt record: negative length");
+				return value;
+			}
+		}
+		throw new IOException("corrupt record: invalid length");
+	}
+
+	private static void writeVarInt(final ByteBuffer buffer, final int value) {
+		int remaining = value;
+		while ((remaining & ~0x7F) != 0) {
+			buffer.put((byte) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		buffer.put((byte) remaining);
+	}
+
+	private ZooKeeperPreferencesFormat() {
+		// empty
+	}
+}
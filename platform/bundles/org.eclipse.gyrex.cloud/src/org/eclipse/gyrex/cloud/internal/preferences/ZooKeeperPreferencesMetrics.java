@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.internal.preferences;
+
+import org.eclipse.gyrex.monitoring.metrics.BaseMetric;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
+
+/**
+ * Metrics of the ZooKeeper based preferences.
+ */
+public class ZooKeeperPreferencesMetrics extends MetricSet {
+
+	private static final ZooKeeperPreferencesMetrics instance = new ZooKeeperPreferencesMetrics();
+
+	/**
+	 * Returns the shared instance.
+	 * 
+	 * @return the shared instance
+	 */
+	public static ZooKeeperPreferencesMetrics getInstance() {
+		return instance;
+	}
+
+	private final HistogramMetric syncTimeMetric;
+	private final HistogramMetric syncTreeSizeMetric;
+
+	private ZooKeeperPreferencesMetrics() {
+		super("org.eclipse.gyrex.cloud.preferences.metrics", "ZooKeeper preferences metrics", new BaseMetric[] { new HistogramMetric("org.eclipse.gyrex.cloud.preferences.syncTime"), new HistogramMetric("org.eclipse.gyrex.cloud.preferences.syncTreeSize") });
+		syncTimeMetric = getMetric(0, HistogramMetric.class);
+		syncTreeSizeMetric = getMetric(1, HistogramMetric.class);
+	}
+
+	/**
+	 * Returns the metric for the time it took to sync a preference node
+	 * including all its children with ZooKeeper.
+	 * 
+	 * @return the sync time metric
+	 */
+	public HistogramMetric getSyncTimeMetric() {
+		return syncTimeMetric;
+	}
+
+	/**
+	 * Returns the metric for the number of preference nodes refreshed from
+	 * ZooKeeper during a sync.
+	 * 
+	 * @return the sync tree size metric
+	 */
+	public HistogramMetric getSyncTreeSizeMetric() {
+		return syncTreeSizeMetric;
+	}
+}
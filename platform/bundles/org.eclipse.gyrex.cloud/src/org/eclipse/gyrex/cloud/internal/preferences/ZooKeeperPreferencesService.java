@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -11,11 +11,14 @@
  *******************************************************************************/
 package org.eclipse.gyrex.cloud.internal.preferences;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
@@ -23,6 +26,8 @@ import java.util.concurrent.TimeUnit;
 
 import org.eclipse.gyrex.cloud.internal.CloudDebug;
 import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGateCallable;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperHelper;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperMonitor;
 import org.eclipse.gyrex.cloud.services.zookeeper.ZooKeeperBasedService;
@@ -40,6 +45,8 @@ import org.apache.zookeeper.KeeperException.NodeExistsException;
 import org.apache.zookeeper.KeeperException.OperationTimeoutException;
 import org.apache.zookeeper.KeeperException.SessionExpiredException;
 import org.apache.zookeeper.KeeperException.SessionMovedException;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.OpResult;
 import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.ZooKeeper;
 import org.apache.zookeeper.data.Stat;
@@ -374,6 +381,98 @@ public class ZooKeeperPreferencesService extends ZooKeeperBasedService {
 
 	}
 
+	/**
+	 * Callable implementation for
+	 * {@link ZooKeeperPreferencesService#readNodes(Collection)}.
+	 * 
+	 * @see ZooKeeperPreferencesService#readNodes(Collection)
+	 */
+	private final class ReadNodes extends ZooKeeperGateCallable<List<RemoteNodeData>> {
+
+		private final Collection<ZooKeeperBasedPreferences> nodes;
+
+		/**
+		 * Creates a new instance.
+		 * 
+		 * @param nodes
+		 */
+		private ReadNodes(final Collection<ZooKeeperBasedPreferences> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		protected List<RemoteNodeData> call(final ZooKeeperGate gate) throws Exception {
+			checkClosed();
+
+			// issue all reads at once (pipelined over the session)
+			// note, a new list is created for every call so that a retry starts from scratch
+			final List<RemoteNodeData> remoteNodes = new ArrayList<RemoteNodeData>(nodes.size());
+			for (final ZooKeeperBasedPreferences node : nodes) {
+				final RemoteNodeData remoteNode = new RemoteNodeData(node);
+				final IPath path = new Path(node.zkPath);
+				remoteNode.propertiesFuture = gate.readRecordAsync(path, monitor, remoteNode.propertiesStat);
+				remoteNode.childrenFuture = gate.readChildrenNamesAsync(path, monitor, remoteNode.childrenStat);
+				remoteNodes.add(remoteNode);
+			}
+
+			// wait for all results
+			for (final RemoteNodeData remoteNode : remoteNodes) {
+				try {
+					remoteNode.propertyBytes = ZooKeeperHelper.getResult(remoteNode.propertiesFuture);
+					remoteNode.childrenNames = ZooKeeperHelper.getResult(remoteNode.childrenFuture);
+					remoteNode.exists = true;
+				} catch (final NoNodeException e) {
+					// the node does not exist in ZooKeeper
+					remoteNode.exists = false;
+				}
+			}
+
+			return remoteNodes;
+		}
+	}
+
+	/**
+	 * Callable implementation for
+	 * {@link ZooKeeperPreferencesService#readRemoveOperations(String, int, int, List)}
+	 * .
+	 * 
+	 * @see ZooKeeperPreferencesService#readRemoveOperations(String, int, int,
+	 *      List)
+	 */
+	private final class ReadRemoveOperations extends ZooKeeperCallable<Boolean> {
+
+		private final String path;
+		private final int propertiesVersion;
+		private final int childrenVersion;
+		private final List<Op> ops;
+
+		/**
+		 * Creates a new instance.
+		 * 
+		 * @param path
+		 * @param propertiesVersion
+		 * @param childrenVersion
+		 * @param ops
+		 */
+		private ReadRemoveOperations(final String path, final int propertiesVersion, final int childrenVersion, final List<Op> ops) {
+			this.path = path;
+			this.propertiesVersion = propertiesVersion;
+			this.childrenVersion = childrenVersion;
+			this.ops = ops;
+		}
+
+		@Override
+		protected Boolean call(final ZooKeeper keeper) throws Exception {
+			checkClosed();
+
+			// collect into a separate list so that a retry does not add operations twice
+			final List<Op> removeOps = new ArrayList<Op>();
+			ZooKeeperHelper.addDeleteTreeOperations(keeper, new Path(path), propertiesVersion, childrenVersion, removeOps);
+			ops.addAll(removeOps);
+			return !removeOps.isEmpty();
+		}
+	}
+
 	/**
 	 * Callable implementation for
 	 * {@link ZooKeeperPreferencesService#refreshChildren(String, boolean)}.
@@ -572,6 +671,33 @@ public class ZooKeeperPreferencesService extends ZooKeeperBasedService {
 		}
 	}
 
+	/**
+	 * The data of a preference node as read from ZooKeeper by
+	 * {@link ZooKeeperPreferencesService#readNodes(Collection)}.
+	 */
+	static final class RemoteNodeData {
+
+		final ZooKeeperBasedPreferences node;
+		final Stat propertiesStat = new Stat();
+		final Stat childrenStat = new Stat();
+
+		CompletableFuture<byte[]> propertiesFuture;
+		CompletableFuture<List<String>> childrenFuture;
+
+		byte[] propertyBytes;
+		Collection<String> childrenNames;
+		boolean exists;
+
+		/**
+		 * Creates a new instance.
+		 * 
+		 * @param node
+		 */
+		RemoteNodeData(final ZooKeeperBasedPreferences node) {
+			this.node = node;
+		}
+	}
+
 	/**
 	 * Callable implementation for
 	 * {@link ZooKeeperPreferencesService#removeNode(String, int))}.
@@ -741,6 +867,48 @@ public class ZooKeeperPreferencesService extends ZooKeeperBasedService {
 		}
 	}
 
+	/**
+	 * Callable implementation for
+	 * {@link ZooKeeperPreferencesService#writeTree(List, String)}.
+	 * 
+	 * @see ZooKeeperPreferencesService#writeTree(List, String)
+	 */
+	private final class WriteTree extends ZooKeeperCallable<List<OpResult>> {
+
+		private final List<Op> ops;
+		private final String createParentsOf;
+
+		/**
+		 * Creates a new instance.
+		 * 
+		 * @param ops
+		 * @param createParentsOf
+		 */
+		private WriteTree(final List<Op> ops, final String createParentsOf) {
+			this.ops = ops;
+			this.createParentsOf = createParentsOf;
+		}
+
+		@Override
+		protected List<OpResult> call(final ZooKeeper keeper) throws Exception {
+			checkClosed();
+
+			// log message
+			if (CloudDebug.zooKeeperPreferences) {
+				LOG.debug("Writing {} operations in a single transaction to ZooKeeper", ops.size());
+			}
+
+			// create parents
+			// (outside of the transaction; they are never removed on failures anyway)
+			if (null != createParentsOf) {
+				ZooKeeperHelper.createParents(keeper, new Path(createParentsOf));
+			}
+
+			// note, as with WriteProperties no watches are set here
+			return keeper.multi(ops);
+		}
+	}
+
 	static final String CLOSED = "CLOSED";
 
 	private static final int MINIMUM_SEGMENT_COUNT = IZooKeeperLayout.PATH_PREFERENCES_ROOT.segmentCount() + 1;
@@ -967,6 +1135,69 @@ public class ZooKeeperPreferencesService extends ZooKeeperBasedService {
 		}
 	}
 
+	/**
+	 * Reads the properties and children of the specified nodes from ZooKeeper.
+	 * <p>
+	 * All reads are issued asynchronously at once and pipelined over the
+	 * ZooKeeper session. The same watchers as with
+	 * {@link #refreshProperties(String, boolean)} and
+	 * {@link #refreshChildren(String, boolean)} will be set. However, in
+	 * contrast to the refresh methods the nodes will not be updated. It's the
+	 * responsibility of the caller to apply the returned data.
+	 * </p>
+	 * 
+	 * @param nodes
+	 *            the nodes to read
+	 * @return the data read from ZooKeeper (in the order of the specified
+	 *         nodes)
+	 * @throws Exception
+	 */
+	public final List<RemoteNodeData> readNodes(final Collection<ZooKeeperBasedPreferences> nodes) throws Exception {
+		checkClosed();
+
+		if (CloudDebug.zooKeeperPreferences) {
+			LOG.trace("Stack for readNodes request for {} nodes.", nodes.size(), new Exception("readNodes"));
+		}
+
+		return execute(new ReadNodes(nodes));
+	}
+
+	/**
+	 * Reads the operations for removing the specified path in ZooKeeper.
+	 * <p>
+	 * This is the transactional counterpart of
+	 * {@link #removeNode(String, int, int)}. The tree at the specified path is
+	 * read from ZooKeeper and the operations for deleting it (including all its
+	 * children) will be added to the specified list. They are meant to be
+	 * executed using {@link #writeTree(List, String)}.
+	 * </p>
+	 * 
+	 * @param path
+	 *            the ZooKeeper path of the preference node to remove
+	 * @param propertiesVersion
+	 *            the last known version of the node properties (will be used
+	 *            for detecting concurrent node modification which may conflict
+	 *            with the removal)
+	 * @param childrenVersion
+	 *            the last known version of the node children (will be used for
+	 *            detecting concurrent node modification which may conflict with
+	 *            the removal)
+	 * @param ops
+	 *            the list to add the operations to
+	 * @return <code>true</code> if operations were added, <code>false</code>
+	 *         if the path does not exist in ZooKeeper
+	 * @throws Exception
+	 */
+	public final boolean readRemoveOperations(final String path, final int propertiesVersion, final int childrenVersion, final List<Op> ops) throws Exception {
+		checkClosed();
+
+		if (CloudDebug.zooKeeperPreferences) {
+			LOG.trace("Stack for readRemoveOperations request for node {}.", path, new Exception("readRemoveOperations"));
+		}
+
+		return execute(new ReadRemoveOperations(path, propertiesVersion, childrenVersion, ops));
+	}
+
 	@Override
 	protected void reconnect() {
 		if (CloudDebug.zooKeeperPreferencesSync) {
@@ -1125,4 +1356,34 @@ public class ZooKeeperPreferencesService extends ZooKeeperBasedService {
 
 		return execute(new WriteProperties(path, propertyBytes, propertiesVersion));
 	}
+
+	/**
+	 * Writes the specified operations in a single ZooKeeper transaction.
+	 * <p>
+	 * Either all operations succeed or none of them is applied. This allows to
+	 * flush a tree of preference nodes with a single round trip instead of
+	 * writing node by node. The operations must be ordered so that parents are
+	 * created before their children.
+	 * </p>
+	 * 
+	 * @param ops
+	 *            the operations to execute
+	 * @param createParentsOf
+	 *            the ZooKeeper path of a preference node whose parents should
+	 *            be created before executing the operations (may be
+	 *            <code>null</code>)
+	 * @return the results of the operations (in the order of the operations)
+	 * @throws Exception
+	 *             (eg. a <code>KeeperException</code> with the error of the
+	 *             first operation which failed)
+	 */
+	public final List<OpResult> writeTree(final List<Op> ops, final String createParentsOf) throws Exception {
+		checkClosed();
+
+		if (CloudDebug.zooKeeperPreferences) {
+			LOG.trace("Stack for writeTree request for {} operations.", ops.size(), new Exception("writeTree"));
+		}
+
+		return execute(new WriteTree(ops, createParentsOf));
+	}
 }
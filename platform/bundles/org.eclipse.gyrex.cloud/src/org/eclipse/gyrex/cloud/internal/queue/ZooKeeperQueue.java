@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -12,6 +12,7 @@
 package org.eclipse.gyrex.cloud.internal.queue;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -20,22 +21,32 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
+import org.eclipse.gyrex.cloud.internal.zk.GateDownException;
 import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperMonitor;
 import org.eclipse.gyrex.cloud.services.queue.IMessage;
 import org.eclipse.gyrex.cloud.services.queue.IQueue;
+import org.eclipse.gyrex.cloud.services.queue.IQueueListener;
 import org.eclipse.gyrex.cloud.services.queue.IQueueServiceProperties;
 
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.ListenerList;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.commons.lang.math.NumberUtils;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.AsyncCallback.DataCallback;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.Code;
 import org.apache.zookeeper.KeeperException.NoNodeException;
+import org.apache.zookeeper.ZooKeeper;
 import org.apache.zookeeper.data.Stat;
 
 import org.slf4j.Logger;
@@ -43,16 +54,64 @@ import org.slf4j.LoggerFactory;
 
 /**
  * ZooKeeper based queue.
+ * <p>
+ * Consumers of a queue share a locally cached, sorted list of the queue node
+ * children. The list is kept up to date using a ZooKeeper child watch. Waiting
+ * consumers are woken up by the watch instead of polling ZooKeeper. Message
+ * records are read using asynchronous ZooKeeper requests in batches of
+ * {@link #READ_BATCH_SIZE} in order to save round trips.
+ * </p>
  */
 // TODO: investigate extending ZooKeeperBasedService for re-try operations
 public class ZooKeeperQueue implements IQueue {
 
+	/**
+	 * Monitor for invalidating the cached list of queue children.
+	 */
+	private final class QueueChildrenMonitor extends ZooKeeperMonitor {
+		@Override
+		protected void childrenChanged(final String path) {
+			invalidateChildren();
+			watchForAddedMessages();
+		}
+
+		@Override
+		protected void pathDeleted(final String path) {
+			invalidateChildren();
+		}
+	}
+
 	private static final Logger LOG = LoggerFactory.getLogger(ZooKeeperQueue.class);
 	private static final String PREFIX = "msg-";
 
+	/** number of message records to read in one pipelined batch */
+	static final int READ_BATCH_SIZE = 64;
+
+	/**
+	 * max. time a waiting consumer sleeps before re-validating the cached queue
+	 * children (protects against watches lost in a disconnected session)
+	 */
+	private static final long MAX_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
 	final String id;
 	final IPath queuePath;
 
+	private final QueueChildrenMonitor childrenMonitor = new QueueChildrenMonitor();
+	private final Object childrenLock = new Object();
+
+	/** cached children (guarded by childrenLock, <code>null</code> if stale) */
+	private TreeMap<Long, String> cachedChildren;
+	/** gate the children watch has been registered with (guarded by childrenLock) */
+	private ZooKeeperGate cachedChildrenGate;
+	/** time the children have been cached (guarded by childrenLock) */
+	private long cachedChildrenTimestamp;
+	/** incremented on every invalidation (guarded by childrenLock) */
+	private long childrenModCount;
+	/** highest sequence number listeners have been notified about (guarded by childrenLock) */
+	private long notifiedSequenceNumber = -1;
+
+	private final ListenerList queueListeners = new ListenerList();
+
 	/**
 	 * Creates a new instance.
 	 * 
@@ -63,6 +122,37 @@ public class ZooKeeperQueue implements IQueue {
 		queuePath = IZooKeeperLayout.PATH_QUEUES_ROOT.append(id);
 	}
 
+	@Override
+	public void addQueueListener(final IQueueListener listener) throws IllegalArgumentException {
+		if (listener == null)
+			throw new IllegalArgumentException("listener must not be null");
+		queueListeners.add(listener);
+
+		// start watching (also notifies about already queued messages)
+		watchForAddedMessages();
+	}
+
+	/**
+	 * Blocks the current thread until the cached queue children have been
+	 * invalidated or the specified time elapsed.
+	 * 
+	 * @param modCount
+	 *            the modification count observed before reading the children
+	 * @param maxWaitMillis
+	 *            the max. time to wait
+	 * @throws InterruptedException
+	 */
+	private void awaitChildrenChange(final long modCount, final long maxWaitMillis) throws InterruptedException {
+		final long abortTime = System.currentTimeMillis() + Math.min(maxWaitMillis, MAX_WAIT_MILLIS);
+		synchronized (childrenLock) {
+			long remaining = abortTime - System.currentTimeMillis();
+			while ((modCount == childrenModCount) && (remaining > 0)) {
+				childrenLock.wait(remaining);
+				remaining = abortTime - System.currentTimeMillis();
+			}
+		}
+	}
+
 	@Override
 	public IMessage consumeMessage(final long timeout, final TimeUnit unit) throws IllegalArgumentException, IllegalStateException, SecurityException, InterruptedException {
 		/*
@@ -76,34 +166,42 @@ public class ZooKeeperQueue implements IQueue {
 			throw new IllegalArgumentException("unit must not be null when timeout is specified");
 		}
 		final long abortTime = timeout > 0 ? unit.toMillis(timeout) + System.currentTimeMillis() : 0;
-		TreeMap<Long, String> queueChildren;
 		while (true) {
+			final long modCount = getChildrenModCount();
+			long nextVisibleTime = Long.MAX_VALUE;
 			try {
-				queueChildren = readQueueChildren(null);
-			} catch (final Exception e) {
-				if (e instanceof KeeperException.NoNodeException) {
-					throw new IllegalStateException(String.format("queue '%s' does not exist", id));
-				}
-				throw new QueueOperationFailedException(id, "CONSUME_MESSAGES", e);
-			}
-
-			// iterate over all children
-			if (queueChildren.size() > 0) {
-				for (final String childName : queueChildren.values()) {
-					if (childName != null) {
-						// read message
-						final Message message = readQueueMessage(childName);
+				// iterate over all children in batches
+				final List<String> childNames = getCachedChildren();
+				for (int i = 0; i < childNames.size(); i += READ_BATCH_SIZE) {
+					final List<Message> batch = readQueueMessages(childNames.subList(i, Math.min(i + READ_BATCH_SIZE, childNames.size())));
+					for (final Message message : batch) {
 						// check if we have a valid message
-						if ((message == null) || message.isHidden()) {
+						if (message == null) {
+							continue;
+						}
+						if (message.isHidden()) {
+							nextVisibleTime = Math.min(nextVisibleTime, message.getInvisibleTimeoutTS());
 							continue;
 						}
 						// try to consume the message
 						if (!message.consume(false)) {
 							continue;
 						}
+						removeCachedChild(message.getMessageId());
 						return message;
 					}
 				}
+			} catch (final Exception e) {
+				if (e instanceof KeeperException.NoNodeException) {
+					throw new IllegalStateException(String.format("queue '%s' does not exist", id));
+				}
+				if (e instanceof InterruptedException) {
+					throw (InterruptedException) e;
+				}
+				if (e instanceof QueueOperationFailedException) {
+					throw (QueueOperationFailedException) e;
+				}
+				throw new QueueOperationFailedException(id, "CONSUME_MESSAGES", e);
 			}
 
 			// at this point no children are available
@@ -112,14 +210,13 @@ public class ZooKeeperQueue implements IQueue {
 				return null;
 			}
 
-			// wait for the timeout
-			final long diff = abortTime - System.currentTimeMillis();
-			if (diff > 0) {
-				Thread.sleep(Math.max(diff / 2, 250));
-			} else {
+			// wait for the timeout (or until the queue changes or a hidden message becomes visible again)
+			final long now = System.currentTimeMillis();
+			if (abortTime <= now) {
 				// wait time elapsed
 				return null;
 			}
+			awaitChildrenChange(modCount, Math.min(abortTime, nextVisibleTime) - now);
 		}
 	}
 
@@ -134,6 +231,49 @@ public class ZooKeeperQueue implements IQueue {
 		return ((Message) message).delete(true);
 	}
 
+	/**
+	 * Returns the locally cached list of queue children ordered by sequence
+	 * number.
+	 * <p>
+	 * If the cache is stale the children will be read from ZooKeeper and a
+	 * child watch will be set in order to get notified about changes.
+	 * </p>
+	 * 
+	 * @return a copy of the ordered list of child names
+	 * @throws InterruptedException
+	 * @throws IllegalStateException
+	 * @throws KeeperException
+	 */
+	private List<String> getCachedChildren() throws InterruptedException, IllegalStateException, KeeperException {
+		final ZooKeeperGate gate = ZooKeeperGate.get();
+		final long modCount;
+		synchronized (childrenLock) {
+			// note, watches do not survive a new gate (i.e. a new session)
+			if ((cachedChildren != null) && (cachedChildrenGate == gate) && ((System.currentTimeMillis() - cachedChildrenTimestamp) < MAX_WAIT_MILLIS))
+				return new ArrayList<String>(cachedChildren.values());
+			modCount = childrenModCount;
+		}
+
+		// read children (and set watch) outside of lock
+		final TreeMap<Long, String> children = readQueueChildren(childrenMonitor);
+
+		synchronized (childrenLock) {
+			// only cache if the watch did not fire in between
+			if (modCount == childrenModCount) {
+				cachedChildren = children;
+				cachedChildrenGate = gate;
+				cachedChildrenTimestamp = System.currentTimeMillis();
+			}
+		}
+		return new ArrayList<String>(children.values());
+	}
+
+	private long getChildrenModCount() {
+		synchronized (childrenLock) {
+			return childrenModCount;
+		}
+	}
+
 	@Override
 	public String getId() {
 		return id;
@@ -150,12 +290,13 @@ public class ZooKeeperQueue implements IQueue {
 	 */
 	public List<Message> getMessages() {
 		try {
-			final TreeMap<Long, String> queueChildren = readQueueChildren(null);
-			final List<Message> messages = new ArrayList<Message>(queueChildren.size());
-			for (final String messageId : queueChildren.values()) {
-				final Message message = readQueueMessage(messageId);
-				if (null != message) {
-					messages.add(message);
+			final List<String> childNames = new ArrayList<String>(readQueueChildren(null).values());
+			final List<Message> messages = new ArrayList<Message>(childNames.size());
+			for (int i = 0; i < childNames.size(); i += READ_BATCH_SIZE) {
+				for (final Message message : readQueueMessages(childNames.subList(i, Math.min(i + READ_BATCH_SIZE, childNames.size())))) {
+					if (null != message) {
+						messages.add(message);
+					}
 				}
 			}
 			return messages;
@@ -193,6 +334,40 @@ public class ZooKeeperQueue implements IQueue {
 		return NumberUtils.toLong(queueTimeout, 30000);
 	}
 
+	/**
+	 * Returns the sequence number of the specified queue child.
+	 * 
+	 * @param childName
+	 * @return the sequence number (<code>-1</code> if the child name is
+	 *         invalid)
+	 */
+	private long getSequenceNumber(final String childName) {
+		if (!StringUtils.startsWith(childName, PREFIX))
+			return -1;
+		return NumberUtils.toLong(StringUtils.substring(childName, PREFIX.length()), -1);
+	}
+
+	/**
+	 * Marks the cached queue children stale and wakes up all waiting consumers.
+	 */
+	void invalidateChildren() {
+		synchronized (childrenLock) {
+			cachedChildren = null;
+			childrenModCount++;
+			childrenLock.notifyAll();
+		}
+	}
+
+	private void notifyMessagesAdded() {
+		for (final Object listener : queueListeners.getListeners()) {
+			try {
+				((IQueueListener) listener).messagesAdded(this);
+			} catch (final RuntimeException e) {
+				LOG.error("Error notifying listener {} of queue {}: {}", new Object[] { listener, id, ExceptionUtils.getRootCauseMessage(e), e });
+			}
+		}
+	}
+
 	/**
 	 * Returns a sorted map of the queue node children.
 	 * 
@@ -212,7 +387,7 @@ public class ZooKeeperQueue implements IQueue {
 				LOG.warn("Incorrect child name {} in queue {}.", new Object[] { childName, id });
 				continue;
 			}
-			final long sequenceNumber = NumberUtils.toLong(StringUtils.substring(childName, PREFIX.length()), -1);
+			final long sequenceNumber = getSequenceNumber(childName);
 			if (sequenceNumber < 0) {
 				LOG.warn("Incorrect sequence number in child name {} in queue {}.", new Object[] { childName, id });
 				continue;
@@ -241,20 +416,59 @@ public class ZooKeeperQueue implements IQueue {
 		}
 	}
 
-	private Message readQueueMessage(final String messageId) {
-		try {
-			final Stat stat = new Stat();
-			final byte[] record = ZooKeeperGate.get().readRecord(queuePath.append(messageId), stat);
-			if (record == null) {
-				return null;
-			}
-			return new Message(messageId, this, record, stat);
-		} catch (final NoNodeException e) {
-			// don't fail just return null
-			return null;
-		} catch (final Exception e) {
-			throw new QueueOperationFailedException(id, String.format("MESSAGE_READ(%s)", messageId), e);
+	/**
+	 * Reads multiple messages using pipelined asynchronous ZooKeeper requests.
+	 * 
+	 * @param messageIds
+	 *            the message ids to read
+	 * @return list of messages in the same order as the specified message ids
+	 *         (elements are <code>null</code> for messages which do not exist
+	 *         anymore)
+	 * @throws InterruptedException
+	 * @throws KeeperException
+	 * @throws IOException
+	 */
+	private List<Message> readQueueMessages(final List<String> messageIds) throws InterruptedException, KeeperException, IOException {
+		final ZooKeeper zk = ZooKeeperGate.get().getZooKeeper();
+		final Message[] messages = new Message[messageIds.size()];
+		final AtomicReference<Exception> error = new AtomicReference<Exception>();
+		final CountDownLatch pendingReads = new CountDownLatch(messages.length);
+		for (int i = 0; i < messages.length; i++) {
+			final int index = i;
+			final String messageId = messageIds.get(i);
+			zk.getData(queuePath.append(messageId).toString(), false, new DataCallback() {
+				@Override
+				public void processResult(final int rc, final String path, final Object ctx, final byte[] data, final Stat stat) {
+					try {
+						final Code code = Code.get(rc);
+						if ((code == Code.OK) && (data != null)) {
+							messages[index] = new Message(messageId, ZooKeeperQueue.this, data, stat);
+						} else if ((code != Code.OK) && (code != Code.NONODE)) {
+							error.compareAndSet(null, KeeperException.create(code, path));
+						}
+					} catch (final IOException | RuntimeException e) {
+						error.compareAndSet(null, e);
+					} finally {
+						pendingReads.countDown();
+					}
+				}
+			}, null);
 		}
+
+		// ZooKeeper guarantees that callbacks are invoked (even on connection loss)
+		pendingReads.await();
+
+		final Exception e = error.get();
+		if (e instanceof KeeperException)
+			throw (KeeperException) e;
+		if (e instanceof IOException)
+			throw (IOException) e;
+		if (e != null)
+			throw new QueueOperationFailedException(id, "MESSAGE_READ", e);
+
+		final List<Message> result = new ArrayList<Message>(messages.length);
+		Collections.addAll(result, messages);
+		return result;
 	}
 
 	@Override
@@ -275,12 +489,11 @@ public class ZooKeeperQueue implements IQueue {
 			// get timeout
 			final long receiveMessageTimeout = getReceiveMessageTimeout(properties);
 
-			// iterate over all children
-			final TreeMap<Long, String> queueChildren = readQueueChildren(null);
-			for (final String childName : queueChildren.values()) {
-				if (childName != null) {
-					// read message
-					final Message message = readQueueMessage(childName);
+			// iterate over all children in batches
+			final List<String> childNames = getCachedChildren();
+			for (int i = 0; i < childNames.size(); i += READ_BATCH_SIZE) {
+				final List<Message> batch = readQueueMessages(childNames.subList(i, Math.min(i + READ_BATCH_SIZE, childNames.size())));
+				for (final Message message : batch) {
 					// check if we have a valid message
 					if ((message == null) || message.isHidden()) {
 						continue;
@@ -303,12 +516,39 @@ public class ZooKeeperQueue implements IQueue {
 			if (e instanceof KeeperException.NoNodeException) {
 				throw new IllegalStateException(String.format("queue '%s' does not exist", id));
 			}
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			if (e instanceof QueueOperationFailedException) {
+				throw (QueueOperationFailedException) e;
+			}
 			throw new QueueOperationFailedException(id, "RECEIVE_MESSAGES", e);
 		}
 
 		return messages;
 	}
 
+	/**
+	 * Removes a consumed message from the cached queue children.
+	 * 
+	 * @param messageId
+	 */
+	private void removeCachedChild(final String messageId) {
+		final long sequenceNumber = NumberUtils.toLong(StringUtils.substring(messageId, PREFIX.length()), -1);
+		synchronized (childrenLock) {
+			if (cachedChildren != null) {
+				cachedChildren.remove(sequenceNumber);
+			}
+		}
+	}
+
+	@Override
+	public void removeQueueListener(final IQueueListener listener) throws IllegalArgumentException {
+		if (listener == null)
+			throw new IllegalArgumentException("listener must not be null");
+		queueListeners.remove(listener);
+	}
+
 	@Override
 	public void sendMessage(final byte[] messageBody) throws IllegalArgumentException, IllegalStateException, SecurityException {
 		try {
@@ -339,4 +579,49 @@ public class ZooKeeperQueue implements IQueue {
 		return builder.toString();
 	}
 
+	/**
+	 * Reads the queue children asynchronously and notifies listeners if
+	 * messages have been added.
+	 * <p>
+	 * The read also sets the child watch, i.e. listeners keep getting notified
+	 * as long as they are registered. Note, the watch does not survive a new
+	 * ZooKeeper session. It will be set again by the next read of the queue
+	 * children.
+	 * </p>
+	 */
+	void watchForAddedMessages() {
+		if (queueListeners.isEmpty())
+			return;
+
+		final ZooKeeperGate gate;
+		try {
+			gate = ZooKeeperGate.get();
+		} catch (final GateDownException e) {
+			// nothing to watch
+			return;
+		}
+
+		gate.readChildrenNamesAsync(queuePath, childrenMonitor, null).whenComplete(new BiConsumer<List<String>, Throwable>() {
+			@Override
+			public void accept(final List<String> childNames, final Throwable failure) {
+				if (failure != null) {
+					LOG.debug("Unable to watch queue {} for added messages: {}", id, ExceptionUtils.getRootCauseMessage(failure));
+					return;
+				}
+
+				// notify only if the highest sequence number increased (ignore removals)
+				long highestSequenceNumber = -1;
+				for (final String childName : childNames) {
+					highestSequenceNumber = Math.max(highestSequenceNumber, getSequenceNumber(childName));
+				}
+				synchronized (childrenLock) {
+					if (highestSequenceNumber <= notifiedSequenceNumber)
+						return;
+					notifiedSequenceNumber = highestSequenceNumber;
+				}
+				notifyMessagesAdded();
+			}
+		});
+	}
+
 }
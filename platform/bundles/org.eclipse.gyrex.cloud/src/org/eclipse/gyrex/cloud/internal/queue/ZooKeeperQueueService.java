@@ -18,6 +18,8 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
@@ -34,9 +36,15 @@ import org.apache.zookeeper.KeeperException.NoNodeException;
 
 /**
  * Queue service based on ZooKeeper.
+ * <p>
+ * Queue handles are shared so that all consumers of a queue within a node use
+ * the same locally cached (watch maintained) view of the queue.
+ * </p>
  */
 public class ZooKeeperQueueService implements IQueueService {
 
+	private final ConcurrentMap<String, ZooKeeperQueue> queues = new ConcurrentHashMap<String, ZooKeeperQueue>();
+
 	@Override
 	public IQueue createQueue(final String id, final Map<String, ?> properties) throws IllegalArgumentException, IllegalStateException, SecurityException, DuplicateQueueException {
 		if (!IdHelper.isValidId(id)) {
@@ -50,7 +58,7 @@ public class ZooKeeperQueueService implements IQueueService {
 			}
 			throw new QueueOperationFailedException(id, "CREATE_QUEUE", e);
 		}
-		return new ZooKeeperQueue(id);
+		return getOrCreateQueueHandle(id);
 	}
 
 	@Override
@@ -60,6 +68,7 @@ public class ZooKeeperQueueService implements IQueueService {
 		}
 		try {
 			ZooKeeperGate.get().deletePath(IZooKeeperLayout.PATH_QUEUES_ROOT.append(id));
+			queues.remove(id);
 		} catch (final Exception e) {
 			if (e instanceof KeeperException.NoNodeException) {
 				throw new NoSuchElementException(String.format("queue '%s' does not exist", id));
@@ -68,6 +77,17 @@ public class ZooKeeperQueueService implements IQueueService {
 		}
 	}
 
+	private ZooKeeperQueue getOrCreateQueueHandle(final String id) {
+		ZooKeeperQueue queue = queues.get(id);
+		if (queue == null) {
+			queue = new ZooKeeperQueue(id);
+			final ZooKeeperQueue existing = queues.putIfAbsent(id, queue);
+			if (existing != null)
+				return existing;
+		}
+		return queue;
+	}
+
 	@Override
 	public ZooKeeperQueue getQueue(final String id, final Map<String, ?> properties) throws IllegalArgumentException, IllegalStateException, SecurityException {
 		if (!IdHelper.isValidId(id)) {
@@ -75,8 +95,9 @@ public class ZooKeeperQueueService implements IQueueService {
 		}
 		try {
 			if (ZooKeeperGate.get().exists(IZooKeeperLayout.PATH_QUEUES_ROOT.append(id))) {
-				return new ZooKeeperQueue(id);
+				return getOrCreateQueueHandle(id);
 			}
+			queues.remove(id);
 			return null;
 		} catch (final Exception e) {
 			throw new QueueOperationFailedException(id, "GET_QUEUE", e);
@@ -112,7 +133,7 @@ public class ZooKeeperQueueService implements IQueueService {
 	public IQueue updateQueue(final String id, final Map<String, ?> properties) throws IllegalArgumentException, IllegalStateException, SecurityException, NoSuchElementException {
 		try {
 			ZooKeeperGate.get().writeRecord(IZooKeeperLayout.PATH_QUEUES_ROOT.append(id), getQueueData(properties), -1);
-			return new ZooKeeperQueue(id);
+			return getOrCreateQueueHandle(id);
 		} catch (final Exception e) {
 			if (e instanceof KeeperException.NoNodeException) {
 				throw new NoSuchElementException(String.format("queue '%s' does not exist", id));
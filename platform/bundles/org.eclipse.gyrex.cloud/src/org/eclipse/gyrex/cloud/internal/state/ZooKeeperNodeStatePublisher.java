@@ -20,17 +20,24 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 
 import org.eclipse.gyrex.cloud.internal.zk.GateDownException;
 import org.eclipse.gyrex.cloud.internal.zk.IZooKeeperLayout;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGateCallable;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperHelper;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperMonitor;
 import org.eclipse.gyrex.cloud.services.state.INodeState;
 import org.eclipse.gyrex.cloud.services.state.query.INodeStateInfo;
 import org.eclipse.gyrex.cloud.services.zookeeper.ZooKeeperBasedService;
 import org.eclipse.gyrex.common.identifiers.IdHelper;
 
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
 
 import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceReference;
@@ -48,14 +55,32 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Publishes and reads {@link INodeStateInfo} from ZooKeeper.
+ * <p>
+ * Read state is cached in memory. The cache is maintained using ZooKeeper
+ * watches, i.e. a cached entry is invalidated as soon as ZooKeeper reports a
+ * change of a child or its data and read again with the next query. The child
+ * watch of a cached path is set again immediately, which allows to drop the
+ * entry as soon as the path is removed. Missing paths are not cached. While
+ * the connection to ZooKeeper is suspended the cache is bypassed and cleared.
+ * </p>
  */
 public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 
+	/**
+	 * Cached infos of a state path.
+	 */
+	private static final class CachedInfos {
+		/** the cached infos (guarded by this, <code>null</code> if stale) */
+		List<? extends INodeStateInfo> infos;
+		/** incremented on every invalidation (guarded by this) */
+		long modCount;
+	}
+
 	private static final class ReadAllForNodeId extends ReadFromPath {
 		private final String nodeId;
 
-		private ReadAllForNodeId(final String nodeId) {
-			super(IZooKeeperLayout.PATH_NODES_STATE_BY_NODE_ID.append(nodeId));
+		private ReadAllForNodeId(final String nodeId, final ZooKeeperMonitor monitor) {
+			super(IZooKeeperLayout.PATH_NODES_STATE_BY_NODE_ID.append(nodeId), monitor);
 			this.nodeId = nodeId;
 		}
 
@@ -68,8 +93,8 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 	private static final class ReadAllForServicePid extends ReadFromPath {
 		private final String servicePid;
 
-		private ReadAllForServicePid(final String servicePid) {
-			super(IZooKeeperLayout.PATH_NODES_STATE_BY_SERVICE_PID.append(servicePid));
+		private ReadAllForServicePid(final String servicePid, final ZooKeeperMonitor monitor) {
+			super(IZooKeeperLayout.PATH_NODES_STATE_BY_SERVICE_PID.append(servicePid), monitor);
 			this.servicePid = servicePid;
 		}
 
@@ -80,32 +105,52 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 	}
 
 	private static abstract class ReadFromPath extends ZooKeeperGateCallable<List<? extends INodeStateInfo>> {
-		private final IPath path;
+		final IPath path;
+		private final ZooKeeperMonitor monitor;
 
-		public ReadFromPath(final IPath path) {
+		public ReadFromPath(final IPath path, final ZooKeeperMonitor monitor) {
 			this.path = path;
+			this.monitor = monitor;
 		}
 
+		/**
+		 * Reads the infos.
+		 *
+		 * @return the infos (<code>null</code> if the path does not exist)
+		 */
 		@SuppressWarnings("unchecked")
 		@Override
 		protected List<? extends INodeStateInfo> call(final ZooKeeperGate keeper) throws Exception {
 			// read child names
-			List<String> childNames;
-			try {
-				childNames = keeper.readChildrenNames(path, null);
-			} catch (final NoNodeException e) {
-				return Collections.emptyList();
+			List<String> childNames = null;
+			while (childNames == null) {
+				try {
+					childNames = keeper.readChildrenNames(path, monitor, null);
+				} catch (final NoNodeException e) {
+					// read again if created concurrently
+					// (but don't watch missing paths, they won't be cached)
+					if (!keeper.exists(path))
+						return null;
+				}
 			}
 
 			if (childNames.isEmpty())
 				return Collections.emptyList();
 
-			final List<INodeStateInfo> infos = new ArrayList<INodeStateInfo>(childNames.size());
+			// issue all reads at once (pipelined over the session)
+			final List<CompletableFuture<byte[]>> records = new ArrayList<CompletableFuture<byte[]>>(childNames.size());
 			for (final String childName : childNames) {
+				records.add(keeper.readRecordAsync(path.append(childName), monitor, null));
+			}
+
+			final List<INodeStateInfo> infos = new ArrayList<INodeStateInfo>(childNames.size());
+			for (int i = 0; i < childNames.size(); i++) {
+				final String childName = childNames.get(i);
+
 				// read data
 				byte[] data;
 				try {
-					data = keeper.readRecord(path.append(childName), null);
+					data = ZooKeeperHelper.getResult(records.get(i));
 				} catch (final NoNodeException e) {
 					// skip to next
 					continue;
@@ -122,7 +167,7 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 				infos.add(createInfo(map, childName));
 			}
 
-			return infos;
+			return Collections.unmodifiableList(infos);
 		}
 
 		protected abstract NodeStateInfoImpl createInfo(final Map<String, String> data, final String childName);
@@ -160,8 +205,34 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 		return props;
 	}
 
+	private static String getParentPath(final String path) {
+		final int i = path.lastIndexOf(IPath.SEPARATOR);
+		return i > 0 ? path.substring(0, i) : null;
+	}
+
 	private final String myNodeId;
 
+	private final ConcurrentMap<String, CachedInfos> cache = new ConcurrentHashMap<String, CachedInfos>();
+	private final ZooKeeperMonitor cacheMonitor = new ZooKeeperMonitor() {
+		@Override
+		protected void childrenChanged(final String path) {
+			invalidate(path);
+			watchChildren(path);
+		}
+
+		@Override
+		protected void pathDeleted(final String path) {
+			evict(path);
+			invalidate(getParentPath(path));
+		}
+
+		@Override
+		protected void recordChanged(final String path) {
+			invalidate(getParentPath(path));
+		}
+	};
+	private volatile boolean connected = true;
+
 	/**
 	 * Creates a new instance.
 	 *
@@ -169,6 +240,66 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 	 */
 	public ZooKeeperNodeStatePublisher(final String myNodeId) {
 		this.myNodeId = myNodeId;
+		activate();
+	}
+
+	@Override
+	protected void disconnect() {
+		// don't close but stop using the cache
+		connected = false;
+		cache.clear();
+	}
+
+	@Override
+	protected void doClose() {
+		connected = false;
+		cache.clear();
+	}
+
+	void evict(final String path) {
+		// note, a concurrent read will only populate the removed entry
+		cache.remove(path);
+	}
+
+	private List<? extends INodeStateInfo> find(final ReadFromPath read) throws Exception {
+		// bypass cache if not connected
+		if (!connected || isClosed()) {
+			final List<? extends INodeStateInfo> infos = execute(read);
+			return infos != null ? infos : Collections.<INodeStateInfo> emptyList();
+		}
+
+		final String key = read.path.toString();
+		CachedInfos cached = cache.get(key);
+		if (cached == null) {
+			final CachedInfos existing = cache.putIfAbsent(key, cached = new CachedInfos());
+			if (existing != null) {
+				cached = existing;
+			}
+		}
+
+		final long modCount;
+		synchronized (cached) {
+			if (cached.infos != null)
+				return cached.infos;
+			modCount = cached.modCount;
+		}
+
+		// read (and register watches)
+		final List<? extends INodeStateInfo> infos = execute(read);
+
+		// don't keep entries for missing paths
+		if (infos == null) {
+			cache.remove(key, cached);
+			return Collections.emptyList();
+		}
+
+		// cache if not invalidated concurrently
+		synchronized (cached) {
+			if (modCount == cached.modCount) {
+				cached.infos = infos;
+			}
+		}
+		return infos;
 	}
 
 	public List<? extends INodeStateInfo> findByNodeId(final String nodeId) {
@@ -176,7 +307,7 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 			throw new IllegalArgumentException("Invalid Node ID");
 
 		try {
-			return execute(new ReadAllForNodeId(nodeId));
+			return find(new ReadAllForNodeId(nodeId, cacheMonitor));
 		} catch (final SessionExpiredException e) {
 			// safe to ignore because we use ephemeral nodes
 		} catch (final Exception e) {
@@ -194,7 +325,7 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 			throw new IllegalArgumentException("Invalid Service PID");
 
 		try {
-			return execute(new ReadAllForServicePid(servicePid));
+			return find(new ReadAllForServicePid(servicePid, cacheMonitor));
 		} catch (final SessionExpiredException e) {
 			// safe to ignore because we use ephemeral nodes
 		} catch (final Exception e) {
@@ -207,11 +338,36 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 		return Collections.emptyList();
 	}
 
+	/**
+	 * Returns the number of cached paths.
+	 * <p>
+	 * This method is only public for testing purposes. It must not be called by
+	 * clients.
+	 * </p>
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public int getCachedPathCount() {
+		return cache.size();
+	}
+
 	@Override
 	protected String getToStringDetails() {
 		return myNodeId;
 	}
 
+	void invalidate(final String path) {
+		if (path == null)
+			return;
+		final CachedInfos cached = cache.get(path);
+		if (cached == null)
+			return;
+		synchronized (cached) {
+			cached.infos = null;
+			cached.modCount++;
+		}
+	}
+
 	public void publish(final String pid, final ServiceReference<INodeState> reference) {
 		if (!IdHelper.isValidId(pid))
 			throw new IllegalArgumentException("Invalid PID");
@@ -249,6 +405,13 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 		}
 	}
 
+	@Override
+	protected void reconnect() {
+		// changes may have been missed
+		cache.clear();
+		connected = true;
+	}
+
 	public void remove(final String pid) {
 
 		try {
@@ -292,4 +455,42 @@ public class ZooKeeperNodeStatePublisher extends ZooKeeperBasedService {
 		close();
 	}
 
+	@Override
+	protected void suspend() {
+		// don't close but stop using the cache
+		disconnect();
+	}
+
+	/**
+	 * Sets the child watch of a cached path again.
+	 * <p>
+	 * This keeps the cache informed about changes (including the removal of
+	 * the path) even if the path is not queried again. The entry is dropped if
+	 * the path does not exist anymore.
+	 * </p>
+	 */
+	void watchChildren(final String path) {
+		if (!connected || isClosed() || !cache.containsKey(path))
+			return;
+
+		final ZooKeeperGate gate;
+		try {
+			gate = ZooKeeperGate.get();
+		} catch (final GateDownException e) {
+			// nothing to watch
+			return;
+		}
+
+		gate.readChildrenNamesAsync(new Path(path), cacheMonitor, null).whenComplete(new BiConsumer<List<String>, Throwable>() {
+			@Override
+			public void accept(final List<String> childNames, final Throwable failure) {
+				if (failure instanceof NoNodeException) {
+					evict(path);
+				} else if (failure != null) {
+					LOG.debug("Unable to watch node state at {}: {}", path, ExceptionUtils.getRootCauseMessage(failure));
+				}
+			}
+		});
+	}
+
 }
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.internal.zk;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared executor for deferred operations of ZooKeeper based services.
+ * <p>
+ * All services share a bounded pool of daemon threads. Each service submits
+ * its operations through a {@link SerialExecutor} which runs them one at a
+ * time in submission order.
+ * </p>
+ */
+public final class ZooKeeperExecutor {
+
+	/**
+	 * An executor which runs tasks one at a time (in submission order) using
+	 * the shared pool.
+	 */
+	public static final class SerialExecutor implements Executor {
+
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private volatile boolean shutdown;
+
+		private final Runnable drainTask = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					// limit the number of tasks per run in order to be fair to other services
+					Runnable task;
+					for (int i = 0; (i < MAX_TASKS_PER_RUN) && ((task = tasks.poll()) != null); i++) {
+						task.run();
+					}
+				} finally {
+					scheduled.set(false);
+					// re-schedule if tasks have been added concurrently
+					if (!tasks.isEmpty()) {
+						schedule();
+					}
+				}
+			}
+		};
+
+		SerialExecutor() {
+			// empty
+		}
+
+		@Override
+		public void execute(final Runnable command) {
+			if (shutdown)
+				throw new RejectedExecutionException("executor shut down");
+			final long submitTime = System.currentTimeMillis();
+			tasks.add(new Runnable() {
+				@Override
+				public void run() {
+					instance.run(command, submitTime);
+				}
+			});
+			schedule();
+		}
+
+		/**
+		 * Indicates if the executor has been shut down.
+		 *
+		 * @return <code>true</code> if shut down, <code>false</code> otherwise
+		 */
+		public boolean isShutdown() {
+			return shutdown;
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				try {
+					instance.pool.execute(drainTask);
+				} catch (final RuntimeException e) {
+					scheduled.set(false);
+					throw e;
+				}
+			}
+		}
+
+		/**
+		 * Initiates an orderly shutdown in which previously submitted tasks are
+		 * executed, but no new tasks will be accepted.
+		 */
+		public void shutdown() {
+			shutdown = true;
+		}
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(ZooKeeperExecutor.class);
+
+	static final int MAX_TASKS_PER_RUN = 16;
+
+	private static final int DEFAULT_MAX_THREADS = Integer.getInteger("gyrex.cloud.zookeeper.executor.threads", Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+	private static final ZooKeeperExecutor instance = new ZooKeeperExecutor(DEFAULT_MAX_THREADS);
+
+	/**
+	 * Returns the shared instance.
+	 *
+	 * @return the shared instance
+	 */
+	public static ZooKeeperExecutor getInstance() {
+		return instance;
+	}
+
+	private final ThreadPoolExecutor pool;
+	private final ZooKeeperExecutorMetrics metrics;
+
+	private ZooKeeperExecutor(final int maxThreads) {
+		metrics = new ZooKeeperExecutorMetrics(maxThreads);
+		pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread t = new Thread(r, "Gyrex ZooKeeper Deferred Executor " + threadNumber.getAndIncrement());
+				t.setDaemon(true);
+				t.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+					@Override
+					public void uncaughtException(final Thread t, final Throwable e) {
+						LOG.error("Unhandled error processing deferred ZooKeeper operation. {}", ExceptionUtils.getRootCauseMessage(e), e);
+					}
+				});
+				return t;
+			}
+		});
+		pool.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Returns the executor metrics.
+	 *
+	 * @return the metrics
+	 */
+	public ZooKeeperExecutorMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Creates a new executor for a service.
+	 *
+	 * @return the executor
+	 */
+	public SerialExecutor newSerialExecutor() {
+		return new SerialExecutor();
+	}
+
+	void run(final Runnable task, final long submitTime) {
+		metrics.getTasksMetric().channelStarted(System.currentTimeMillis() - submitTime);
+		metrics.getQueueDepthMetric().record(pool.getQueue().size());
+		try {
+			task.run();
+		} catch (final RuntimeException | LinkageError | AssertionError e) {
+			LOG.error("Unhandled error processing deferred ZooKeeper operation. {}", ExceptionUtils.getRootCauseMessage(e), e);
+		} finally {
+			metrics.getTasksMetric().channelFinished();
+		}
+	}
+}
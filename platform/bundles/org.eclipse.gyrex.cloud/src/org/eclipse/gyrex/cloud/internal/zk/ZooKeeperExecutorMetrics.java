@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.internal.zk;
+
+import org.eclipse.gyrex.monitoring.metrics.BaseMetric;
+import org.eclipse.gyrex.monitoring.metrics.CapacityMetric;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
+
+/**
+ * Metrics of the shared {@link ZooKeeperExecutor}.
+ */
+public class ZooKeeperExecutorMetrics extends MetricSet {
+
+	private final CapacityMetric tasksMetric;
+	private final HistogramMetric queueDepthMetric;
+
+	ZooKeeperExecutorMetrics(final int maxThreads) {
+		super("org.eclipse.gyrex.cloud.zookeeper.executor.metrics", "ZooKeeper deferred executor metrics", new BaseMetric[] { new CapacityMetric("org.eclipse.gyrex.cloud.zookeeper.executor.threads", maxThreads), new HistogramMetric("org.eclipse.gyrex.cloud.zookeeper.executor.queueDepth") });
+		tasksMetric = getMetric(0, CapacityMetric.class);
+		queueDepthMetric = getMetric(1, HistogramMetric.class);
+	}
+
+	/**
+	 * Returns the metric for the number of tasks waiting for a thread of the
+	 * shared pool when a task is started.
+	 *
+	 * @return the queue depth metric
+	 */
+	public HistogramMetric getQueueDepthMetric() {
+		return queueDepthMetric;
+	}
+
+	/**
+	 * Returns the metric for threads busy executing tasks.
+	 * <p>
+	 * The capacity is the maximum number of threads. The wait time is the time
+	 * a task waited between submission and execution.
+	 * </p>
+	 *
+	 * @return the tasks metric
+	 */
+	public CapacityMetric getTasksMetric() {
+		return tasksMetric;
+	}
+}
@@ -15,9 +15,13 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 import org.eclipse.gyrex.cloud.internal.CloudDebug;
 
@@ -30,11 +34,20 @@ import org.eclipse.core.runtime.jobs.Job;
 
 import org.apache.commons.lang.CharEncoding;
 import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.zookeeper.AsyncCallback.Children2Callback;
+import org.apache.zookeeper.AsyncCallback.DataCallback;
+import org.apache.zookeeper.AsyncCallback.MultiCallback;
+import org.apache.zookeeper.AsyncCallback.StatCallback;
+import org.apache.zookeeper.AsyncCallback.StringCallback;
+import org.apache.zookeeper.AsyncCallback.VoidCallback;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.KeeperException.BadVersionException;
 import org.apache.zookeeper.KeeperException.Code;
 import org.apache.zookeeper.KeeperException.NoNodeException;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.OpResult;
+import org.apache.zookeeper.OpResult.ErrorResult;
 import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.Watcher;
 import org.apache.zookeeper.Watcher.Event.EventType;
@@ -54,6 +67,15 @@ import org.slf4j.LoggerFactory;
  * to be notified about connection events.
  * </p>
  * <p>
+ * Most operations are also available in an asynchronous variant returning a
+ * {@link CompletableFuture}. Asynchronous operations are pipelined over the
+ * ZooKeeper session, i.e. many operations can be issued without waiting for
+ * the result of previous ones. The futures are completed by the ZooKeeper
+ * event thread. Thus, dependent actions must not block. Use one of the
+ * <code>...Async</code> methods of {@link CompletableFuture} when blocking
+ * work needs to be done.
+ * </p>
+ * <p>
  * Note, this class is not API. It's ZooKeeper specific. Patches are welcome to
  * restructure the Gyrex cloud stuff. A first step would require to refactor
  * everything ZooKeeper specific into a separate "implementation" bundle. Based
@@ -114,6 +136,22 @@ public class ZooKeeperGate {
 		gateListeners.addIfAbsent(listener);
 	}
 
+	private static void copyStat(final Stat source, final Stat target) {
+		if ((source == null) || (target == null))
+			return;
+		target.setAversion(source.getAversion());
+		target.setCtime(source.getCtime());
+		target.setCversion(source.getCversion());
+		target.setCzxid(source.getCzxid());
+		target.setDataLength(source.getDataLength());
+		target.setEphemeralOwner(source.getEphemeralOwner());
+		target.setMtime(source.getMtime());
+		target.setMzxid(source.getMzxid());
+		target.setNumChildren(source.getNumChildren());
+		target.setPzxid(source.getPzxid());
+		target.setVersion(source.getVersion());
+	}
+
 	private static String gateDownError(final ZooKeeperGate gate) {
 		try {
 			return String.format("ZooKeeper Gate is DOWN. (%s)", String.valueOf(gate));
@@ -146,10 +184,44 @@ public class ZooKeeperGate {
 		return old;
 	}
 
+	private static boolean isCode(final Throwable t, final Code code) {
+		final Throwable cause = unwrap(t);
+		return (cause instanceof KeeperException) && (((KeeperException) cause).code() == code);
+	}
+
 	static boolean isCurrentGate(final ZooKeeperGate gate) {
 		return (gate != null) && (gate == instanceRef.get());
 	}
 
+	private static KeeperException multiException(final int rc, final Iterable<Op> ops, final List<OpResult> results) {
+		// report the operation which caused the transaction to fail
+		if (results != null) {
+			final Iterator<Op> opsIterator = ops.iterator();
+			for (final OpResult result : results) {
+				final Op op = opsIterator.hasNext() ? opsIterator.next() : null;
+				if (result instanceof ErrorResult) {
+					final int err = ((ErrorResult) result).getErr();
+					if ((err != Code.OK.intValue()) && (err != Code.RUNTIMEINCONSISTENCY.intValue()))
+						return KeeperException.create(Code.get(err), op != null ? op.getPath() : null);
+				}
+			}
+		}
+		return KeeperException.create(Code.get(rc));
+	}
+
+	private static <T> void propagate(final CompletableFuture<T> source, final CompletableFuture<T> target) {
+		source.whenComplete(new BiConsumer<T, Throwable>() {
+			@Override
+			public void accept(final T result, final Throwable t) {
+				if (t != null) {
+					target.completeExceptionally(unwrap(t));
+				} else {
+					target.complete(result);
+				}
+			}
+		});
+	}
+
 	/**
 	 * Removed a connection monitor.
 	 * <p>
@@ -168,6 +240,12 @@ public class ZooKeeperGate {
 		gateListeners.remove(connectionMonitor);
 	}
 
+	private static Throwable unwrap(final Throwable t) {
+		if ((t instanceof CompletionException) && (t.getCause() != null))
+			return t.getCause();
+		return t;
+	}
+
 	private final DebuggableZooKeeper zooKeeper;
 
 	private final ZooKeeperGateListener reconnectMonitor;
@@ -355,6 +433,33 @@ public class ZooKeeperGate {
 		return new Path(getZooKeeper().create(path.toString(), data, ZooDefs.Ids.OPEN_ACL_UNSAFE, createMode));
 	}
 
+	private CompletableFuture<IPath> createAsync(final IPath path, final CreateMode createMode, final byte[] data) {
+		final CompletableFuture<IPath> future = new CompletableFuture<IPath>();
+		zooKeeper.create(path.toString(), data, ZooDefs.Ids.OPEN_ACL_UNSAFE, createMode, new StringCallback() {
+			@Override
+			public void processResult(final int rc, final String nodePath, final Object ctx, final String name) {
+				if (rc == Code.OK.intValue()) {
+					future.complete(new Path(name));
+				} else if ((rc == Code.NONODE.intValue()) && (path.segmentCount() > 1)) {
+					// create parent and try again
+					createAsync(path.removeLastSegments(1), CreateMode.PERSISTENT, null).whenComplete(new BiConsumer<IPath, Throwable>() {
+						@Override
+						public void accept(final IPath parent, final Throwable t) {
+							if ((t == null) || isCode(t, Code.NODEEXISTS)) {
+								propagate(createAsync(path, createMode, data), future);
+							} else {
+								future.completeExceptionally(unwrap(t));
+							}
+						}
+					});
+				} else {
+					future.completeExceptionally(KeeperException.create(Code.get(rc), nodePath));
+				}
+			}
+		}, null);
+		return future;
+	}
+
 	/**
 	 * Creates a path in ZooKeeper.
 	 * <p>
@@ -426,6 +531,81 @@ public class ZooKeeperGate {
 		}
 	}
 
+	/**
+	 * Asynchronously creates a path in ZooKeeper and sets the specified data.
+	 * <p>
+	 * This is the asynchronous counterpart of
+	 * {@link #createPath(IPath, CreateMode, byte[])}. Missing parents will be
+	 * created using {@link CreateMode#PERSISTENT}.
+	 * </p>
+	 * 
+	 * @param path
+	 *            the path to create
+	 * @param createMode
+	 *            the creation mode
+	 * @param recordData
+	 *            the record data (may be <code>null</code>)
+	 * @return a future providing the actual path of the created node
+	 */
+	public CompletableFuture<IPath> createPathAsync(final IPath path, final CreateMode createMode, final byte[] recordData) {
+		if (path == null)
+			throw new IllegalArgumentException("path must not be null");
+		if (createMode == null)
+			throw new IllegalArgumentException("createMode must not be null");
+		return createAsync(path, createMode, recordData);
+	}
+
+	private CompletableFuture<Void> deleteAsync(final IPath path, final int version, final boolean ignoreMissing) {
+		final CompletableFuture<Void> future = new CompletableFuture<Void>();
+		zooKeeper.getChildren(path.toString(), false, new Children2Callback() {
+			@Override
+			public void processResult(final int rc, final String nodePath, final Object ctx, final List<String> children, final Stat stat) {
+				if (rc != Code.OK.intValue()) {
+					if (ignoreMissing && (rc == Code.NONODE.intValue())) {
+						future.complete(null);
+					} else {
+						future.completeExceptionally(KeeperException.create(Code.get(rc), nodePath));
+					}
+					return;
+				}
+
+				// abort if version doesn't match
+				if ((version != -1) && (stat.getVersion() != version)) {
+					future.completeExceptionally(new BadVersionException(nodePath));
+					return;
+				}
+
+				// delete all children (in parallel)
+				final CompletableFuture<?>[] childDeletes = new CompletableFuture<?>[children.size()];
+				for (int i = 0; i < childDeletes.length; i++) {
+					childDeletes[i] = deleteAsync(path.append(children.get(i)), -1, true);
+				}
+
+				// delete node itself
+				CompletableFuture.allOf(childDeletes).whenComplete(new BiConsumer<Void, Throwable>() {
+					@Override
+					public void accept(final Void result, final Throwable t) {
+						if (t != null) {
+							future.completeExceptionally(unwrap(t));
+							return;
+						}
+						zooKeeper.delete(nodePath, version, new VoidCallback() {
+							@Override
+							public void processResult(final int deleteRc, final String deletedPath, final Object ctx) {
+								if ((deleteRc == Code.OK.intValue()) || (ignoreMissing && (deleteRc == Code.NONODE.intValue()))) {
+									future.complete(null);
+								} else {
+									future.completeExceptionally(KeeperException.create(Code.get(deleteRc), nodePath));
+								}
+							}
+						}, null);
+					}
+				});
+			}
+		}, null);
+		return future;
+	}
+
 	/**
 	 * Removes a path in ZooKeeper.
 	 * <p>
@@ -511,6 +691,43 @@ public class ZooKeeperGate {
 		getZooKeeper().delete(path.toString(), version);
 	}
 
+	/**
+	 * Asynchronously removes a path in ZooKeeper.
+	 * <p>
+	 * This is the asynchronous counterpart of {@link #deletePath(IPath)}.
+	 * Children are removed in parallel. If the path doesn't exist the
+	 * operation is also considered successful.
+	 * </p>
+	 * 
+	 * @param path
+	 *            the path to delete
+	 * @return a future which completes when the path has been removed
+	 */
+	public CompletableFuture<Void> deletePathAsync(final IPath path) {
+		if (path == null)
+			throw new IllegalArgumentException("path must not be null");
+		return deleteAsync(path, -1, true);
+	}
+
+	/**
+	 * Asynchronously removes a path in ZooKeeper.
+	 * <p>
+	 * This is the asynchronous counterpart of {@link #deletePath(IPath, int)}.
+	 * Children are removed in parallel.
+	 * </p>
+	 * 
+	 * @param path
+	 *            the path to delete
+	 * @param version
+	 *            the expected node version
+	 * @return a future which completes when the path has been removed
+	 */
+	public CompletableFuture<Void> deletePathAsync(final IPath path, final int version) {
+		if (path == null)
+			throw new IllegalArgumentException("path must not be null");
+		return deleteAsync(path, version, false);
+	}
+
 	/**
 	 * Checks if the specified path exists.
 	 * 
@@ -551,6 +768,39 @@ public class ZooKeeperGate {
 		}
 	}
 
+	/**
+	 * Asynchronously checks if the specified path exists.
+	 * <p>
+	 * This is the asynchronous counterpart of
+	 * {@link #exists(IPath, ZooKeeperMonitor)}.
+	 * </p>
+	 * 
+	 * @param path
+	 *            the path to check
+	 * @param monitor
+	 *            optional watch to set (may be <code>null</code>)
+	 * @return a future providing <code>true</code> if the path exists,
+	 *         <code>false</code> otherwise
+	 */
+	public CompletableFuture<Boolean> existsAsync(final IPath path, final ZooKeeperMonitor monitor) {
+		if (path == null)
+			throw new IllegalArgumentException("path must not be null");
+		final CompletableFuture<Boolean> future = new CompletableFuture<Boolean>();
+		zooKeeper.exists(path.toString(), monitor, new StatCallback() {
+			@Override
+			public void processResult(final int rc, final String nodePath, final Object ctx, final Stat stat) {
+				if (rc == Code.OK.intValue()) {
+					future.complete(Boolean.TRUE);
+				} else if (rc == Code.NONODE.intValue()) {
+					future.complete(Boolean.FALSE);
+				} else {
+					future.completeExceptionally(KeeperException.create(Code.get(rc), nodePath));
+				}
+			}
+		}, null);
+		return future;
+	}
+
 	/**
 	 * Returns more information about the server this node is connected to.
 	 * <p>
@@ -644,6 +894,58 @@ public class ZooKeeperGate {
 		return keeperStateRef.isFlapping(System.currentTimeMillis() - 60000, allowedStateChangesPerMinute);
 	}
 
+	/**
+	 * Executes multiple ZooKeeper operations as a single transaction.
+	 * <p>
+	 * Either all operations succeed or none of them is applied. In case of
+	 * failure a {@link KeeperException} is thrown for the first operation
+	 * which failed.
+	 * </p>
+	 * 
+	 * @param ops
+	 *            the operations to execute
+	 * @return the results of the operations (in the order of the operations)
+	 * @throws InterruptedException
+	 * @throws KeeperException
+	 * @see {@link ZooKeeper#multi(Iterable)}
+	 */
+	public List<OpResult> multi(final Iterable<Op> ops) throws InterruptedException, KeeperException {
+		if (ops == null)
+			throw new IllegalArgumentException("ops must not be null");
+		return getZooKeeper().multi(ops);
+	}
+
+	/**
+	 * Asynchronously executes multiple ZooKeeper operations as a single
+	 * transaction.
+	 * <p>
+	 * This is the asynchronous counterpart of {@link #multi(Iterable)}. In case
+	 * of failure the future completes with a {@link KeeperException} for the
+	 * first operation which failed.
+	 * </p>
+	 * 
+	 * @param ops
+	 *            the operations to execute
+	 * @return a future providing the results of the operations (in the order
+	 *         of the operations)
+	 */
+	public CompletableFuture<List<OpResult>> multiAsync(final Iterable<Op> ops) {
+		if (ops == null)
+			throw new IllegalArgumentException("ops must not be null");
+		final CompletableFuture<List<OpResult>> future = new CompletableFuture<List<OpResult>>();
+		zooKeeper.multi(ops, new MultiCallback() {
+			@Override
+			public void processResult(final int rc, final String nodePath, final Object ctx, final List<OpResult> opResults) {
+				if (rc == Code.OK.intValue()) {
+					future.complete(opResults);
+				} else {
+					future.completeExceptionally(multiException(rc, ops, opResults));
+				}
+			}
+		}, null);
+		return future;
+	}
+
 	void notifyGateDown() {
 		// notify registered listeners
 		for (final ZooKeeperGateListener listener : gateListeners) {
@@ -750,6 +1052,44 @@ public class ZooKeeperGate {
 		return getZooKeeper().getChildren(path.toString(), watch, stat);
 	}
 
+	/**
+	 * Asynchronously reads the list of children from the specified path in
+	 * ZooKeeper.
+	 * <p>
+	 * This is the asynchronous counterpart of
+	 * {@link #readChildrenNames(IPath, ZooKeeperMonitor, Stat)}. The future
+	 * completes with a {@link NoNodeException} if no node with the given path
+	 * exists.
+	 * </p>
+	 * 
+	 * @param path
+	 *            the path to the record
+	 * @param watch
+	 *            optional watch to set (may be <code>null</code>)
+	 * @param stat
+	 *            optional object to populated with ZooKeeper statistics of the
+	 *            underlying node (populated before the future completes)
+	 * @return a future providing an unordered list of children of the node at
+	 *         the specified path
+	 */
+	public CompletableFuture<List<String>> readChildrenNamesAsync(final IPath path, final ZooKeeperMonitor watch, final Stat stat) {
+		if (path == null)
+			throw new IllegalArgumentException("path must not be null");
+		final CompletableFuture<List<String>> future = new CompletableFuture<List<String>>();
+		zooKeeper.getChildren(path.toString(), watch, new Children2Callback() {
+			@Override
+			public void processResult(final int rc, final String nodePath, final Object ctx, final List<String> children, final Stat nodeStat) {
+				if (rc == Code.OK.intValue()) {
+					copyStat(nodeStat, stat);
+					future.complete(children);
+				} else {
+					future.completeExceptionally(KeeperException.create(Code.get(rc), nodePath));
+				}
+			}
+		}, null);
+		return future;
+	}
+
 	/**
 	 * Reads a record from the specified path in ZooKeeper.
 	 * <p>
@@ -833,6 +1173,42 @@ public class ZooKeeperGate {
 		return getZooKeeper().getData(path.toString(), watch, stat);
 	}
 
+	/**
+	 * Asynchronously reads a record from the specified path in ZooKeeper.
+	 * <p>
+	 * This is the asynchronous counterpart of
+	 * {@link #readRecord(IPath, ZooKeeperMonitor, Stat)}. The future completes
+	 * with a {@link NoNodeException} if the path does not exists.
+	 * </p>
+	 * 
+	 * @param path
+	 *            the path to the record
+	 * @param watch
+	 *            optional watch to set (may be <code>null</code>)
+	 * @param stat
+	 *            optional object to populated with ZooKeeper statistics of the
+	 *            underlying node (populated before the future completes)
+	 * @return a future providing the record data (maybe <code>null</code> if
+	 *         no data is stored at the specified path)
+	 */
+	public CompletableFuture<byte[]> readRecordAsync(final IPath path, final ZooKeeperMonitor watch, final Stat stat) {
+		if (path == null)
+			throw new IllegalArgumentException("path must not be null");
+		final CompletableFuture<byte[]> future = new CompletableFuture<byte[]>();
+		zooKeeper.getData(path.toString(), watch, new DataCallback() {
+			@Override
+			public void processResult(final int rc, final String nodePath, final Object ctx, final byte[] data, final Stat nodeStat) {
+				if (rc == Code.OK.intValue()) {
+					copyStat(nodeStat, stat);
+					future.complete(data);
+				} else {
+					future.completeExceptionally(KeeperException.create(Code.get(rc), nodePath));
+				}
+			}
+		}, null);
+		return future;
+	}
+
 	/**
 	 * Sets the data on the specified path.
 	 * <p>
@@ -870,6 +1246,33 @@ public class ZooKeeperGate {
 		return getZooKeeper().setData(path.toString(), data, version);
 	}
 
+	private CompletableFuture<Stat> setDataAsync(final IPath path, final CreateMode createMode, final byte[] data, final int version) {
+		final CompletableFuture<Stat> future = new CompletableFuture<Stat>();
+		zooKeeper.setData(path.toString(), data, version, new StatCallback() {
+			@Override
+			public void processResult(final int rc, final String nodePath, final Object ctx, final Stat stat) {
+				if (rc == Code.OK.intValue()) {
+					future.complete(stat);
+				} else if ((rc == Code.NONODE.intValue()) && (createMode != null)) {
+					// create node and set data again
+					createAsync(path, createMode, data).whenComplete(new BiConsumer<IPath, Throwable>() {
+						@Override
+						public void accept(final IPath created, final Throwable t) {
+							if ((t == null) || isCode(t, Code.NODEEXISTS)) {
+								propagate(setDataAsync(path, null, data, version), future);
+							} else {
+								future.completeExceptionally(unwrap(t));
+							}
+						}
+					});
+				} else {
+					future.completeExceptionally(KeeperException.create(Code.get(rc), nodePath));
+				}
+			}
+		}, null);
+		return future;
+	}
+
 	/**
 	 * Closes the gate.
 	 * 
@@ -1040,4 +1443,58 @@ public class ZooKeeperGate {
 		}
 	}
 
+	/**
+	 * Asynchronously writes a record at the specified path in ZooKeeper.
+	 * <p>
+	 * This is the asynchronous counterpart of
+	 * {@link #writeRecord(IPath, byte[], int)}. The future completes with a
+	 * {@link NoNodeException} if the path does not exist and with a
+	 * {@link BadVersionException} if the version does not match.
+	 * </p>
+	 * 
+	 * @param path
+	 *            the path to write
+	 * @param recordData
+	 *            the record data
+	 * @param version
+	 *            the expected node version
+	 * @return a future providing ZooKeeper statistics about the underlying
+	 *         node
+	 */
+	public CompletableFuture<Stat> writeRecordAsync(final IPath path, final byte[] recordData, final int version) {
+		if (path == null)
+			throw new IllegalArgumentException("path must not be null");
+		if (recordData == null)
+			throw new IllegalArgumentException("recordData must not be null");
+		return setDataAsync(path, null, recordData, version);
+	}
+
+	/**
+	 * Asynchronously writes a record at the specified path in ZooKeeper.
+	 * <p>
+	 * This is the asynchronous counterpart of
+	 * {@link #writeRecord(IPath, CreateMode, byte[])}. If the path (or any of
+	 * its parents) doesn't exist it will be created using the specified
+	 * creation mode.
+	 * </p>
+	 * 
+	 * @param path
+	 *            the path to write
+	 * @param createMode
+	 *            the creation mode
+	 * @param recordData
+	 *            the record data
+	 * @return a future providing ZooKeeper statistics about the underlying
+	 *         node
+	 */
+	public CompletableFuture<Stat> writeRecordAsync(final IPath path, final CreateMode createMode, final byte[] recordData) {
+		if (path == null)
+			throw new IllegalArgumentException("path must not be null");
+		if (recordData == null)
+			throw new IllegalArgumentException("recordData must not be null");
+		if (createMode == null)
+			throw new IllegalArgumentException("createMode must not be null");
+		return setDataAsync(path, createMode, recordData, -1);
+	}
+
 }
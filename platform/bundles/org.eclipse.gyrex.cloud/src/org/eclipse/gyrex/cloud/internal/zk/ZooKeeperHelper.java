@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -12,6 +12,8 @@
 package org.eclipse.gyrex.cloud.internal.zk;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.IPath;
 
@@ -20,6 +22,7 @@ import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.KeeperException.BadVersionException;
 import org.apache.zookeeper.KeeperException.NoNodeException;
 import org.apache.zookeeper.KeeperException.NodeExistsException;
+import org.apache.zookeeper.Op;
 import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.ZooKeeper;
 import org.apache.zookeeper.data.Stat;
@@ -29,6 +32,59 @@ import org.apache.zookeeper.data.Stat;
  */
 public class ZooKeeperHelper {
 
+	/**
+	 * Adds the operations for deleting the path including all its children to
+	 * the specified list.
+	 * <p>
+	 * This is the transactional counterpart of
+	 * {@link #deleteTree(ZooKeeper, IPath, int, int)} for use with
+	 * {@link ZooKeeper#multi(Iterable)}. The tree is read immediately and
+	 * operations are added bottom-up, i.e. children are deleted before their
+	 * parents. The delete operation of the path itself carries the specified
+	 * version so that the transaction fails if the path was modified
+	 * concurrently. Children that are added concurrently let the transaction
+	 * fail as well.
+	 * </p>
+	 * <p>
+	 * Does not throw any {@link NoNodeException} if the path has been removed
+	 * concurrently (no operations will be added in this case). However, it may
+	 * throw a {@link BadVersionException} if the versions do not match
+	 * anymore.
+	 * </p>
+	 *
+	 * @param keeper
+	 * @param path
+	 * @param version
+	 * @param cversion
+	 * @param ops
+	 *            the list to add the operations to
+	 * @throws InterruptedException
+	 * @throws KeeperException
+	 */
+	public static void addDeleteTreeOperations(final ZooKeeper keeper, final IPath path, final int version, final int cversion, final List<Op> ops) throws InterruptedException, KeeperException {
+		// read stats & children
+		final Stat stat = new Stat();
+		final List<String> children;
+		try {
+			children = keeper.getChildren(path.toString(), false, stat);
+		} catch (final NoNodeException e) {
+			// consider deletion successful
+			return;
+		}
+
+		// abort if versions don't match
+		if (((version > -1) && (stat.getVersion() != version)) || ((cversion > -1) && (cversion != stat.getCversion())))
+			throw new BadVersionException(path.toString());
+
+		// delete all children first
+		for (final String child : children) {
+			addDeleteTreeOperations(keeper, path.append(child), -1, -1, ops);
+		}
+
+		// delete node itself
+		ops.add(Op.delete(path.toString(), version));
+	}
+
 	/**
 	 * Creates all parents of the given path if they do not exist.
 	 * <p>
@@ -102,6 +158,35 @@ public class ZooKeeperHelper {
 		}
 	}
 
+	/**
+	 * Waits for the result of an asynchronous ZooKeeper operation.
+	 * <p>
+	 * The cause of a failed operation is thrown as is, i.e. a
+	 * {@link KeeperException} reported by ZooKeeper will be thrown directly
+	 * and not wrapped into an {@link ExecutionException}.
+	 * </p>
+	 * 
+	 * @param future
+	 *            the future of the operation
+	 * @return the result of the operation
+	 * @throws InterruptedException
+	 * @throws KeeperException
+	 */
+	public static <V> V getResult(final Future<V> future) throws InterruptedException, KeeperException {
+		try {
+			return future.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof KeeperException)
+				throw (KeeperException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException("Unexpected error in ZooKeeper operation.", cause);
+		}
+	}
+
 	private ZooKeeperHelper() {
 		// empty
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -38,6 +38,21 @@ import java.util.concurrent.TimeUnit;
  */
 public interface IQueue {
 
+	/**
+	 * Adds a listener which will be notified when messages have been added to
+	 * the queue.
+	 * <p>
+	 * This method has no effect if the same listener is already registered.
+	 * </p>
+	 * 
+	 * @param listener
+	 *            the listener to add (may not be <code>null</code>)
+	 * @throws IllegalArgumentException
+	 *             if the listener is <code>null</code>
+	 * @since 1.3
+	 */
+	void addQueueListener(IQueueListener listener) throws IllegalArgumentException;
+
 	/**
 	 * Consumes a message from the queue.
 	 * <p>
@@ -146,6 +161,21 @@ public interface IQueue {
 	 */
 	List<IMessage> receiveMessages(int maxNumberOfMessages, Map<String, ?> properties) throws IllegalArgumentException, IllegalStateException, SecurityException;
 
+	/**
+	 * Removes a listener previously added with
+	 * {@link #addQueueListener(IQueueListener)}.
+	 * <p>
+	 * This method has no effect if the listener is not registered.
+	 * </p>
+	 * 
+	 * @param listener
+	 *            the listener to remove (may not be <code>null</code>)
+	 * @throws IllegalArgumentException
+	 *             if the listener is <code>null</code>
+	 * @since 1.3
+	 */
+	void removeQueueListener(IQueueListener listener) throws IllegalArgumentException;
+
 	/**
 	 * Sends a message to the queue.
 	 * <p>
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.cloud.services.queue;
+
+/**
+ * A listener which is notified when messages have been added to a queue.
+ * <p>
+ * Listeners allow consumers to receive messages as soon as they are sent
+ * instead of polling the queue. Notifications are a hint only, i.e. the
+ * messages may already have been received by other consumers at the time a
+ * listener is invoked. Queue service implementations might also not be able
+ * to detect all additions (eg. while being disconnected). Thus, consumers
+ * should still poll the queue occasionally.
+ * </p>
+ * <p>
+ * Listeners are typically invoked from a thread of the queue service. They
+ * must return quickly and must not block.
+ * </p>
+ * <p>
+ * This interface may be implemented by clients.
+ * </p>
+ * 
+ * @see IQueue#addQueueListener(IQueueListener)
+ * @since 1.3
+ */
+public interface IQueueListener {
+
+	/**
+	 * Notifies the listener that messages have been added to the queue.
+	 * 
+	 * @param queue
+	 *            the queue
+	 */
+	void messagesAdded(IQueue queue);
+
+}
@@ -11,20 +11,18 @@
  *******************************************************************************/
 package org.eclipse.gyrex.cloud.services.zookeeper;
 
-import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.gyrex.cloud.internal.CloudDebug;
 import org.eclipse.gyrex.cloud.internal.zk.GateDownException;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperExecutor;
+import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperExecutor.SerialExecutor;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGate;
 import org.eclipse.gyrex.cloud.internal.zk.ZooKeeperGateListener;
 
-import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.ZooKeeper;
 
@@ -100,7 +98,7 @@ public abstract class ZooKeeperBasedService {
 
 	private final long retryDelayInMs;
 	private final int retryCount;
-	private final ExecutorService executor;
+	private final SerialExecutor executor;
 
 	/**
 	 * Creates a new instance using a default retry delay of 250ms and a retry
@@ -135,20 +133,7 @@ public abstract class ZooKeeperBasedService {
 			throw new IllegalArgumentException("retry count to low");
 		this.retryDelayInMs = retryDelayInMs;
 		this.retryCount = retryCount;
-		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
-			@Override
-			public Thread newThread(final Runnable r) {
-				final Thread t = new Thread(r, String.format("%s Deferred Executor", ZooKeeperBasedService.this));
-				t.setDaemon(true);
-				t.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
-					@Override
-					public void uncaughtException(final Thread t, final Throwable e) {
-						LOG.error("Unhandled error processing operation in ({}). {}", ZooKeeperBasedService.this, ExceptionUtils.getRootCauseMessage(e), e);
-					}
-				});
-				return t;
-			}
-		});
+		executor = ZooKeeperExecutor.getInstance().newSerialExecutor();
 	}
 
 	/**
@@ -346,7 +331,8 @@ public abstract class ZooKeeperBasedService {
 	 * </p>
 	 * <p>
 	 * Many operations may be submitted. However, they are not executed in
-	 * parallel, i.e. only one at a time.
+	 * parallel, i.e. only one at a time. The operations of all services are
+	 * executed by a shared pool of threads.
 	 * </p>
 	 * 
 	 * @param operation
@@ -354,12 +340,14 @@ public abstract class ZooKeeperBasedService {
 	 * @return a {@link Future} to access the result of the specified operation
 	 */
 	protected <V> Future<V> submit(final Callable<V> operation) {
-		return executor.submit(new Callable<V>() {
+		final FutureTask<V> task = new FutureTask<V>(new Callable<V>() {
 			@Override
 			public V call() throws Exception {
 				return execute(operation);
 			}
 		});
+		executor.execute(task);
+		return task;
 	}
 
 	/**
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.context.tests.internal;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.gyrex.context.definitions.ContextDefinition;
+import org.eclipse.gyrex.context.internal.ContextActivator;
+import org.eclipse.gyrex.context.internal.GyrexContextImpl;
+import org.eclipse.gyrex.context.internal.registry.ContextRegistryImpl;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+import org.junit.Test;
+
+/**
+ * Measures the throughput of resolving an active context with 1 to 32
+ * concurrent threads.
+ * <p>
+ * This is not part of {@link AllContextTests}. The registry needs a running
+ * platform, thus, run it as a JUnit plug-in test. The system property
+ * <code>gyrex.context.benchmark.lookups</code> optionally specifies the number
+ * of lookups per thread.
+ * </p>
+ */
+@SuppressWarnings("restriction")
+public class ContextRegistryBenchmark {
+
+	private static final int LOOKUPS_PER_THREAD = Integer.getInteger("gyrex.context.benchmark.lookups", 1000000);
+
+	private static long runConcurrently(final ContextRegistryImpl contextRegistry, final IPath path, final GyrexContextImpl expected, final int threads) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final CountDownLatch ready = new CountDownLatch(threads);
+			final CountDownLatch start = new CountDownLatch(1);
+			final CountDownLatch done = new CountDownLatch(threads);
+			final AtomicInteger mismatches = new AtomicInteger();
+			for (int i = 0; i < threads; i++) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						ready.countDown();
+						try {
+							start.await();
+							for (int j = 0; j < LOOKUPS_PER_THREAD; j++) {
+								if (contextRegistry.getRealContext(path) != expected) {
+									mismatches.incrementAndGet();
+								}
+							}
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+						} finally {
+							done.countDown();
+						}
+					}
+				});
+			}
+			ready.await();
+			final long begin = System.nanoTime();
+			start.countDown();
+			done.await();
+			final long duration = System.nanoTime() - begin;
+			if (mismatches.get() > 0)
+				throw new IllegalStateException(String.format("%d lookups returned a different context", mismatches.get()));
+			return duration;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void benchmarkContextResolution() throws Exception {
+		final ContextRegistryImpl contextRegistry = ContextActivator.getInstance().getContextRegistryImpl();
+		final IPath path = new Path("/test/benchmark").append(String.valueOf(System.currentTimeMillis()));
+		final ContextDefinition definition = new ContextDefinition(path);
+		definition.setName(path.toPortableString());
+		contextRegistry.saveDefinition(definition);
+		try {
+			final GyrexContextImpl expected = contextRegistry.getRealContext(path);
+
+			// warm up
+			runConcurrently(contextRegistry, path, expected, 4);
+
+			for (int threads = 1; threads <= 32; threads *= 2) {
+				final long duration = runConcurrently(contextRegistry, path, expected, threads);
+				final long lookups = (long) threads * LOOKUPS_PER_THREAD;
+				System.out.printf("%2d threads: %10d lookups/ms%n", threads, lookups / Math.max(1, TimeUnit.NANOSECONDS.toMillis(duration)));
+			}
+		} finally {
+			contextRegistry.removeDefinition(definition);
+		}
+	}
+}
@@ -11,17 +11,29 @@
  *******************************************************************************/
 package org.eclipse.gyrex.context.tests.internal;
 
+import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertSame;
 import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.gyrex.cloud.internal.CloudDebug;
 import org.eclipse.gyrex.context.definitions.ContextDefinition;
 import org.eclipse.gyrex.context.internal.BaseContext;
 import org.eclipse.gyrex.context.internal.ContextActivator;
+import org.eclipse.gyrex.context.internal.GyrexContextImpl;
 import org.eclipse.gyrex.context.internal.registry.ContextRegistryImpl;
 
 import org.eclipse.core.runtime.IPath;
@@ -37,6 +49,9 @@ import org.junit.Test;
 @SuppressWarnings("restriction")
 public class ContextRegistryTests {
 
+	private static final int THREADS = 8;
+	private static final int LOOKUPS_PER_THREAD = 1000;
+
 	private ContextRegistryImpl contextRegistry;
 
 	private void assertDefined(final IPath path) {
@@ -111,6 +126,77 @@ public class ContextRegistryTests {
 		testRemoval();
 	}
 
+	@Test
+	public void test002_ConcurrentContextResolution() throws Exception {
+		final IPath path = new Path("/test/resolution").append(String.valueOf(System.currentTimeMillis()));
+		final IPath otherPath = path.append("other");
+		defineContext(path);
+		defineContext(otherPath);
+		try {
+			assertFalse(contextRegistry.hasRealContext(path));
+
+			// concurrent first lookups must all get the same context
+			final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+			try {
+				final CountDownLatch start = new CountDownLatch(1);
+				final List<Future<List<GyrexContextImpl>>> results = new ArrayList<Future<List<GyrexContextImpl>>>(THREADS);
+				for (int i = 0; i < THREADS; i++) {
+					results.add(executor.submit(new Callable<List<GyrexContextImpl>>() {
+						@Override
+						public List<GyrexContextImpl> call() throws Exception {
+							start.await();
+							final List<GyrexContextImpl> found = new ArrayList<GyrexContextImpl>(LOOKUPS_PER_THREAD);
+							for (int j = 0; j < LOOKUPS_PER_THREAD; j++) {
+								found.add(contextRegistry.getRealContext(path));
+							}
+							return found;
+						}
+					}));
+				}
+				start.countDown();
+
+				final GyrexContextImpl expected = contextRegistry.getRealContext(path);
+				assertNotNull(expected);
+				for (final Future<List<GyrexContextImpl>> result : results) {
+					final List<GyrexContextImpl> found = result.get(1, TimeUnit.MINUTES);
+					assertEquals(LOOKUPS_PER_THREAD, found.size());
+					for (final GyrexContextImpl context : found) {
+						assertSame(expected, context);
+					}
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+
+			// lookups are served from the registry
+			final GyrexContextImpl context = contextRegistry.getRealContext(path);
+			assertTrue(contextRegistry.hasRealContext(path));
+			assertSame(context, contextRegistry.getRealContext(path.addTrailingSeparator()));
+			assertEquals(ContextRegistryImpl.sanitize(path), context.getContextPath());
+
+			// other contexts are separate
+			assertFalse(contextRegistry.hasRealContext(otherPath));
+			final GyrexContextImpl otherContext = contextRegistry.getRealContext(otherPath);
+			assertTrue(contextRegistry.hasRealContext(otherPath));
+			assertNotSame(context, otherContext);
+			assertEquals(ContextRegistryImpl.sanitize(otherPath), otherContext.getContextPath());
+			assertSame(context, contextRegistry.getRealContext(path));
+
+			// undefined contexts are not created
+			final IPath undefinedPath = path.append("undefined");
+			try {
+				contextRegistry.getRealContext(undefinedPath);
+				fail("undefined context must not be created");
+			} catch (final IllegalStateException e) {
+				// expected
+			}
+			assertFalse(contextRegistry.hasRealContext(undefinedPath));
+		} finally {
+			contextRegistry.removeDefinition(new ContextDefinition(otherPath));
+			contextRegistry.removeDefinition(new ContextDefinition(path));
+		}
+	}
+
 	private void testRemoval() {
 		Collection<ContextDefinition> contexts = contextRegistry.getDefinedContexts();
 		assertNotNull(contexts);
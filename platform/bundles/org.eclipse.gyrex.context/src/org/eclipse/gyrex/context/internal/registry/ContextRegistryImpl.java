@@ -13,18 +13,16 @@ package org.eclipse.gyrex.context.internal.registry;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.gyrex.context.IRuntimeContext;
 import org.eclipse.gyrex.context.definitions.ContextDefinition;
@@ -57,6 +55,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The {@link IRuntimeContextRegistry} implementation.
+ * <p>
+ * Context lookups happen very frequently (eg., for every request or job).
+ * Therefore, active contexts are kept in a concurrent map which is read
+ * without locking. Only modifications (creating, flushing and disposing
+ * contexts) are serialized using a lock.
+ * </p>
  */
 //TODO: this should be a ServiceFactory which knows about the bundle requesting the manager for context access permission checks
 public class ContextRegistryImpl implements IRuntimeContextRegistry, IRuntimeContextDefinitionManager {
@@ -126,13 +130,16 @@ public class ContextRegistryImpl implements IRuntimeContextRegistry, IRuntimeCon
 		}
 	};
 
-	private final Map<IPath, GyrexContextImpl> contexts;
+	private final ConcurrentMap<IPath, GyrexContextImpl> contexts;
 	private final ConcurrentMap<IPath, GyrexContextHandle> handles;
 	private final AtomicBoolean closed = new AtomicBoolean();
-	private final ReadWriteLock contextRegistryLock = new ReentrantReadWriteLock();
+	private final AtomicBoolean flushListenerRegistered = new AtomicBoolean();
+
+	/** lock for modifications of {@link #contexts} (reads are not locked) */
+	private final Lock contextRegistryLock = new ReentrantLock();
 
 	public ContextRegistryImpl() {
-		contexts = new HashMap<IPath, GyrexContextImpl>();
+		contexts = new ConcurrentHashMap<IPath, GyrexContextImpl>();
 		handles = new ConcurrentHashMap<IPath, GyrexContextHandle>();
 	}
 
@@ -146,17 +153,18 @@ public class ContextRegistryImpl implements IRuntimeContextRegistry, IRuntimeCon
 		closed.set(true);
 
 		// remove preference listener
-		getContextFlushNode().removePreferenceChangeListener(flushListener);
+		if (flushListenerRegistered.compareAndSet(true, false)) {
+			getContextFlushNode().removePreferenceChangeListener(flushListener);
+		}
 
 		// dispose active contexts
 		GyrexContextImpl[] activeContexts;
-		final Lock lock = contextRegistryLock.writeLock();
-		lock.lock();
+		contextRegistryLock.lock();
 		try {
-			activeContexts = contexts.values().toArray(new GyrexContextImpl[contexts.size()]);
+			activeContexts = contexts.values().toArray(new GyrexContextImpl[0]);
 			contexts.clear();
 		} finally {
-			lock.unlock();
+			contextRegistryLock.unlock();
 		}
 
 		// dispose all the active contexts
@@ -176,22 +184,18 @@ public class ContextRegistryImpl implements IRuntimeContextRegistry, IRuntimeCon
 
 		// remove all entries within that path
 		final List<GyrexContextImpl> removedContexts = new ArrayList<GyrexContextImpl>();
-		final Lock lock = contextRegistryLock.writeLock();
-		lock.lock();
+		contextRegistryLock.lock();
 		try {
 			checkClosed();
-			final Entry[] entrySet = contexts.entrySet().toArray(new Entry[0]);
-			for (final Entry entry : entrySet) {
-				final IPath entryPath = (IPath) entry.getKey();
-				if (contextPath.isPrefixOf(entryPath)) {
-					final GyrexContextImpl contextImpl = contexts.remove(entryPath);
-					if (null != contextImpl) {
-						removedContexts.add(contextImpl);
-					}
+			for (final Iterator<Entry<IPath, GyrexContextImpl>> stream = contexts.entrySet().iterator(); stream.hasNext();) {
+				final Entry<IPath, GyrexContextImpl> entry = stream.next();
+				if (contextPath.isPrefixOf(entry.getKey())) {
+					stream.remove();
+					removedContexts.add(entry.getValue());
 				}
 			}
 		} finally {
-			lock.unlock();
+			contextRegistryLock.unlock();
 		}
 
 		// dispose all removed contexts (outside of lock)
@@ -336,24 +340,23 @@ public class ContextRegistryImpl implements IRuntimeContextRegistry, IRuntimeCon
 		checkClosed();
 		contextPath = sanitize(contextPath);
 
-		// get existing context
-		GyrexContextImpl context = null;
-		final Lock readLock = contextRegistryLock.readLock();
-		readLock.lock();
-		try {
-			context = contexts.get(contextPath);
-			if (null != context)
-				return context;
-		} finally {
-			readLock.unlock();
-		}
+		// get existing context (no locking)
+		GyrexContextImpl context = contexts.get(contextPath);
+		if (null != context)
+			return context;
 
-		// hook with preferences
-		getContextFlushNode().addPreferenceChangeListener(flushListener);
+		// hook with preferences (only once)
+		if (flushListenerRegistered.compareAndSet(false, true)) {
+			try {
+				getContextFlushNode().addPreferenceChangeListener(flushListener);
+			} catch (final RuntimeException e) {
+				flushListenerRegistered.set(false);
+				throw e;
+			}
+		}
 
 		// create & store new context if necessary
-		final Lock lock = contextRegistryLock.writeLock();
-		lock.lock();
+		contextRegistryLock.lock();
 		try {
 			checkClosed();
 
@@ -366,11 +369,11 @@ public class ContextRegistryImpl implements IRuntimeContextRegistry, IRuntimeCon
 				throw new IllegalStateException(String.format("Context '%s' does not exists.", contextPath.toString()));
 
 			context = new GyrexContextImpl(contextPath, this);
-			if (contexts.put(contextPath, context) != null)
+			if (contexts.putIfAbsent(contextPath, context) != null)
 				throw new IllegalStateException(String.format("Duplicate context object created for context '%s'. Please report stacktrace to the development team!", contextPath.toString()));
 
 		} finally {
-			lock.unlock();
+			contextRegistryLock.unlock();
 		}
 
 		return context;
@@ -385,15 +388,7 @@ public class ContextRegistryImpl implements IRuntimeContextRegistry, IRuntimeCon
 	public boolean hasRealContext(IPath contextPath) throws IllegalArgumentException {
 		checkClosed();
 		contextPath = sanitize(contextPath);
-
-		final Lock readLock = contextRegistryLock.readLock();
-		readLock.lock();
-		try {
-			return contexts.containsKey(contextPath);
-		} finally {
-			readLock.unlock();
-		}
-
+		return contexts.containsKey(contextPath);
 	}
 
 	public void removeDefinition(final ContextDefinition contextDefinition) {
@@ -23,5 +23,6 @@ public class JettyDebug extends BundleDebugOptions {
 	public static boolean applicationContext;
 	public static boolean urlMapLookup;
 	public static boolean engine;
+	public static boolean resourceCache;
 
 }
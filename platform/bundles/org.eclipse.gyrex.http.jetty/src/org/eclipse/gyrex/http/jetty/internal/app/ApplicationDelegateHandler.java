@@ -113,6 +113,8 @@ public class ApplicationDelegateHandler extends ScopedHandler {
 		} catch (final Error e) {
 			metrics.getRequestsMetric().requestFailed();
 			throw e;
+		} finally {
+			metrics.getRequestLatencyMetric().record(System.nanoTime() - requestStart);
 		}
 	}
 
@@ -14,8 +14,10 @@ package org.eclipse.gyrex.http.jetty.internal.app;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.EventListener;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
@@ -30,6 +32,7 @@ import org.eclipse.gyrex.http.application.Application;
 import org.eclipse.gyrex.http.application.context.IApplicationContext;
 import org.eclipse.gyrex.http.internal.application.manager.ApplicationInstance;
 import org.eclipse.gyrex.http.internal.application.manager.ApplicationRegistration;
+import org.eclipse.gyrex.http.jetty.internal.HttpJettyActivator;
 import org.eclipse.gyrex.http.jetty.internal.JettyDebug;
 import org.eclipse.gyrex.http.jetty.internal.JettyEngineApplication;
 import org.eclipse.gyrex.server.Platform;
@@ -140,6 +143,7 @@ public class ApplicationHandler extends ServletContextHandler {
 	private final PathMappings<ResourceProviderHolder> resourcesMap = new PathMappings<>();
 	private final boolean showDebugInfo = Platform.inDebugMode() || Platform.inDevelopmentMode();
 	private final ApplicationHandlerMetrics metrics;
+	private final ApplicationResourceCache resourceCache;
 
 	private ApplicationContext applicationContext;
 	private volatile ApplicationInstance applicationInstance;
@@ -174,6 +178,9 @@ public class ApplicationHandler extends ServletContextHandler {
 
 		// set display name
 		setDisplayName(applicationRegistration.getProviderId() + "@" + applicationRegistration.getApplicationId() + "@" + applicationRegistration.getContext().getContextPath());
+
+		// cache resource lookups (not in development mode where resources are edited)
+		resourceCache = createResourceCache();
 	}
 
 	/**
@@ -184,12 +191,38 @@ public class ApplicationHandler extends ServletContextHandler {
 	 */
 	public void addResource(final String pathSpec, final ResourceProviderHolder resourceProviderHolder) {
 		resourcesMap.put(pathSpec, resourceProviderHolder);
+		if (resourceCache != null) {
+			resourceCache.clear();
+		}
 	}
 
 	public void addUrl(final String url) {
 		urls.add(url);
 	}
 
+	private ApplicationResourceCache createResourceCache() {
+		final int maxEntries = NumberUtils.toInt(getInitParameter("resources.cache.maxEntries"), Platform.inDevelopmentMode() ? 0 : 1000);
+		if (maxEntries <= 0)
+			return null;
+
+		final long timeToLive = TimeUnit.SECONDS.toMillis(NumberUtils.toLong(getInitParameter("resources.cache.ttl"), 0));
+
+		// missing resources are cheap to look up again but must not pile up
+		final long missingTimeToLive = TimeUnit.SECONDS.toMillis(Math.max(1, NumberUtils.toLong(getInitParameter("resources.cache.missingTtl"), 10)));
+
+		// generated compressed variants are content addressed and thus may be shared by all applications
+		Path workDirectory = null;
+		if (!StringUtils.equalsIgnoreCase(getInitParameter("resources.precompress"), "false")) {
+			try {
+				workDirectory = Platform.getStateLocation(HttpJettyActivator.getInstance().getBundle()).append("resource-cache").toFile().toPath();
+			} catch (final IllegalStateException e) {
+				LOG.warn("Unable to determine work directory for compressed resources. Compressed variants of resources will not be generated. {}", e.getMessage());
+			}
+		}
+
+		return new ApplicationResourceCache(this, maxEntries, timeToLive, missingTimeToLive, workDirectory);
+	}
+
 	private SessionHandler createSessionHandler() {
 		// make sure the set a proper session inactive interval
 		// otherwise Jetty will keep sessions open forever
@@ -203,6 +236,9 @@ public class ApplicationHandler extends ServletContextHandler {
 		try {
 			super.destroy();
 		} finally {
+			if (resourceCache != null) {
+				resourceCache.clear();
+			}
 			JettyEngineApplication.unregisterMetrics(metrics);
 		}
 	}
@@ -432,6 +468,11 @@ public class ApplicationHandler extends ServletContextHandler {
 
 	/**
 	 * Looks up and returns a resource for the specified path.
+	 * <p>
+	 * Lookups are cached unless disabled by the application (init parameter
+	 * <code>resources.cache.maxEntries</code>) or when running in development
+	 * mode.
+	 * </p>
 	 *
 	 * @param path
 	 * @return the found resource (maybe <code>null</code> if non is registered
@@ -440,32 +481,17 @@ public class ApplicationHandler extends ServletContextHandler {
 	 */
 	@Override
 	public Resource getResource(String path) throws MalformedURLException {
-		// data structure which maps a request to a resource provider; first-best match wins
-		// { path =>  resource provider holder }
 		if ((resourcesMap.size() == 0) || (path == null) || !path.startsWith(URIUtil.SLASH))
 			return null;
 
 		path = URIUtil.canonicalPath(path);
-		final MappedResource<ResourceProviderHolder> entry = resourcesMap.getMatch(path);
-		if (null == entry)
-			return null;
-		final ResourceProviderHolder provider = entry.getResource();
-		if (null == provider)
+		if (path == null)
 			return null;
 
-		final PathSpec pathSpec = entry.getPathSpec();
-		final String pathInfo = pathSpec.getPathInfo(path);
-		final URL resourceUrl = provider.getResource(pathInfo);
-		if (null == resourceUrl)
-			return null;
-		try {
-			// resolve bundle/Eclipse URLs
-			final URL fileURL = FileLocator.toFileURL(resourceUrl);
-			return Resource.newResource(fileURL);
-		} catch (final IOException e) {
-			LOG.warn("Error resolving url {} to file based resource. {}", resourceUrl.toExternalForm(), e.getMessage());
-			return null;
-		}
+		if (resourceCache != null)
+			return resourceCache.getResource(path);
+
+		return lookupResource(path);
 	}
 
 	@Override
@@ -521,6 +547,41 @@ public class ApplicationHandler extends ServletContextHandler {
 		return StringUtil.startsWithIgnoreCase(target, "/web-inf") || StringUtil.startsWithIgnoreCase(target, "/meta-inf") || StringUtil.startsWithIgnoreCase(target, "/osgi-inf") || StringUtil.startsWithIgnoreCase(target, "/osgi-opt");
 	}
 
+	/**
+	 * Looks up a resource with the registered resource providers (bypassing
+	 * the resource cache).
+	 *
+	 * @param path
+	 *            the canonical path
+	 * @return the found resource (maybe <code>null</code> if non is registered
+	 *         for the specified path)
+	 * @throws MalformedURLException
+	 */
+	Resource lookupResource(final String path) throws MalformedURLException {
+		// data structure which maps a request to a resource provider; first-best match wins
+		// { path =>  resource provider holder }
+		final MappedResource<ResourceProviderHolder> entry = resourcesMap.getMatch(path);
+		if (null == entry)
+			return null;
+		final ResourceProviderHolder provider = entry.getResource();
+		if (null == provider)
+			return null;
+
+		final PathSpec pathSpec = entry.getPathSpec();
+		final String pathInfo = pathSpec.getPathInfo(path);
+		final URL resourceUrl = provider.getResource(pathInfo);
+		if (null == resourceUrl)
+			return null;
+		try {
+			// resolve bundle/Eclipse URLs
+			final URL fileURL = FileLocator.toFileURL(resourceUrl);
+			return Resource.newResource(fileURL);
+		} catch (final IOException e) {
+			LOG.warn("Error resolving url {} to file based resource. {}", resourceUrl.toExternalForm(), e.getMessage());
+			return null;
+		}
+	}
+
 	/**
 	 * Removes a resource from the application.
 	 *
@@ -528,6 +589,9 @@ public class ApplicationHandler extends ServletContextHandler {
 	 */
 	public void removeResource(final String pathSpec) {
 		resourcesMap.remove(PathMappings.asPathSpec(pathSpec));
+		if (resourceCache != null) {
+			resourceCache.clear();
+		}
 	}
 
 	public void removeUrl(final String url) {
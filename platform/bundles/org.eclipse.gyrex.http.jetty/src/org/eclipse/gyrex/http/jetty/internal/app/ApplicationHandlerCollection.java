@@ -32,7 +32,6 @@ import org.eclipse.gyrex.server.Platform;
 
 import org.eclipse.jetty.continuation.ContinuationThrowable;
 import org.eclipse.jetty.http.HttpStatus;
-import org.eclipse.jetty.http.PathMap.MappedEntry;
 import org.eclipse.jetty.io.EofException;
 import org.eclipse.jetty.io.RuntimeIOException;
 import org.eclipse.jetty.server.Handler;
@@ -106,7 +105,7 @@ public class ApplicationHandlerCollection extends AbstractHandlerContainer {
 		}
 
 		// perform lookup
-		final MappedEntry<Handler> entry = map.getMatch(request.getScheme(), request.getServerName(), request.getServerPort(), target);
+		final UrlMap.Match entry = map.getMatch(request.getScheme(), request.getServerName(), request.getServerPort(), target);
 		if (entry == null) {
 			if (JettyDebug.handlers) {
 				LOG.debug("no matching handler for {}", request.getRequestURL());
@@ -15,6 +15,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.eclipse.gyrex.http.jetty.internal.HttpJettyActivator;
 import org.eclipse.gyrex.monitoring.metrics.ErrorMetric;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
 import org.eclipse.gyrex.monitoring.metrics.MetricSet;
 import org.eclipse.gyrex.monitoring.metrics.StatusMetric;
 import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
@@ -30,15 +31,21 @@ public class ApplicationHandlerMetrics extends MetricSet {
 	private final StatusMetric statusMetric;
 	private final ThroughputMetric requestsMetric;
 	private final ErrorMetric errorsMetric;
+	private final HistogramMetric requestLatencyMetric;
+	private final ThroughputMetric resourceCacheHitsMetric;
+	private final ThroughputMetric resourceCacheMissesMetric;
 
 	/**
 	 * Creates a new instance.
 	 */
 	protected ApplicationHandlerMetrics(final String applicationId) {
-		super(String.format(HttpJettyActivator.SYMBOLIC_NAME + ".handler.application.%s.metric", applicationId), String.format("Metrics for Jetty Server requests handled by Gyrex application '%s'.", applicationId), new StatusMetric("status", "created", "not initialized"), new ThroughputMetric("requests", TimeUnit.NANOSECONDS), new ErrorMetric("errors", 5));
+		super(String.format(HttpJettyActivator.SYMBOLIC_NAME + ".handler.application.%s.metric", applicationId), String.format("Metrics for Jetty Server requests handled by Gyrex application '%s'.", applicationId), new StatusMetric("status", "created", "not initialized"), new ThroughputMetric("requests", TimeUnit.NANOSECONDS), new ErrorMetric("errors", 5), new HistogramMetric("requestLatency", TimeUnit.NANOSECONDS), new ThroughputMetric("resourceCacheHits", TimeUnit.NANOSECONDS), new ThroughputMetric("resourceCacheMisses", TimeUnit.NANOSECONDS));
 		statusMetric = getMetric(0, StatusMetric.class);
 		requestsMetric = getMetric(1, ThroughputMetric.class);
 		errorsMetric = getMetric(2, ErrorMetric.class);
+		requestLatencyMetric = getMetric(3, HistogramMetric.class);
+		resourceCacheHitsMetric = getMetric(4, ThroughputMetric.class);
+		resourceCacheMissesMetric = getMetric(5, ThroughputMetric.class);
 	}
 
 	public void error(final int status, final String reason) {
@@ -49,10 +56,22 @@ public class ApplicationHandlerMetrics extends MetricSet {
 		errorsMetric.setLastError(message, ExceptionUtils.getFullStackTrace(t));
 	}
 
+	public HistogramMetric getRequestLatencyMetric() {
+		return requestLatencyMetric;
+	}
+
 	public ThroughputMetric getRequestsMetric() {
 		return requestsMetric;
 	}
 
+	public ThroughputMetric getResourceCacheHitsMetric() {
+		return resourceCacheHitsMetric;
+	}
+
+	public ThroughputMetric getResourceCacheMissesMetric() {
+		return resourceCacheMissesMetric;
+	}
+
 	public void setStatus(final String status, final String reasons) {
 		statusMetric.setStatus(status, reasons);
 	}
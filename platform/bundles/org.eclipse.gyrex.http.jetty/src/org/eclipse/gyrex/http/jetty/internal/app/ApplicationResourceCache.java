@@ -0,0 +1,417 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.http.jetty.internal.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.gyrex.http.application.context.IResourceProvider;
+import org.eclipse.gyrex.http.jetty.internal.JettyDebug;
+import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
+
+import org.eclipse.jetty.util.IO;
+import org.eclipse.jetty.util.StringUtil;
+import org.eclipse.jetty.util.resource.PathResource;
+import org.eclipse.jetty.util.resource.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of resources looked up from the {@link IResourceProvider resource
+ * providers} of an application.
+ * <p>
+ * Each path is resolved with the resource providers only once. Both, found and
+ * missing resources are remembered. Lookups don't lock. Found and missing
+ * resources are kept separately and each is bounded by the maximum number of
+ * entries. When the bound is reached, entries not accessed since the last
+ * eviction pass are evicted first (second chance). Thus, a scan of missing
+ * paths never evicts found resources. Optionally, found resources expire after
+ * a time to live. Missing resources always expire after a (short) time to
+ * live.
+ * </p>
+ * <p>
+ * Resources backed by a file carry a strong entity tag which is computed from
+ * their content. Thus, it's stable across nodes and bundle re-extractions. If
+ * a work directory is available, a gzip compressed variant of a compressible
+ * resource is generated when it's first requested (i.e. a lookup of
+ * <code>path + ".gz"</code> for which no resource provider returned anything).
+ * The work directory is content addressed, i.e. a variant is generated only
+ * once per content. Jetty's default servlet serves those variants like shipped
+ * precompressed files (see {@link ApplicationResourceServlet}).
+ * </p>
+ */
+public class ApplicationResourceCache {
+
+	/**
+	 * A file based resource with a strong entity tag.
+	 */
+	static final class CachedResource extends PathResource {
+
+		private final String etag;
+
+		CachedResource(final Path path, final String etag) {
+			super(path);
+			this.etag = etag;
+		}
+
+		String getETagValue() {
+			return etag;
+		}
+
+		@Override
+		public String getWeakETag(final String suffix) {
+			// Jetty only knows weak entity tags; ours are based on content
+			if (etag == null)
+				return super.getWeakETag(suffix);
+			return "\"" + etag + suffix + "\"";
+		}
+	}
+
+	private static final class CacheEntry {
+
+		final Resource resource;
+		final long expires;
+
+		/** set on every hit, cleared by eviction passes */
+		volatile boolean accessed;
+
+		CacheEntry(final Resource resource, final long expires) {
+			this.resource = resource;
+			this.expires = expires;
+		}
+
+		boolean isExpired(final long now) {
+			return (expires != 0) && (expires <= now);
+		}
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(ApplicationResourceCache.class);
+
+	static final String GZIP_EXTENSION = ".gz";
+
+	/** resources smaller than this are not worth compressing */
+	private static final int MIN_COMPRESS_SIZE = 256;
+
+	private static String digest(final Path file) throws IOException {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-1 not available", e);
+		}
+		try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+			IO.copy(in, IO.getNullStream());
+		}
+		final byte[] bytes = digest.digest();
+		final StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (final byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+
+	private final ApplicationHandler applicationHandler;
+	private final int maxEntries;
+	private final long timeToLive;
+	private final long missingTimeToLive;
+	private final Path workDirectory;
+	private final ThroughputMetric hitsMetric;
+	private final ThroughputMetric missesMetric;
+
+	/** the found resources */
+	private final ConcurrentMap<String, CacheEntry> entries = new ConcurrentHashMap<String, CacheEntry>();
+
+	/** the missing resources (bounded separately) */
+	private final ConcurrentMap<String, CacheEntry> missingEntries = new ConcurrentHashMap<String, CacheEntry>();
+
+	/** only one thread needs to evict at a time */
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param applicationHandler
+	 *            the handler to lookup resources from
+	 * @param maxEntries
+	 *            the maximum number of found as well as missing resources to
+	 *            keep (must be greater than zero)
+	 * @param timeToLive
+	 *            the time in milliseconds after which found resources expire
+	 *            (zero if they should never expire)
+	 * @param missingTimeToLive
+	 *            the time in milliseconds after which missing resources expire
+	 *            (must be greater than zero)
+	 * @param workDirectory
+	 *            the directory for generating compressed variants (may be
+	 *            <code>null</code> if variants should not be generated)
+	 */
+	public ApplicationResourceCache(final ApplicationHandler applicationHandler, final int maxEntries, final long timeToLive, final long missingTimeToLive, final Path workDirectory) {
+		this(applicationHandler, applicationHandler.getMetrics().getResourceCacheHitsMetric(), applicationHandler.getMetrics().getResourceCacheMissesMetric(), maxEntries, timeToLive, missingTimeToLive, workDirectory);
+	}
+
+	private ApplicationResourceCache(final ApplicationHandler applicationHandler, final ThroughputMetric hitsMetric, final ThroughputMetric missesMetric, final int maxEntries, final long timeToLive, final long missingTimeToLive, final Path workDirectory) {
+		if (maxEntries <= 0)
+			throw new IllegalArgumentException("max entries must be greater than zero");
+		if (missingTimeToLive <= 0)
+			throw new IllegalArgumentException("time to live of missing resources must be greater than zero");
+		this.applicationHandler = applicationHandler;
+		this.hitsMetric = hitsMetric;
+		this.missesMetric = missesMetric;
+		this.maxEntries = maxEntries;
+		this.timeToLive = timeToLive;
+		this.missingTimeToLive = missingTimeToLive;
+		this.workDirectory = workDirectory;
+	}
+
+	/**
+	 * Creates a new instance without an application handler.
+	 * <p>
+	 * Subclasses must implement {@link #lookupResource(String)} and
+	 * {@link #getMimeType(String)}.
+	 * </p>
+	 * <p>
+	 * This method is only public for testing purposes. It must not be called
+	 * by clients.
+	 * </p>
+	 *
+	 * @noreference This constructor is not intended to be referenced by
+	 *              clients.
+	 */
+	protected ApplicationResourceCache(final ThroughputMetric hitsMetric, final ThroughputMetric missesMetric, final int maxEntries, final long timeToLive, final long missingTimeToLive, final Path workDirectory) {
+		this(null, hitsMetric, missesMetric, maxEntries, timeToLive, missingTimeToLive, workDirectory);
+	}
+
+	/**
+	 * Removes all entries from the cache.
+	 */
+	public void clear() {
+		entries.clear();
+		missingEntries.clear();
+	}
+
+	private Resource createCachedResource(final Resource resource) throws IOException {
+		final File file = resource.getFile();
+		if ((file == null) || !file.isFile())
+			return resource;
+		final Path path = file.toPath();
+		return new CachedResource(path, digest(path));
+	}
+
+	private Resource createGzipVariant(final String path) throws MalformedURLException {
+		final String basePath = path.substring(0, path.length() - GZIP_EXTENSION.length());
+		final Resource base = getResource(basePath);
+		if (!(base instanceof CachedResource) || (base.length() < MIN_COMPRESS_SIZE) || !isCompressible(basePath))
+			return null;
+
+		final String etag = ((CachedResource) base).getETagValue();
+		final Path variant = workDirectory.resolve(etag + GZIP_EXTENSION);
+		try {
+			if (!Files.isRegularFile(variant)) {
+				Files.createDirectories(workDirectory);
+				final Path tempFile = Files.createTempFile(workDirectory, etag, ".tmp");
+				try {
+					try (InputStream in = base.getInputStream(); OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+						IO.copy(in, out);
+					}
+					Files.move(tempFile, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} finally {
+					Files.deleteIfExists(tempFile);
+				}
+				if (JettyDebug.resourceCache) {
+					LOG.debug("Generated compressed variant {} of resource {}.", variant, basePath);
+				}
+			}
+
+			// Jetty ignores variants older than the resource
+			if (Files.getLastModifiedTime(variant).toMillis() < base.lastModified()) {
+				Files.setLastModifiedTime(variant, FileTime.fromMillis(base.lastModified()));
+			}
+
+			// no point in serving a variant which isn't smaller
+			if (Files.size(variant) >= base.length())
+				return null;
+
+			return new CachedResource(variant, etag + "--gzip");
+		} catch (final IOException e) {
+			LOG.warn("Error generating compressed variant of resource {} in {}. {}", basePath, workDirectory, e.getMessage());
+			return null;
+		}
+	}
+
+	private void evict(final ConcurrentMap<String, CacheEntry> map) {
+		if (!evicting.compareAndSet(false, true))
+			return;
+		try {
+			final long now = System.currentTimeMillis();
+			while (map.size() >= maxEntries) {
+				// second chance: clear access flags and evict the first entry not accessed since the last pass
+				final Iterator<CacheEntry> iterator = map.values().iterator();
+				while ((map.size() >= maxEntries) && iterator.hasNext()) {
+					final CacheEntry entry = iterator.next();
+					if (entry.accessed && !entry.isExpired(now)) {
+						entry.accessed = false;
+					} else {
+						iterator.remove();
+					}
+				}
+			}
+		} finally {
+			evicting.set(false);
+		}
+	}
+
+	/**
+	 * Returns the number of found resources in the cache.
+	 * <p>
+	 * This method is only public for testing purposes. It must not be called
+	 * by clients.
+	 * </p>
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public int getFoundCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the mime type for the specified path.
+	 *
+	 * @param path
+	 *            the path
+	 * @return the mime type (maybe <code>null</code> if unknown)
+	 */
+	protected String getMimeType(final String path) {
+		return applicationHandler.getMimeTypes().getMimeByExtension(path);
+	}
+
+	/**
+	 * Returns the number of missing resources in the cache.
+	 * <p>
+	 * This method is only public for testing purposes. It must not be called
+	 * by clients.
+	 * </p>
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public int getMissingCount() {
+		return missingEntries.size();
+	}
+
+	/**
+	 * Returns the resource for the specified path.
+	 *
+	 * @param path
+	 *            the canonical path
+	 * @return the found resource (maybe <code>null</code> if none is registered
+	 *         for the specified path)
+	 * @throws MalformedURLException
+	 */
+	public Resource getResource(final String path) throws MalformedURLException {
+		final long started = System.nanoTime();
+		final long now = System.currentTimeMillis();
+		CacheEntry entry = entries.get(path);
+		if (entry == null) {
+			entry = missingEntries.get(path);
+		}
+		if ((entry != null) && !entry.isExpired(now)) {
+			// avoid needless writes to shared memory
+			if (!entry.accessed) {
+				entry.accessed = true;
+			}
+			hitsMetric.requestStarted();
+			hitsMetric.requestFinished(1, System.nanoTime() - started);
+			return entry.resource;
+		}
+
+		missesMetric.requestStarted();
+		try {
+			final Resource resource = load(path);
+			if (resource != null) {
+				missingEntries.remove(path);
+				put(entries, path, new CacheEntry(resource, timeToLive > 0 ? now + timeToLive : 0));
+			} else {
+				entries.remove(path);
+				put(missingEntries, path, new CacheEntry(null, now + missingTimeToLive));
+			}
+			missesMetric.requestFinished(1, System.nanoTime() - started);
+			return resource;
+		} catch (final MalformedURLException | RuntimeException e) {
+			missesMetric.requestFailed();
+			throw e;
+		}
+	}
+
+	private boolean isCompressible(final String path) {
+		final String mimeType = getMimeType(path);
+		if (mimeType == null)
+			return false;
+		return StringUtil.startsWithIgnoreCase(mimeType, "text/") || mimeType.contains("javascript") || mimeType.contains("json") || mimeType.contains("xml");
+	}
+
+	private Resource load(final String path) throws MalformedURLException {
+		final Resource resource = lookupResource(path);
+		if (resource == null) {
+			if ((workDirectory != null) && path.endsWith(GZIP_EXTENSION))
+				return createGzipVariant(path);
+			return null;
+		}
+
+		try {
+			return createCachedResource(resource);
+		} catch (final IOException e) {
+			LOG.warn("Error reading resource {} ({}). {}", path, resource, e.getMessage());
+			return resource;
+		}
+	}
+
+	/**
+	 * Looks up the resource for the specified path from the resource
+	 * providers.
+	 *
+	 * @param path
+	 *            the canonical path
+	 * @return the found resource (maybe <code>null</code>)
+	 * @throws MalformedURLException
+	 */
+	protected Resource lookupResource(final String path) throws MalformedURLException {
+		return applicationHandler.lookupResource(path);
+	}
+
+	private void put(final ConcurrentMap<String, CacheEntry> map, final String path, final CacheEntry entry) {
+		// make room first so that the new entry isn't evicted right away
+		if ((map.size() >= maxEntries) && !map.containsKey(path)) {
+			evict(map);
+		}
+		map.put(path, entry);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ApplicationResourceCache {%d/%d entries, %d/%d missing}", entries.size(), maxEntries, missingEntries.size(), maxEntries);
+	}
+}
@@ -20,30 +20,49 @@ import org.eclipse.gyrex.server.Platform;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.servlet.DefaultServlet;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.resource.EmptyResource;
 import org.eclipse.jetty.util.resource.Resource;
 
+import org.apache.commons.lang.StringUtils;
+
 /**
  * A servlet which serves {@link ApplicationHandler#getResource(String)
  * registered application resources}.
+ * <p>
+ * The size of Jetty's content cache can be configured using the application
+ * init parameters <code>resources.maxCacheSize</code>,
+ * <code>resources.maxCachedFileSize</code> and
+ * <code>resources.maxCachedFiles</code>.
+ * </p>
  */
 public class ApplicationResourceServlet extends DefaultServlet {
 
 	static ServletHolder newHolder(final ApplicationHandler applicationHandler) {
 		final ServletHolder defaultServlet = new ServletHolder(new ApplicationResourceServlet(applicationHandler));
+		defaultServlet.setInitParameter("etags", "true");
 		if (Platform.inDevelopmentMode()) {
 			defaultServlet.setInitParameter("dirAllowed", "true");
 			defaultServlet.setInitParameter("useFileMappedBuffer", "false");
 			defaultServlet.setInitParameter("maxCachedFiles", "0");
 		} else {
+			// cached content is served from memory mapped files or direct buffers
 			defaultServlet.setInitParameter("dirAllowed", "false");
-			defaultServlet.setInitParameter("maxCacheSize", "2000000");
-			defaultServlet.setInitParameter("maxCachedFileSize", "254000");
-			defaultServlet.setInitParameter("maxCachedFiles", "1000");
+			defaultServlet.setInitParameter("maxCacheSize", getInitParameter(applicationHandler, "resources.maxCacheSize", "16000000"));
+			defaultServlet.setInitParameter("maxCachedFileSize", getInitParameter(applicationHandler, "resources.maxCachedFileSize", "1000000"));
+			defaultServlet.setInitParameter("maxCachedFiles", getInitParameter(applicationHandler, "resources.maxCachedFiles", "2000"));
 			defaultServlet.setInitParameter("useFileMappedBuffer", "true");
+
+			// serve shipped variants as well as variants generated by ApplicationResourceCache
+			defaultServlet.setInitParameter("precompressed", "br=.br,gzip=" + ApplicationResourceCache.GZIP_EXTENSION);
 		}
 		return defaultServlet;
 	}
 
+	private static String getInitParameter(final ApplicationHandler applicationHandler, final String name, final String defaultValue) {
+		final String value = applicationHandler.getInitParameter(name);
+		return StringUtils.isNotBlank(value) ? value.trim() : defaultValue;
+	}
+
 	final ApplicationHandler applicationHandler;
 
 	/** serialVersionUID */
@@ -58,10 +77,12 @@ public class ApplicationResourceServlet extends DefaultServlet {
 
 	@Override
 	public Resource getResource(final String pathInContext) {
+		// Jetty expects a non-existing resource when probing for precompressed variants
 		try {
-			return applicationHandler.getResource(pathInContext);
+			final Resource resource = applicationHandler.getResource(pathInContext);
+			return resource != null ? resource : EmptyResource.INSTANCE;
 		} catch (final MalformedURLException e) {
-			return null;
+			return EmptyResource.INSTANCE;
 		}
 	}
 
@@ -13,15 +13,11 @@ package org.eclipse.gyrex.http.jetty.internal.app;
 
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Arrays;
 
 import org.eclipse.gyrex.http.application.manager.IApplicationManager;
 import org.eclipse.gyrex.http.jetty.internal.JettyDebug;
 
-import org.eclipse.jetty.http.PathMap;
-import org.eclipse.jetty.http.PathMap.MappedEntry;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.osgi.util.NLS;
@@ -37,7 +33,13 @@ import org.slf4j.LoggerFactory;
  * </p>
  * <p>
  * The basic structure is
- * <code>scheme -&gt; virtual host -&gt; context path -&gt; context</code>
+ * <code>scheme -&gt; virtual host -&gt; port -&gt; context path -&gt; context</code>
+ * . Virtual hosts are kept in a trie of reversed domain labels (i.e.
+ * <code>www.example.com</code> is stored as
+ * <code>com -&gt; example -&gt; www</code>) and context paths in a trie of
+ * path segments. The tries use open addressing tables which are probed with
+ * regions of the looked up host and path. Thus, a lookup does not allocate any
+ * objects.
  * </p>
  * <p>
  * Note, this class is intentionally <strong>not</strong> thread safe. It's
@@ -48,25 +50,207 @@ import org.slf4j.LoggerFactory;
  */
 public class UrlMap {
 
-	private static final Logger LOG = LoggerFactory.getLogger(UrlMap.class);
+	/**
+	 * Table of child nodes keyed by a string region (a domain label or a path
+	 * segment).
+	 */
+	private static final class ChildTable<N> {
 
-	private static final Integer ANY_PORT = new Integer(-1);
-	private static final String EMPTY_STRING = "";
+		private static int hash(final String string, final int start, final int end) {
+			// same as String#hashCode of the region
+			int h = 0;
+			for (int i = start; i < end; i++) {
+				h = (31 * h) + string.charAt(i);
+			}
+			return h ^ (h >>> 16);
+		}
 
-	private static int getEstimatedCapacity(final String domain) {
-		if (domain.isEmpty() || "localhost".equals(domain))
-			return 12;
-		return 1;
+		private String[] keys = new String[4];
+		private Object[] values = new Object[4];
+		private int size;
+
+		@SuppressWarnings("unchecked")
+		N get(final String string, final int start, final int end) {
+			final int length = end - start;
+			final int mask = keys.length - 1;
+			int i = hash(string, start, end) & mask;
+			String key;
+			while ((key = keys[i]) != null) {
+				if ((key.length() == length) && string.regionMatches(start, key, 0, length))
+					return (N) values[i];
+				i = (i + 1) & mask;
+			}
+			return null;
+		}
+
+		private void insert(final String key, final Object value) {
+			final int mask = keys.length - 1;
+			int i = hash(key, 0, key.length()) & mask;
+			while (keys[i] != null) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = key;
+			values[i] = value;
+		}
+
+		void put(final String key, final N value) {
+			if (((size + 1) * 2) > keys.length) {
+				final String[] oldKeys = keys;
+				final Object[] oldValues = values;
+				keys = new String[oldKeys.length * 2];
+				values = new Object[oldKeys.length * 2];
+				for (int i = 0; i < oldKeys.length; i++) {
+					if (oldKeys[i] != null) {
+						insert(oldKeys[i], oldValues[i]);
+					}
+				}
+			}
+			insert(key, value);
+			size++;
+		}
 	}
 
-	private final Map<String, Map<Integer, PathMap<Handler>>> hostsToPortsToPathsForHttp = new HashMap<>(5);
-	private final Map<String, Map<Integer, PathMap<Handler>>> hostsToPortsToPathsForHttps = new HashMap<>(5);
+	/**
+	 * A node in the virtual host trie.
+	 */
+	private static final class HostNode {
+
+		final ChildTable<HostNode> children = new ChildTable<HostNode>();
+
+		/** path tries by port (sorted by port) */
+		int[] ports = new int[0];
+		PathNode[] portPaths = new PathNode[0];
 
-	private Map<String, Map<Integer, PathMap<Handler>>> getHostsToPortsToPathMap(final String protocol) {
+		/** path trie for any port */
+		PathNode anyPortPaths;
+
+		PathNode getOrCreatePaths(final int port) {
+			if (port == ANY_PORT) {
+				if (anyPortPaths == null) {
+					anyPortPaths = new PathNode();
+				}
+				return anyPortPaths;
+			}
+
+			int i = Arrays.binarySearch(ports, port);
+			if (i < 0) {
+				i = -(i + 1);
+				final int[] newPorts = new int[ports.length + 1];
+				final PathNode[] newPortPaths = new PathNode[ports.length + 1];
+				System.arraycopy(ports, 0, newPorts, 0, i);
+				System.arraycopy(portPaths, 0, newPortPaths, 0, i);
+				System.arraycopy(ports, i, newPorts, i + 1, ports.length - i);
+				System.arraycopy(portPaths, i, newPortPaths, i + 1, ports.length - i);
+				newPorts[i] = port;
+				newPortPaths[i] = new PathNode();
+				ports = newPorts;
+				portPaths = newPortPaths;
+			}
+			return portPaths[i];
+		}
+
+		Match getMatch(final int port, final String path) {
+			// direct port match
+			final int i = Arrays.binarySearch(ports, port);
+			if (i >= 0) {
+				final Match match = portPaths[i].getMatch(path);
+				if (match != null)
+					return match;
+			}
+
+			// fallback to default port if no direct match
+			if (anyPortPaths != null)
+				return anyPortPaths.getMatch(path);
+
+			return null;
+		}
+	}
+
+	/**
+	 * The result of a lookup.
+	 */
+	public static final class Match {
+
+		private final String mapped;
+		private final Handler value;
+
+		Match(final String mapped, final Handler value) {
+			this.mapped = mapped;
+			this.value = value;
+		}
+
+		/**
+		 * Returns the matched context path.
+		 *
+		 * @return the context path (empty string for the root context)
+		 */
+		public String getMapped() {
+			return mapped;
+		}
+
+		/**
+		 * Returns the mapped handler.
+		 *
+		 * @return the handler
+		 */
+		public Handler getValue() {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return mapped + "/*=" + value;
+		}
+	}
+
+	/**
+	 * A node in the context path trie.
+	 */
+	private static final class PathNode {
+
+		final ChildTable<PathNode> children = new ChildTable<PathNode>();
+
+		Match match;
+
+		/**
+		 * Returns the match of the longest context path which is a prefix of
+		 * the specified path (on segment boundaries).
+		 */
+		Match getMatch(final String path) {
+			PathNode node = this;
+			Match best = match;
+			final int length = path.length();
+			int start = 1; // skip leading slash
+			while (start <= length) {
+				int end = path.indexOf('/', start);
+				if (end < 0) {
+					end = length;
+				}
+				node = node.children.get(path, start, end);
+				if (node == null) {
+					break;
+				}
+				if (node.match != null) {
+					best = node.match;
+				}
+				start = end + 1;
+			}
+			return best;
+		}
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(UrlMap.class);
+
+	private static final int ANY_PORT = -1;
+
+	private final HostNode hostsForHttp = new HostNode();
+	private final HostNode hostsForHttps = new HostNode();
+
+	private HostNode getHosts(final String protocol) {
 		if (URIUtil.HTTP.equals(protocol))
-			return hostsToPortsToPathsForHttp;
+			return hostsForHttp;
 		else if (URIUtil.HTTPS.equals(protocol))
-			return hostsToPortsToPathsForHttps;
+			return hostsForHttps;
 		else
 			return null;
 	}
@@ -76,22 +260,21 @@ public class UrlMap {
 	 * <p>
 	 * The input will be normalized prior to performing the actual lookup.
 	 * </p>
-	 * 
+	 *
 	 * @param protocol
 	 * @param domain
 	 * @param port
 	 * @param path
-	 * @return the best matching {@link Entry} from the underlying
-	 *         {@link PathMap} (maybe <code>null</code>)
+	 * @return the best {@link Match} (maybe <code>null</code>)
 	 */
-	public MappedEntry<Handler> getMatch(final String protocol, String domain, final int port, final String path) {
+	public Match getMatch(final String protocol, String domain, final int port, final String path) {
 		// check input
 		if ((protocol == null) || (domain == null) || (path == null) || !path.startsWith(URIUtil.SLASH))
 			return null;
 
-		// get domain map based on protocol
-		final Map<String, Map<Integer, PathMap<Handler>>> hostsToPortsToPathMap = getHostsToPortsToPathMap(protocol);
-		if (hostsToPortsToPathMap == null) {
+		// get domain trie based on protocol
+		final HostNode hosts = getHosts(protocol);
+		if (hosts == null) {
 			if (JettyDebug.urlMapLookup) {
 				LOG.debug("[URLMAP] no map for protocol {}://{}:{}{} --> {}", new Object[] { protocol, domain, port, path, null });
 			}
@@ -101,67 +284,8 @@ public class UrlMap {
 		// normalize domain
 		domain = UrlUtil.normalizeDomain(domain);
 
-		// begin the lookup procedure
-		MappedEntry<Handler> match = null;
-		boolean continueMatching = true;
-		while ((match == null) && continueMatching) {
-			// debug logging
-			if (JettyDebug.urlMapLookup) {
-				LOG.debug("[URLMAP] match loop {}://{}:{}{}", new Object[] { protocol, domain, port, path });
-			}
-
-			// domain name lookup
-			final Map<Integer, PathMap<Handler>> portsToPathMap = hostsToPortsToPathMap.get(domain);
-
-			// log debug message here (before reducing domain name)
-			if (portsToPathMap == null) {
-				if (JettyDebug.urlMapLookup) {
-					LOG.debug("[URLMAP] no map for domain {}://{}:{}{} --> {}", new Object[] { protocol, domain, port, path, match });
-				}
-			}
-
-			// prepare for next domain name lookup, i.e. walk upwards if necessary/possible (suffix matching)
-			if (!domain.isEmpty()) {
-				final int separatorIndex = domain.indexOf('.');
-				domain = separatorIndex >= 0 ? domain.substring(separatorIndex + 1) : EMPTY_STRING;
-			} else {
-				continueMatching = false;
-			}
-
-			// check if no domain matched at all and match next domain
-			if (portsToPathMap == null) {
-				continue;
-			}
-
-			// get direct port match
-			PathMap<Handler> pathMap = portsToPathMap.get(port);
-			if ((pathMap != null) && !pathMap.isEmpty()) {
-				// get matching handler (don't sanitize path during lookup)
-				match = pathMap.getMatch(path);
-				// return early (if possible)
-				if (match != null) {
-					if (JettyDebug.urlMapLookup) {
-						LOG.debug("[URLMAP] direct port match {}://{}:{}{} --> {}", new Object[] { protocol, domain, port, path, match });
-					}
-					return match;
-				}
-			}
-
-			// fallback to default port if no direct match
-			pathMap = portsToPathMap.get(ANY_PORT);
-
-			// get matching handler (don't sanitize path during lookup)
-			if ((pathMap != null) && !pathMap.isEmpty()) {
-				match = pathMap.getMatch(path);
-				// return early (if possible)
-				if (match != null) {
-					if (JettyDebug.urlMapLookup) {
-						LOG.debug("[URLMAP] any port match {}://{}:{}{} --> {}", new Object[] { protocol, domain, port, path, match });
-					}
-					return match;
-				}
-			}
-		}
+		// perform lookup (most specific domain first)
+		final Match match = getMatch(hosts, domain, domain.isEmpty() ? -1 : domain.length(), port, path);
 
 		// debug logging
 		if (JettyDebug.urlMapLookup) {
@@ -172,6 +296,32 @@ public class UrlMap {
 		return match;
 	}
 
+	/**
+	 * Descends into the host trie matching domain labels from right to left.
+	 * Matches are tried in the deepest node first, i.e. a more specific domain
+	 * always wins over a less specific one.
+	 *
+	 * @param node
+	 *            the current node
+	 * @param domain
+	 *            the domain
+	 * @param end
+	 *            the end of the next label to match (exclusive) or
+	 *            <code>-1</code> if all labels have been matched
+	 */
+	private Match getMatch(final HostNode node, final String domain, final int end, final int port, final String path) {
+		if (end >= 0) {
+			final int start = domain.lastIndexOf('.', end - 1) + 1;
+			final HostNode child = node.children.get(domain, start, end);
+			if (child != null) {
+				final Match match = getMatch(child, domain, start - 1, port, path);
+				if (match != null)
+					return match;
+			}
+		}
+		return node.getMatch(port, path);
+	}
+
 	public boolean put(final String url, final Handler handler) {
 		URL parsedUrl;
 		try {
@@ -182,38 +332,45 @@ public class UrlMap {
 		// protocol
 		final String protocol = UrlUtil.getNormalizedProtocol(parsedUrl);
 
-		// get domain map based on protocol
-		final Map<String, Map<Integer, PathMap<Handler>>> hostsToPortsToPathMap = getHostsToPortsToPathMap(protocol);
-		if (hostsToPortsToPathMap == null)
+		// get domain trie based on protocol
+		HostNode hostNode = getHosts(protocol);
+		if (hostNode == null)
 			throw new IllegalArgumentException(NLS.bind("Protocol {0} not support for url {1}.", protocol, parsedUrl.toExternalForm()));
 
-		// virtual host
+		// virtual host (reversed labels)
 		final String domain = UrlUtil.getNormalizedDomain(parsedUrl);
-
-		// get port map based on domain
-		if (!hostsToPortsToPathMap.containsKey(domain)) {
-			hostsToPortsToPathMap.put(domain, new HashMap<Integer, PathMap<Handler>>(1));
+		if (!domain.isEmpty()) {
+			final String[] labels = domain.split("\\.", -1);
+			for (int i = labels.length - 1; i >= 0; i--) {
+				HostNode child = hostNode.children.get(labels[i], 0, labels[i].length());
+				if (child == null) {
+					child = new HostNode();
+					hostNode.children.put(labels[i], child);
+				}
+				hostNode = child;
+			}
 		}
-		final Map<Integer, PathMap<Handler>> portsToPathMap = hostsToPortsToPathMap.get(domain);
 
 		// port
-		final Integer port = new Integer(UrlUtil.getNormalizedPort(parsedUrl));
-
-		// get path map based on port
-		if (!portsToPathMap.containsKey(port)) {
-			portsToPathMap.put(port, new PathMap<Handler>(getEstimatedCapacity(domain)));
-		}
-		final PathMap<Handler> pathMap = portsToPathMap.get(port);
+		PathNode pathNode = hostNode.getOrCreatePaths(UrlUtil.getNormalizedPort(parsedUrl));
 
 		// context path
-		String path = UrlUtil.getNormalizedPath(parsedUrl);
-
-		// make path matching implicit for PathMap
-		// note, '/' must also be made implicit so that internally it matches as '/*'
-		path = URIUtil.SLASH.equals(path) ? "/*" : path.concat("/*");
+		final String path = UrlUtil.getNormalizedPath(parsedUrl);
+		if (!path.isEmpty()) {
+			final String[] segments = path.substring(1).split("/", -1);
+			for (final String segment : segments) {
+				PathNode child = pathNode.children.get(segment, 0, segment.length());
+				if (child == null) {
+					child = new PathNode();
+					pathNode.children.put(segment, child);
+				}
+				pathNode = child;
+			}
+		}
 
 		// put handler
-		final Handler old = pathMap.put(path.length() == 0 ? "/" : path, handler);
+		final Match old = pathNode.match;
+		pathNode.match = new Match(path, handler);
 
 		// ensure there was no conflict
 		return old == null;
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.http.tests.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.gyrex.http.jetty.internal.app.ApplicationResourceCache;
+import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
+
+import org.eclipse.jetty.util.IO;
+import org.eclipse.jetty.util.resource.PathResource;
+import org.eclipse.jetty.util.resource.Resource;
+
+import org.apache.commons.io.FileUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the lookups, eviction, entity tags and compressed variants of
+ * {@link ApplicationResourceCache}.
+ */
+public class ApplicationResourceCacheTests {
+
+	private static final long MISSING_TIME_TO_LIVE = 200;
+
+	private Path resourcesDirectory;
+	private Path workDirectory;
+	private final Map<String, Resource> resources = new ConcurrentHashMap<String, Resource>();
+	private final AtomicInteger lookups = new AtomicInteger();
+	private final ThroughputMetric hits = new ThroughputMetric("hits");
+	private final ThroughputMetric misses = new ThroughputMetric("misses");
+
+	private void addResource(final String path, final byte[] content) throws IOException {
+		final Path file = resourcesDirectory.resolve(path.substring(1));
+		Files.write(file, content);
+		resources.put(path, new PathResource(file));
+	}
+
+	private void addResource(final String path, final String content) throws IOException {
+		addResource(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private long countFiles(final Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+	private ApplicationResourceCache createCache(final int maxEntries, final Path workDirectory) {
+		return new ApplicationResourceCache(hits, misses, maxEntries, 0, MISSING_TIME_TO_LIVE, workDirectory) {
+			@Override
+			protected String getMimeType(final String path) {
+				if (path.endsWith(".css"))
+					return "text/css";
+				if (path.endsWith(".js"))
+					return "application/javascript";
+				return null;
+			}
+
+			@Override
+			protected Resource lookupResource(final String path) throws MalformedURLException {
+				lookups.incrementAndGet();
+				return resources.get(path);
+			}
+		};
+	}
+
+	private byte[] read(final Resource resource, final boolean gzip) throws IOException {
+		try (InputStream in = gzip ? new GZIPInputStream(resource.getInputStream()) : resource.getInputStream()) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			IO.copy(in, out);
+			return out.toByteArray();
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		resourcesDirectory = Files.createTempDirectory("resources");
+		workDirectory = Files.createTempDirectory("resource-cache");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtils.deleteQuietly(resourcesDirectory.toFile());
+		FileUtils.deleteQuietly(workDirectory.toFile());
+	}
+
+	@Test
+	public void testETag() throws Exception {
+		addResource("/a.css", "body { color: red; }");
+		addResource("/b.css", "body { color: red; }");
+		addResource("/c.css", "body { color: blue; }");
+
+		final ApplicationResourceCache cache = createCache(10, null);
+		final String etagA = cache.getResource("/a.css").getWeakETag("");
+		final String etagB = cache.getResource("/b.css").getWeakETag("");
+		final String etagC = cache.getResource("/c.css").getWeakETag("");
+
+		// strong, content based tags (quoted SHA-1)
+		assertTrue("strong entity tag expected: " + etagA, etagA.matches("\"[0-9a-f]{40}\""));
+		assertEquals("same content must have same entity tag", etagA, etagB);
+		assertNotEquals("different content must have different entity tag", etagA, etagC);
+		assertEquals("\"" + etagA.substring(1, etagA.length() - 1) + "--gzip\"", cache.getResource("/a.css").getWeakETag("--gzip"));
+
+		// stable across caches
+		assertEquals(etagA, createCache(10, null).getResource("/a.css").getWeakETag(""));
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		for (int i = 0; i < 4; i++) {
+			addResource("/" + i + ".js", "var i = " + i + ";");
+		}
+
+		final ApplicationResourceCache cache = createCache(3, null);
+		for (int i = 0; i < 3; i++) {
+			assertNotNull(cache.getResource("/" + i + ".js"));
+		}
+		assertEquals(3, cache.getFoundCount());
+
+		// accessed entries get a second chance
+		assertNotNull(cache.getResource("/0.js"));
+		assertNotNull(cache.getResource("/3.js"));
+		assertEquals(3, cache.getFoundCount());
+		assertEquals(4, lookups.get());
+
+		// neither the accessed nor the new entry is evicted but one of the others
+		assertNotNull(cache.getResource("/0.js"));
+		assertNotNull(cache.getResource("/3.js"));
+		assertEquals(4, lookups.get());
+		assertEquals(3, cache.getFoundCount());
+	}
+
+	@Test
+	public void testGzipVariant() throws Exception {
+		final StringBuilder css = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			css.append(".class").append(i).append(" { color: red; }\n");
+		}
+		addResource("/big.css", css.toString());
+		addResource("/small.css", "a { }");
+		final byte[] binary = new byte[1024];
+		Arrays.fill(binary, (byte) 1);
+		addResource("/big.bin", binary);
+
+		final ApplicationResourceCache cache = createCache(10, workDirectory);
+		final Resource base = cache.getResource("/big.css");
+		final Resource variant = cache.getResource("/big.css.gz");
+		assertNotNull("compressed variant expected", variant);
+		assertTrue("variant must be smaller", variant.length() < base.length());
+		assertArrayEquals(read(base, false), read(variant, true));
+		assertTrue("variant must not be older than the resource", variant.lastModified() >= base.lastModified());
+
+		// entity tag of the variant is derived from the content of the resource
+		final String etag = base.getWeakETag("");
+		assertEquals("\"" + etag.substring(1, etag.length() - 1) + "--gzip\"", variant.getWeakETag(""));
+
+		// content addressed, i.e. generated once and shared
+		assertEquals(1, countFiles(workDirectory));
+		final Resource sharedVariant = createCache(10, workDirectory).getResource("/big.css.gz");
+		assertEquals(variant.getFile(), sharedVariant.getFile());
+		assertEquals(1, countFiles(workDirectory));
+
+		// not worth compressing or not compressible
+		assertNull(cache.getResource("/small.css.gz"));
+		assertNull(cache.getResource("/big.bin.gz"));
+		assertNull(cache.getResource("/missing.css.gz"));
+
+		// no variants without work directory
+		assertNull(createCache(10, null).getResource("/big.css.gz"));
+	}
+
+	@Test
+	public void testHitAndMiss() throws Exception {
+		addResource("/a.css", "body { color: red; }");
+
+		final ApplicationResourceCache cache = createCache(10, null);
+		final Resource resource = cache.getResource("/a.css");
+		assertNotNull(resource);
+		assertSame(resource, cache.getResource("/a.css"));
+		assertEquals(1, lookups.get());
+
+		assertNull(cache.getResource("/missing.css"));
+		assertNull(cache.getResource("/missing.css"));
+		assertEquals("missing resources must be remembered", 2, lookups.get());
+
+		assertEquals(2, hits.getRequestsStatsProcessed());
+		assertEquals(2, misses.getRequestsStatsProcessed());
+
+		// missing resources expire quickly
+		addResource("/missing.css", "body { }");
+		Thread.sleep(MISSING_TIME_TO_LIVE * 2);
+		assertNotNull(cache.getResource("/missing.css"));
+		assertEquals(3, lookups.get());
+		assertEquals(0, cache.getMissingCount());
+
+		cache.clear();
+		assertEquals(0, cache.getFoundCount());
+		assertNotNull(cache.getResource("/a.css"));
+		assertEquals(4, lookups.get());
+	}
+
+	@Test
+	public void testMissingDoNotEvictFound() throws Exception {
+		addResource("/a.css", "body { color: red; }");
+		addResource("/b.css", "body { color: blue; }");
+
+		final ApplicationResourceCache cache = createCache(2, null);
+		assertNotNull(cache.getResource("/a.css"));
+		assertNotNull(cache.getResource("/b.css"));
+
+		// a scan of missing paths
+		for (int i = 0; i < 100; i++) {
+			assertNull(cache.getResource("/scan" + i));
+		}
+		assertEquals(2, cache.getMissingCount());
+		assertEquals(2, cache.getFoundCount());
+
+		final int lookupsBefore = lookups.get();
+		assertNotNull(cache.getResource("/a.css"));
+		assertNotNull(cache.getResource("/b.css"));
+		assertEquals("found resources must not be evicted by missing ones", lookupsBefore, lookups.get());
+	}
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.http.tests.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.gyrex.http.jetty.internal.app.UrlMap;
+import org.eclipse.gyrex.http.jetty.internal.app.UrlMap.Match;
+
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the lookup rules of {@link UrlMap}.
+ */
+public class UrlMapTests {
+
+	private UrlMap map;
+
+	private void assertMatch(final Handler expectedHandler, final String expectedMapped, final String protocol, final String domain, final int port, final String path) {
+		final Match match = map.getMatch(protocol, domain, port, path);
+		assertNotNull("no match for " + protocol + "://" + domain + ":" + port + path, match);
+		assertSame("wrong handler for " + protocol + "://" + domain + ":" + port + path, expectedHandler, match.getValue());
+		assertEquals("wrong mapped path for " + protocol + "://" + domain + ":" + port + path, expectedMapped, match.getMapped());
+	}
+
+	private Handler put(final String url) {
+		final Handler handler = new HandlerWrapper();
+		assertTrue("conflict when mounting " + url, map.put(url, handler));
+		return handler;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		map = new UrlMap();
+	}
+
+	@Test
+	public void testDomains() throws Exception {
+		final Handler root = put("http:/");
+		final Handler example = put("http://example.com/");
+		final Handler www = put("http://www.example.com/");
+		final Handler wwwApp = put("http://www.example.com/app");
+
+		// more specific domain wins
+		assertMatch(www, "", "http", "www.example.com", 80, "/");
+		assertMatch(wwwApp, "/app", "http", "www.example.com", 80, "/app/x");
+		assertMatch(example, "", "http", "shop.example.com", 80, "/app/x");
+		assertMatch(example, "", "http", "example.com", 80, "/app");
+		assertMatch(root, "", "http", "example.org", 80, "/app");
+
+		// domain matching is case insensitive and ignores a trailing dot
+		assertMatch(www, "", "http", "WWW.Example.COM", 80, "/");
+		assertMatch(example, "", "http", "example.com.", 80, "/");
+
+		// a label must match as a whole
+		assertMatch(root, "", "http", "anexample.com", 80, "/");
+	}
+
+	@Test
+	public void testExactAndPrefix() throws Exception {
+		final Handler app = put("http:/app");
+
+		// a mount matches the exact path as well as any path below it
+		assertMatch(app, "/app", "http", "localhost", 80, "/app");
+		assertMatch(app, "/app", "http", "localhost", 80, "/app/");
+		assertMatch(app, "/app", "http", "localhost", 80, "/app/index.html");
+
+		// but only on segment boundaries
+		assertNull(map.getMatch("http", "localhost", 80, "/application"));
+		assertNull(map.getMatch("http", "localhost", 80, "/ap"));
+		assertNull(map.getMatch("http", "localhost", 80, "/"));
+	}
+
+	@Test
+	public void testInvalidInput() throws Exception {
+		put("http:/");
+		assertNull(map.getMatch("ftp", "localhost", 21, "/"));
+		assertNull(map.getMatch("http", "localhost", 80, "relative"));
+		assertNull(map.getMatch(null, "localhost", 80, "/"));
+		assertNull(map.getMatch("http", null, 80, "/"));
+		assertNull(map.getMatch("http", "localhost", 80, null));
+	}
+
+	@Test
+	public void testLongestPrefix() throws Exception {
+		final Handler root = put("http:/");
+		final Handler a = put("http:/a");
+		final Handler ab = put("http:/a/b");
+		final Handler abcd = put("http:/a/b/c/d");
+
+		assertMatch(root, "", "http", "localhost", 80, "/");
+		assertMatch(root, "", "http", "localhost", 80, "/x/a/b");
+		assertMatch(a, "/a", "http", "localhost", 80, "/a/x");
+		assertMatch(ab, "/a/b", "http", "localhost", 80, "/a/b");
+		assertMatch(ab, "/a/b", "http", "localhost", 80, "/a/b/c");
+		assertMatch(ab, "/a/b", "http", "localhost", 80, "/a/b/c/x");
+		assertMatch(abcd, "/a/b/c/d", "http", "localhost", 80, "/a/b/c/d/e/f");
+	}
+
+	@Test
+	public void testPorts() throws Exception {
+		final Handler anyPort = put("http://localhost/");
+		final Handler anyPortApp = put("http://localhost/app");
+		final Handler port8080Other = put("http://localhost:8080/other");
+
+		// direct port match first
+		assertMatch(port8080Other, "/other", "http", "localhost", 8080, "/other/x");
+
+		// fallback to any port if there is no match for the port
+		assertMatch(anyPortApp, "/app", "http", "localhost", 8080, "/app");
+		assertMatch(anyPort, "", "http", "localhost", 8080, "/");
+		assertMatch(anyPort, "", "http", "localhost", 8081, "/other");
+
+		// the default port is the same as any port
+		assertMatch(anyPort, "", "http", "localhost", 80, "/other");
+		final Handler defaultPort = new HandlerWrapper();
+		assertFalse("default port must conflict", map.put("http://localhost:80/", defaultPort));
+		assertMatch(defaultPort, "", "http", "localhost", 8081, "/other");
+	}
+
+	@Test
+	public void testProtocols() throws Exception {
+		final Handler http = put("http:/");
+		final Handler https = put("https:/");
+
+		assertMatch(http, "", "http", "localhost", 80, "/");
+		assertMatch(https, "", "https", "localhost", 443, "/");
+	}
+
+	@Test
+	public void testRootMount() throws Exception {
+		final Handler root = put("http:/");
+
+		assertMatch(root, "", "http", "localhost", 80, "/");
+		assertMatch(root, "", "http", "localhost", 80, "/index.html");
+		assertMatch(root, "", "http", "localhost", 80, "/a/b/c");
+		assertMatch(root, "", "http", "localhost", 8080, "/");
+
+		// mounting the root again replaces the existing mount
+		final Handler replacement = new HandlerWrapper();
+		assertFalse("root must conflict", map.put("http://", replacement));
+		assertMatch(replacement, "", "http", "localhost", 80, "/index.html");
+	}
+
+	@Test
+	public void testTrailingSlash() throws Exception {
+		final Handler app = put("http:/app/");
+
+		// trailing slashes are stripped when mounting
+		assertMatch(app, "/app", "http", "localhost", 80, "/app");
+		assertMatch(app, "/app", "http", "localhost", 80, "/app/");
+		assertMatch(app, "/app", "http", "localhost", 80, "/app/x/");
+
+		// mounting with and without trailing slash is the same
+		final Handler replacement = new HandlerWrapper();
+		assertFalse("mount with and without trailing slash must conflict", map.put("http:/app", replacement));
+		assertMatch(replacement, "/app", "http", "localhost", 80, "/app/x");
+		assertFalse("mount with multiple trailing slashes must conflict", map.put("http:/app//", new HandlerWrapper()));
+	}
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.http.internal.metrics;
+
+import javax.servlet.ServletException;
+
+import org.eclipse.gyrex.context.IRuntimeContext;
+import org.eclipse.gyrex.http.application.Application;
+import org.eclipse.gyrex.http.internal.HttpActivator;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * An application which exposes all metric sets in the Prometheus text format
+ * for scraping by monitoring systems.
+ */
+public class MetricsApplication extends Application {
+
+	/**
+	 * Creates a new instance.
+	 * 
+	 * @param id
+	 * @param context
+	 */
+	public MetricsApplication(final String id, final IRuntimeContext context) {
+		super(id, context);
+	}
+
+	@Override
+	protected void doInit() throws CoreException {
+		try {
+			getApplicationContext().registerServlet("/", new MetricsServlet(), null);
+		} catch (final ServletException e) {
+			throw new CoreException(new Status(IStatus.ERROR, HttpActivator.SYMBOLIC_NAME, "Error while registering the metrics servlet. " + e.getMessage(), e));
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.http.internal.metrics;
+
+import org.eclipse.gyrex.context.IRuntimeContext;
+import org.eclipse.gyrex.http.application.Application;
+import org.eclipse.gyrex.http.application.provider.ApplicationProvider;
+import org.eclipse.gyrex.http.internal.HttpActivator;
+
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * Application provider for the metrics application.
+ */
+public class MetricsApplicationProvider extends ApplicationProvider {
+
+	public static final String ID = HttpActivator.SYMBOLIC_NAME + ".metrics.application.provider";
+
+	/**
+	 * Creates a new instance.
+	 */
+	public MetricsApplicationProvider() {
+		super(ID);
+	}
+
+	@Override
+	public Application createApplication(final String applicationId, final IRuntimeContext context) throws CoreException {
+		return new MetricsApplication(applicationId, context);
+	}
+
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.http.internal.metrics;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.gyrex.http.internal.HttpActivator;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsExporter;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsFormat;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsSnapshot;
+import org.eclipse.gyrex.monitoring.internal.exporter.PrometheusTextFormat;
+
+/**
+ * Renders a snapshot of all metric sets.
+ */
+public class MetricsServlet extends HttpServlet {
+
+	private static final long serialVersionUID = 1L;
+
+	private final MetricsFormat format = new PrometheusTextFormat();
+
+	@Override
+	protected void doGet(final HttpServletRequest req, final HttpServletResponse resp) throws ServletException, IOException {
+		final MetricsSnapshot snapshot;
+		try {
+			snapshot = HttpActivator.getInstance().getServiceHelper().trackService(MetricsExporter.class).getService().snapshot();
+		} catch (final IllegalStateException e) {
+			// inactive or exporter not available
+			resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Monitoring not available.");
+			return;
+		}
+
+		// render into a buffer first so that the size is known
+		final StringBuilder text = new StringBuilder(8192);
+		format.write(snapshot, text);
+
+		resp.setContentType(format.getContentType());
+		resp.setHeader("Cache-Control", "no-cache");
+		final byte[] bytes = text.toString().getBytes("UTF-8");
+		resp.setContentLength(bytes.length);
+		resp.getOutputStream().write(bytes);
+	}
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2011, 2013 Gunnar Wagenknecht and others.
+ * Copyright (c) 2011, 2014 Gunnar Wagenknecht and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the terms of the
@@ -11,8 +11,10 @@
  */
 package org.eclipse.gyrex.jobs.tests.internal;
 
+import org.eclipse.gyrex.jobs.tests.internal.scheduler.ScheduleEngineTests;
 import org.eclipse.gyrex.jobs.tests.internal.storage.CloudHistoryStorageTest;
 import org.eclipse.gyrex.jobs.tests.internal.storage.MockStorageTest;
+import org.eclipse.gyrex.jobs.tests.internal.worker.WorkerEngineTests;
 import org.eclipse.gyrex.junit.GyrexServerResource;
 
 import org.junit.ClassRule;
@@ -21,7 +23,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ JobManagerBlackBoxTests.class, JobHungDetectionTests.class, MockStorageTest.class, CloudHistoryStorageTest.class })
+@SuiteClasses({ JobManagerBlackBoxTests.class, JobHungDetectionTests.class, MockStorageTest.class, CloudHistoryStorageTest.class, ScheduleEngineTests.class, WorkerEngineTests.class })
 public class AllJobTests {
 	@ClassRule
 	public static final GyrexServerResource server = new GyrexServerResource();
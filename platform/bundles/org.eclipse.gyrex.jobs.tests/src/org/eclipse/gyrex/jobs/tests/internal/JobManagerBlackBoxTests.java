@@ -12,7 +12,9 @@
 package org.eclipse.gyrex.jobs.tests.internal;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 
 import java.util.HashMap;
@@ -20,6 +22,7 @@ import java.util.Map;
 
 import org.eclipse.gyrex.context.tests.internal.BaseContextTest;
 import org.eclipse.gyrex.jobs.IJob;
+import org.eclipse.gyrex.jobs.JobState;
 import org.eclipse.gyrex.jobs.manager.IJobManager;
 
 import org.eclipse.core.runtime.IPath;
@@ -60,4 +63,22 @@ public class JobManagerBlackBoxTests extends BaseContextTest {
 		}
 	}
 
+	@Test
+	public void testGetJobsByState() {
+		final IJobManager jobManager = getContext().get(IJobManager.class);
+		assertNotNull(jobManager);
+
+		// populate index
+		jobManager.getJobsByState(JobState.NONE);
+
+		// new job must be picked up by the state index
+		final String jobId = "test.job.state." + System.currentTimeMillis();
+		jobManager.createJob(TestJobsProvider.ID_TESTABLE_JOB, jobId, null);
+		assertTrue(jobManager.getJobsByState(JobState.NONE).contains(jobId));
+		assertFalse(jobManager.getJobsByState(JobState.RUNNING).contains(jobId));
+
+		// removed job must disappear from the state index
+		jobManager.removeJob(jobId);
+		assertFalse(jobManager.getJobsByState(JobState.NONE).contains(jobId));
+	}
 }
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.jobs.tests.internal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.gyrex.jobs.internal.scheduler.ScheduleEngine;
+import org.eclipse.gyrex.jobs.internal.scheduler.ScheduleEngine.Trigger;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+
+import org.quartz.CronExpression;
+import org.quartz.JobDataMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the engine firing schedule entries.
+ */
+public class ScheduleEngineTests {
+
+	private static final String EVERY_SECOND = "* * * * * ?";
+
+	private final ConcurrentMap<String, AtomicInteger> fireCounts = new ConcurrentHashMap<String, AtomicInteger>();
+	private final List<String> fireOrder = Collections.synchronizedList(new ArrayList<String>());
+	private HistogramMetric skew;
+	private ScheduleEngine engine;
+
+	private Trigger createSingleFireTrigger(final String entryId, final long fireTime) throws Exception {
+		final Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(fireTime);
+		return createTrigger(entryId, String.format("%d %d %d %d %d ? %d", calendar.get(Calendar.SECOND), calendar.get(Calendar.MINUTE), calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.DAY_OF_MONTH), calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.YEAR)));
+	}
+
+	private Trigger createTrigger(final String entryId, final String cronExpression) throws Exception {
+		return new Trigger(entryId, new CronExpression(cronExpression), new JobDataMap());
+	}
+
+	private int getFireCount(final String entryId) {
+		final AtomicInteger count = fireCounts.get(entryId);
+		return count != null ? count.get() : 0;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		skew = new HistogramMetric("fireTimeSkew");
+		engine = new ScheduleEngine(skew) {
+			@Override
+			protected void fire(final Trigger trigger) throws Exception {
+				fireCounts.putIfAbsent(trigger.getEntryId(), new AtomicInteger());
+				fireCounts.get(trigger.getEntryId()).incrementAndGet();
+				fireOrder.add(trigger.getEntryId());
+			}
+		};
+		engine.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		engine.stop();
+	}
+
+	@Test
+	public void testExpiredTriggersIgnored() throws Exception {
+		engine.setTriggers("expired", Collections.singletonList(createTrigger("expired", "0 0 0 1 1 ? 2000")));
+		assertEquals(0, engine.getTriggerCount());
+	}
+
+	@Test
+	public void testFireManySchedules() throws Exception {
+		final int schedules = 500;
+		for (int i = 0; i < schedules; i++) {
+			engine.setTriggers("schedule" + i, Collections.singletonList(createTrigger("entry" + i, EVERY_SECOND)));
+		}
+		assertEquals(schedules, engine.getTriggerCount());
+
+		Thread.sleep(3500);
+
+		for (int i = 0; i < schedules; i++) {
+			assertTrue("entry" + i + " must have fired at least twice", getFireCount("entry" + i) >= 2);
+		}
+		assertTrue("skew must be recorded", skew.getCount() >= (2 * schedules));
+	}
+
+	@Test
+	public void testFireOrder() throws Exception {
+		final long firstFireTime = ((System.currentTimeMillis() / 1000L) + 2L) * 1000L;
+		engine.setTriggers("late", Collections.singletonList(createSingleFireTrigger("c", firstFireTime + 2000L)));
+		engine.setTriggers("early", Collections.singletonList(createSingleFireTrigger("a", firstFireTime)));
+		engine.setTriggers("middle", Collections.singletonList(createSingleFireTrigger("b", firstFireTime + 1000L)));
+		assertEquals(3, engine.getQueuedTriggerCount());
+
+		Thread.sleep((firstFireTime + 2500L) - System.currentTimeMillis());
+
+		assertEquals("entries must fire in order of their fire time", Arrays.asList("a", "b", "c"), new ArrayList<String>(fireOrder));
+		assertEquals("triggers without further fire time must be dropped", 0, engine.getQueuedTriggerCount());
+	}
+
+	@Test
+	public void testRemovedTriggersCanceled() throws Exception {
+		final long fireTime = ((System.currentTimeMillis() / 1000L) + 2L) * 1000L;
+		engine.setTriggers("schedule", Arrays.asList(createSingleFireTrigger("a", fireTime), createSingleFireTrigger("b", fireTime)));
+		engine.setTriggers("other", Collections.singletonList(createSingleFireTrigger("c", fireTime)));
+		assertEquals(3, engine.getQueuedTriggerCount());
+
+		// replaced triggers must be removed from the queue
+		engine.setTriggers("schedule", Collections.singletonList(createSingleFireTrigger("d", fireTime)));
+		assertEquals(2, engine.getTriggerCount());
+		assertEquals(2, engine.getQueuedTriggerCount());
+
+		// removed triggers must be removed from the queue
+		engine.removeTriggers("schedule");
+		assertEquals(1, engine.getTriggerCount());
+		assertEquals(1, engine.getQueuedTriggerCount());
+		engine.removeTriggers("other");
+		assertEquals(0, engine.getTriggerCount());
+		assertEquals(0, engine.getQueuedTriggerCount());
+
+		Thread.sleep((fireTime + 1000L) - System.currentTimeMillis());
+		assertTrue("removed entries must not fire", fireCounts.isEmpty());
+	}
+
+	@Test
+	public void testReplaceAndRemoveTriggers() throws Exception {
+		engine.setTriggers("schedule", Arrays.asList(createTrigger("a", EVERY_SECOND), createTrigger("b", EVERY_SECOND)));
+		engine.setTriggers("other", Collections.singletonList(createTrigger("c", EVERY_SECOND)));
+		assertEquals(3, engine.getTriggerCount());
+
+		// replace (must not affect other schedules)
+		engine.setTriggers("schedule", Collections.singletonList(createTrigger("d", EVERY_SECOND)));
+		assertEquals(2, engine.getTriggerCount());
+		Thread.sleep(2500);
+		assertEquals("replaced entry must not fire", 0, getFireCount("a") + getFireCount("b"));
+		assertTrue("new entry must fire", getFireCount("d") > 0);
+		assertTrue("other schedule must fire", getFireCount("c") > 0);
+
+		// remove
+		engine.removeTriggers("schedule");
+		assertEquals(1, engine.getTriggerCount());
+		Thread.sleep(200);
+		final int fired = getFireCount("d");
+		Thread.sleep(2000);
+		assertEquals("removed entry must not fire", fired, getFireCount("d"));
+		assertTrue("other schedule must keep firing", getFireCount("c") > 2);
+	}
+}
@@ -17,8 +17,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.eclipse.gyrex.context.IModifiableRuntimeContext;
@@ -156,6 +159,34 @@ public class CloudHistoryStorageTest {
 		assertEquals(jobHistory.getEntries().size(), jobHistory.getEntries().toArray().length);
 	}
 
+	@Test
+	public void testFindPaging() throws Exception {
+		final String jobId = "test3" + System.nanoTime();
+
+		// get job
+		final IJob job = jobManager.createJob(TestJobsProvider.ID_TESTABLE_JOB, jobId, null);
+		assertNotNull(job);
+
+		// add a few entries
+		for (int i = 0; i < 5; i++) {
+			storage.add(jobId, createHistoryEntry(IStatus.INFO, "Status " + i));
+		}
+
+		// read in pages of two
+		final List<JobHistoryEntryStorable> all = new ArrayList<JobHistoryEntryStorable>();
+		for (int offset = 0; offset < 5; offset += 2) {
+			final Collection<JobHistoryEntryStorable> page = storage.find(jobId, offset, 2);
+			assertEquals(Math.min(2, 5 - offset), page.size());
+			all.addAll(page);
+		}
+		assertTrue(storage.find(jobId, 5, 2).isEmpty());
+
+		// pages must be consistent with a single read (most recent first)
+		assertEquals(new ArrayList<JobHistoryEntryStorable>(storage.find(jobId, 0, 5)), all);
+		assertEquals("INFO: Status 4", all.get(0).getResult().getMessage());
+		assertEquals("INFO: Status 0", all.get(4).getResult().getMessage());
+	}
+
 	@Test
 	public void testMaxHistorySize() throws Exception {
 		final String jobId = "test2" + System.nanoTime();
@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.jobs.tests.internal.worker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.gyrex.cloud.services.queue.IMessage;
+import org.eclipse.gyrex.cloud.services.queue.IQueue;
+import org.eclipse.gyrex.cloud.services.queue.IQueueListener;
+import org.eclipse.gyrex.cloud.services.queue.IQueueService;
+import org.eclipse.gyrex.jobs.internal.worker.WorkerEngine;
+import org.eclipse.gyrex.jobs.internal.worker.WorkerEngineMetrics;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the worker engine receiving jobs up to its capacity and being woken
+ * up by queue listeners.
+ */
+public class WorkerEngineTests {
+
+	/**
+	 * A message of a {@link TestQueue}.
+	 */
+	private static final class TestMessage implements IMessage {
+
+		private final String queueId;
+		private final byte[] body;
+
+		TestMessage(final String queueId, final byte[] body) {
+			this.queueId = queueId;
+			this.body = body;
+		}
+
+		@Override
+		public byte[] getBody() {
+			return body;
+		}
+
+		@Override
+		public String getQueueId() {
+			return queueId;
+		}
+
+		@Override
+		public String toString() {
+			return "TestMessage[" + new String(body) + "]";
+		}
+	}
+
+	/**
+	 * An in-memory queue handle.
+	 */
+	private static final class TestQueue implements IQueue {
+
+		private final String id;
+		private final List<IMessage> messages = new LinkedList<IMessage>();
+		private final List<IQueueListener> listeners = new CopyOnWriteArrayList<IQueueListener>();
+		private final List<Integer> receiveRequests = new CopyOnWriteArrayList<Integer>();
+
+		TestQueue(final String id) {
+			this.id = id;
+		}
+
+		@Override
+		public void addQueueListener(final IQueueListener listener) {
+			if (!listeners.contains(listener)) {
+				listeners.add(listener);
+			}
+		}
+
+		@Override
+		public IMessage consumeMessage(final long timeout, final TimeUnit unit) {
+			final List<IMessage> received = receiveMessages(1, null);
+			return received.isEmpty() ? null : received.get(0);
+		}
+
+		@Override
+		public boolean deleteMessage(final IMessage message) throws NoSuchElementException {
+			return true;
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public List<IMessage> receiveMessages(final int maxNumberOfMessages, final Map<String, ?> properties) {
+			receiveRequests.add(maxNumberOfMessages);
+			final List<IMessage> received = new ArrayList<IMessage>(maxNumberOfMessages);
+			synchronized (messages) {
+				while ((received.size() < maxNumberOfMessages) && !messages.isEmpty()) {
+					received.add(messages.remove(0));
+				}
+			}
+			return received;
+		}
+
+		@Override
+		public void removeQueueListener(final IQueueListener listener) {
+			listeners.remove(listener);
+		}
+
+		@Override
+		public void sendMessage(final byte[] messageBody) {
+			synchronized (messages) {
+				messages.add(new TestMessage(id, messageBody));
+			}
+			for (final IQueueListener listener : listeners) {
+				listener.messagesAdded(this);
+			}
+		}
+
+		@Override
+		public int size() {
+			synchronized (messages) {
+				return messages.size();
+			}
+		}
+	}
+
+	private static final String QUEUE_ID = "workerEngineTestQueue";
+	private static final int CAPACITY = 3;
+	private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(20);
+
+	private final List<IMessage> preparedMessages = new CopyOnWriteArrayList<IMessage>();
+	private final AtomicInteger wakeUps = new AtomicInteger();
+	private volatile CountDownLatch jobsReleased;
+	private volatile TestQueue queue;
+	private WorkerEngine engine;
+
+	@Before
+	public void setUp() throws Exception {
+		// only wake-ups can make the engine run again within the test
+		System.setProperty("gyrex.jobs.workerEngine.maxConcurrentScheduledJobs", String.valueOf(CAPACITY));
+		System.setProperty("gyrex.jobs.workerEngine.idleSleepTimeMs", String.valueOf(TimeUnit.HOURS.toMillis(1)));
+		System.setProperty("gyrex.jobs.workerEngine.nonIdleSleepTimeMs", String.valueOf(TimeUnit.HOURS.toMillis(1)));
+		System.setProperty("gyrex.jobs.workerEngine.queueIds", QUEUE_ID);
+
+		jobsReleased = new CountDownLatch(1);
+		queue = new TestQueue(QUEUE_ID);
+		engine = new WorkerEngine(new WorkerEngineMetrics()) {
+			@Override
+			protected IQueueService getQueueService() {
+				return new IQueueService() {
+					@Override
+					public IQueue createQueue(final String id, final Map<String, ?> properties) {
+						throw new UnsupportedOperationException();
+					}
+
+					@Override
+					public void deleteQueue(final String id, final Map<String, ?> properties) {
+						throw new UnsupportedOperationException();
+					}
+
+					@Override
+					public IQueue getQueue(final String id, final Map<String, ?> properties) {
+						return QUEUE_ID.equals(id) ? queue : null;
+					}
+
+					@Override
+					public IQueue updateQueue(final String id, final Map<String, ?> properties) {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			protected Job prepareJob(final IQueue queue, final IMessage message) {
+				preparedMessages.add(message);
+				return new Job("Worker Engine Test Job") {
+					@Override
+					protected IStatus run(final IProgressMonitor monitor) {
+						try {
+							jobsReleased.await(TIMEOUT, TimeUnit.MILLISECONDS);
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return Status.OK_STATUS;
+					}
+				};
+			}
+		};
+		engine.addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void awake(final IJobChangeEvent event) {
+				wakeUps.incrementAndGet();
+			}
+		});
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		engine.cancel();
+		jobsReleased.countDown();
+		engine.join();
+
+		System.clearProperty("gyrex.jobs.workerEngine.maxConcurrentScheduledJobs");
+		System.clearProperty("gyrex.jobs.workerEngine.idleSleepTimeMs");
+		System.clearProperty("gyrex.jobs.workerEngine.nonIdleSleepTimeMs");
+		System.clearProperty("gyrex.jobs.workerEngine.queueIds");
+	}
+
+	@Test
+	public void testDrainUpToCapacity() throws Exception {
+		for (int i = 0; i < 7; i++) {
+			queue.sendMessage(("job" + i).getBytes());
+		}
+
+		engine.schedule();
+		waitForPreparedMessages(CAPACITY);
+		waitUntilSleeping(1);
+
+		// a single receive for the free capacity and nothing more
+		assertEquals(Collections.singletonList(CAPACITY), queue.receiveRequests);
+		assertEquals(CAPACITY, preparedMessages.size());
+		assertEquals(7 - CAPACITY, queue.size());
+
+		// finished jobs must wake up the engine to drain the rest
+		jobsReleased.countDown();
+		waitForPreparedMessages(7);
+		assertEquals(0, queue.size());
+		assertTrue("engine must have been woken up", wakeUps.get() > 0);
+		for (final Integer requested : queue.receiveRequests) {
+			assertTrue("must not receive more than the capacity", requested <= CAPACITY);
+		}
+	}
+
+	@Test
+	public void testListenerFollowsQueueHandle() throws Exception {
+		engine.schedule();
+		waitUntilSleeping(1);
+		final TestQueue oldQueue = queue;
+		assertEquals(1, oldQueue.listeners.size());
+
+		// re-created queue (new handle)
+		final TestQueue newQueue = new TestQueue(QUEUE_ID);
+		queue = newQueue;
+		engine.wakeUp();
+		waitUntilSleeping(1);
+		assertEquals("listener must be removed from the old handle", 0, oldQueue.listeners.size());
+		assertEquals("listener must be added to the new handle", 1, newQueue.listeners.size());
+
+		// new handle wakes up the engine
+		newQueue.sendMessage("job".getBytes());
+		waitForPreparedMessages(1);
+
+		// deleted queue
+		queue = null;
+		engine.wakeUp();
+		waitUntilSleeping(0);
+		assertEquals("listener must be removed from deleted queue", 0, newQueue.listeners.size());
+	}
+
+	@Test
+	public void testWakeUpOnNewMessages() throws Exception {
+		engine.schedule();
+		waitUntilSleeping(1);
+		assertEquals(0, preparedMessages.size());
+		assertEquals(0, wakeUps.get());
+
+		queue.sendMessage("job".getBytes());
+		waitForPreparedMessages(1);
+		assertEquals(1, wakeUps.get());
+	}
+
+	private void waitForPreparedMessages(final int count) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT;
+		while ((preparedMessages.size() < count) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(20);
+		}
+		assertEquals("prepared messages", count, preparedMessages.size());
+	}
+
+	private void waitUntilSleeping(final int minimumReceiveRequests) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (((queue != null) && (queue.receiveRequests.size() < minimumReceiveRequests)) || (engine.getState() != Job.SLEEPING)) {
+			if (System.currentTimeMillis() > deadline)
+				throw new AssertionError("timeout waiting for worker engine to finish");
+			Thread.sleep(20);
+		}
+	}
+}
@@ -19,6 +19,7 @@ import org.eclipse.gyrex.cloud.services.queue.IQueueService;
 import org.eclipse.gyrex.common.runtime.BaseBundleActivator;
 import org.eclipse.gyrex.common.services.IServiceProxy;
 import org.eclipse.gyrex.jobs.internal.registry.JobProviderRegistry;
+import org.eclipse.gyrex.jobs.internal.storage.CloudPreferencesJobStateIndex;
 import org.eclipse.gyrex.monitoring.metrics.MetricSet;
 
 import org.osgi.framework.BundleContext;
@@ -52,6 +53,7 @@ public class JobsActivator extends BaseBundleActivator {
 
 	private volatile IServiceProxy<IQueueService> queueServiceProxy;
 	private volatile JobProviderRegistry jobProviderRegistry;
+	private volatile CloudPreferencesJobStateIndex jobStateIndex;
 
 	/**
 	 * Creates a new instance.
@@ -76,6 +78,11 @@ public class JobsActivator extends BaseBundleActivator {
 			jobProviderRegistry.close();
 			jobProviderRegistry = null;
 		}
+
+		if (jobStateIndex != null) {
+			jobStateIndex.close();
+			jobStateIndex = null;
+		}
 	}
 
 	@Override
@@ -101,6 +108,22 @@ public class JobsActivator extends BaseBundleActivator {
 		return registry;
 	}
 
+	public CloudPreferencesJobStateIndex getJobStateIndex() {
+		CloudPreferencesJobStateIndex index = jobStateIndex;
+		if (null == index) {
+			synchronized (this) {
+				if (jobStateIndex != null)
+					return jobStateIndex;
+
+				if (!isActive())
+					throw createBundleInactiveException();
+
+				index = jobStateIndex = new CloudPreferencesJobStateIndex();
+			}
+		}
+		return index;
+	}
+
 	/**
 	 * Returns the queueServiceProxy.
 	 * 
@@ -120,17 +120,10 @@ public class LsCmd extends Command {
 	}
 
 	private SortedSet<String> getJobIds(final JobState state) throws BackingStoreException {
-		final String[] storageIds = CloudPreferncesJobStorage.getJobsNode().childrenNames();
 		if (null == state)
-			return new TreeSet<String>(Arrays.asList(storageIds));
+			return new TreeSet<String>(Arrays.asList(CloudPreferncesJobStorage.getJobsNode().childrenNames()));
 
-		final TreeSet<String> jobIds = new TreeSet<String>();
-		for (final String storageId : storageIds) {
-			if (StringUtils.equals(CloudPreferncesJobStorage.getJobsNode().node(storageId).get("status", null), state.name())) {
-				jobIds.add(storageId);
-			}
-		}
-		return jobIds;
+		return new TreeSet<String>(JobsActivator.getInstance().getJobStateIndex().getStorageKeys(state));
 	}
 
 	private void printJob(final JobImpl job) throws Exception {
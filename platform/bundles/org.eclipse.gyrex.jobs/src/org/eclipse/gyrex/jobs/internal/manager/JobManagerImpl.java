@@ -502,10 +502,10 @@ public class JobManagerImpl implements IJobManager {
 			throw new IllegalArgumentException("Status must not be null");
 
 		try {
-			final String[] storageIds = CloudPreferncesJobStorage.getJobsNode().childrenNames();
-			final List<String> jobIds = new ArrayList<String>(storageIds.length);
-			for (final String internalId : storageIds) {
-				if (contextHash.isInternalId(internalId) && StringUtils.equals(CloudPreferncesJobStorage.getJobsNode().node(internalId).get(CloudPreferncesJobStorage.PROPERTY_STATUS, null), state.name())) {
+			final Collection<String> storageKeys = JobsActivator.getInstance().getJobStateIndex().getStorageKeys(state);
+			final List<String> jobIds = new ArrayList<String>(storageKeys.size());
+			for (final String internalId : storageKeys) {
+				if (contextHash.isInternalId(internalId)) {
 					jobIds.add(toExternalId(internalId));
 				}
 			}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -13,7 +13,7 @@
 package org.eclipse.gyrex.jobs.internal.scheduler;
 
 import java.text.ParseException;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.gyrex.jobs.internal.JobsActivator;
@@ -38,19 +38,18 @@ import org.osgi.service.prefs.BackingStoreException;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.exception.ExceptionUtils;
 
-import org.quartz.CronTrigger;
-import org.quartz.JobDetail;
-import org.quartz.SchedulerException;
-import org.quartz.impl.DirectSchedulerFactory;
-import org.quartz.impl.SchedulerRepository;
-import org.quartz.simpl.RAMJobStore;
-import org.quartz.simpl.SimpleThreadPool;
-import org.quartz.spi.JobStore;
+import org.quartz.CronExpression;
+import org.quartz.JobDataMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A quarz schedule
+ * A schedule hosted by the {@link ScheduleEngine}.
+ * <p>
+ * The schedule registers its entries with the engine when activated and
+ * removes them when deactivated. Changes to the schedule only affect its own
+ * entries.
+ * </p>
  */
 public class Schedule implements IPreferenceChangeListener {
 
@@ -69,6 +68,7 @@ public class Schedule implements IPreferenceChangeListener {
 				if (schedule.isEnabled()) {
 					if (monitor.isCanceled())
 						return Status.CANCEL_STATUS;
+					// (note, this also refreshes entries of an active schedule)
 					activateEngine();
 				} else {
 					deactivateEngine();
@@ -95,11 +95,13 @@ public class Schedule implements IPreferenceChangeListener {
 	private final DeferredActivationJob deferredActivationJob = new DeferredActivationJob();
 	private final String scheduleStoreStorageKey;
 
+	private final ScheduleEngine engine;
 	private final ScheduleMetrics metrics;
 	private ServiceRegistration<MetricSet> metricsRegistration;
 	private ScheduleImpl scheduleData;
 
-	private org.quartz.Scheduler quartzScheduler;
+	/** indicates if the entries are registered with the engine (guarded by this) */
+	private boolean active;
 
 	/**
 	 * Creates a new instance.
@@ -110,6 +112,7 @@ public class Schedule implements IPreferenceChangeListener {
 	 */
 	public Schedule(final String scheduleStoreStorageKey, final Scheduler scheduler) throws Exception {
 		this.scheduleStoreStorageKey = scheduleStoreStorageKey;
+		engine = scheduler.getEngine();
 		metrics = new ScheduleMetrics(scheduleStoreStorageKey);
 	}
 
@@ -117,48 +120,23 @@ public class Schedule implements IPreferenceChangeListener {
 		if (JobsDebug.schedulerEngine) {
 			LOG.debug("Activating schedule {}...", scheduleStoreStorageKey);
 		}
-		if (null != quartzScheduler)
-			return;
 
 		try {
-			// make sure that Quartz does not check for updates
-			System.setProperty("org.terracotta.quartz.skipUpdateCheck", "true");
-
-			// prepare scheduler
-			final DirectSchedulerFactory factory = DirectSchedulerFactory.getInstance();
-			final SimpleThreadPool threadPool = new SimpleThreadPool(1, Thread.NORM_PRIORITY);
-			threadPool.setInstanceId(scheduleStoreStorageKey);
-			threadPool.setInstanceName(scheduleStoreStorageKey);
-			final JobStore jobStore = new RAMJobStore();
-
-			// create scheduler
-			// (make sure that only a single thread manipulates the SchedulerRepository)
-			final SchedulerRepository repository = SchedulerRepository.getInstance();
-			synchronized (repository) {
-				factory.createScheduler(scheduleStoreStorageKey, scheduleStoreStorageKey, threadPool, jobStore);
-				quartzScheduler = factory.getScheduler(scheduleStoreStorageKey);
-				if (null == quartzScheduler) {
-					quartzScheduler = repository.lookup(scheduleStoreStorageKey);
-				}
-			}
-
-			// double check to ensure that Quartz did not fail
-			if (null == quartzScheduler)
-				throw new SchedulerException("Unabled to retrieve created scheduler from Quartz SchedulerRepository. It looks like the creation failed but the Quartz framework did not report it as such!");
-
 			// TODO add support for calendars (we likely should support global calendars)
 
 			// refresh the schedule
 			refreshSchedule();
 
-			// start
-			quartzScheduler.start();
-			metrics.setStatus("QUARTZRUNNING", "Quartz schedule started successfully");
-
 			// log success message
-			LOG.info("Activated schedule {}.", getScheduleStoreStorageKey());
-		} catch (final SchedulerException e) {
-			LOG.error("Unable to activate Quarz scheduler. {}", ExceptionUtils.getRootCauseMessage(e));
+			if (!active) {
+				active = true;
+				metrics.setStatus("ACTIVE", "schedule activated successfully");
+				LOG.info("Activated schedule {}.", getScheduleStoreStorageKey());
+			} else {
+				metrics.setStatus("ACTIVE", "schedule refreshed successfully");
+			}
+		} catch (final RuntimeException e) {
+			LOG.error("Unable to activate schedule {}. {}", scheduleStoreStorageKey, ExceptionUtils.getRootCauseMessage(e));
 			metrics.error("error activating schedule", e);
 
 			// cleanup
@@ -169,7 +147,7 @@ public class Schedule implements IPreferenceChangeListener {
 
 	synchronized void deactivateEngine() {
 		if (JobsDebug.schedulerEngine) {
-			LOG.debug("Deactivating Quartz engine {}...", getScheduleStoreStorageKey());
+			LOG.debug("Deactivating schedule {}...", getScheduleStoreStorageKey());
 		}
 		quietShutdown();
 		metrics.setStatus("DEACTIVATED", "schedule deactivated");
@@ -197,11 +175,7 @@ public class Schedule implements IPreferenceChangeListener {
 	}
 
 	synchronized boolean isActive() {
-		try {
-			return (null != quartzScheduler) && quartzScheduler.isStarted();
-		} catch (final SchedulerException e) {
-			return false;
-		}
+		return active;
 	}
 
 	@Override
@@ -243,60 +217,18 @@ public class Schedule implements IPreferenceChangeListener {
 		// cancel any ongoing activation
 		deferredActivationJob.cancel();
 
-		// make sure that there is no Quartz schedule left in the Quartz scheduler repo
-		final SchedulerRepository repository = SchedulerRepository.getInstance();
-		if (null == quartzScheduler) {
-			synchronized (repository) {
-				quartzScheduler = repository.lookup(scheduleStoreStorageKey);
-			}
-		}
+		// remove entries from engine
+		engine.removeTriggers(scheduleStoreStorageKey);
+		if (active) {
+			active = false;
+			metrics.setStatus("INACTIVE", "quiet shutdown triggered");
 
-		// shutdown Quartz scheduler
-		if (null != quartzScheduler) {
-			try {
-				// remove from SchedulerRepository
-				boolean removed;
-				synchronized (repository) {
-					removed = repository.remove(scheduleStoreStorageKey);
-				}
-				if (!removed) {
-					LOG.error("Quartz eninge for schedule {} could not be removed from the Quartz scheduler repository. Please monitor the process memory and scheduling closely for anomalies. A restart of the node may be necessary.", scheduleStoreStorageKey);
-				} else if (JobsDebug.schedulerEngine) {
-					LOG.debug("Successful removal of Quartz engine {} from scheduler repo.", scheduleStoreStorageKey);
-				}
-			} catch (final Exception ignored) {
-				// ignore
-			} finally {
-				try {
-					// shutdown
-					quartzScheduler.shutdown();
-					metrics.setStatus("QUARTZSTOPPED", "quiet shutdown triggered");
-
-					// log success message
-					LOG.info("Deactivated schedule {}.", scheduleStoreStorageKey);
-				} catch (final Exception ignored) {
-					// ignore
-				}
-			}
-			quartzScheduler = null;
+			// log success message
+			LOG.info("Deactivated schedule {}.", scheduleStoreStorageKey);
 		}
 	}
 
-	private synchronized void refreshSchedule() throws SchedulerException {
-
-		// delete all existing jobs
-		final String[] jobGroupNames = quartzScheduler.getJobGroupNames();
-		if (null != jobGroupNames) {
-			for (final String groupName : jobGroupNames) {
-				for (final String jobName : quartzScheduler.getJobNames(groupName)) {
-					if (JobsDebug.schedulerEngine) {
-						LOG.debug("Removing job {} from Quartz engine {}...", jobName, getScheduleStoreStorageKey());
-					}
-					quartzScheduler.deleteJob(jobName, groupName);
-				}
-			}
-		}
-
+	private synchronized void refreshSchedule() {
 		// get configured jobs
 		// (note, it's important that we pass false here to ensureScheduleData in order to prevent the #sync call on the preference node)
 		// (otherwise a in-flight preference change event will be reverted)
@@ -305,6 +237,7 @@ public class Schedule implements IPreferenceChangeListener {
 		final List<IScheduleEntry> entries = schedule.getEntries();
 
 		// schedule entries with cron expression if available
+		final List<ScheduleEngine.Trigger> triggers = new ArrayList<ScheduleEngine.Trigger>(entries.size());
 		for (final IScheduleEntry entry : entries) {
 			// ignore invalid entries (bug 413417)
 			if ("invalid".equals(entry.getJobTypeId())) {
@@ -316,35 +249,27 @@ public class Schedule implements IPreferenceChangeListener {
 				continue;
 			}
 
-			final CronTrigger trigger = new CronTrigger(entry.getId());
-			trigger.setTimeZone(schedule.getTimeZone());
+			final CronExpression expression;
 			try {
-				trigger.setCronExpression(asQuartzCronExpression(cronExpression));
+				expression = new CronExpression(asQuartzCronExpression(cronExpression));
 			} catch (final ParseException e) {
 				LOG.error("Unable to schedule entry {}. Invalid cron expression. {}", entry, ExceptionUtils.getRootCauseMessage(e));
 				continue;
 			}
+			expression.setTimeZone(schedule.getTimeZone());
 
-			/*
-			 * Check, whether the job will be triggered at all.
-			 * It won't be scheduled if it lacks any further executions.
-			 */
-			final Date firstFireTime = trigger.computeFirstFireTime(null);
-			if ((firstFireTime == null)) {
-				if (JobsDebug.schedulerEngine) {
-					LOG.debug("Ignoring job {} since it won't be triggered anymore.", entry);
-				}
-				continue;
-			}
-
-			final JobDetail detail = new JobDetail(entry.getId(), SchedulingJob.class);
-			SchedulingJob.populateJobDataMap(detail.getJobDataMap(), entry, schedule);
+			final JobDataMap dataMap = new JobDataMap();
+			SchedulingJob.populateJobDataMap(dataMap, entry, schedule);
 
 			if (JobsDebug.schedulerEngine) {
-				LOG.debug("Adding job {} to Quartz engine {}...", entry, getScheduleStoreStorageKey());
+				LOG.debug("Adding entry {} of schedule {} to engine...", entry, getScheduleStoreStorageKey());
 			}
-			quartzScheduler.scheduleJob(detail, trigger);
+			triggers.add(new ScheduleEngine.Trigger(entry.getId(), expression, dataMap));
 		}
+
+		// replace all entries of this schedule
+		// (note, entries which won't fire anymore will be ignored by the engine)
+		engine.setTriggers(scheduleStoreStorageKey, triggers);
 	}
 
 	/**
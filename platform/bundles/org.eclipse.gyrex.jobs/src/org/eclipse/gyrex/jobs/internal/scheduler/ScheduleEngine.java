@@ -0,0 +1,387 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.jobs.internal.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.gyrex.jobs.internal.JobsDebug;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+import org.eclipse.gyrex.server.settings.SystemSetting;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+
+import org.quartz.CronExpression;
+import org.quartz.JobDataMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single timer engine firing the entries of all schedules.
+ * <p>
+ * The engine keeps the next fire time of all entries in a priority queue. A
+ * single timer thread waits for the earliest fire time, computes the
+ * following fire time of a due entry and hands it over to a small pool of
+ * threads which queue the job with the job manager. The difference between
+ * the expected fire time and the time an entry is actually fired is recorded
+ * as skew.
+ * </p>
+ * <p>
+ * Entries which missed their fire time (eg. because the engine was busy) are
+ * fired once as soon as possible. Afterwards they continue with the next fire
+ * time after the current time.
+ * </p>
+ */
+public class ScheduleEngine {
+
+	/**
+	 * An entry fired by the engine.
+	 */
+	public static final class Trigger implements Comparable<Trigger> {
+
+		private final String entryId;
+		private final CronExpression cronExpression;
+		private final JobDataMap dataMap;
+
+		/** the schedule this trigger belongs to (guarded by engine lock) */
+		private String scheduleKey;
+		/** the next fire time (guarded by engine lock) */
+		private long nextFireTime;
+
+		/**
+		 * Creates a new instance.
+		 * 
+		 * @param entryId
+		 *            the entry id
+		 * @param cronExpression
+		 *            the cron expression (with time zone set)
+		 * @param dataMap
+		 *            the data of the job to queue when fired
+		 */
+		public Trigger(final String entryId, final CronExpression cronExpression, final JobDataMap dataMap) {
+			this.entryId = entryId;
+			this.cronExpression = cronExpression;
+			this.dataMap = dataMap;
+		}
+
+		@Override
+		public int compareTo(final Trigger o) {
+			return Long.compare(nextFireTime, o.nextFireTime);
+		}
+
+		/**
+		 * Returns the data of the job to queue when fired.
+		 * 
+		 * @return the job data
+		 */
+		public JobDataMap getDataMap() {
+			return dataMap;
+		}
+
+		/**
+		 * Returns the entry id.
+		 * 
+		 * @return the entry id
+		 */
+		public String getEntryId() {
+			return entryId;
+		}
+
+		/**
+		 * Computes the first fire time after the specified time.
+		 * 
+		 * @param time
+		 *            the time in milli-seconds
+		 * @return the fire time in milli-seconds (<code>-1</code> if the
+		 *         trigger won't fire anymore)
+		 */
+		long getFireTimeAfter(final long time) {
+			final Date fireTime = cronExpression.getNextValidTimeAfter(new Date(time));
+			return fireTime != null ? fireTime.getTime() : -1L;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Trigger[%s/%s, %s]", scheduleKey, entryId, cronExpression.getCronExpression());
+		}
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(ScheduleEngine.class);
+
+	private static final SystemSetting<Integer> fireThreadsSetting = SystemSetting.newIntegerSetting("gyrex.jobs.scheduler.fireThreads", "The number of threads used for queuing the jobs of fired schedule entries.").usingDefault(4).create();
+
+	private final HistogramMetric fireTimeSkewMetric;
+	private final Object lock = new Object();
+
+	/** all active triggers ordered by next fire time (guarded by lock) */
+	private final PriorityQueue<Trigger> triggers = new PriorityQueue<Trigger>();
+	/** active triggers by schedule (guarded by lock) */
+	private final Map<String, List<Trigger>> triggersBySchedule = new HashMap<String, List<Trigger>>();
+
+	/** the timer thread (guarded by lock) */
+	private Thread timerThread;
+	/** the fire threads (guarded by lock) */
+	private ExecutorService fireExecutor;
+
+	/**
+	 * Creates a new instance.
+	 * 
+	 * @param fireTimeSkewMetric
+	 *            the metric for recording the skew of fire times
+	 */
+	public ScheduleEngine(final HistogramMetric fireTimeSkewMetric) {
+		this.fireTimeSkewMetric = fireTimeSkewMetric;
+	}
+
+	private void cancelTriggers(final String scheduleKey) {
+		final List<Trigger> removed = triggersBySchedule.remove(scheduleKey);
+		if (removed == null)
+			return;
+
+		for (final Trigger trigger : removed) {
+			triggers.remove(trigger);
+		}
+	}
+
+	/**
+	 * Fires the specified trigger.
+	 * <p>
+	 * The default implementation queues the job with the job manager.
+	 * Subclasses may override.
+	 * </p>
+	 * 
+	 * @param trigger
+	 *            the trigger to fire
+	 * @throws Exception
+	 *             in case of errors queuing the job
+	 */
+	protected void fire(final Trigger trigger) throws Exception {
+		SchedulingJob.triggerJob(trigger.getDataMap());
+	}
+
+	private void fireAsync(final Trigger trigger, final long fireTime, final ExecutorService executor) {
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					fireTimeSkewMetric.record(Math.max(0, System.currentTimeMillis() - fireTime));
+					try {
+						fire(trigger);
+					} catch (final Exception e) {
+						LOG.error("Error firing schedule entry {}. {}", new Object[] { trigger, ExceptionUtils.getRootCauseMessage(e), e });
+					}
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			// engine is shutting down
+			if (JobsDebug.schedulerEngine) {
+				LOG.debug("Not firing {} due to engine shutdown.", trigger);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of triggers waiting for their next fire time.
+	 * <p>
+	 * This method is only public for testing purposes. It must not be called by
+	 * clients.
+	 * </p>
+	 * 
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public int getQueuedTriggerCount() {
+		synchronized (lock) {
+			return triggers.size();
+		}
+	}
+
+	/**
+	 * Returns the number of triggers hosted by the engine.
+	 * 
+	 * @return the number of triggers
+	 */
+	public int getTriggerCount() {
+		synchronized (lock) {
+			int count = 0;
+			for (final List<Trigger> scheduleTriggers : triggersBySchedule.values()) {
+				count += scheduleTriggers.size();
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Indicates if the engine is started.
+	 * 
+	 * @return <code>true</code> if started, <code>false</code> otherwise
+	 */
+	public boolean isStarted() {
+		synchronized (lock) {
+			return timerThread != null;
+		}
+	}
+
+	/**
+	 * Removes all triggers of the specified schedule.
+	 * 
+	 * @param scheduleKey
+	 *            the schedule key
+	 */
+	public void removeTriggers(final String scheduleKey) {
+		synchronized (lock) {
+			cancelTriggers(scheduleKey);
+			lock.notifyAll();
+		}
+	}
+
+	private void runTimer() {
+		while (true) {
+			final Trigger trigger;
+			final long fireTime;
+			final ExecutorService executor;
+			synchronized (lock) {
+				if (timerThread != Thread.currentThread())
+					return;
+
+				// wait for the next trigger to become due
+				final Trigger next = triggers.peek();
+				final long now = System.currentTimeMillis();
+				if ((next == null) || (next.nextFireTime > now)) {
+					try {
+						lock.wait(next == null ? 0L : next.nextFireTime - now);
+					} catch (final InterruptedException e) {
+						return;
+					}
+					continue;
+				}
+
+				// schedule next fire time before firing
+				trigger = triggers.poll();
+				fireTime = trigger.nextFireTime;
+				trigger.nextFireTime = trigger.getFireTimeAfter(Math.max(fireTime, now));
+				if (trigger.nextFireTime >= 0) {
+					triggers.add(trigger);
+				} else if (JobsDebug.schedulerEngine) {
+					LOG.debug("Trigger {} won't fire anymore.", trigger);
+				}
+				executor = fireExecutor;
+			}
+
+			if (JobsDebug.schedulerEngine) {
+				LOG.debug("Firing {} (expected at {}).", trigger, new Date(fireTime));
+			}
+			fireAsync(trigger, fireTime, executor);
+		}
+	}
+
+	/**
+	 * Replaces all triggers of the specified schedule.
+	 * 
+	 * @param scheduleKey
+	 *            the schedule key
+	 * @param scheduleTriggers
+	 *            the new triggers of the schedule (may be empty)
+	 */
+	public void setTriggers(final String scheduleKey, final Collection<Trigger> scheduleTriggers) {
+		final long now = System.currentTimeMillis();
+		final List<Trigger> added = new ArrayList<Trigger>(scheduleTriggers.size());
+		synchronized (lock) {
+			cancelTriggers(scheduleKey);
+			for (final Trigger trigger : scheduleTriggers) {
+				trigger.scheduleKey = scheduleKey;
+				trigger.nextFireTime = trigger.getFireTimeAfter(now);
+				if (trigger.nextFireTime < 0) {
+					if (JobsDebug.schedulerEngine) {
+						LOG.debug("Ignoring trigger {} since it won't fire anymore.", trigger);
+					}
+					continue;
+				}
+				triggers.add(trigger);
+				added.add(trigger);
+			}
+			if (!added.isEmpty()) {
+				triggersBySchedule.put(scheduleKey, Collections.unmodifiableList(added));
+			}
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Starts the engine.
+	 */
+	public void start() {
+		synchronized (lock) {
+			if (timerThread != null)
+				return;
+
+			final AtomicInteger threadNumber = new AtomicInteger();
+			fireExecutor = Executors.newFixedThreadPool(Math.max(1, fireThreadsSetting.get()), new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread t = new Thread(r, "Gyrex Schedule Engine Fire Thread " + threadNumber.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			timerThread = new Thread("Gyrex Schedule Engine Timer") {
+				@Override
+				public void run() {
+					runTimer();
+				}
+			};
+			timerThread.setDaemon(true);
+			timerThread.start();
+		}
+	}
+
+	/**
+	 * Stops the engine and removes all triggers.
+	 */
+	public void stop() {
+		final ExecutorService executor;
+		synchronized (lock) {
+			if (timerThread == null)
+				return;
+
+			timerThread.interrupt();
+			timerThread = null;
+			executor = fireExecutor;
+			fireExecutor = null;
+
+			triggers.clear();
+			triggersBySchedule.clear();
+			lock.notifyAll();
+		}
+
+		// allow jobs being queued to finish
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+				LOG.warn("Timeout waiting for schedule engine to finish queuing jobs.");
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
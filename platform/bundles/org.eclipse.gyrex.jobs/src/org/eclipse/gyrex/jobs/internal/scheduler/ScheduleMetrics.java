@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2012, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *  
  * This program and the accompanying materials are made available under the 
@@ -27,7 +27,7 @@ public class ScheduleMetrics extends MetricSet {
 	private final ErrorMetric lastError;
 
 	public ScheduleMetrics(final String scheduleStoreStorageKey) {
-		super(String.format(JobsActivator.SYMBOLIC_NAME + ".scheduler.schedule.%s.metric", scheduleStoreStorageKey), "Metrics for Quartz based schedule.", new StatusMetric("status", "created", "not initialized"), new ErrorMetric("lastError", 0));
+		super(String.format(JobsActivator.SYMBOLIC_NAME + ".scheduler.schedule.%s.metric", scheduleStoreStorageKey), "Metrics for schedule.", new StatusMetric("status", "created", "not initialized"), new ErrorMetric("lastError", 0));
 		status = getMetric(0, StatusMetric.class);
 		lastError = getMetric(1, ErrorMetric.class);
 	}
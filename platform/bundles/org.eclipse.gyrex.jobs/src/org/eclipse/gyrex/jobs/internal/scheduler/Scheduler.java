@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -56,6 +56,7 @@ public class Scheduler extends Job implements INodeChangeListener {
 	private long engineSleepTime = INITIAL_SLEEP_TIME;
 	private final ConcurrentMap<String, Schedule> schedulesById = new ConcurrentHashMap<String, Schedule>();
 	private final SchedulerApplicationMetrics metrics;
+	private final ScheduleEngine engine;
 
 	/**
 	 * Creates a new instance.
@@ -65,6 +66,7 @@ public class Scheduler extends Job implements INodeChangeListener {
 	public Scheduler(final SchedulerApplicationMetrics metrics) {
 		super("Gyrex Scheduler");
 		this.metrics = metrics;
+		engine = new ScheduleEngine(metrics.getFireTimeSkew());
 		setSystem(true);
 		setPriority(SHORT);
 		addJobChangeListener(new IJobChangeListener() {
@@ -157,6 +159,9 @@ public class Scheduler extends Job implements INodeChangeListener {
 
 			metrics.setStatus("LOCKACQUIRED", "lock acquire loop");
 
+			// start the engine firing the entries of all schedules
+			engine.start();
+
 			// setup the schedule listeners
 			final IEclipsePreferences schedulesNode = ScheduleStore.getSchedulesNode();
 			schedulesNode.addNodeChangeListener(this);
@@ -209,6 +214,9 @@ public class Scheduler extends Job implements INodeChangeListener {
 					}
 				}
 				schedulesById.clear();
+
+				// stop engine
+				engine.stop();
 			} finally {
 				// release lock
 				if (null != schedulerEngineLock) {
@@ -224,6 +232,15 @@ public class Scheduler extends Job implements INodeChangeListener {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Returns the engine firing the entries of all schedules.
+	 * 
+	 * @return the schedule engine
+	 */
+	ScheduleEngine getEngine() {
+		return engine;
+	}
+
 	@Override
 	public void removed(final NodeChangeEvent event) {
 		try {
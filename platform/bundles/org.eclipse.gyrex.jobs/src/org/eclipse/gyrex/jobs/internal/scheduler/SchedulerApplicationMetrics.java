@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2012, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *  
  * This program and the accompanying materials are made available under the 
@@ -12,6 +12,7 @@
 package org.eclipse.gyrex.jobs.internal.scheduler;
 
 import org.eclipse.gyrex.jobs.internal.JobsActivator;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
 import org.eclipse.gyrex.monitoring.metrics.MetricSet;
 import org.eclipse.gyrex.monitoring.metrics.StatusMetric;
 
@@ -22,11 +23,23 @@ public class SchedulerApplicationMetrics extends MetricSet {
 
 	private final StatusMetric status;
 	private final StatusMetric applicationStatus;
+	private final HistogramMetric fireTimeSkew;
 
 	public SchedulerApplicationMetrics() {
-		super(JobsActivator.SYMBOLIC_NAME + ".scheduler.metric", "Metrics for scheduler application.", new StatusMetric("status", "created", "not initialized"), new StatusMetric("applicationStatus", "created", "not initialized"));
+		super(JobsActivator.SYMBOLIC_NAME + ".scheduler.metric", "Metrics for scheduler application.", new StatusMetric("status", "created", "not initialized"), new StatusMetric("applicationStatus", "created", "not initialized"), new HistogramMetric("fireTimeSkew"));
 		status = getMetric(0, StatusMetric.class);
 		applicationStatus = getMetric(1, StatusMetric.class);
+		fireTimeSkew = getMetric(2, HistogramMetric.class);
+	}
+
+	/**
+	 * Returns the metric for the time in milli-seconds schedule entries have
+	 * been fired later than expected.
+	 * 
+	 * @return the fire time skew metric
+	 */
+	public HistogramMetric getFireTimeSkew() {
+		return fireTimeSkew;
 	}
 
 	public void setApplicationStatus(final String status, final String changeReason) {
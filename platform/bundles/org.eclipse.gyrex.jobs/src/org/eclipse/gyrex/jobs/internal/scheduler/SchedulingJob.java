@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -26,18 +26,15 @@ import org.eclipse.core.runtime.Path;
 
 import org.apache.commons.lang.StringUtils;
 
-import org.quartz.Job;
 import org.quartz.JobDataMap;
-import org.quartz.JobExecutionContext;
-import org.quartz.JobExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A Quartz job implementation that simply queues a triggered quartz job entry
- * with the Gyrex IJobManager for distributed processing by the worker engine.
+ * Queues triggered schedule entries with the Gyrex IJobManager for
+ * distributed processing by the worker engine.
  */
-public class SchedulingJob implements Job {
+public class SchedulingJob {
 
 	public static final Logger LOG = LoggerFactory.getLogger(SchedulingJob.class);
 
@@ -116,21 +113,27 @@ public class SchedulingJob implements Job {
 		SchedulingUtil.queueJob(jobId, jobTypeId, contextPath, scheduleId, scheduleEntryId, scheduleEntriesToTriggerAfterRun, queueId, parameter);
 	}
 
-	@Override
-	public void execute(final JobExecutionContext context) throws JobExecutionException {
+	/**
+	 * Queues a Gyrex job for a fired schedule entry.
+	 * 
+	 * @param dataMap
+	 * @throws Exception
+	 * @see #queueJob(JobDataMap)
+	 */
+	public static void triggerJob(final JobDataMap dataMap) throws Exception {
 		try {
-			final JobDataMap dataMap = context.getMergedJobDataMap();
-
 			// setup MDC
 			JobLogHelper.setupMdc(dataMap.getString(PROP_JOB_ID), new Path(dataMap.getString(PROP_JOB_CONTEXT_PATH)));
 
 			// queue job
 			queueJob(dataMap);
-		} catch (final Exception e) {
-			throw new JobExecutionException(String.format("Error queuing job '%s'. %s", context.getJobDetail().getFullName(), e.getMessage()), e);
 		} finally {
 			// clear MDC
 			JobLogHelper.clearMdc();
 		}
 	}
+
+	private SchedulingJob() {
+		// empty
+	}
 }
\ No newline at end of file
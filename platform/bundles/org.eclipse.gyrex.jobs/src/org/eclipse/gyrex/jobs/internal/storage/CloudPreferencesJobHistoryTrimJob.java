@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.jobs.internal.storage;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.gyrex.jobs.internal.JobsDebug;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous removal of job history entries over the size limit.
+ * <p>
+ * History entries are appended without touching existing entries. Removing
+ * entries requires a flush of the whole history node, which is why it's
+ * batched and performed in the background.
+ * </p>
+ */
+public final class CloudPreferencesJobHistoryTrimJob extends Job {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CloudPreferencesJobHistoryTrimJob.class);
+	private static final long TRIM_DELAY = 2000L;
+
+	private static final CloudPreferencesJobHistoryTrimJob instance = new CloudPreferencesJobHistoryTrimJob();
+
+	/**
+	 * Schedules trimming of the history of the specified job.
+	 *
+	 * @param jobStorageKey
+	 *            the job storage key
+	 */
+	public static void trim(final String jobStorageKey) {
+		if (instance.pendingStorageKeys.add(jobStorageKey)) {
+			instance.schedule(TRIM_DELAY);
+		}
+	}
+
+	private final Set<String> pendingStorageKeys = ConcurrentHashMap.newKeySet();
+
+	private CloudPreferencesJobHistoryTrimJob() {
+		super("Gyrex Job History Trimming");
+		setSystem(true);
+		setPriority(DECORATE);
+	}
+
+	@Override
+	protected IStatus run(final IProgressMonitor monitor) {
+		for (final Iterator<String> stream = pendingStorageKeys.iterator(); stream.hasNext();) {
+			final String jobStorageKey = stream.next();
+			stream.remove();
+			if (monitor.isCanceled())
+				return Status.CANCEL_STATUS;
+
+			try {
+				trimHistory(jobStorageKey);
+			} catch (final Exception e) {
+				// don't re-schedule, the next append will trigger trimming again
+				LOG.warn("Unable to trim history of job {}. {}", jobStorageKey, ExceptionUtils.getRootCauseMessage(e));
+			}
+		}
+		return Status.OK_STATUS;
+	}
+
+	private void trimHistory(final String jobStorageKey) throws Exception {
+		final IEclipsePreferences jobsHistoryNode = CloudPreferncesJobHistoryStorage.getJobsHistoryNode();
+		if (!jobsHistoryNode.nodeExists(jobStorageKey))
+			return;
+
+		final IEclipsePreferences historyNode = CloudPreferncesJobHistoryStorage.getHistoryNode(jobStorageKey);
+		final String[] entryIds = historyNode.childrenNames();
+		if (entryIds.length <= CloudPreferncesJobHistoryStorage.MAX_HISTORY_SIZE)
+			return;
+
+		// entry ids sort by age (oldest first)
+		Arrays.sort(entryIds);
+		final int removals = entryIds.length - CloudPreferncesJobHistoryStorage.MAX_HISTORY_SIZE;
+		if (JobsDebug.cleanup) {
+			LOG.debug("Removing {} history entries of job {}...", removals, jobStorageKey);
+		}
+		for (int i = 0; i < removals; i++) {
+			historyNode.node(entryIds[i]).removeNode();
+		}
+		historyNode.flush();
+	}
+}
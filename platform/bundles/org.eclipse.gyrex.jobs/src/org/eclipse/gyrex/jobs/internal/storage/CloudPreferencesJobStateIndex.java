@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.jobs.internal.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.gyrex.jobs.JobState;
+import org.eclipse.gyrex.jobs.internal.JobsDebug;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.INodeChangeListener;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.NodeChangeEvent;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
+
+import org.osgi.service.prefs.BackingStoreException;
+import org.osgi.service.prefs.Preferences;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in-memory index of job storage keys by job state.
+ * <p>
+ * The index is built once from the cloud preferences jobs node and then
+ * maintained from preference change events. Because cloud preferences deliver
+ * events for local as well as remote modifications, the index follows job
+ * state changes across the cloud. Looking up the jobs in a specific state
+ * costs O(matching jobs) instead of reading the state of every job.
+ * </p>
+ * <p>
+ * The index attaches itself to the current jobs node lazily. It re-attaches
+ * automatically in case the jobs node is removed and re-created.
+ * </p>
+ */
+public class CloudPreferencesJobStateIndex implements INodeChangeListener, IPreferenceChangeListener {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CloudPreferencesJobStateIndex.class);
+
+	private static JobState toIndexedState(final String value) {
+		// note, we only index valid states (consistent with previous lookup by name)
+		if (null == value)
+			return null;
+		for (final JobState state : JobState.values()) {
+			if (state.name().equals(value))
+				return state;
+		}
+		return null;
+	}
+
+	private final Map<JobState, Set<String>> storageKeysByState;
+	private final ConcurrentMap<String, JobState> stateByStorageKey = new ConcurrentHashMap<String, JobState>();
+	private volatile IEclipsePreferences jobsNode;
+
+	/**
+	 * Creates a new instance.
+	 */
+	public CloudPreferencesJobStateIndex() {
+		storageKeysByState = new EnumMap<JobState, Set<String>>(JobState.class);
+		for (final JobState state : JobState.values()) {
+			storageKeysByState.put(state, Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+		}
+	}
+
+	@Override
+	public void added(final NodeChangeEvent event) {
+		if (event.getParent() != jobsNode)
+			return;
+
+		final Preferences jobNode = event.getChild();
+		if (JobsDebug.debug) {
+			LOG.debug("Indexing added job {}.", jobNode.name());
+		}
+		((IEclipsePreferences) jobNode).addPreferenceChangeListener(this);
+		updateState(jobNode);
+	}
+
+	private synchronized void attach(final IEclipsePreferences jobsNode) throws BackingStoreException {
+		if (this.jobsNode == jobsNode)
+			return;
+
+		// detach from any previous node
+		detach();
+
+		if (JobsDebug.debug) {
+			LOG.debug("Building job state index from {}.", jobsNode);
+		}
+
+		// listen for changes before reading the current state
+		// (any concurrent update will be re-applied from the node)
+		this.jobsNode = jobsNode;
+		jobsNode.addNodeChangeListener(this);
+		for (final String storageKey : jobsNode.childrenNames()) {
+			final IEclipsePreferences jobNode = (IEclipsePreferences) jobsNode.node(storageKey);
+			jobNode.addPreferenceChangeListener(this);
+			updateState(jobNode);
+		}
+	}
+
+	/**
+	 * Detaches the index from the jobs node and discards all indexed data.
+	 */
+	public synchronized void close() {
+		detach();
+	}
+
+	private void detach() {
+		final IEclipsePreferences node = jobsNode;
+		if (node == null)
+			return;
+
+		jobsNode = null;
+		try {
+			node.removeNodeChangeListener(this);
+			for (final String storageKey : stateByStorageKey.keySet()) {
+				((IEclipsePreferences) node.node(storageKey)).removePreferenceChangeListener(this);
+			}
+		} catch (final IllegalStateException e) {
+			// node removed; listeners are gone with it
+		}
+		stateByStorageKey.clear();
+		for (final Set<String> storageKeys : storageKeysByState.values()) {
+			storageKeys.clear();
+		}
+	}
+
+	/**
+	 * Returns the storage keys of all jobs in the specified state.
+	 *
+	 * @param state
+	 *            the job state
+	 * @return an unmodifiable snapshot of the storage keys
+	 * @throws BackingStoreException
+	 *             if the index could not be built
+	 */
+	public Collection<String> getStorageKeys(final JobState state) throws BackingStoreException {
+		if (null == state)
+			throw new IllegalArgumentException("Status must not be null");
+
+		final IEclipsePreferences currentJobsNode = CloudPreferncesJobStorage.getJobsNode();
+		if (jobsNode != currentJobsNode) {
+			attach(currentJobsNode);
+		}
+
+		return Collections.unmodifiableCollection(new ArrayList<String>(storageKeysByState.get(state)));
+	}
+
+	@Override
+	public void preferenceChange(final PreferenceChangeEvent event) {
+		if (!CloudPreferncesJobStorage.PROPERTY_STATUS.equals(event.getKey()))
+			return;
+
+		updateState(event.getNode());
+	}
+
+	@Override
+	public void removed(final NodeChangeEvent event) {
+		if (event.getParent() != jobsNode)
+			return;
+
+		if (JobsDebug.debug) {
+			LOG.debug("Removing job {} from index.", event.getChild().name());
+		}
+		updateState(event.getChild().name(), null);
+	}
+
+	private synchronized void updateState(final Preferences jobNode) {
+		// always read the current value from the node
+		// (events may be delivered out of order for concurrent remote updates)
+		String value;
+		try {
+			value = jobNode.get(CloudPreferncesJobStorage.PROPERTY_STATUS, null);
+		} catch (final IllegalStateException e) {
+			// node has been removed
+			value = null;
+		}
+		updateState(jobNode.name(), toIndexedState(value));
+	}
+
+	private synchronized void updateState(final String storageKey, final JobState newState) {
+		final JobState oldState = newState != null ? stateByStorageKey.put(storageKey, newState) : stateByStorageKey.remove(storageKey);
+		if (oldState == newState)
+			return;
+
+		// add to new state first so that concurrent lookups see the job at least once
+		if (newState != null) {
+			storageKeysByState.get(newState).add(storageKey);
+		}
+		if (oldState != null) {
+			storageKeysByState.get(oldState).remove(storageKey);
+		}
+	}
+}
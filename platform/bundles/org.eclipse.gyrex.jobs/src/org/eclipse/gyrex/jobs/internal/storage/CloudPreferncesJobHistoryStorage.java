@@ -11,10 +11,12 @@
  *******************************************************************************/
 package org.eclipse.gyrex.jobs.internal.storage;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
@@ -50,6 +52,7 @@ public class CloudPreferncesJobHistoryStorage implements IJobHistoryStorage {
 	private static final String KEY_QUEUED_TRIGGER = "queuedTrigger";
 	private static final String KEY_CANCELLED_TRIGGER = "canceledTrigger";
 	public static final int MAX_HISTORY_SIZE = 10;
+	static final int TRIM_THRESHOLD = 2 * MAX_HISTORY_SIZE;
 	public static final int MAX_RESULT_MESSAGE_SIZE = SystemSetting.newIntegerSetting("gyrex.jobs.history.maxMessageLength", "Maximum length of job result messages to store inthe job history.").usingDefault(4096).create().get(); // ~4K
 
 	private static final Logger LOG = LoggerFactory.getLogger(CloudPreferncesJobHistoryStorage.class);
@@ -126,6 +129,8 @@ public class CloudPreferncesJobHistoryStorage implements IJobHistoryStorage {
 		node.putInt(KEY_RESULT_SEVERITY, status.getSeverity());
 	}
 
+	private static final AtomicInteger entrySequence = new AtomicInteger();
+
 	private final ContextHashUtil contextHash;
 
 	/**
@@ -138,84 +143,77 @@ public class CloudPreferncesJobHistoryStorage implements IJobHistoryStorage {
 
 	@Override
 	public void add(final String jobId, final JobHistoryEntryStorable historyEntry) throws Exception {
-		// load existing entries
-		final IEclipsePreferences historyNode = getHistoryNode(contextHash.toInternalId(jobId));
-		final String[] childrenNames = historyNode.childrenNames();
-		final SortedSet<JobHistoryEntryStorable> entries = new TreeSet<JobHistoryEntryStorable>();
-		for (final String entryId : childrenNames) {
-			entries.add(readItem(historyNode.node(entryId)));
-		}
-
-		// add new entry
-		entries.add(historyEntry);
-
-		// shrink to size limit
-		shrinkToSizeLimit(entries);
-
-		// create new entries
-		for (final JobHistoryEntryStorable entry : entries) {
-			final String entryId = String.valueOf(entry.getTimestamp());
-			if (historyNode.nodeExists(entryId)) {
-				continue;
-			}
+		final String jobStorageKey = contextHash.toInternalId(jobId);
+		final IEclipsePreferences historyNode = getHistoryNode(jobStorageKey);
 
-			final Preferences node = historyNode.node(entryId);
-			node.putLong(KEY_TIMESTAMP, entry.getTimestamp());
-			serializeStatus(entry.getResult(), node);
+		// append new entry
+		// (note, only the new entry is flushed; existing entries are not touched)
+		final Preferences node = createEntryNode(historyNode, historyEntry.getTimestamp());
+		node.putLong(KEY_TIMESTAMP, historyEntry.getTimestamp());
+		serializeStatus(historyEntry.getResult(), node);
 
-			if (null != entry.getQueuedTrigger()) {
-				node.put(KEY_QUEUED_TRIGGER, entry.getQueuedTrigger());
-			}
-			if (null != entry.getCancelledTrigger()) {
-				node.put(KEY_CANCELLED_TRIGGER, entry.getCancelledTrigger());
-			}
+		if (null != historyEntry.getQueuedTrigger()) {
+			node.put(KEY_QUEUED_TRIGGER, historyEntry.getQueuedTrigger());
 		}
-
-		// remove entries over size limit
-		NEXT: for (final String entryId : historyNode.childrenNames()) {
-			// check if there is en entry for the node
-			for (final JobHistoryEntryStorable entry : entries) {
-				if (entryId.equals(String.valueOf(entry.getTimestamp()))) {
-					continue NEXT;
-				}
-			}
-			historyNode.node(entryId).removeNode();
+		if (null != historyEntry.getCancelledTrigger()) {
+			node.put(KEY_CANCELLED_TRIGGER, historyEntry.getCancelledTrigger());
 		}
 
-		// flush
-		historyNode.flush();
+		node.flush();
 
+		// remove entries over size limit in the background
+		// (entries over the limit are never returned, so it's ok to batch removals)
+		if (historyNode.childrenNames().length >= TRIM_THRESHOLD) {
+			CloudPreferencesJobHistoryTrimJob.trim(jobStorageKey);
+		}
 	}
 
 	@Override
 	public int count(final String jobId) throws Exception {
-		final IEclipsePreferences historyNode = getHistoryNode(contextHash.toInternalId(jobId));
-		final String[] childrenNames = historyNode.childrenNames();
-		return childrenNames.length;
+		return getNewestEntryIds(contextHash.toInternalId(jobId)).length;
+	}
+
+	private Preferences createEntryNode(final IEclipsePreferences historyNode, final long timestamp) throws BackingStoreException {
+		// entry ids must be unique and sort by age
+		String entryId;
+		do {
+			entryId = String.format("%013d-%04d", timestamp, (entrySequence.getAndIncrement() & Integer.MAX_VALUE) % 10000);
+		} while (historyNode.nodeExists(entryId));
+		return historyNode.node(entryId);
 	}
 
 	@Override
 	public Collection<JobHistoryEntryStorable> find(final String jobId, final int offset, final int fetchSize) throws Exception {
-		if (offset > 0)
+		final String jobStorageKey = contextHash.toInternalId(jobId);
+		final String[] entryIds = getNewestEntryIds(jobStorageKey);
+		if ((offset < 0) || (offset >= entryIds.length) || (fetchSize <= 0))
 			return Collections.emptyList();
 
-		final IEclipsePreferences historyNode = getHistoryNode(contextHash.toInternalId(jobId));
-		final String[] childrenNames = historyNode.childrenNames();
-		final SortedSet<JobHistoryEntryStorable> entries = new TreeSet<JobHistoryEntryStorable>();
-		for (final String entryId : childrenNames) {
-			entries.add(readItem(historyNode.node(entryId)));
+		// only read the requested page
+		final IEclipsePreferences historyNode = getHistoryNode(jobStorageKey);
+		final int end = Math.min(entryIds.length, offset + fetchSize);
+		final List<JobHistoryEntryStorable> entries = new ArrayList<JobHistoryEntryStorable>(end - offset);
+		for (int i = offset; i < end; i++) {
+			entries.add(readItem(historyNode.node(entryIds[i])));
 		}
-
-		shrinkToSizeLimit(entries);
-
-		return entries;
+		return Collections.unmodifiableList(entries);
 	}
 
-	private void shrinkToSizeLimit(final SortedSet<JobHistoryEntryStorable> entries) {
-		// remove the last entries if over size
-		while (entries.size() > MAX_HISTORY_SIZE) {
-			entries.remove(entries.last());
-		}
+	/**
+	 * Returns the ids of the newest history entries (newest first) limited to
+	 * {@link #MAX_HISTORY_SIZE}.
+	 * <p>
+	 * Entry ids sort by age. Thus, no entry needs to be read for ordering.
+	 * Entries over the limit which have not been trimmed yet are ignored.
+	 * </p>
+	 */
+	private String[] getNewestEntryIds(final String jobStorageKey) throws BackingStoreException {
+		if (!getJobsHistoryNode().nodeExists(jobStorageKey))
+			return new String[0];
+
+		final String[] entryIds = getHistoryNode(jobStorageKey).childrenNames();
+		Arrays.sort(entryIds, Collections.reverseOrder());
+		return entryIds.length > MAX_HISTORY_SIZE ? Arrays.copyOf(entryIds, MAX_HISTORY_SIZE) : entryIds;
 	}
 
 }
@@ -11,11 +11,8 @@
  *******************************************************************************/
 package org.eclipse.gyrex.jobs.internal.storage;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 
 import javax.inject.Inject;
 
@@ -32,8 +29,6 @@ import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.osgi.service.prefs.BackingStoreException;
 import org.osgi.service.prefs.Preferences;
 
-import org.apache.commons.lang.StringUtils;
-
 /**
  * Store which persists job history in cloud preferences.
  * <p>
@@ -69,14 +64,7 @@ public class CloudPreferncesJobStorage {
 			throw new IllegalArgumentException("Status must not be null");
 
 		try {
-			final String[] storageIds = CloudPreferncesJobStorage.getJobsNode().childrenNames();
-			final List<String> jobIds = new ArrayList<String>(storageIds.length);
-			for (final String internalId : storageIds) {
-				if (StringUtils.equals(CloudPreferncesJobStorage.getJobsNode().node(internalId).get(CloudPreferncesJobStorage.PROPERTY_STATUS, null), state.name())) {
-					jobIds.add(internalId);
-				}
-			}
-			return Collections.unmodifiableCollection(jobIds);
+			return JobsActivator.getInstance().getJobStateIndex().getStorageKeys(state);
 		} catch (final BackingStoreException e) {
 			throw new IllegalStateException(String.format("Error reading job data. %s", e.getMessage()), e);
 		}
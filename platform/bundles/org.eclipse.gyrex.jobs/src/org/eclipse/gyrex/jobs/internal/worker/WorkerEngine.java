@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2013 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -18,11 +18,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.gyrex.cloud.services.queue.IMessage;
 import org.eclipse.gyrex.cloud.services.queue.IQueue;
+import org.eclipse.gyrex.cloud.services.queue.IQueueListener;
+import org.eclipse.gyrex.cloud.services.queue.IQueueService;
 import org.eclipse.gyrex.cloud.services.queue.IQueueServiceProperties;
 import org.eclipse.gyrex.context.IRuntimeContext;
 import org.eclipse.gyrex.context.registry.IRuntimeContextRegistry;
@@ -56,6 +61,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The worker engine pulls jobs from queues and executes them.
+ * <p>
+ * The engine receives as many jobs as it has free capacity in a single run.
+ * Instead of relying on polling only, it's woken up as soon as messages are
+ * added to a queue or a job it scheduled finishes.
+ * </p>
  */
 public class WorkerEngine extends Job {
 
@@ -110,6 +120,25 @@ public class WorkerEngine extends Job {
 
 	private final AtomicInteger scheduledJobsCount = new AtomicInteger();
 
+	/** set when the engine should run again as soon as possible */
+	private final AtomicBoolean processingRequested = new AtomicBoolean();
+
+	/** queue handles the engine listens to (by queue id) */
+	private final ConcurrentMap<String, IQueue> watchedQueues = new ConcurrentHashMap<String, IQueue>();
+
+	private final IQueueListener queueListener = new IQueueListener() {
+		@Override
+		public void messagesAdded(final IQueue queue) {
+			// only wake up if there is capacity left
+			if (scheduledJobsCount.get() < maxConcurrentJobs) {
+				if (JobsDebug.workerEngine) {
+					LOG.debug("Messages added to queue {}. Waking up worker engine.", queue.getId());
+				}
+				requestProcessing();
+			}
+		}
+	};
+
 	private final IJobChangeListener jobFinishedListener = new JobChangeAdapter() {
 		@Override
 		public void done(final IJobChangeEvent event) {
@@ -118,6 +147,9 @@ public class WorkerEngine extends Job {
 
 			// update metric
 			metrics.getCapacity().channelFinished();
+
+			// capacity is available again
+			requestProcessing();
 		};
 
 		@Override
@@ -222,8 +254,46 @@ public class WorkerEngine extends Job {
 		}
 	}
 
+	private int getFreeCapacity() {
+		return maxConcurrentJobs - scheduledJobsCount.get();
+	}
+
 	private IQueue getQueue(final String queueId) {
-		return JobsActivator.getInstance().getQueueService().getQueue(queueId, null);
+		final IQueue queue = getQueueService().getQueue(queueId, null);
+		if (queue == null) {
+			// queue has been deleted
+			final IQueue watched = watchedQueues.remove(queueId);
+			if (watched != null) {
+				unwatch(watched);
+			}
+			return null;
+		}
+
+		// listen for new messages
+		// (note, the queue service hands out a new handle when a queue is re-created)
+		final IQueue watched = watchedQueues.get(queueId);
+		if (watched == queue)
+			return queue;
+		if ((watched == null) ? (watchedQueues.putIfAbsent(queueId, queue) == null) : watchedQueues.replace(queueId, watched, queue)) {
+			if (watched != null) {
+				unwatch(watched);
+			}
+			queue.addQueueListener(queueListener);
+		}
+		return queue;
+	}
+
+	/**
+	 * Returns the queue service to receive jobs from.
+	 * <p>
+	 * The default implementation returns the queue service of the jobs
+	 * bundle. Subclasses may override.
+	 * </p>
+	 * 
+	 * @return the queue service
+	 */
+	protected IQueueService getQueueService() {
+		return JobsActivator.getInstance().getQueueService();
 	}
 
 	/**
@@ -270,14 +340,109 @@ public class WorkerEngine extends Job {
 	}
 
 	/**
-	 * Fetches the next job from a queue and schedules it for execution.
+	 * Creates a job for the specified message and prepares it for scheduling.
+	 * <p>
+	 * The job is marked active and the message is removed from the queue. The
+	 * engine schedules the returned job and accounts it against its capacity.
+	 * Subclasses may override.
+	 * </p>
+	 * 
+	 * @param queue
+	 *            the queue the message was received from
+	 * @param message
+	 *            the message
+	 * @return the job to schedule (may be <code>null</code> if the message must
+	 *         be skipped)
+	 */
+	protected Job prepareJob(final IQueue queue, final IMessage message) {
+		// read job info
+		final JobInfo info = parseJobInfo(queue, message);
+		if (null == info)
+			// continue with next message
+			return null;
+
+		// create context
+		final JobContext jobContext = createContext(info);
+
+		// create job
+		final Job job = createJob(queue, message, info, jobContext);
+		if (null == job)
+			// continue with next message
+			return null;
+
+		// create job state synchronizer but defer registration
+		// with job until the last minute
+		final JobStateSynchronizer stateSynchronizer = new JobStateSynchronizer(job, jobContext, info);
+
+		if (stateSynchronizer.isJobMarkedAborting()) {
+			// job has been cancelled; abort it, remove message and that's it
+			abortJob(stateSynchronizer, queue, message);
+			return null;
+		}
+
+		// job is not marked aborting; continue with scheduling
+		return prepareScheduling(job, info, jobContext, stateSynchronizer, queue, message) ? job : null;
+	}
+
+	private boolean prepareScheduling(final Job job, final JobInfo info, final JobContext jobContext, final JobStateSynchronizer stateSynchronizer, final IQueue queue, final IMessage message) {
+		// mark the job active before removing from queue (bug 360402)
+		// (this will ensure that it's set active by JobStateSynchronizer)
+		if (!stateSynchronizer.setJobActive())
+			// someone else might already started processing it (bug 391743)
+			// just abort and continue with next available message
+			return false;
+
+		// delete from queue and schedule if successful
+		// (note, we intentionally only catch NoSuchElementException here)
+		try {
+			if (!queue.deleteMessage(message)) {
+				// abort job
+				stateSynchronizer.setJobInactive();
+
+				// someone else might already processed it
+				// just continue with next available message
+				return false;
+			}
+		} catch (final NoSuchElementException e) {
+			// abort job
+			stateSynchronizer.setJobInactive();
+
+			// not too bad
+			// someone else might already processed it
+			// just continue with next available message
+			return false;
+		}
+
+		// at this point we allow the job to be scheduled
+		if (JobsDebug.workerEngine) {
+			LOG.debug("Scheduling job {} from queue {}", info.getJobId(), queue.getId());
+		}
+
+		// add state synchronizer
+		job.addJobChangeListener(stateSynchronizer);
+
+		// add trigger for dependent jobs
+		addTriggerForDependentJobs(job, info, jobContext);
+
+		// update metric
+		metrics.getQueueLatency().record(Math.max(0, System.currentTimeMillis() - info.getQueueTimestamp()));
+		return true;
+	}
+
+	/**
+	 * Fetches jobs from the queues and schedules them for execution until all
+	 * free capacity is used.
+	 * <p>
+	 * Queues are drained in order of their priority, i.e. a queue is only
+	 * checked if all queues before it are empty.
+	 * </p>
 	 * 
 	 * @return <code>true</code> if additional jobs might be available in the
-	 *         queue, <code>false</code> if the queue is empty
+	 *         queues, <code>false</code> if the queues are empty
 	 */
-	private boolean processNextJobFromAnyQueue() {
-		// don't process any jobs if we are over the limit
-		if (scheduledJobsCount.get() > maxConcurrentJobs) {
+	private boolean processJobsFromAnyQueue() {
+		// don't process any jobs if we are at the limit
+		if (getFreeCapacity() <= 0) {
 			// we return false here in order to allow this node to breath a bit
 			if (JobsDebug.workerEngine) {
 				LOG.debug("There are currently {} jobs scheduled. Won't schedule more at this time.", scheduledJobsCount);
@@ -295,68 +460,79 @@ public class WorkerEngine extends Job {
 				}
 				continue;
 			}
-			final boolean queueContainsEntries = processNextJobFromQueue(queue);
+			final boolean queueContainsEntries = processJobsFromQueue(queue);
 			if (queueContainsEntries)
 				return true;
 		}
 		if (JobsDebug.workerEngine) {
-			LOG.debug("None of the configured Queues is existing. Nothing to work on.");
+			LOG.debug("All configured queues are empty or not existing. Nothing to work on.");
 		}
 		return false;
 	}
 
 	/**
-	 * Fetches the next job from the specified queue and schedules it for
-	 * execution.
+	 * Fetches jobs from the specified queue and schedules them for execution
+	 * until all free capacity is used or the queue is empty.
 	 * 
 	 * @return <code>true</code> if additional jobs might be available in the
 	 *         queue, <code>false</code> if the queue is empty
 	 */
-	private boolean processNextJobFromQueue(final IQueue queue) {
-		metrics.setStatus("PROCESSING", "processing next job from queue");
+	private boolean processJobsFromQueue(final IQueue queue) {
+		metrics.setStatus("PROCESSING", "processing jobs from queue " + queue.getId());
 
 		// set receive timeout
 		final Map<String, Object> requestProperties = new HashMap<String, Object>(1);
 		requestProperties.put(IQueueServiceProperties.MESSAGE_RECEIVE_TIMEOUT, getReceiveTimeout());
 
-		// receive message
-		final List<IMessage> messages = queue.receiveMessages(1, requestProperties);
-		if (messages.isEmpty())
-			// no more messages, abort
-			return false;
-		final IMessage message = messages.get(0);
+		int freeCapacity;
+		while ((freeCapacity = getFreeCapacity()) > 0) {
+			// receive as many messages as we have capacity
+			final List<IMessage> messages = queue.receiveMessages(freeCapacity, requestProperties);
+			if (messages.isEmpty())
+				// no more messages, abort
+				return false;
 
-		// read job info
-		final JobInfo info = parseJobInfo(queue, message);
-		if (null == info)
-			// continue with next message
-			return true;
-
-		// create context
-		final JobContext jobContext = createContext(info);
-
-		// create job
-		final Job job = createJob(queue, message, info, jobContext);
-		if (null == job)
-			// continue with next message
-			return true;
-
-		// create job state synchronizer but defer registration
-		// with job until the last minute
-		final JobStateSynchronizer stateSynchronizer = new JobStateSynchronizer(job, jobContext, info);
+			if (JobsDebug.workerEngine) {
+				LOG.debug("Received {} job(s) from queue {} (free capacity {}).", new Object[] { messages.size(), queue.getId(), freeCapacity });
+			}
 
-		if (stateSynchronizer.isJobMarkedAborting()) {
-			// job has been cancelled; abort it, remove message and that's it
-			abortJob(stateSynchronizer, queue, message);
-		} else {
-			// job is not marked aborting; continue with scheduling
-			scheduleJob(job, info, jobContext, stateSynchronizer, queue, message);
+			for (final IMessage message : messages) {
+				final Job job = prepareJob(queue, message);
+				if (job != null) {
+					scheduleJob(job);
+				}
+			}
 		}
 
 		// done, but return "true" to indicate that the queue might still contain jobs
 		return true;
 	}
 
+	/**
+	 * Removes the listeners registered with queues.
+	 * <p>
+	 * Must be called when the engine is no longer scheduled.
+	 * </p>
+	 */
+	void removeQueueListeners() {
+		for (final IQueue queue : watchedQueues.values()) {
+			unwatch(queue);
+		}
+		watchedQueues.clear();
+	}
+
+	/**
+	 * Requests the engine to process jobs as soon as possible.
+	 * <p>
+	 * If the engine is sleeping it will be woken up. If it's currently running
+	 * it will run again immediately after it finished.
+	 * </p>
+	 */
+	private void requestProcessing() {
+		processingRequested.set(true);
+		wakeUp();
+	}
+
 	@Override
 	protected IStatus run(final IProgressMonitor monitor) {
 		try {
@@ -372,15 +548,17 @@ public class WorkerEngine extends Job {
 			// update metric
 			metrics.getCapacity().setChannelsCapacity(maxConcurrentJobs);
 
-			// process next job from queue
-			final boolean moreJobsAvailable = processNextJobFromAnyQueue();
+			// reset request (events from now on must trigger another run)
+			processingRequested.set(false);
+
+			// process jobs from queues up to the available capacity
+			final boolean moreJobsAvailable = processJobsFromAnyQueue();
 
 			// reset sleep time
 			// even if there are still jobs in the queue we don't just go on processing them
 			// instead we wait a few seconds to let other worker engines pick up jobs from the queue
 			// otherwise this node might just over-schedule itself
-			// note, there is room for improving the distribution of jobs among
-			// worker engines with a better algorithm; but this should be good meanwhile
+			// note, the engine will be woken up earlier when messages are added or jobs finish
 			engineSleepTime = RandomUtils.nextInt(moreJobsAvailable ? nonIdleSleepTime : idleSleepTime);
 
 			// done
@@ -404,59 +582,34 @@ public class WorkerEngine extends Job {
 		} finally {
 			// reschedule if not canceled
 			if (!monitor.isCanceled()) {
+				// run again immediately if requested while running
+				// (a wake up is ignored while the engine is running)
+				final long sleepTime = processingRequested.get() ? 0 : engineSleepTime;
 				if (JobsDebug.workerEngine) {
-					LOG.debug("Rescheduling worker engine to run again in {} seconds", TimeUnit.MILLISECONDS.toSeconds(engineSleepTime));
+					LOG.debug("Rescheduling worker engine to run again in {} seconds", TimeUnit.MILLISECONDS.toSeconds(sleepTime));
 				}
-				schedule(engineSleepTime);
+				schedule(sleepTime);
 			}
 		}
 	}
 
-	private void scheduleJob(final Job job, final JobInfo info, final JobContext jobContext, final JobStateSynchronizer stateSynchronizer, final IQueue queue, final IMessage message) {
-		// mark the job active before removing from queue (bug 360402)
-		// (this will ensure that it's set active by JobStateSynchronizer)
-		if (!stateSynchronizer.setJobActive())
-			// someone else might already started processing it (bug 391743)
-			// just abort and continue with next available message
-			return;
-
-		// delete from queue and schedule if successful
-		// (note, we intentionally only catch NoSuchElementException here)
-		try {
-			if (!queue.deleteMessage(message)) {
-				// abort job
-				stateSynchronizer.setJobInactive();
-
-				// someone else might already processed it
-				// just continue with next available message
-				return;
-			}
-		} catch (final NoSuchElementException e) {
-			// abort job
-			stateSynchronizer.setJobInactive();
-
-			// not too bad
-			// someone else might already processed it
-			// just continue with next available message
-			return;
-		}
-
-		// at this point we allow the job to be scheduled
-		if (JobsDebug.workerEngine) {
-			LOG.debug("Scheduling job {} from queue {}", info.getJobId(), queue.getId());
-		}
-
-		// add state synchronizer and finish listener
-		job.addJobChangeListener(stateSynchronizer);
+	private void scheduleJob(final Job job) {
+		// add finish listener
 		job.addJobChangeListener(jobFinishedListener);
 
-		// add trigger for dependent jobs
-		addTriggerForDependentJobs(job, info, jobContext);
+		// increment count
+		// (before scheduling so that a quickly finishing job can't be missed)
+		scheduledJobsCount.incrementAndGet();
 
 		// and schedule the job
 		job.schedule();
+	}
 
-		// increment count
-		scheduledJobsCount.incrementAndGet();
+	private void unwatch(final IQueue queue) {
+		try {
+			queue.removeQueueListener(queueListener);
+		} catch (final Exception e) {
+			LOG.debug("Error removing listener from queue {}: {}", queue.getId(), ExceptionUtils.getRootCauseMessage(e));
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2011, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -45,6 +45,7 @@ public class WorkerEngineApplication extends BaseApplication {
 		if (null != engine) {
 			workerEngine = null;
 			engine.cancel();
+			engine.removeQueueListeners();
 		}
 	}
 
@@ -74,8 +75,10 @@ public class WorkerEngineApplication extends BaseApplication {
 		// unset
 		workerEngine = null;
 
-		// cancel
-		if (!engine.cancel()) {
+		// cancel (and stop listening for new jobs)
+		final boolean canceled = engine.cancel();
+		engine.removeQueueListeners();
+		if (!canceled) {
 			try {
 				final int timeoutInSeconds = 30;
 				LOG.info("Waiting {}s for worker engine to finish remaining work gracefully...", timeoutInSeconds);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2012, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *  
  * This program and the accompanying materials are made available under the 
@@ -13,6 +13,7 @@ package org.eclipse.gyrex.jobs.internal.worker;
 
 import org.eclipse.gyrex.jobs.internal.JobsActivator;
 import org.eclipse.gyrex.monitoring.metrics.CapacityMetric;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
 import org.eclipse.gyrex.monitoring.metrics.MetricSet;
 import org.eclipse.gyrex.monitoring.metrics.StatusMetric;
 
@@ -23,17 +24,29 @@ public class WorkerEngineMetrics extends MetricSet {
 
 	private final StatusMetric status;
 	private final CapacityMetric capacity;
+	private final HistogramMetric queueLatency;
 
 	public WorkerEngineMetrics() {
-		super(JobsActivator.SYMBOLIC_NAME + ".worker.engine.metric", "Metrics for worker engine.", new StatusMetric("status", "created", "not initialized"), new CapacityMetric("jobs", 0));
+		super(JobsActivator.SYMBOLIC_NAME + ".worker.engine.metric", "Metrics for worker engine.", new StatusMetric("status", "created", "not initialized"), new CapacityMetric("jobs", 0), new HistogramMetric("queueLatency"));
 		status = getMetric(0, StatusMetric.class);
 		capacity = getMetric(1, CapacityMetric.class);
+		queueLatency = getMetric(2, HistogramMetric.class);
 	}
 
 	public CapacityMetric getCapacity() {
 		return capacity;
 	}
 
+	/**
+	 * Returns the metric for the time in milli-seconds jobs have been waiting
+	 * in a queue until being scheduled by the worker engine.
+	 * 
+	 * @return the queue latency metric
+	 */
+	public HistogramMetric getQueueLatency() {
+		return queueLatency;
+	}
+
 	public void setStatus(final String status, final String changeReason) {
 		this.status.setStatus(status, changeReason);
 	}
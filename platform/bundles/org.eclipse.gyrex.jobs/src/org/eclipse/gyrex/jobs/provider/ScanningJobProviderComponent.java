@@ -22,10 +22,12 @@ import org.eclipse.gyrex.context.IModifiableRuntimeContext;
 import org.eclipse.gyrex.jobs.IJobContext;
 import org.eclipse.gyrex.jobs.annotation.JobType;
 import org.eclipse.gyrex.jobs.internal.JobsDebug;
-import org.eclipse.gyrex.jobs.internal.util.BundleAnnotatedClassScanner;
+import org.eclipse.gyrex.server.internal.scanning.BundleAnnotationIndex;
 
 import org.eclipse.core.runtime.jobs.Job;
 
+import org.osgi.framework.Bundle;
+import org.osgi.framework.wiring.BundleWiring;
 import org.osgi.service.component.ComponentConstants;
 import org.osgi.service.component.ComponentContext;
 
@@ -89,7 +91,11 @@ public class ScanningJobProviderComponent extends JobProvider {
 
 		// scan for provided jobs
 		final Map<String, Class<Job>> jobClassesByTypeId = new HashMap<>();
-		final Set<Class<?>> foundClasses = new BundleAnnotatedClassScanner(context.getBundleContext().getBundle(), JobType.class).scan();
+		final Bundle bundle = context.getBundleContext().getBundle();
+		final BundleWiring bundleWiring = bundle.adapt(BundleWiring.class);
+		if ((null == bundleWiring) || (null == bundleWiring.getClassLoader()))
+			throw new IllegalStateException(String.format("No class loader available for bundle '%s'", bundle));
+		final Set<Class<?>> foundClasses = BundleAnnotationIndex.getInstance().getAnnotatedClasses(bundle, bundleWiring.getClassLoader(), JobType.class);
 		for (final Class<?> clazz : foundClasses) {
 			final JobType jobProvider = clazz.getAnnotation(JobType.class);
 			if (!IdHelper.isValidId(jobProvider.typeId()))
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.tests;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.gyrex.monitoring.metrics.Counter;
+import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
+
+/**
+ * Measures the update throughput of {@link Counter} and
+ * {@link ThroughputMetric} with 1 to 64 concurrent threads.
+ * <p>
+ * A single {@link AtomicLong} is measured as a contended baseline. This is
+ * not part of the test suite. Run it as a plain Java application with the
+ * monitoring bundle on the class path. The first argument optionally
+ * specifies the number of updates per thread.
+ * </p>
+ */
+public class CounterBenchmark {
+
+	private static final int DEFAULT_UPDATES_PER_THREAD = 2000000;
+
+	public static void main(final String[] args) throws Exception {
+		final int updatesPerThread = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_UPDATES_PER_THREAD;
+
+		// warm up
+		run("warm up", 4, updatesPerThread, false);
+
+		for (int threads = 1; threads <= 64; threads *= 2) {
+			run("measure", threads, updatesPerThread, true);
+		}
+	}
+
+	private static void print(final String name, final int threads, final long updates, final long duration) {
+		System.out.printf("%-16s %2d threads: %8d updates/ms%n", name, threads, updates / Math.max(1, TimeUnit.NANOSECONDS.toMillis(duration)));
+	}
+
+	private static void run(final String phase, final int threads, final int updatesPerThread, final boolean print) throws Exception {
+		final long updates = (long) threads * updatesPerThread;
+
+		final AtomicLong atomic = new AtomicLong();
+		final long atomicDuration = runConcurrently(threads, updatesPerThread, new Runnable() {
+			@Override
+			public void run() {
+				atomic.addAndGet(2);
+			}
+		});
+
+		final Counter counter = new Counter();
+		final long counterDuration = runConcurrently(threads, updatesPerThread, new Runnable() {
+			@Override
+			public void run() {
+				counter.increment(2);
+			}
+		});
+
+		final ThroughputMetric metric = new ThroughputMetric("benchmark");
+		final long metricDuration = runConcurrently(threads, updatesPerThread, new Runnable() {
+			@Override
+			public void run() {
+				metric.requestStarted();
+				metric.requestFinished(1, 5);
+			}
+		});
+
+		if ((atomic.get() != (updates * 2)) || (counter.getValue() != (updates * 2)) || (metric.getRequestsStatsProcessed() != updates))
+			throw new IllegalStateException("lost updates during " + phase);
+
+		if (print) {
+			print("AtomicLong", threads, updates, atomicDuration);
+			print("Counter", threads, updates, counterDuration);
+			print("ThroughputMetric", threads, updates, metricDuration);
+		}
+	}
+
+	private static long runConcurrently(final int threads, final int updatesPerThread, final Runnable update) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final CountDownLatch ready = new CountDownLatch(threads);
+			final CountDownLatch start = new CountDownLatch(1);
+			final CountDownLatch done = new CountDownLatch(threads);
+			for (int i = 0; i < threads; i++) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						ready.countDown();
+						try {
+							start.await();
+							for (int j = 0; j < updatesPerThread; j++) {
+								update.run();
+							}
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+						} finally {
+							done.countDown();
+						}
+					}
+				});
+			}
+			ready.await();
+			final long begin = System.nanoTime();
+			start.countDown();
+			done.await();
+			return System.nanoTime() - begin;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private CounterBenchmark() {
+		// empty
+	}
+}
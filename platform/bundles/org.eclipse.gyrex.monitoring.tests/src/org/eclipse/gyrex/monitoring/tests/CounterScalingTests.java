@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gyrex.monitoring.metrics.Counter;
+import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
+
+import org.junit.Test;
+
+/**
+ * Verifies that the striped metrics do not lose updates with 1 to 64
+ * concurrent threads.
+ */
+public class CounterScalingTests {
+
+	private static final int UPDATES_PER_THREAD = 200000;
+
+	private void runConcurrently(final int threads, final Runnable update) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			final CountDownLatch done = new CountDownLatch(threads);
+			for (int i = 0; i < threads; i++) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							start.await();
+							for (int j = 0; j < UPDATES_PER_THREAD; j++) {
+								update.run();
+							}
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+						} finally {
+							done.countDown();
+						}
+					}
+				});
+			}
+			start.countDown();
+			assertTrue("timeout waiting for updates", done.await(2, TimeUnit.MINUTES));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testCounterScaling() throws Exception {
+		for (int threads = 1; threads <= 64; threads *= 2) {
+			final Counter counter = new Counter();
+			runConcurrently(threads, new Runnable() {
+				@Override
+				public void run() {
+					counter.increment(2);
+				}
+			});
+
+			final long expectedSamples = (long) threads * UPDATES_PER_THREAD;
+			assertEquals("samples", expectedSamples, counter.getNumberOfSamples());
+			assertEquals("value", expectedSamples * 2, counter.getValue());
+			assertEquals("average", 2, counter.getAverage());
+			assertEquals("high", 2, counter.getHigh());
+			assertEquals("low", 2, counter.getLow());
+			assertEquals("variance", 0.0D, counter.getVariance(), 0.0001D);
+		}
+	}
+
+	@Test
+	public void testCounterVariance() throws Exception {
+		final Counter counter = new Counter();
+		for (final long amount : new long[] { 2, 4, 4, 4, 5, 5, 7, 9 }) {
+			counter.increment(amount);
+		}
+		assertEquals("average", 5, counter.getAverage());
+		assertEquals("high", 9, counter.getHigh());
+		assertEquals("low", 2, counter.getLow());
+		assertEquals("variance", 32.0D / 7, counter.getVariance(), 0.0001D);
+	}
+
+	@Test
+	public void testCounterVarianceConcurrent() throws Exception {
+		final int threads = 8;
+		final Counter counter = new Counter();
+		runConcurrently(threads, new Runnable() {
+			@Override
+			public void run() {
+				counter.increment(1);
+				counter.increment(3);
+			}
+		});
+
+		// half of the samples are 1, the other half 3
+		final long samples = 2L * threads * UPDATES_PER_THREAD;
+		assertEquals("samples", samples, counter.getNumberOfSamples());
+		assertEquals("average", 2, counter.getAverage());
+		assertEquals("variance", (double) samples / (samples - 1), counter.getVariance(), 0.0001D);
+	}
+
+	@Test
+	public void testCounterVarianceLargeAmounts() throws Exception {
+		// a sum of squares loses all precision for these amounts
+		final Counter counter = new Counter();
+		final long base = 1000000000000L;
+		for (final long amount : new long[] { 4, 7, 13, 16 }) {
+			counter.increment(base + amount);
+		}
+		assertEquals("average", base + 10, counter.getAverage());
+		assertEquals("variance", 30.0D, counter.getVariance(), 0.0001D);
+	}
+
+	@Test
+	public void testThroughputMetricScaling() throws Exception {
+		for (int threads = 1; threads <= 64; threads *= 2) {
+			final ThroughputMetric metric = new ThroughputMetric("test");
+			runConcurrently(threads, new Runnable() {
+				@Override
+				public void run() {
+					metric.requestStarted();
+					metric.requestFinished(1, 5);
+				}
+			});
+
+			final long expectedRequests = (long) threads * UPDATES_PER_THREAD;
+			assertEquals("active", 0, metric.getRequestsActive());
+			assertEquals("processed", expectedRequests, metric.getRequestsStatsProcessed());
+			assertEquals("size", expectedRequests, metric.getRequestsStatsSize());
+			assertEquals("time", expectedRequests * 5, metric.getRequestsStatsProcessingTime());
+			assertEquals("time average", 5, metric.getRequestsStatsProcessingTimeAverage());
+			assertEquals("failed", 0, metric.getRequestsStatsFailed());
+			if (threads == 1) {
+				assertEquals("high", 1, metric.getRequestsStatsHigh());
+			} else {
+				assertTrue("high", metric.getRequestsStatsHigh() >= 1);
+			}
+		}
+	}
+}
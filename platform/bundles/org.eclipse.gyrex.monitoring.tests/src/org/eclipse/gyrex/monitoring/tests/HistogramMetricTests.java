@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+
+import org.junit.Test;
+
+public class HistogramMetricTests {
+
+	private static void assertWithinPrecision(final long expected, final long actual) {
+		final long tolerance = Math.max(1, expected / HistogramMetric.SUB_BUCKET_COUNT);
+		assertTrue(String.format("expected %d but was %d", expected, actual), Math.abs(expected - actual) <= tolerance);
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		final HistogramMetric metric = new HistogramMetric("test");
+		assertEquals(0, metric.getCount());
+		assertEquals(0, metric.getMean());
+		assertEquals(0, metric.getLow());
+		assertEquals(0, metric.getHigh());
+		assertEquals(0, metric.getPercentile99());
+	}
+
+	@Test
+	public void testMerge() throws Exception {
+		final HistogramMetric first = new HistogramMetric("first", TimeUnit.NANOSECONDS);
+		final HistogramMetric second = new HistogramMetric("second", TimeUnit.NANOSECONDS);
+		for (int i = 1; i <= 500; i++) {
+			first.record(i);
+			second.record(500 + i);
+		}
+
+		final HistogramMetric merged = new HistogramMetric("merged", TimeUnit.NANOSECONDS);
+		merged.merge(first);
+		merged.merge(second);
+		assertEquals(1000, merged.getCount());
+		assertEquals(1, merged.getLow());
+		assertEquals(1000, merged.getHigh());
+		assertWithinPrecision(500, merged.getPercentile50());
+
+		final HistogramMetric remote = new HistogramMetric("remote", TimeUnit.NANOSECONDS);
+		remote.merge(merged.getBucketCounts());
+		assertEquals(1000, remote.getCount());
+		assertArrayEquals(merged.getBucketCounts(), remote.getBucketCounts());
+	}
+
+	@Test
+	public void testPercentiles() throws Exception {
+		final HistogramMetric metric = new HistogramMetric("test");
+		for (int i = 1; i <= 100000; i++) {
+			metric.record(i);
+		}
+		assertEquals(100000, metric.getCount());
+		assertEquals(1, metric.getLow());
+		assertEquals(100000, metric.getHigh());
+		assertEquals(50000, metric.getMean());
+		assertWithinPrecision(50000, metric.getPercentile50());
+		assertWithinPrecision(90000, metric.getPercentile90());
+		assertWithinPrecision(99000, metric.getPercentile99());
+		assertWithinPrecision(99900, metric.getPercentile999());
+		assertEquals(100000, metric.getPercentile(100.0));
+	}
+
+	@Test
+	public void testRecordExactSmallValues() throws Exception {
+		final HistogramMetric metric = new HistogramMetric("test");
+		metric.record(-5);
+		metric.record(3);
+		metric.record(7);
+		assertEquals(3, metric.getCount());
+		assertEquals(0, metric.getLow());
+		assertEquals(0, metric.getPercentile(1.0));
+		assertEquals(3, metric.getPercentile50());
+		assertEquals(7, metric.getPercentile(100.0));
+	}
+
+	@Test
+	public void testReset() throws Exception {
+		final HistogramMetric metric = new HistogramMetric("test");
+		metric.record(Long.MAX_VALUE);
+		metric.record(42);
+		assertEquals(Long.MAX_VALUE, metric.getPercentile(100.0));
+		metric.resetStats();
+		assertEquals(0, metric.getCount());
+		assertEquals(0, metric.getHigh());
+		assertEquals(0, metric.getPercentile50());
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.tests;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsExporter;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsSnapshot;
+import org.eclipse.gyrex.monitoring.internal.exporter.PrometheusTextFormat;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
+import org.eclipse.gyrex.monitoring.metrics.StatusMetric;
+import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
+
+/**
+ * Measures the cost of taking a snapshot of many metric sets and of rendering
+ * it in the Prometheus text format.
+ * <p>
+ * This is not part of the test suite. Run it as a plain Java application with
+ * the monitoring bundle on the class path. The first argument optionally
+ * specifies the number of metric sets, the second the number of iterations.
+ * </p>
+ */
+public class MetricsExporterBenchmark {
+
+	private static final int DEFAULT_METRIC_SETS = 500;
+	private static final int DEFAULT_ITERATIONS = 200;
+
+	private static MetricSet[] createMetricSets(final int count) {
+		final MetricSet[] metricSets = new MetricSet[count];
+		for (int i = 0; i < metricSets.length; i++) {
+			final ThroughputMetric requests = new ThroughputMetric("requests");
+			final HistogramMetric latency = new HistogramMetric("latency", TimeUnit.MILLISECONDS);
+			for (int j = 0; j < 100; j++) {
+				requests.requestStarted();
+				requests.requestFinished(1, j);
+				latency.record(j);
+			}
+			metricSets[i] = new MetricSet("set." + i, "benchmark metrics", Collections.singletonMap("node", "node" + (i % 3)), requests, latency, new StatusMetric("status", "ok", "initial")) {
+				// empty
+			};
+		}
+		return metricSets;
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final int metricSets = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_METRIC_SETS;
+		final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+		final MetricSet[] sets = createMetricSets(metricSets);
+		final PrometheusTextFormat format = new PrometheusTextFormat();
+
+		// warm up
+		run(sets, format, iterations, false);
+
+		run(sets, format, iterations, true);
+	}
+
+	private static void run(final MetricSet[] metricSets, final PrometheusTextFormat format, final int iterations, final boolean print) throws Exception {
+		long snapshotDuration = 0;
+		long renderDuration = 0;
+		long length = 0;
+		for (int i = 0; i < iterations; i++) {
+			final long started = System.nanoTime();
+			final MetricsSnapshot snapshot = MetricsExporter.snapshot(metricSets);
+			final long snapshotted = System.nanoTime();
+			final StringBuilder text = new StringBuilder();
+			format.write(snapshot, text);
+			final long rendered = System.nanoTime();
+
+			if (snapshot.getMetricSets().size() != metricSets.length)
+				throw new IllegalStateException("incomplete snapshot");
+
+			snapshotDuration += snapshotted - started;
+			renderDuration += rendered - snapshotted;
+			length += text.length();
+		}
+
+		if (print) {
+			System.out.printf("%d metric sets, %d iterations%n", metricSets.length, iterations);
+			System.out.printf("snapshot: %8d us/iteration%n", TimeUnit.NANOSECONDS.toMicros(snapshotDuration / iterations));
+			System.out.printf("render:   %8d us/iteration (%d characters)%n", TimeUnit.NANOSECONDS.toMicros(renderDuration / iterations), length / iterations);
+		}
+	}
+
+	private MetricsExporterBenchmark() {
+		// empty
+	}
+}
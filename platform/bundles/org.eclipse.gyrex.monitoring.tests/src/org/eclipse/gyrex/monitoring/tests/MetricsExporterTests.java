@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsExporter;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsSnapshot;
+import org.eclipse.gyrex.monitoring.internal.exporter.PrometheusTextFormat;
+import org.eclipse.gyrex.monitoring.metrics.BaseMetric;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
+import org.eclipse.gyrex.monitoring.metrics.StatusMetric;
+import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
+
+import org.junit.Test;
+
+/**
+ * Verifies snapshots of metric sets and their Prometheus text rendering.
+ */
+public class MetricsExporterTests {
+
+	static class TestMetricSet extends MetricSet {
+		TestMetricSet(final String id, final String node, final BaseMetric... metrics) {
+			super(id, "test metrics", Collections.singletonMap("node", node), metrics);
+		}
+	}
+
+	private static final int METRIC_SETS = 500;
+
+	private static int countMatches(final String text, final String part) {
+		int count = 0;
+		for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + part.length())) {
+			count++;
+		}
+		return count;
+	}
+
+	@Test
+	public void testPrometheusText() throws Exception {
+		final ThroughputMetric requests = new ThroughputMetric("requests");
+		requests.requestStarted();
+		requests.requestFinished(10, 5);
+		requests.requestStarted();
+		final StatusMetric status = new StatusMetric("status", "ok", "all \"fine\"");
+		final MetricSet metricSet = new TestMetricSet("test.set", "node\\1", requests, status);
+
+		final MetricsSnapshot snapshot = MetricsExporter.snapshot(new MetricSet[] { metricSet });
+		assertEquals(1, snapshot.getMetricSets().size());
+		assertEquals(2, snapshot.getMetricSets().get(0).getMetrics().size());
+
+		final StringBuilder text = new StringBuilder();
+		new PrometheusTextFormat().write(snapshot, text);
+		final String output = text.toString();
+
+		assertTrue(output, output.contains("# TYPE gyrex_throughput_requests_active gauge\n"));
+		assertTrue(output, output.contains("gyrex_throughput_requests_active{metric_set=\"test.set\",node=\"node\\\\1\",metric=\"requests\"} 1\n"));
+		assertTrue(output, output.contains("gyrex_throughput_requests_stats_processed{metric_set=\"test.set\",node=\"node\\\\1\",metric=\"requests\"} 1\n"));
+		assertTrue(output, output.contains("gyrex_throughput_requests_stats_size{metric_set=\"test.set\",node=\"node\\\\1\",metric=\"requests\"} 10\n"));
+		assertTrue(output, output.contains("gyrex_throughput_requests_stats_failure_rate{"));
+		assertTrue(output, output.contains("gyrex_status_status_stats_change_count{"));
+
+		// strings are not rendered
+		assertFalse(output, output.contains("stats_since"));
+		assertFalse(output, output.contains("fine"));
+
+		// every family is declared once
+		assertEquals(output.indexOf("# TYPE gyrex_throughput_requests_active "), output.lastIndexOf("# TYPE gyrex_throughput_requests_active "));
+	}
+
+	@Test
+	public void testSamplesGroupedByFamily() throws Exception {
+		final MetricSet first = new TestMetricSet("first", "a", new ThroughputMetric("requests"));
+		final MetricSet second = new TestMetricSet("second", "b", new ThroughputMetric("requests") {
+			// anonymous subclass must end up in the same families
+		});
+
+		final StringBuilder text = new StringBuilder();
+		new PrometheusTextFormat().write(MetricsExporter.snapshot(new MetricSet[] { first, second }), text);
+		final String output = text.toString();
+
+		final int header = output.indexOf("# TYPE gyrex_throughput_requests_active gauge\n");
+		assertTrue(output, header >= 0);
+		assertEquals(header, output.lastIndexOf("# TYPE gyrex_throughput_requests_active gauge\n"));
+		final int firstSample = output.indexOf("gyrex_throughput_requests_active{metric_set=\"first\"");
+		final int secondSample = output.indexOf("gyrex_throughput_requests_active{metric_set=\"second\"");
+		final int nextFamily = output.indexOf("# HELP", header);
+		assertTrue(output, (firstSample > header) && (secondSample > firstSample) && (secondSample < nextFamily));
+	}
+
+	@Test
+	public void testSnapshotOfManyMetricSets() throws Exception {
+		final MetricSet[] metricSets = new MetricSet[METRIC_SETS];
+		for (int i = 0; i < metricSets.length; i++) {
+			final ThroughputMetric requests = new ThroughputMetric("requests");
+			final HistogramMetric latency = new HistogramMetric("latency", TimeUnit.MILLISECONDS);
+			for (int j = 0; j < 100; j++) {
+				requests.requestStarted();
+				requests.requestFinished(1, j);
+				latency.record(j);
+			}
+			metricSets[i] = new TestMetricSet("set." + i, "node" + (i % 3), requests, latency, new StatusMetric("status", "ok", "initial"));
+		}
+
+		final MetricsSnapshot snapshot = MetricsExporter.snapshot(metricSets);
+		assertEquals(METRIC_SETS, snapshot.getMetricSets().size());
+		for (int i = 0; i < METRIC_SETS; i++) {
+			assertEquals("set." + i, snapshot.getMetricSets().get(i).getId());
+			assertEquals(3, snapshot.getMetricSets().get(i).getMetrics().size());
+		}
+
+		final StringBuilder text = new StringBuilder();
+		new PrometheusTextFormat().write(snapshot, text);
+		final String output = text.toString();
+
+		// one header per family and one sample per metric set
+		final String family = "gyrex_throughput_requests_stats_processed";
+		assertEquals(output.indexOf("# TYPE " + family + " "), output.lastIndexOf("# TYPE " + family + " "));
+		assertEquals(METRIC_SETS, countMatches(output, family + "{"));
+		assertTrue(output, output.contains(family + "{metric_set=\"set.0\",node=\"node0\",metric=\"requests\"} 100\n"));
+		assertTrue(output, output.contains(family + "{metric_set=\"set." + (METRIC_SETS - 1) + "\",node=\"node" + ((METRIC_SETS - 1) % 3) + "\",metric=\"requests\"} 100\n"));
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2012 AGETO Service GmbH and others.
+ * Copyright (c) 2010, 2014 AGETO Service GmbH and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -14,12 +14,14 @@ package org.eclipse.gyrex.monitoring.internal;
 import java.lang.management.ManagementFactory;
 import java.util.Hashtable;
 import java.util.Map.Entry;
+import java.util.SortedMap;
 
 import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 
 import org.eclipse.gyrex.monitoring.internal.MetricSetTracker.MetricSetJmxRegistration;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsExporter;
 import org.eclipse.gyrex.monitoring.internal.mbeans.MetricSetMBean;
 import org.eclipse.gyrex.monitoring.metrics.MetricSet;
 
@@ -35,10 +37,16 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Tracker for {@link MetricSet}.
+ * <p>
+ * Every tracked metric set is exposed using JMX. Metric sets are also tracked
+ * if they cannot be exposed using JMX so that they are still available to the
+ * {@link MetricsExporter}.
+ * </p>
  */
 public class MetricSetTracker extends ServiceTracker<MetricSet, MetricSetJmxRegistration> {
 
 	static class MetricSetJmxRegistration {
+		/** the object name (<code>null</code> if not registered) */
 		final ObjectName objectName;
 		final MetricSet metricSet;
 
@@ -50,6 +58,12 @@ public class MetricSetTracker extends ServiceTracker<MetricSet, MetricSetJmxRegi
 
 	private static final Logger LOG = LoggerFactory.getLogger(MetricSetTracker.class);
 
+	private static final MetricSet[] NO_METRIC_SETS = new MetricSet[0];
+
+	/** the tracked metric sets (guarded by <code>this</code>) */
+	private MetricSet[] metricSets = NO_METRIC_SETS;
+	private int metricSetsTrackingCount = -1;
+
 	public MetricSetTracker(final BundleContext context) {
 		super(context, MetricSet.class, null);
 	}
@@ -70,7 +84,33 @@ public class MetricSetTracker extends ServiceTracker<MetricSet, MetricSetJmxRegi
 		} catch (final Exception e) {
 			LOG.warn("Failed to expose metric {} using JMX. {}", metricSet, ExceptionUtils.getRootCauseMessage(e));
 		}
-		return null;
+
+		// keep tracking for the exporter
+		return new MetricSetJmxRegistration(null, metricSet);
+	}
+
+	/**
+	 * Returns all tracked metric sets.
+	 * <p>
+	 * The returned array is shared and must not be modified. It's only
+	 * re-created when the set of tracked services changed.
+	 * </p>
+	 *
+	 * @return the tracked metric sets (maybe empty)
+	 */
+	public synchronized MetricSet[] getMetricSets() {
+		final int trackingCount = getTrackingCount();
+		if (trackingCount != metricSetsTrackingCount) {
+			final SortedMap<ServiceReference<MetricSet>, MetricSetJmxRegistration> tracked = getTracked();
+			final MetricSet[] sets = new MetricSet[tracked.size()];
+			int i = 0;
+			for (final MetricSetJmxRegistration registration : tracked.values()) {
+				sets[i++] = registration.metricSet;
+			}
+			metricSets = sets;
+			metricSetsTrackingCount = trackingCount;
+		}
+		return metricSets;
 	}
 
 	private ObjectName getObjectName(final ServiceReference<MetricSet> reference, final MetricSet metricSet) throws MalformedObjectNameException {
@@ -102,6 +142,8 @@ public class MetricSetTracker extends ServiceTracker<MetricSet, MetricSetJmxRegi
 	public void removedService(final ServiceReference<MetricSet> reference, final MetricSetJmxRegistration metricSetJmxRegistration) {
 		try {
 			// unregister MBean
+			if (metricSetJmxRegistration.objectName == null)
+				return;
 			final MBeanServer beanServer = ManagementFactory.getPlatformMBeanServer();
 			beanServer.unregisterMBean(metricSetJmxRegistration.objectName);
 		} catch (final Exception e) {
@@ -12,8 +12,10 @@
 package org.eclipse.gyrex.monitoring.internal;
 
 import org.eclipse.gyrex.common.runtime.BaseBundleActivator;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsExporter;
 
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
 
 public class MonitoringActivator extends BaseBundleActivator {
 
@@ -21,6 +23,7 @@ public class MonitoringActivator extends BaseBundleActivator {
 	public static final String SYMBOLIC_NAME = "org.eclipse.gyrex.monitoring";
 
 	private MetricSetTracker metricSetTracker;
+	private ServiceRegistration<MetricsExporter> metricsExporterRegistration;
 	private StatusTrackerWithMetric statusTracker;
 
 	/**
@@ -36,6 +39,9 @@ public class MonitoringActivator extends BaseBundleActivator {
 		metricSetTracker = new MetricSetTracker(context);
 		metricSetTracker.open();
 
+		// make exporter available to friends (eg. HTTP metrics endpoint)
+		metricsExporterRegistration = context.registerService(MetricsExporter.class, new MetricsExporter(metricSetTracker), null);
+
 		// track status
 		statusTracker = new StatusTrackerWithMetric(context);
 		statusTracker.open();
@@ -43,6 +49,8 @@ public class MonitoringActivator extends BaseBundleActivator {
 
 	@Override
 	protected void doStop(final BundleContext context) throws Exception {
+		metricsExporterRegistration.unregister();
+		metricsExporterRegistration = null;
 		metricSetTracker.close();
 		metricSetTracker = null;
 
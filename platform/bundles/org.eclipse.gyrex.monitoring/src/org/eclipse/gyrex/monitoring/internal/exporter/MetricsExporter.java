@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.internal.exporter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.gyrex.monitoring.internal.MetricSetTracker;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsSnapshot.MetricSetSnapshot;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsSnapshot.MetricSnapshot;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsSnapshot.MetricType;
+import org.eclipse.gyrex.monitoring.internal.mbeans.MetricSetMBean;
+import org.eclipse.gyrex.monitoring.metrics.BaseMetric;
+import org.eclipse.gyrex.monitoring.metrics.MetricAttribute;
+import org.eclipse.gyrex.monitoring.metrics.MetricSet;
+
+/**
+ * Takes snapshots of all tracked {@link MetricSet metric sets} for rendering
+ * them in a {@link MetricsFormat}.
+ * <p>
+ * In contrast to {@link MetricSetMBean} no reflection is involved. All metric
+ * sets are read in one pass. The read lock of each metric is only held while
+ * its attribute values are copied. Rendering happens afterwards without holding
+ * any lock.
+ * </p>
+ */
+public class MetricsExporter {
+
+	private static final String METRICS_PACKAGE_PREFIX = BaseMetric.class.getName().substring(0, BaseMetric.class.getName().lastIndexOf('.') + 1);
+
+	/** the metric types by class */
+	private static final ConcurrentMap<Class<?>, MetricType> typesByClass = new ConcurrentHashMap<Class<?>, MetricType>();
+
+	private static Class<?> getFrameworkClass(final Class<?> metricClass) {
+		// the attributes are defined by the classes of the monitoring framework
+		Class<?> type = metricClass;
+		while (!type.getName().startsWith(METRICS_PACKAGE_PREFIX) || type.isAnonymousClass()) {
+			type = type.getSuperclass();
+		}
+		return type;
+	}
+
+	private static MetricType getMetricType(final BaseMetric metric) {
+		final MetricType type = typesByClass.get(metric.getClass());
+		if (type != null)
+			return type;
+
+		// share the type with all metrics of the same framework class
+		final Class<?> frameworkClass = getFrameworkClass(metric.getClass());
+		MetricType frameworkType = typesByClass.get(frameworkClass);
+		if (frameworkType == null) {
+			final List<MetricAttribute> attributes = metric.getAttributes();
+			final MetricType newType = new MetricType(frameworkClass.getSimpleName(), attributes.toArray(new MetricAttribute[attributes.size()]));
+			final MetricType existingType = typesByClass.putIfAbsent(frameworkClass, newType);
+			frameworkType = existingType != null ? existingType : newType;
+		}
+		typesByClass.putIfAbsent(metric.getClass(), frameworkType);
+		return frameworkType;
+	}
+
+	/**
+	 * Takes a snapshot of the specified metric sets.
+	 *
+	 * @param metricSets
+	 *            the metric sets
+	 * @return the snapshot
+	 */
+	public static MetricsSnapshot snapshot(final MetricSet[] metricSets) {
+		final long timestamp = System.currentTimeMillis();
+		final List<MetricSetSnapshot> metricSetSnapshots = new ArrayList<MetricSetSnapshot>(metricSets.length);
+
+		// one map is re-used for reading all metrics
+		final Map<String, Object> values = new HashMap<String, Object>();
+		for (final MetricSet metricSet : metricSets) {
+			final List<BaseMetric> metrics = metricSet.getMetrics();
+			final List<MetricSnapshot> metricSnapshots = new ArrayList<MetricSnapshot>(metrics.size());
+			for (final BaseMetric metric : metrics) {
+				if (metric == null) {
+					continue;
+				}
+				final MetricType type = getMetricType(metric);
+				final MetricAttribute[] attributes = type.getAttributes();
+
+				values.clear();
+				metric.snapshotAttributeValues(values);
+
+				final Object[] metricValues = new Object[attributes.length];
+				for (int i = 0; i < attributes.length; i++) {
+					metricValues[i] = values.get(attributes[i].getName());
+				}
+				metricSnapshots.add(new MetricSnapshot(metric.getId(), type, metricValues));
+			}
+			metricSetSnapshots.add(new MetricSetSnapshot(metricSet.getId(), metricSet.getDescription(), metricSet.getProperties(), Collections.unmodifiableList(metricSnapshots)));
+		}
+
+		return new MetricsSnapshot(timestamp, Collections.unmodifiableList(metricSetSnapshots));
+	}
+
+	private final MetricSetTracker metricSetTracker;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param metricSetTracker
+	 *            the tracker providing the metric sets
+	 */
+	public MetricsExporter(final MetricSetTracker metricSetTracker) {
+		this.metricSetTracker = metricSetTracker;
+	}
+
+	/**
+	 * Takes a snapshot of all tracked metric sets.
+	 *
+	 * @return the snapshot
+	 */
+	public MetricsSnapshot snapshot() {
+		return snapshot(metricSetTracker.getMetricSets());
+	}
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.internal.exporter;
+
+import java.io.IOException;
+
+/**
+ * A format for rendering {@link MetricsSnapshot snapshots}.
+ * <p>
+ * Formats must be thread safe, i.e. a single instance may render many
+ * snapshots concurrently.
+ * </p>
+ */
+public abstract class MetricsFormat {
+
+	/**
+	 * Returns the content type of the rendered text.
+	 *
+	 * @return the content type (including charset)
+	 */
+	public abstract String getContentType();
+
+	/**
+	 * Renders a snapshot.
+	 *
+	 * @param snapshot
+	 *            the snapshot to render
+	 * @param out
+	 *            the output to append the text to
+	 * @throws IOException
+	 *             if an error occurred writing to the output
+	 */
+	public abstract void write(MetricsSnapshot snapshot, Appendable out) throws IOException;
+}
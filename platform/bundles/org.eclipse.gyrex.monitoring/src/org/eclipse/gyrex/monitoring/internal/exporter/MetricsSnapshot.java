@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.internal.exporter;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.gyrex.monitoring.metrics.MetricAttribute;
+
+/**
+ * An immutable snapshot of the values of all metric sets.
+ * <p>
+ * A snapshot is taken by {@link MetricsExporter#snapshot()} and rendered by a
+ * {@link MetricsFormat}. Each metric was read atomically. However, the snapshot
+ * as a whole is not atomic.
+ * </p>
+ */
+public final class MetricsSnapshot {
+
+	/**
+	 * The values of a single metric.
+	 */
+	public static final class MetricSnapshot {
+
+		private final String id;
+		private final MetricType type;
+		private final Object[] values;
+
+		MetricSnapshot(final String id, final MetricType type, final Object[] values) {
+			this.id = id;
+			this.type = type;
+			this.values = values;
+		}
+
+		/**
+		 * Returns the metric id.
+		 *
+		 * @return the metric id
+		 */
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * Returns the metric type.
+		 *
+		 * @return the metric type
+		 */
+		public MetricType getType() {
+			return type;
+		}
+
+		/**
+		 * Returns the value of an attribute.
+		 *
+		 * @param index
+		 *            the attribute index in {@link MetricType#getAttributes()}
+		 * @return the value (maybe <code>null</code>)
+		 */
+		public Object getValue(final int index) {
+			return values[index];
+		}
+	}
+
+	/**
+	 * The values of all metrics of a metric set.
+	 */
+	public static final class MetricSetSnapshot {
+
+		private final String id;
+		private final String description;
+		private final Map<String, String> properties;
+		private final List<MetricSnapshot> metrics;
+
+		MetricSetSnapshot(final String id, final String description, final Map<String, String> properties, final List<MetricSnapshot> metrics) {
+			this.id = id;
+			this.description = description;
+			this.properties = properties;
+			this.metrics = metrics;
+		}
+
+		/**
+		 * Returns the metric set description.
+		 *
+		 * @return the description
+		 */
+		public String getDescription() {
+			return description;
+		}
+
+		/**
+		 * Returns the metric set id.
+		 *
+		 * @return the id
+		 */
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * Returns the metrics.
+		 *
+		 * @return an unmodifiable list of metrics
+		 */
+		public List<MetricSnapshot> getMetrics() {
+			return metrics;
+		}
+
+		/**
+		 * Returns the metric set properties.
+		 *
+		 * @return an unmodifiable map of properties
+		 */
+		public Map<String, String> getProperties() {
+			return properties;
+		}
+	}
+
+	/**
+	 * Description of a metric class.
+	 * <p>
+	 * The attributes of a metric only depend on its class. Thus, types are
+	 * created once per class and shared by all snapshots.
+	 * </p>
+	 */
+	public static final class MetricType {
+
+		private final String name;
+		private final MetricAttribute[] attributes;
+
+		MetricType(final String name, final MetricAttribute[] attributes) {
+			this.name = name;
+			this.attributes = attributes;
+		}
+
+		/**
+		 * Returns the attributes.
+		 * <p>
+		 * The returned array is shared and must not be modified.
+		 * </p>
+		 *
+		 * @return the attributes (in the order of the metric values)
+		 */
+		public MetricAttribute[] getAttributes() {
+			return attributes;
+		}
+
+		/**
+		 * Returns the type name.
+		 *
+		 * @return the simple name of the metric class (eg.
+		 *         <code>ThroughputMetric</code>)
+		 */
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	private final long timestamp;
+	private final List<MetricSetSnapshot> metricSets;
+
+	MetricsSnapshot(final long timestamp, final List<MetricSetSnapshot> metricSets) {
+		this.timestamp = timestamp;
+		this.metricSets = metricSets;
+	}
+
+	/**
+	 * Returns the metric sets.
+	 *
+	 * @return an unmodifiable list of metric sets
+	 */
+	public List<MetricSetSnapshot> getMetricSets() {
+		return metricSets;
+	}
+
+	/**
+	 * Returns the time the snapshot was taken.
+	 *
+	 * @return the snapshot time (in milliseconds)
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MetricsSnapshot [%tc, %d metric sets]", timestamp, metricSets.size());
+	}
+}
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.internal.exporter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsSnapshot.MetricSetSnapshot;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsSnapshot.MetricSnapshot;
+import org.eclipse.gyrex.monitoring.internal.exporter.MetricsSnapshot.MetricType;
+import org.eclipse.gyrex.monitoring.metrics.MetricAttribute;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Renders snapshots in the Prometheus text exposition format (version
+ * <code>0.0.4</code>).
+ * <p>
+ * Every numeric (or boolean) metric attribute becomes a metric family named
+ * <code>gyrex_&lt;metric type&gt;_&lt;attribute&gt;</code> (eg.
+ * <code>gyrex_throughput_requests_active</code>). The samples of a family are
+ * labeled with the metric set id (<code>metric_set</code>), the metric id (
+ * <code>metric</code>) and the metric set properties. All families are of type
+ * <code>gauge</code> because the statistics of a metric may be reset at any
+ * time. Other attributes (eg. strings) are not rendered.
+ * </p>
+ */
+public class PrometheusTextFormat extends MetricsFormat {
+
+	/**
+	 * The names and help texts of the families of a metric type.
+	 */
+	private static final class Families {
+
+		final String[] names;
+		final String[] help;
+
+		Families(final MetricType type) {
+			final MetricAttribute[] attributes = type.getAttributes();
+			names = new String[attributes.length];
+			help = new String[attributes.length];
+			final String prefix = NAME_PREFIX + toSnakeCase(StringUtils.removeEnd(type.getName(), "Metric")) + '_';
+			for (int i = 0; i < attributes.length; i++) {
+				names[i] = prefix + toSnakeCase(attributes[i].getName());
+				help[i] = escape(StringUtils.trimToEmpty(attributes[i].getDescription()), false);
+			}
+		}
+	}
+
+	/** the content type */
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private static final String NAME_PREFIX = "gyrex_";
+
+	private static final String METRIC_SET_LABEL = "metric_set";
+	private static final String METRIC_LABEL = "metric";
+
+	private static void appendLabel(final StringBuilder labels, final String name, final String value) {
+		if (labels.length() > 0) {
+			labels.append(',');
+		}
+		labels.append(name).append("=\"").append(escape(value, true)).append('"');
+	}
+
+	private static String escape(final String text, final boolean quotes) {
+		StringBuilder escaped = null;
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			final String replacement;
+			if (c == '\\') {
+				replacement = "\\\\";
+			} else if (c == '\n') {
+				replacement = "\\n";
+			} else if (quotes && (c == '"')) {
+				replacement = "\\\"";
+			} else {
+				replacement = null;
+			}
+			if ((replacement != null) && (escaped == null)) {
+				escaped = new StringBuilder(text.length() + 8).append(text, 0, i);
+			}
+			if (escaped != null) {
+				if (replacement != null) {
+					escaped.append(replacement);
+				} else {
+					escaped.append(c);
+				}
+			}
+		}
+		return escaped != null ? escaped.toString() : text;
+	}
+
+	/**
+	 * Formats a sample value.
+	 *
+	 * @param value
+	 *            the value
+	 * @return the formatted value (<code>null</code> if the value cannot be
+	 *         rendered)
+	 */
+	static String formatValue(final Object value) {
+		if ((value instanceof Long) || (value instanceof Integer) || (value instanceof Short) || (value instanceof Byte))
+			return value.toString();
+		if (value instanceof Boolean)
+			return ((Boolean) value).booleanValue() ? "1" : "0";
+		if (value instanceof Number) {
+			final double doubleValue = ((Number) value).doubleValue();
+			if (Double.isNaN(doubleValue))
+				return "NaN";
+			if (Double.isInfinite(doubleValue))
+				return doubleValue > 0 ? "+Inf" : "-Inf";
+			return Double.toString(doubleValue);
+		}
+		return null;
+	}
+
+	/**
+	 * Converts an identifier to a valid metric or label name.
+	 *
+	 * @param name
+	 *            the name (eg. <code>requestsStatsHitRatePerHour</code>)
+	 * @return the name in snake case (eg.
+	 *         <code>requests_stats_hit_rate_per_hour</code>)
+	 */
+	static String toSnakeCase(final String name) {
+		final StringBuilder snakeCase = new StringBuilder(name.length() + 8);
+		for (int i = 0; i < name.length(); i++) {
+			final char c = name.charAt(i);
+			if (Character.isUpperCase(c)) {
+				if ((i > 0) && (snakeCase.charAt(snakeCase.length() - 1) != '_')) {
+					snakeCase.append('_');
+				}
+				snakeCase.append(Character.toLowerCase(c));
+			} else if (((c >= 'a') && (c <= 'z')) || ((c >= '0') && (c <= '9') && (i > 0))) {
+				snakeCase.append(c);
+			} else if ((snakeCase.length() == 0) || (snakeCase.charAt(snakeCase.length() - 1) != '_')) {
+				snakeCase.append('_');
+			}
+		}
+		return snakeCase.toString();
+	}
+
+	/** the families by metric type */
+	private final ConcurrentMap<MetricType, Families> familiesByType = new ConcurrentHashMap<MetricType, Families>();
+
+	@Override
+	public String getContentType() {
+		return CONTENT_TYPE;
+	}
+
+	private Families getFamilies(final MetricType type) {
+		final Families families = familiesByType.get(type);
+		if (families != null)
+			return families;
+
+		final Families newFamilies = new Families(type);
+		final Families existingFamilies = familiesByType.putIfAbsent(type, newFamilies);
+		return existingFamilies != null ? existingFamilies : newFamilies;
+	}
+
+	private String getMetricSetLabels(final MetricSetSnapshot metricSet) {
+		final StringBuilder labels = new StringBuilder();
+		appendLabel(labels, METRIC_SET_LABEL, metricSet.getId());
+		for (final Entry<String, String> property : metricSet.getProperties().entrySet()) {
+			final String name = toSnakeCase(property.getKey());
+			if (name.isEmpty() || name.startsWith("__") || name.equals(METRIC_SET_LABEL) || name.equals(METRIC_LABEL)) {
+				continue;
+			}
+			appendLabel(labels, name, property.getValue());
+		}
+		return labels.toString();
+	}
+
+	@Override
+	public void write(final MetricsSnapshot snapshot, final Appendable out) throws IOException {
+		// group metrics by type (all samples of a family must be rendered together)
+		final Map<MetricType, List<MetricSnapshot>> metricsByType = new LinkedHashMap<MetricType, List<MetricSnapshot>>();
+		final Map<MetricSnapshot, String> labelsByMetric = new HashMap<MetricSnapshot, String>();
+		for (final MetricSetSnapshot metricSet : snapshot.getMetricSets()) {
+			final String metricSetLabels = getMetricSetLabels(metricSet);
+			for (final MetricSnapshot metric : metricSet.getMetrics()) {
+				List<MetricSnapshot> metrics = metricsByType.get(metric.getType());
+				if (metrics == null) {
+					metrics = new ArrayList<MetricSnapshot>();
+					metricsByType.put(metric.getType(), metrics);
+				}
+				metrics.add(metric);
+
+				final StringBuilder labels = new StringBuilder(metricSetLabels);
+				appendLabel(labels, METRIC_LABEL, metric.getId());
+				labelsByMetric.put(metric, labels.toString());
+			}
+		}
+
+		for (final Entry<MetricType, List<MetricSnapshot>> entry : metricsByType.entrySet()) {
+			final Families families = getFamilies(entry.getKey());
+			final List<MetricSnapshot> metrics = entry.getValue();
+			for (int i = 0; i < families.names.length; i++) {
+				boolean header = false;
+				for (final MetricSnapshot metric : metrics) {
+					final String value = formatValue(metric.getValue(i));
+					if (value == null) {
+						continue;
+					}
+					if (!header) {
+						out.append("# HELP ").append(families.names[i]).append(' ').append(families.help[i]).append('\n');
+						out.append("# TYPE ").append(families.names[i]).append(" gauge\n");
+						header = true;
+					}
+					out.append(families.names[i]).append('{').append(labelsByMetric.get(metric)).append("} ").append(value).append('\n');
+				}
+			}
+		}
+	}
+}
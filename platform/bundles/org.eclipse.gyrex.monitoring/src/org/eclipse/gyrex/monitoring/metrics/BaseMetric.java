@@ -64,9 +64,23 @@ public abstract class BaseMetric {
 	/** helper constant */
 	static final String[] NO_METRICS = new String[0];
 
-	/** common date format */
+	/** common date format (guarded by itself) */
 	static final DateFormat ISO_8601_UTC = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
 
+	/**
+	 * Formats the specified time using the {@link #ISO_8601_UTC common date
+	 * format}.
+	 * 
+	 * @param time
+	 *            the time in milliseconds
+	 * @return the formatted time
+	 */
+	static String formatTime(final long time) {
+		synchronized (ISO_8601_UTC) {
+			return ISO_8601_UTC.format(new Date(time));
+		}
+	}
+
 	/**
 	 * Indicates if the specified id is a valid metric id.
 	 * <p>
@@ -114,6 +128,9 @@ public abstract class BaseMetric {
 	/** the last reset timestamp */
 	private volatile long statsSince;
 
+	/** the formatted last reset timestamp (formatted once per reset) */
+	private volatile String statsSinceText;
+
 	/**
 	 * Creates a new metric using the specified id.
 	 * 
@@ -129,6 +146,7 @@ public abstract class BaseMetric {
 		// note, we do not invoke resetStats here because calling non-private
 		// methods during object initialization is problematic at best
 		statsSince = System.currentTimeMillis();
+		statsSinceText = formatTime(statsSince);
 	}
 
 	/**
@@ -195,13 +213,7 @@ public abstract class BaseMetric {
 	 */
 	public final Map<String, ?> getAttributeValues() {
 		final Map<String, Object> attributeValues = new HashMap<String, Object>();
-		final Lock lock = getReadLock();
-		lock.lock();
-		try {
-			populateAttributeValues(attributeValues);
-		} finally {
-			lock.unlock();
-		}
+		snapshotAttributeValues(attributeValues);
 		return Collections.unmodifiableMap(attributeValues);
 	}
 
@@ -240,7 +252,7 @@ public abstract class BaseMetric {
 	 * @return the the time since the last statistics reset
 	 */
 	public final String getStatsSince() {
-		return ISO_8601_UTC.format(new Date(statsSince));
+		return statsSinceText;
 	}
 
 	/**
@@ -322,12 +334,39 @@ public abstract class BaseMetric {
 		writeLock.lock();
 		try {
 			statsSince = System.currentTimeMillis();
+			statsSinceText = formatTime(statsSince);
 			doResetStats();
 		} finally {
 			writeLock.unlock();
 		}
 	}
 
+	/**
+	 * Populates the specified map with the attribute values contained in the
+	 * metric.
+	 * <p>
+	 * Although public this method must not be called by clients. It's a variant
+	 * of {@link #getAttributeValues()} which allows the framework to reuse a
+	 * single map when taking snapshots of many metrics. The read lock is only
+	 * held while the values are copied into the map.
+	 * </p>
+	 *
+	 * @param values
+	 *            the map to populate with the attribute values (existing
+	 *            values for the metric attributes will be replaced)
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 1.3
+	 */
+	public final void snapshotAttributeValues(final Map<String, Object> values) {
+		final Lock lock = getReadLock();
+		lock.lock();
+		try {
+			populateAttributeValues(values);
+		} finally {
+			lock.unlock();
+		}
+	}
+
 	/**
 	 * Returns a string containing a concise, human-readable description of the
 	 * metric.
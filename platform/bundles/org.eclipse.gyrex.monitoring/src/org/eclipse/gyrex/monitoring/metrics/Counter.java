@@ -11,12 +11,24 @@
  *******************************************************************************/
 package org.eclipse.gyrex.monitoring.metrics;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * A counter that may be used to track events that increment a value (eg.,
  * durations, invocations).
  * <p>
- * This class is not thread safe. Concurrent access to any of the methods in
- * this class must be coordinated by the caller.
+ * This class is thread safe. Updates are striped across per-thread cells (see
+ * {@link LongAdder}) and do not block. Values are aggregated only on read.
+ * Thus, reading multiple values is not an atomic operation and a
+ * {@link #reset()} concurrent to updates may lose some of them.
+ * </p>
+ * <p>
+ * The variance is computed from striped sums of the amounts shifted by the
+ * first amount submitted after a reset. The shift keeps the sums small and
+ * avoids the loss of precision of a plain sum of squares for large amounts.
  * </p>
  * <p>
  * Note, although this class is not marked <strong>final</strong> it is not
@@ -28,20 +40,29 @@ package org.eclipse.gyrex.monitoring.metrics;
  */
 public class Counter {
 
+	/** marker for an unset shift */
+	private static final long NO_SHIFT = Long.MIN_VALUE;
+
 	/** total value of all submitted amounts */
-	private volatile long value;
+	private final LongAdder value = new LongAdder();
 
 	/** number of submitted amounts */
-	private volatile long numberOfSamples;
+	private final LongAdder numberOfSamples = new LongAdder();
 
 	/** smallest submitted amount */
-	private volatile long low;
+	private final LongAccumulator low = new LongAccumulator(Math::min, Long.MAX_VALUE);
 
 	/** highest submitted amount */
-	private volatile long high;
+	private final LongAccumulator high = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+	/** first amount submitted since the last reset (for variance calculation) */
+	private final AtomicLong shift = new AtomicLong(NO_SHIFT);
+
+	/** total value of all shifted amounts (for variance calculation) */
+	private final LongAdder shiftedValue = new LongAdder();
 
-	/** base value for calculating variance and standard deviation of amounts */
-	private volatile long variance100;
+	/** total value of all squared shifted amounts (for variance calculation) */
+	private final DoubleAdder shiftedSquares = new DoubleAdder();
 
 	private double calculatePercentile(final double z) {
 		return getAverage() + (z * getStandardDeviation());
@@ -50,10 +71,14 @@ public class Counter {
 	/**
 	 * Returns the average of all submitted amounts.
 	 * 
-	 * @return
+	 * @return the average of all submitted amounts (<code>0</code> if no
+	 *         amounts have been submitted)
 	 */
 	public long getAverage() {
-		return value / numberOfSamples;
+		final long samples = numberOfSamples.sum();
+		if (samples == 0)
+			return 0;
+		return value.sum() / samples;
 	}
 
 	/**
@@ -62,7 +87,8 @@ public class Counter {
 	 * @return the highest submitted amount
 	 */
 	public long getHigh() {
-		return high;
+		final long high = this.high.get();
+		return high == Long.MIN_VALUE ? 0 : high;
 	}
 
 	/**
@@ -71,7 +97,8 @@ public class Counter {
 	 * @return the lowest submitted amount
 	 */
 	public long getLow() {
-		return low;
+		final long low = this.low.get();
+		return low == Long.MAX_VALUE ? 0 : low;
 	}
 
 	/**
@@ -81,7 +108,7 @@ public class Counter {
 	 * @return the number of submitted samples
 	 */
 	public long getNumberOfSamples() {
-		return numberOfSamples;
+		return numberOfSamples.sum();
 	}
 
 	public double getPercentile95() {
@@ -109,7 +136,7 @@ public class Counter {
 	 * @return the total value of all submitted amounts
 	 */
 	public long getValue() {
-		return value;
+		return value.sum();
 	}
 
 	/**
@@ -118,9 +145,12 @@ public class Counter {
 	 * @return the variance for the total value of all submitted amounts
 	 */
 	public double getVariance() {
-		if (numberOfSamples > 1)
-			return (variance100) / 100.0 / (numberOfSamples - 1);
-		return 0.0D;
+		final long samples = numberOfSamples.sum();
+		if (samples < 2)
+			return 0.0D;
+		final double shiftedSum = shiftedValue.sum();
+		final double variance = (shiftedSquares.sum() - ((shiftedSum * shiftedSum) / samples)) / (samples - 1);
+		return Math.max(0.0D, variance);
 	}
 
 	/**
@@ -134,41 +164,43 @@ public class Counter {
 	 *            the increment amount
 	 */
 	public void increment(final long amount) {
-		numberOfSamples++;
-		value += amount;
-		high = Math.max(amount, high);
-		low = Math.min(amount, low);
-		if (value > 1) {
-			high = Math.max(amount, high);
-			low = Math.min(amount, low);
-			final long delta10 = (amount * 10) - ((value * 10) / numberOfSamples);
-			variance100 += (delta10 * delta10);
-		} else {
-			high = amount;
-			low = amount;
-			variance100 = 0;
+		numberOfSamples.increment();
+		value.add(amount);
+		high.accumulate(amount);
+		low.accumulate(amount);
+
+		// shift by the first amount
+		long shift = this.shift.get();
+		if (shift == NO_SHIFT) {
+			this.shift.compareAndSet(NO_SHIFT, amount);
+			shift = this.shift.get();
 		}
+		final long shifted = amount - shift;
+		shiftedValue.add(shifted);
+		shiftedSquares.add((double) shifted * shifted);
 	}
 
 	/**
 	 * Resets the counter
 	 */
 	public void reset() {
-		value = 0;
-		numberOfSamples = 0;
-		low = 0;
-		high = 0;
-		variance100 = 0;
+		value.reset();
+		numberOfSamples.reset();
+		low.reset();
+		high.reset();
+		shiftedValue.reset();
+		shiftedSquares.reset();
+		shift.set(NO_SHIFT);
 	}
 
 	@Override
 	public String toString() {
 		final StringBuilder builder = new StringBuilder();
-		builder.append(value);
+		builder.append(getValue());
 		builder.append(" (");
-		builder.append(low);
+		builder.append(getLow());
 		builder.append("/");
-		builder.append(high);
+		builder.append(getHigh());
 		builder.append(")");
 		return builder.toString();
 	}
@@ -12,7 +12,6 @@
 package org.eclipse.gyrex.monitoring.metrics;
 
 import java.util.ConcurrentModificationException;
-import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -229,7 +228,7 @@ public class ErrorMetric extends BaseMetric {
 	 * @return the time of the last error change
 	 */
 	public String getLastErrorChangeTime() {
-		return ISO_8601_UTC.format(new Date(lastErrorChangeTime));
+		return formatTime(lastErrorChangeTime);
 	}
 
 	/**
@@ -0,0 +1,461 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.monitoring.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.gyrex.monitoring.metrics.StopWatch.StopCallback;
+
+/**
+ * A metric for monitoring the distribution of values (eg. request latencies).
+ * <p>
+ * The histogram metric records values into a fixed number of logarithmic
+ * buckets. Every power of two is divided into {@value #SUB_BUCKET_COUNT}
+ * linear sub-buckets. Thus, the memory consumed by a histogram is fixed and
+ * independent of the number of recorded values while the relative error of
+ * any reported percentile is below 1/{@value #SUB_BUCKET_COUNT}. Values below
+ * {@value #SUB_BUCKET_COUNT} are recorded exactly.
+ * </p>
+ * <p>
+ * Recording a value does not block. Percentiles are calculated on read.
+ * Histograms with the same layout can be {@link #merge(HistogramMetric)
+ * merged}, eg. to combine histograms recorded on different threads or nodes
+ * (see {@link #getBucketCounts()}).
+ * </p>
+ * <p>
+ * Note, although this class is not marked <strong>final</strong> it is not
+ * allowed to be subclassed outside the monitoring framework.
+ * </p>
+ *
+ * @since 1.3
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class HistogramMetric extends BaseMetric {
+
+	/**
+	 * Factory for creating histogram metrics
+	 */
+	public static final class HistogramMetricFactory implements MetricFactory<HistogramMetric> {
+
+		/** shared instance using {@link TimeUnit#MILLISECONDS} */
+		public static final HistogramMetricFactory MILLISECONDS = new HistogramMetricFactory();
+		/** shared instance using {@link TimeUnit#NANOSECONDS} */
+		public static final HistogramMetricFactory NANOSECONDS = new HistogramMetricFactory(TimeUnit.NANOSECONDS);
+
+		private final TimeUnit timeUnit;
+
+		/**
+		 * Creates a new histogram metric factory using time unit
+		 * {@link TimeUnit#MILLISECONDS}.
+		 */
+		public HistogramMetricFactory() {
+			this(TimeUnit.MILLISECONDS);
+		}
+
+		/**
+		 * Creates a new histogram metric factory.
+		 *
+		 * @param timeUnit
+		 *            the time unit used in the metric
+		 */
+		public HistogramMetricFactory(final TimeUnit timeUnit) {
+			this.timeUnit = timeUnit;
+		}
+
+		@Override
+		public HistogramMetric create(final String id) {
+			return new HistogramMetric(id, timeUnit);
+		}
+	}
+
+	/** number of bits used for linear sub-buckets */
+	private static final int SUB_BUCKET_BITS = 5;
+
+	/** number of linear sub-buckets per power of two */
+	public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	/** total number of buckets (covers all positive long values) */
+	public static final int BUCKET_COUNT = SUB_BUCKET_COUNT + ((Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT);
+
+	/**
+	 * Returns the bucket index for the specified value.
+	 *
+	 * @param value
+	 *            the value (must not be negative)
+	 * @return the bucket index
+	 */
+	static int getBucketIndex(final long value) {
+		if (value < SUB_BUCKET_COUNT)
+			return (int) value;
+		final int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+		final int shift = exponent - SUB_BUCKET_BITS;
+		final int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+		return SUB_BUCKET_COUNT + (shift * SUB_BUCKET_COUNT) + subBucket;
+	}
+
+	/**
+	 * Returns the highest value which is recorded into the specified bucket.
+	 *
+	 * @param index
+	 *            the bucket index
+	 * @return the highest value of the bucket
+	 */
+	static long getBucketHighestValue(final int index) {
+		if (index < SUB_BUCKET_COUNT)
+			return index;
+		final int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+		final long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+		final long lowestValue = (SUB_BUCKET_COUNT + subBucket) << shift;
+		return (lowestValue + (1L << shift)) - 1;
+	}
+
+	private final TimeUnit timeUnit;
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator high = new LongAccumulator(Math::max, Long.MIN_VALUE);
+	private final LongAccumulator low = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	private final StopCallback stopCallback = new StopCallback() {
+
+		@Override
+		public void stopped(final StopWatch stopWatch) {
+			record(stopWatch.getDuration(getTimeUnit()));
+		}
+	};
+
+	/**
+	 * Creates a new histogram metric instance using time unit
+	 * {@link TimeUnit#MILLISECONDS}.
+	 *
+	 * @param id
+	 *            the metric id
+	 */
+	public HistogramMetric(final String id) {
+		this(id, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Creates a new histogram metric instance.
+	 *
+	 * @param id
+	 *            the metric id
+	 * @param timeUnit
+	 *            the time unit used in the metric
+	 */
+	public HistogramMetric(final String id, final TimeUnit timeUnit) {
+		super(id);
+		if (timeUnit == null)
+			throw new IllegalArgumentException("no time unit specified");
+		this.timeUnit = timeUnit;
+	}
+
+	@Override
+	void doResetStats() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			buckets.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		high.reset();
+		low.reset();
+	}
+
+	@Override
+	Object[] dumpMetrics() {
+		return new Object[] { "count|mean|low|high|p50|p90|p99|p999", getCount(), getMean(), getLow(), getHigh(), getPercentile50(), getPercentile90(), getPercentile99(), getPercentile999() };
+	}
+
+	/**
+	 * Returns a snapshot of the raw bucket counts.
+	 * <p>
+	 * The returned array has a length of {@link #BUCKET_COUNT}. It may be
+	 * transferred to a different node and merged into another histogram using
+	 * {@link #merge(long[])}.
+	 * </p>
+	 *
+	 * @return a snapshot of the bucket counts
+	 */
+	public long[] getBucketCounts() {
+		final long[] counts = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = buckets.get(i);
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the number of recorded values since the last statistics reset.
+	 *
+	 * @return the number of recorded values
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Returns the highest recorded value since the last statistics reset.
+	 *
+	 * @return the highest recorded value
+	 */
+	public long getHigh() {
+		final long high = this.high.get();
+		return high == Long.MIN_VALUE ? 0 : high;
+	}
+
+	/**
+	 * Returns the lowest recorded value since the last statistics reset.
+	 *
+	 * @return the lowest recorded value
+	 */
+	public long getLow() {
+		final long low = this.low.get();
+		return low == Long.MAX_VALUE ? 0 : low;
+	}
+
+	/**
+	 * Returns the mean of all recorded values since the last statistics reset.
+	 *
+	 * @return the mean of all recorded values
+	 */
+	public long getMean() {
+		final long count = this.count.sum();
+		return count == 0 ? 0 : sum.sum() / count;
+	}
+
+	/**
+	 * Returns the value at the specified percentile.
+	 * <p>
+	 * The returned value is the highest value which is equivalent (within the
+	 * histogram precision) to the value at the given percentile. It's never
+	 * higher than {@link #getHigh()}.
+	 * </p>
+	 *
+	 * @param percentile
+	 *            the percentile (between <code>0.0</code> and
+	 *            <code>100.0</code>)
+	 * @return the value at the specified percentile (<code>0</code> if no
+	 *         values have been recorded)
+	 */
+	public long getPercentile(final double percentile) {
+		if ((percentile < 0.0) || (percentile > 100.0))
+			throw new IllegalArgumentException("percentile must be between 0.0 and 100.0");
+
+		// take a snapshot (the total might differ from the count slightly due to concurrent updates)
+		return getPercentiles(getBucketCounts(), percentile)[0];
+	}
+
+	/**
+	 * Returns the median (50th percentile).
+	 *
+	 * @return the median
+	 */
+	public long getPercentile50() {
+		return getPercentile(50.0);
+	}
+
+	/**
+	 * Returns the 90th percentile.
+	 *
+	 * @return the 90th percentile
+	 */
+	public long getPercentile90() {
+		return getPercentile(90.0);
+	}
+
+	/**
+	 * Returns the 99th percentile.
+	 *
+	 * @return the 99th percentile
+	 */
+	public long getPercentile99() {
+		return getPercentile(99.0);
+	}
+
+	/**
+	 * Returns the 99.9th percentile.
+	 *
+	 * @return the 99.9th percentile
+	 */
+	public long getPercentile999() {
+		return getPercentile(99.9);
+	}
+
+	/**
+	 * Returns the values at the specified percentiles (in ascending order) of a
+	 * bucket counts snapshot. The buckets are scanned only once.
+	 */
+	private long[] getPercentiles(final long[] counts, final double... percentiles) {
+		final long[] values = new long[percentiles.length];
+		long total = 0;
+		for (final long bucketCount : counts) {
+			total += bucketCount;
+		}
+		if (total == 0)
+			return values;
+
+		final long high = getHigh();
+		int p = 0;
+		long rank = Math.max(1, (long) Math.ceil((percentiles[p] / 100.0) * total));
+		long seen = 0;
+		for (int i = 0; (i < counts.length) && (p < percentiles.length); i++) {
+			seen += counts[i];
+			while (seen >= rank) {
+				values[p++] = Math.min(getBucketHighestValue(i), high);
+				if (p == percentiles.length) {
+					break;
+				}
+				rank = Math.max(1, (long) Math.ceil((percentiles[p] / 100.0) * total));
+			}
+		}
+		while (p < percentiles.length) {
+			values[p++] = high;
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the metric time unit.
+	 *
+	 * @return the metric time unit
+	 */
+	public TimeUnit getTimeUnit() {
+		return timeUnit;
+	}
+
+	/**
+	 * Merges all values recorded in the specified histogram into this
+	 * histogram.
+	 * <p>
+	 * The specified histogram is not modified. Both histograms should use the
+	 * same {@link #getTimeUnit() time unit}.
+	 * </p>
+	 *
+	 * @param histogram
+	 *            the histogram to merge
+	 */
+	public void merge(final HistogramMetric histogram) {
+		if (histogram == null)
+			throw new IllegalArgumentException("histogram must not be null");
+		if (histogram.getTimeUnit() != getTimeUnit())
+			throw new IllegalArgumentException("time unit mismatch");
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			final long bucketCount = histogram.buckets.get(i);
+			if (bucketCount != 0) {
+				buckets.addAndGet(i, bucketCount);
+			}
+		}
+		count.add(histogram.count.sum());
+		sum.add(histogram.sum.sum());
+		high.accumulate(histogram.high.get());
+		low.accumulate(histogram.low.get());
+	}
+
+	/**
+	 * Merges the specified bucket counts into this histogram.
+	 * <p>
+	 * This can be used to merge histograms recorded on different nodes (see
+	 * {@link #getBucketCounts()}). Because raw bucket counts do not carry exact
+	 * values, the sum as well as the low and high values are approximated
+	 * using the bucket bounds.
+	 * </p>
+	 *
+	 * @param bucketCounts
+	 *            the bucket counts (must have a length of {@link #BUCKET_COUNT})
+	 */
+	public void merge(final long[] bucketCounts) {
+		if ((bucketCounts == null) || (bucketCounts.length != BUCKET_COUNT))
+			throw new IllegalArgumentException("bucket counts must have a length of " + BUCKET_COUNT);
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			final long bucketCount = bucketCounts[i];
+			if (bucketCount > 0) {
+				final long value = getBucketHighestValue(i);
+				buckets.addAndGet(i, bucketCount);
+				count.add(bucketCount);
+				sum.add(value * bucketCount);
+				high.accumulate(value);
+				low.accumulate(value);
+			}
+		}
+	}
+
+	@Override
+	void populateAttributes(final List<MetricAttribute> attributes) {
+		super.populateAttributes(attributes);
+		attributes.add(new MetricAttribute("count", "the number of recorded values since the last statistics reset", Long.class));
+		attributes.add(new MetricAttribute("mean", "the mean of all recorded values since the last statistics reset", Long.class));
+		attributes.add(new MetricAttribute("low", "the lowest recorded value since the last statistics reset", Long.class));
+		attributes.add(new MetricAttribute("high", "the highest recorded value since the last statistics reset", Long.class));
+		attributes.add(new MetricAttribute("p50", "the median of all recorded values since the last statistics reset", Long.class));
+		attributes.add(new MetricAttribute("p90", "the 90th percentile of all recorded values since the last statistics reset", Long.class));
+		attributes.add(new MetricAttribute("p99", "the 99th percentile of all recorded values since the last statistics reset", Long.class));
+		attributes.add(new MetricAttribute("p999", "the 99.9th percentile of all recorded values since the last statistics reset", Long.class));
+		attributes.add(new MetricAttribute("timeUnit", "the time unit used in the metric", String.class));
+	}
+
+	@Override
+	void populateAttributeValues(final Map<String, Object> values) {
+		super.populateAttributeValues(values);
+		values.put("count", getCount());
+		values.put("mean", getMean());
+		values.put("low", getLow());
+		values.put("high", getHigh());
+
+		// compute all percentiles from a single snapshot
+		final long[] percentiles = getPercentiles(getBucketCounts(), 50.0, 90.0, 99.0, 99.9);
+		values.put("p50", percentiles[0]);
+		values.put("p90", percentiles[1]);
+		values.put("p99", percentiles[2]);
+		values.put("p999", percentiles[3]);
+		values.put("timeUnit", getTimeUnit().toString());
+	}
+
+	/**
+	 * Marks a process start.
+	 * <p>
+	 * This will instantiate and start a new {@link StopWatch}. Callers must
+	 * invoke {@link StopWatch#stop()} when the process finished. The returned
+	 * {@link StopWatch} is initialized with a callback that will call
+	 * {@link #record(long)} when {@link StopWatch#stop()} is invoked.
+	 * </p>
+	 *
+	 * @return a {@link StopWatch} for marking the process end
+	 */
+	public StopWatch processStarted() {
+		final StopWatch watch = new StopWatch(stopCallback);
+		watch.start();
+		return watch;
+	}
+
+	/**
+	 * Records a value.
+	 * <p>
+	 * Negative values are recorded as <code>0</code>.
+	 * </p>
+	 *
+	 * @param value
+	 *            the value to record (eg. a duration in the metric's
+	 *            {@link #getTimeUnit() time unit})
+	 */
+	public void record(final long value) {
+		final long v = Math.max(0, value);
+		buckets.incrementAndGet(getBucketIndex(v));
+		count.increment();
+		sum.add(v);
+		high.accumulate(v);
+		low.accumulate(v);
+	}
+}
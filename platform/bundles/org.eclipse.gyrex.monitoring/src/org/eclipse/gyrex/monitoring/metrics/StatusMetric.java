@@ -11,7 +11,6 @@
  *******************************************************************************/
 package org.eclipse.gyrex.monitoring.metrics;
 
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.Lock;
@@ -126,7 +125,7 @@ public class StatusMetric extends BaseMetric {
 	 * @return the time of the last status change
 	 */
 	public String getStatusChangeTime() {
-		return ISO_8601_UTC.format(new Date(statusChangeTime));
+		return formatTime(statusChangeTime);
 	}
 
 	/**
@@ -14,7 +14,9 @@ package org.eclipse.gyrex.monitoring.metrics;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A metric for monitoring throughput (eg. requests, invocations).
@@ -24,6 +26,12 @@ import java.util.concurrent.locks.Lock;
  * web request till a large process involving many subsequent operations.
  * </p>
  * <p>
+ * Recording requests does not block. Counts are striped across per-thread
+ * cells and aggregated only when read. Derived values (eg. rates and averages)
+ * are calculated on read. The number of active requests is a single atomic
+ * counter so that the high water mark is exact.
+ * </p>
+ * <p>
  * Note, although this class is not marked <strong>final</strong> it is not
  * allowed to be subclassed outside the monitoring framework.
  * </p>
@@ -33,55 +41,25 @@ import java.util.concurrent.locks.Lock;
 public class ThroughputMetric extends BaseMetric {
 
 	/** the number of active requests */
-	private volatile long requestsActive;
+	private final AtomicLong requestsActive = new AtomicLong();
 
 	/** the high water mark since the last statistics reset */
-	private volatile long requestsStatsHigh;
+	private final LongAccumulator requestsStatsHigh = new LongAccumulator(Math::max, 0);
 
 	/**
 	 * the total number of requests processed (excluding failed requests) since
 	 * the last statistics reset
 	 */
-	private volatile long requestsStatsProcessed;
-
-	/**
-	 * the request hit rate per hour (including failed requests) since the last
-	 * statistics reset
-	 */
-	private volatile long requestsStatsHitRatePerHour;
-
-	/**
-	 * the request hit rate per minute (including failed requests) since the
-	 * last statistics reset
-	 */
-	private volatile long requestsStatsHitRatePerMinute;
-
-	/**
-	 * the request hit rate per second (including failed requests) since the
-	 * last statistics reset
-	 */
-	private volatile long requestsStatsHitRatePerSecond;
+	private final LongAdder requestsStatsProcessed = new LongAdder();
 
 	/** the total number of failed requests since the last statistics reset */
-	private volatile long requestsStatsFailed;
-
-	/**
-	 * the request failure rate since the last statistics reset (percentage of
-	 * failed requests vs. processed + failed requests)
-	 */
-	private volatile float requestsStatsFailureRate;
+	private final LongAdder requestsStatsFailed = new LongAdder();
 
 	/**
 	 * the total number of size units processed by requests (excluding failed
 	 * requests) since the last statistics reset
 	 */
-	private volatile long requestsStatsSize;
-
-	/**
-	 * the average number of size units processed by a request (excluding failed
-	 * requests) since the last statistics reset
-	 */
-	private volatile long requestsStatsSizeAverage;
+	private final LongAdder requestsStatsSize = new LongAdder();
 
 	/**
 	 * the total number of time consumed processing requests (excluding failed
@@ -136,13 +114,10 @@ public class ThroughputMetric extends BaseMetric {
 	 */
 	@Override
 	void doResetStats() {
-		requestsStatsHigh = 0;
-		requestsStatsProcessed = 0;
-		requestsStatsHitRatePerMinute = 0;
-		requestsStatsFailed = 0;
-		requestsStatsHigh = 0;
-		requestsStatsSize = 0;
-		requestsStatsSizeAverage = 0;
+		requestsStatsHigh.reset();
+		requestsStatsProcessed.reset();
+		requestsStatsFailed.reset();
+		requestsStatsSize.reset();
 		requestsStatsProcessingTime.reset();
 	}
 
@@ -151,13 +126,19 @@ public class ThroughputMetric extends BaseMetric {
 		return new Object[] { "active|high|processed|rate|size|size average|time|time average|time high|time low|time stddev", getRequestsActive(), getRequestsStatsHigh(), getRequestsStatsProcessed(), getRequestsStatsHitRatePerMinute(), getRequestsStatsSize(), getRequestsStatsSizeAverage(), getRequestsStatsProcessingTime(), getRequestsStatsProcessingTimeAverage(), getRequestsStatsProcessingTimeHigh(), getRequestsStatsProcessingTimeLow(), getRequestsStatsProcessingTimeStandardDeviation() };
 	}
 
+	private long getHitRate(final long periodMillis) {
+		final long totalRequestProcessed = requestsStatsProcessed.sum() + requestsStatsFailed.sum();
+		final long periods = (System.currentTimeMillis() - getStatsSinceTS()) / periodMillis;
+		return ((periods == 0) || (totalRequestProcessed == 0)) ? 0 : (totalRequestProcessed / periods);
+	}
+
 	/**
 	 * Returns the number of active requests.
 	 * 
 	 * @return the number of active requests
 	 */
 	public long getRequestsActive() {
-		return requestsActive;
+		return requestsActive.get();
 	}
 
 	/**
@@ -167,7 +148,7 @@ public class ThroughputMetric extends BaseMetric {
 	 * @return the total number of failed requests
 	 */
 	public long getRequestsStatsFailed() {
-		return requestsStatsFailed;
+		return requestsStatsFailed.sum();
 	}
 
 	/**
@@ -177,7 +158,10 @@ public class ThroughputMetric extends BaseMetric {
 	 * @return the request failure rate
 	 */
 	public float getRequestsStatsFailureRate() {
-		return requestsStatsFailureRate;
+		// the failure rate is percentage of failed vs. total requests
+		final long failed = requestsStatsFailed.sum();
+		final long total = failed + requestsStatsProcessed.sum();
+		return total == 0 ? 0 : ((failed * 100F) / total);
 	}
 
 	/**
@@ -186,79 +170,43 @@ public class ThroughputMetric extends BaseMetric {
 	 * @return the high water mark since the last statistics reset
 	 */
 	public long getRequestsStatsHigh() {
-		return requestsStatsHigh;
+		return requestsStatsHigh.get();
 	}
 
 	/**
 	 * Returns the request hit rate per hour since the last statistics reset.
 	 * <p>
-	 * Note, this operation makes an attempt to update the hit rate before it is
-	 * returned.
+	 * Note, the hit rate is calculated when invoking this method.
 	 * </p>
 	 * 
 	 * @return the request hit rate per hour since the last statistics reset
 	 */
 	public long getRequestsStatsHitRatePerHour() {
-		// try to update the hit rate
-		final Lock writeLock = getWriteLock();
-		if (writeLock.tryLock()) {
-			try {
-				updateHitRate();
-			} finally {
-				writeLock.unlock();
-			}
-		}
-
-		// return what we have
-		return requestsStatsHitRatePerHour;
+		return getHitRate(3600000);
 	}
 
 	/**
 	 * Returns the request hit rate per minute since the last statistics reset.
 	 * <p>
-	 * Note, this operation makes an attempt to update the hit rate before it is
-	 * returned.
+	 * Note, the hit rate is calculated when invoking this method.
 	 * </p>
 	 * 
 	 * @return the request hit rate per minute since the last statistics reset
 	 */
 	public long getRequestsStatsHitRatePerMinute() {
-		// try to update the hit rate
-		final Lock writeLock = getWriteLock();
-		if (writeLock.tryLock()) {
-			try {
-				updateHitRate();
-			} finally {
-				writeLock.unlock();
-			}
-		}
-
-		// return what we have
-		return requestsStatsHitRatePerMinute;
+		return getHitRate(60000);
 	}
 
 	/**
 	 * Returns the request hit rate per second since the last statistics reset.
 	 * <p>
-	 * Note, this operation makes an attempt to update the hit rate before it is
-	 * returned.
+	 * Note, the hit rate is calculated when invoking this method.
 	 * </p>
 	 * 
 	 * @return the request hit rate per second since the last statistics reset
 	 */
 	public long getRequestsStatsHitRatePerSecond() {
-		// try to update the hit rate
-		final Lock writeLock = getWriteLock();
-		if (writeLock.tryLock()) {
-			try {
-				updateHitRate();
-			} finally {
-				writeLock.unlock();
-			}
-		}
-
-		// return what we have
-		return requestsStatsHitRatePerSecond;
+		return getHitRate(1000);
 	}
 
 	/**
@@ -269,7 +217,7 @@ public class ThroughputMetric extends BaseMetric {
 	 *         reset
 	 */
 	public long getRequestsStatsProcessed() {
-		return requestsStatsProcessed;
+		return requestsStatsProcessed.sum();
 	}
 
 	/**
@@ -335,13 +283,7 @@ public class ThroughputMetric extends BaseMetric {
 	 *         requests since the last statistics reset
 	 */
 	public double getRequestsStatsProcessingTimeVariance() {
-		final Lock lock = getReadLock();
-		lock.lock();
-		try {
-			return requestsStatsProcessingTime.getVariance();
-		} finally {
-			lock.unlock();
-		}
+		return requestsStatsProcessingTime.getVariance();
 	}
 
 	/**
@@ -352,7 +294,7 @@ public class ThroughputMetric extends BaseMetric {
 	 *         last statistics reset
 	 */
 	public long getRequestsStatsSize() {
-		return requestsStatsSize;
+		return requestsStatsSize.sum();
 	}
 
 	/**
@@ -363,7 +305,8 @@ public class ThroughputMetric extends BaseMetric {
 	 *         last statistics reset
 	 */
 	public long getRequestsStatsSizeAverage() {
-		return requestsStatsSizeAverage;
+		final long processed = requestsStatsProcessed.sum();
+		return processed == 0 ? 0 : requestsStatsSize.sum() / processed;
 	}
 
 	/**
@@ -426,15 +369,8 @@ public class ThroughputMetric extends BaseMetric {
 	 * </p>
 	 */
 	public void requestFailed() {
-		final Lock writeLock = getWriteLock();
-		writeLock.lock();
-		try {
-			requestsActive--;
-			requestsStatsFailed++;
-			updateHitRate();
-		} finally {
-			writeLock.unlock();
-		}
+		requestsActive.decrementAndGet();
+		requestsStatsFailed.increment();
 	}
 
 	/**
@@ -453,19 +389,10 @@ public class ThroughputMetric extends BaseMetric {
 	 *            not tracked)
 	 */
 	public void requestFinished(final long sizeUnits, final long processingTime) {
-		final Lock writeLock = getWriteLock();
-		writeLock.lock();
-		try {
-			requestsActive--;
-			requestsStatsProcessed++;
-			requestsStatsSize += sizeUnits;
-			requestsStatsSizeAverage = requestsStatsSize / requestsStatsProcessed;
-			requestsStatsProcessingTime.increment(processingTime);
-			updateHitRate();
-			updateFailureRate();
-		} finally {
-			writeLock.unlock();
-		}
+		requestsActive.decrementAndGet();
+		requestsStatsProcessed.increment();
+		requestsStatsSize.add(sizeUnits);
+		requestsStatsProcessingTime.increment(processingTime);
 	}
 
 	/**
@@ -482,18 +409,7 @@ public class ThroughputMetric extends BaseMetric {
 	 *         {@link System#currentTimeMillis()})
 	 */
 	public long requestStarted() {
-		final Lock writeLock = getWriteLock();
-		writeLock.lock();
-		try {
-			requestsActive++;
-			if (requestsActive > requestsStatsHigh) {
-				requestsStatsHigh = requestsActive;
-			}
-			updateHitRate();
-			updateFailureRate();
-		} finally {
-			writeLock.unlock();
-		}
+		requestsStatsHigh.accumulate(requestsActive.incrementAndGet());
 
 		switch (timeUnit) {
 			case NANOSECONDS:
@@ -506,21 +422,4 @@ public class ThroughputMetric extends BaseMetric {
 				return getTimeUnit().convert(System.currentTimeMillis(), TimeUnit.MILLISECONDS);
 		}
 	}
-
-	private void updateFailureRate() {
-		// the failure rate is percentage of failed vs. total requests
-		final long total = requestsStatsFailed + requestsStatsProcessed;
-		requestsStatsFailureRate = total == 0 ? 0 : ((requestsStatsFailed / total) * 100);
-	}
-
-	private void updateHitRate() {
-		final long totalRequestProcessed = requestsStatsProcessed + requestsStatsFailed;
-		final long duration = System.currentTimeMillis() - getStatsSinceTS();
-		final long durationSeconds = duration / 1000;
-		final long durationMinutes = duration / 60000;
-		final long durationHours = duration / 3600000;
-		requestsStatsHitRatePerSecond = ((durationSeconds == 0) || (totalRequestProcessed == 0)) ? 0 : (totalRequestProcessed / durationSeconds);
-		requestsStatsHitRatePerMinute = ((durationMinutes == 0) || (totalRequestProcessed == 0)) ? 0 : (totalRequestProcessed / durationMinutes);
-		requestsStatsHitRatePerHour = ((durationHours == 0) || (totalRequestProcessed == 0)) ? 0 : (totalRequestProcessed / durationHours);
-	}
 }
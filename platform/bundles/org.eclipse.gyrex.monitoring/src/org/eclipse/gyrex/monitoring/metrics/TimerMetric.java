@@ -14,7 +14,6 @@ package org.eclipse.gyrex.monitoring.metrics;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
 
 import org.eclipse.gyrex.monitoring.metrics.StopWatch.StopCallback;
 
@@ -190,13 +189,7 @@ public class TimerMetric extends BaseMetric {
 	 *         requests since the last statistics reset
 	 */
 	public double getProcessingTimeVariance() {
-		final Lock lock = getReadLock();
-		lock.lock();
-		try {
-			return duration.getVariance();
-		} finally {
-			lock.unlock();
-		}
+		return duration.getVariance();
 	}
 
 	/**
@@ -244,13 +237,7 @@ public class TimerMetric extends BaseMetric {
 	 *            the time it took to process the request
 	 */
 	public void processFinished(final long processingTime) {
-		final Lock writeLock = getWriteLock();
-		writeLock.lock();
-		try {
-			duration.increment(processingTime);
-		} finally {
-			writeLock.unlock();
-		}
+		duration.increment(processingTime);
 	}
 
 	/**
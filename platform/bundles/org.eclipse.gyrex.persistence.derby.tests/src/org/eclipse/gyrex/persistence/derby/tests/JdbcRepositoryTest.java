@@ -13,11 +13,13 @@ package org.eclipse.gyrex.persistence.derby.tests;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -32,6 +34,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.gyrex.monitoring.metrics.PoolMetric;
 import org.eclipse.gyrex.persistence.jdbc.internal.SimpledPooledJdbcRepositoryImpl;
 import org.eclipse.gyrex.persistence.storage.Repository;
 import org.junit.After;
@@ -215,6 +218,81 @@ public class JdbcRepositoryTest {
 		close(repository);
 	}
 
+	@Test
+	public void testGetConnectionFromRepositoryMaxConnections() throws Exception {
+		final SimpledPooledJdbcRepositoryImpl repository = createRepository();
+		repository.setPoolCapacity(2);
+		repository.setMaxConnections(2);
+		repository.setConnectionTimeout(100, TimeUnit.MILLISECONDS);
+
+		final Connection conn1 = getConnection(repository);
+		final Connection conn2 = getConnection(repository);
+		assertEquals("active connections count is not correct", 2, repository.getActiveConnectionsCount());
+
+		// pool exhausted
+		assertNull("no connection expected", repository.getConnection(50, TimeUnit.MILLISECONDS));
+		try {
+			repository.getConnection();
+			fail("timeout expected");
+		} catch (final SQLTransientConnectionException e) {
+			// expected
+		}
+		assertEquals("active connections count is not correct", 2, repository.getActiveConnectionsCount());
+
+		// released connection must be handed off to a waiting thread
+		final ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			final Future<Connection> waiting = pool.submit(new Callable<Connection>() {
+				@Override
+				public Connection call() throws Exception {
+					return repository.getConnection(10, TimeUnit.SECONDS);
+				}
+			});
+			Thread.sleep(50);
+			closeConnection(conn1);
+			final Connection conn3 = waiting.get(10, TimeUnit.SECONDS);
+			assertNotNull("no connection handed off", conn3);
+			closeConnection(conn3);
+		} finally {
+			pool.shutdownNow();
+		}
+
+		closeConnection(conn2);
+		assertEquals("active connections count is not correct", 0, repository.getActiveConnectionsCount());
+
+		close(repository);
+	}
+
+	@Test
+	public void testGetConnectionFromRepositoryMetrics() throws Exception {
+		final SimpledPooledJdbcRepositoryImpl repository = createRepository();
+		final PoolMetric poolMetric = repository.getJdbcRepositoryMetrics().getPoolMetric();
+
+		final Connection conn1 = getConnection(repository);
+		final Connection conn2 = getConnection(repository);
+		assertEquals("used channels", 2, poolMetric.getChannelsUsed());
+		closeConnection(conn1);
+		closeConnection(conn2);
+		assertEquals("used channels", 0, poolMetric.getChannelsUsed());
+		assertEquals("idle channels", 2, poolMetric.getChannelsIdle());
+
+		// expired idle connections must be dropped when claimed
+		repository.setIdleTimeout(1, TimeUnit.MILLISECONDS);
+		Thread.sleep(20);
+		final Connection conn3 = getConnection(repository);
+		assertEquals("used channels", 1, poolMetric.getChannelsUsed());
+		assertEquals("idle channels", 0, poolMetric.getChannelsIdle());
+		assertEquals("released resources", 2, poolMetric.getResourcesStatsReleased());
+
+		// closing the repository must finish connections in use
+		close(repository);
+		assertEquals("used channels", 0, poolMetric.getChannelsUsed());
+		assertEquals("idle channels", 0, poolMetric.getChannelsIdle());
+		assertEquals("active connections count is not correct", 0, repository.getActiveConnectionsCount());
+		closeConnection(conn3);
+		assertEquals("used channels", 0, poolMetric.getChannelsUsed());
+	}
+
 	private void testGetConnectionFromRepositoryParallel(final int maxConcurrency, final int taskToSchedule, final int poolCapacity) {
 		final SimpledPooledJdbcRepositoryImpl repository = createRepository();
 		repository.setPoolCapacity(poolCapacity);
@@ -0,0 +1,452 @@
+/*******************************************************************************
+ * Copyright (c) 2026 agent and others.
+ * All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html.
+ *
+ * Contributors:
+ *     agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gyrex.persistence.jdbc.internal;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.PooledConnection;
+
+/**
+ * A connection pool with a lock-free fast path.
+ * <p>
+ * Pooled connections are kept in a concurrent bag. Each entry carries an
+ * atomic state which is used to claim an idle connection. A thread first tries
+ * to re-claim the connection it used last, then scans the bag for any idle
+ * connection, then tries to open a new connection. Only if the maximum number
+ * of connections is reached, the thread waits for a connection to be handed
+ * off by a releasing thread.
+ * </p>
+ * <p>
+ * Idle connections exceeding the idle timeout or the maximum lifetime are
+ * evicted periodically by a shared background thread as well as when they are
+ * claimed. Connections idle for longer than the validation interval are
+ * validated before they are handed out.
+ * </p>
+ */
+final class ConcurrentConnectionPool {
+
+	static final class PoolEntry {
+		static final int STATE_REMOVED = -1;
+		static final int STATE_IDLE = 0;
+		/** claimed by a thread but not handed out yet */
+		static final int STATE_RESERVED = 1;
+		/** handed out to the application */
+		static final int STATE_IN_USE = 2;
+
+		final PooledConnection pooledConnection;
+		final long createdNanos;
+		final AtomicInteger state = new AtomicInteger(STATE_RESERVED);
+		volatile long lastAccessNanos;
+		volatile long borrowedNanos;
+
+		PoolEntry(final PooledConnection pooledConnection) {
+			this.pooledConnection = pooledConnection;
+			createdNanos = lastAccessNanos = System.nanoTime();
+		}
+	}
+
+	/** max time a waiting thread sleeps before re-scanning the pool */
+	private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+	/** timeout in seconds for validating a connection */
+	private static final int VALIDATION_TIMEOUT = 5;
+
+	/** interval in milliseconds for evicting idle connections */
+	private static final long EVICTION_INTERVAL = Long.getLong("gyrex.persistence.jdbc.pool.evictionInterval", TimeUnit.SECONDS.toMillis(30));
+
+	/** the thread evicting idle connections of all pools */
+	private static final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread t = new Thread(r, "Gyrex JDBC Connection Pool Evictor");
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
+	private final ConnectionPoolDataSource dataSource;
+	private final SimplePooledJdbcRepositoryMetrics metrics;
+
+	private final CopyOnWriteArrayList<PoolEntry> entries = new CopyOnWriteArrayList<PoolEntry>();
+	private final ConcurrentMap<PooledConnection, PoolEntry> entriesByConnection = new ConcurrentHashMap<PooledConnection, PoolEntry>();
+	private final ThreadLocal<WeakReference<PoolEntry>> lastUsedEntry = new ThreadLocal<WeakReference<PoolEntry>>();
+	private final SynchronousQueue<PoolEntry> handoffQueue = new SynchronousQueue<PoolEntry>(true);
+
+	private final AtomicInteger totalConnections = new AtomicInteger();
+	private final AtomicInteger activeConnections = new AtomicInteger();
+	private final AtomicInteger waiters = new AtomicInteger();
+
+	private volatile int maxIdleConnections;
+	private volatile int maxConnections;
+	private volatile long idleTimeoutNanos;
+	private volatile long maxLifetimeNanos;
+	private volatile long validationIntervalNanos;
+	private volatile boolean closed;
+	/** whether the driver supports {@link Connection#isValid(int)} (<code>null</code> if unknown) */
+	private volatile Boolean validationSupported;
+	private final ScheduledFuture<?> evictionTask;
+
+	private final ConnectionEventListener connectionEventListener = new ConnectionEventListener() {
+		@Override
+		public void connectionClosed(final ConnectionEvent event) {
+			release((PooledConnection) event.getSource(), false);
+		}
+
+		@Override
+		public void connectionErrorOccurred(final ConnectionEvent event) {
+			release((PooledConnection) event.getSource(), true);
+			metrics.setSQLError("unknown", event.getSQLException());
+		}
+	};
+
+	ConcurrentConnectionPool(final ConnectionPoolDataSource dataSource, final SimplePooledJdbcRepositoryMetrics metrics, final int maxIdleConnections) {
+		this.dataSource = dataSource;
+		this.metrics = metrics;
+		this.maxIdleConnections = maxIdleConnections;
+		maxConnections = Integer.getInteger("gyrex.persistence.jdbc.pool.maxConnections", Integer.MAX_VALUE);
+		idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("gyrex.persistence.jdbc.pool.idleTimeout", TimeUnit.MINUTES.toMillis(10)));
+		maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("gyrex.persistence.jdbc.pool.maxLifetime", TimeUnit.MINUTES.toMillis(30)));
+		validationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("gyrex.persistence.jdbc.pool.validationInterval", TimeUnit.SECONDS.toMillis(30)));
+		evictionTask = evictor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				evictIdleConnections();
+			}
+		}, EVICTION_INTERVAL, EVICTION_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Acquires a connection.
+	 *
+	 * @param timeoutNanos
+	 *            the maximum time to wait for a connection if the pool is
+	 *            exhausted
+	 * @return the connection or <code>null</code> if none became available
+	 *         within the timeout
+	 * @throws SQLException
+	 *             if opening a connection failed or the pool has been closed
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	Connection acquire(final long timeoutNanos) throws SQLException, InterruptedException {
+		final long start = System.nanoTime();
+		while (true) {
+			final PoolEntry entry = borrow(start, timeoutNanos);
+			if (entry == null) {
+				metrics.getPoolMetric().channelDenied();
+				return null;
+			}
+
+			final boolean validate = (System.nanoTime() - entry.lastAccessNanos) > validationIntervalNanos;
+			final Connection connection;
+			try {
+				connection = entry.pooledConnection.getConnection();
+			} catch (final SQLException | RuntimeException e) {
+				remove(entry, true);
+				throw e;
+			}
+
+			if (validate && !isValid(connection)) {
+				// discard and try another one
+				remove(entry, true);
+				continue;
+			}
+
+			// hand out (fails only if the pool has been closed concurrently)
+			if (!entry.state.compareAndSet(PoolEntry.STATE_RESERVED, PoolEntry.STATE_IN_USE))
+				throw new SQLException("pool closed");
+			activeConnections.incrementAndGet();
+			final long waitTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			metrics.getPoolMetric().channelStarted(waitTime);
+			metrics.getAcquireWaitTimeMetric().record(waitTime);
+			entry.lastAccessNanos = entry.borrowedNanos = System.nanoTime();
+			return connection;
+		}
+	}
+
+	private PoolEntry borrow(final long start, final long timeoutNanos) throws SQLException, InterruptedException {
+		checkOpen();
+
+		// fast path: connection last used by this thread
+		final WeakReference<PoolEntry> lastUsed = lastUsedEntry.get();
+		if (lastUsed != null) {
+			final PoolEntry entry = lastUsed.get();
+			if ((entry != null) && claim(entry))
+				return entry;
+		}
+
+		// scan for any idle connection
+		PoolEntry entry = claimAnyIdle();
+		if (entry != null)
+			return entry;
+
+		// open a new one if allowed
+		entry = createIfPossible();
+		if (entry != null)
+			return entry;
+
+		// wait for a connection to be handed off
+		waiters.incrementAndGet();
+		try {
+			while (true) {
+				checkOpen();
+
+				// re-scan (connections may have been released or removed concurrently)
+				entry = claimAnyIdle();
+				if (entry == null) {
+					entry = createIfPossible();
+				}
+				if (entry != null)
+					return entry;
+
+				final long remaining = timeoutNanos - (System.nanoTime() - start);
+				if (remaining <= 0)
+					return null;
+
+				entry = handoffQueue.poll(Math.min(remaining, WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS);
+				if ((entry != null) && claim(entry))
+					return entry;
+			}
+		} finally {
+			waiters.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Claims an idle entry for use.
+	 *
+	 * @return <code>true</code> if claimed, <code>false</code> if the entry is
+	 *         not idle or had to be evicted
+	 */
+	private boolean claim(final PoolEntry entry) {
+		if (!entry.state.compareAndSet(PoolEntry.STATE_IDLE, PoolEntry.STATE_RESERVED))
+			return false;
+
+		metrics.getPoolMetric().channelBusy();
+		if (isExpired(entry, System.nanoTime())) {
+			remove(entry, false);
+			return false;
+		}
+		return true;
+	}
+
+	private void checkOpen() throws SQLException {
+		if (closed)
+			throw new SQLException("pool closed");
+	}
+
+	private PoolEntry claimAnyIdle() {
+		for (final PoolEntry entry : entries) {
+			if (claim(entry))
+				return entry;
+		}
+		return null;
+	}
+
+	/**
+	 * Closes the pool and all connections (including connections in use).
+	 */
+	void close() {
+		closed = true;
+		evictionTask.cancel(false);
+		for (final PoolEntry entry : entries) {
+			remove(entry, false);
+		}
+	}
+
+	private PoolEntry createIfPossible() throws SQLException {
+		checkOpen();
+
+		// reserve a slot
+		while (true) {
+			final int total = totalConnections.get();
+			if (total >= maxConnections)
+				return null;
+			if (totalConnections.compareAndSet(total, total + 1)) {
+				break;
+			}
+		}
+
+		final PooledConnection pooledConnection;
+		try {
+			pooledConnection = dataSource.getPooledConnection();
+		} catch (final SQLException | RuntimeException e) {
+			totalConnections.decrementAndGet();
+			throw e;
+		}
+
+		final PoolEntry entry = new PoolEntry(pooledConnection);
+		entriesByConnection.put(pooledConnection, entry);
+		entries.add(entry);
+		pooledConnection.addConnectionEventListener(connectionEventListener);
+		metrics.getPoolMetric().resourceCreated();
+
+		// check again (the pool may have been closed concurrently)
+		if (closed) {
+			remove(entry, false);
+			throw new SQLException("pool closed");
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes idle connections exceeding the idle timeout or the maximum
+	 * lifetime.
+	 */
+	void evictIdleConnections() {
+		for (final PoolEntry entry : entries) {
+			if (!isExpired(entry, System.nanoTime()) || !entry.state.compareAndSet(PoolEntry.STATE_IDLE, PoolEntry.STATE_RESERVED)) {
+				continue;
+			}
+			metrics.getPoolMetric().channelBusy();
+
+			// check again (the connection may have been used in between)
+			if (isExpired(entry, System.nanoTime())) {
+				remove(entry, false);
+			} else {
+				entry.state.set(PoolEntry.STATE_IDLE);
+				metrics.getPoolMetric().channelIdle();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of connections currently in use.
+	 */
+	int getActiveConnectionsCount() {
+		return activeConnections.get();
+	}
+
+	private boolean isExpired(final PoolEntry entry, final long now) {
+		return ((now - entry.createdNanos) > maxLifetimeNanos) || ((now - entry.lastAccessNanos) > idleTimeoutNanos);
+	}
+
+	private boolean isValid(final Connection connection) {
+		if (!isValidationSupported(connection))
+			return true;
+		try {
+			return connection.isValid(VALIDATION_TIMEOUT);
+		} catch (final SQLFeatureNotSupportedException e) {
+			validationSupported = Boolean.FALSE;
+			return true;
+		} catch (final SQLException e) {
+			return false;
+		}
+	}
+
+	private boolean isValidationSupported(final Connection connection) {
+		Boolean supported = validationSupported;
+		if (supported == null) {
+			// drivers written against JDBC 3 don't implement the method
+			try {
+				supported = !Modifier.isAbstract(connection.getClass().getMethod("isValid", int.class).getModifiers());
+			} catch (final NoSuchMethodException e) {
+				supported = Boolean.FALSE;
+			}
+			validationSupported = supported;
+		}
+		return supported;
+	}
+
+	/**
+	 * Called when a connection handle has been closed by the application.
+	 */
+	void release(final PooledConnection pooledConnection, final boolean broken) {
+		final PoolEntry entry = entriesByConnection.get(pooledConnection);
+		if ((entry == null) || !entry.state.compareAndSet(PoolEntry.STATE_IN_USE, PoolEntry.STATE_RESERVED))
+			return;
+
+		activeConnections.decrementAndGet();
+		metrics.getPoolMetric().channelFinished();
+
+		final long now = System.nanoTime();
+		metrics.getConnectionHoldTimeMetric().record(TimeUnit.NANOSECONDS.toMillis(now - entry.borrowedNanos));
+		if (broken || closed || ((now - entry.createdNanos) > maxLifetimeNanos) || (totalConnections.get() > maxIdleConnections)) {
+			remove(entry, broken);
+			return;
+		}
+
+		// return to the bag
+		entry.lastAccessNanos = now;
+		entry.state.set(PoolEntry.STATE_IDLE);
+		metrics.getPoolMetric().channelIdle();
+		lastUsedEntry.set(new WeakReference<PoolEntry>(entry));
+
+		// hand off to a waiting thread
+		if (waiters.get() > 0) {
+			handoffQueue.offer(entry);
+		}
+	}
+
+	private void remove(final PoolEntry entry, final boolean broken) {
+		// note, a reserved entry is already accounted as neither idle nor in use
+		final int previousState = entry.state.getAndSet(PoolEntry.STATE_REMOVED);
+		if (previousState == PoolEntry.STATE_REMOVED)
+			return;
+		if (previousState == PoolEntry.STATE_IDLE) {
+			metrics.getPoolMetric().channelBusy();
+		} else if (previousState == PoolEntry.STATE_IN_USE) {
+			activeConnections.decrementAndGet();
+			metrics.getPoolMetric().channelFinished();
+		}
+
+		entries.remove(entry);
+		entriesByConnection.remove(entry.pooledConnection);
+		totalConnections.decrementAndGet();
+		entry.pooledConnection.removeConnectionEventListener(connectionEventListener);
+		if (broken) {
+			metrics.getPoolMetric().resourceDestroyed();
+		} else {
+			metrics.getPoolMetric().resourceReleased();
+		}
+
+		// close the underlying connection
+		try {
+			entry.pooledConnection.close();
+		} catch (final SQLException e) {
+			// we should eventually log this but it may just flood the logs
+		}
+	}
+
+	void setIdleTimeout(final long idleTimeout, final TimeUnit unit) {
+		idleTimeoutNanos = unit.toNanos(idleTimeout);
+	}
+
+	void setMaxConnections(final int maxConnections) {
+		this.maxConnections = maxConnections > 0 ? maxConnections : Integer.MAX_VALUE;
+	}
+
+	void setMaxIdleConnections(final int maxIdleConnections) {
+		this.maxIdleConnections = maxIdleConnections;
+	}
+
+	void setMaxLifetime(final long maxLifetime, final TimeUnit unit) {
+		maxLifetimeNanos = unit.toNanos(maxLifetime);
+	}
+}
@@ -18,6 +18,7 @@ import java.text.MessageFormat;
 
 import org.eclipse.gyrex.monitoring.metrics.BaseMetric;
 import org.eclipse.gyrex.monitoring.metrics.ErrorMetric;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
 import org.eclipse.gyrex.monitoring.metrics.MetricSet;
 import org.eclipse.gyrex.monitoring.metrics.PoolMetric;
 import org.eclipse.gyrex.monitoring.metrics.StatusMetric;
@@ -52,11 +53,37 @@ public class SimplePooledJdbcRepositoryMetrics extends MetricSet {
 
 	private final ErrorMetric errorMetric;
 
+	private final HistogramMetric acquireWaitTimeMetric;
+
+	private final HistogramMetric connectionHoldTimeMetric;
+
 	protected SimplePooledJdbcRepositoryMetrics(final String id, final String repositoryId, final String initialStatus, final String initialStatusReason, final long initialChannelsCapacity, final long initialChannelsMinimum) {
-		super(id, String.format("Metrics for repository %s", repositoryId), new BaseMetric[] { new StatusMetric(id + ".status", initialStatus, initialStatusReason), new PoolMetric(id + ".pool", initialChannelsCapacity, initialChannelsMinimum), new ErrorMetric(id + ".errors", 5) });
+		super(id, String.format("Metrics for repository %s", repositoryId), new BaseMetric[] { new StatusMetric(id + ".status", initialStatus, initialStatusReason), new PoolMetric(id + ".pool", initialChannelsCapacity, initialChannelsMinimum), new ErrorMetric(id + ".errors", 5), new HistogramMetric(id + ".pool.acquireWaitTime"), new HistogramMetric(id + ".pool.holdTime") });
 		poolStatusMetric = getMetric(0, StatusMetric.class);
 		poolMetric = getMetric(1, PoolMetric.class);
 		errorMetric = getMetric(2, ErrorMetric.class);
+		acquireWaitTimeMetric = getMetric(3, HistogramMetric.class);
+		connectionHoldTimeMetric = getMetric(4, HistogramMetric.class);
+	}
+
+	/**
+	 * Returns the metric for the time spent waiting for a connection from the
+	 * pool.
+	 * 
+	 * @return the connection acquire wait time metric
+	 */
+	public HistogramMetric getAcquireWaitTimeMetric() {
+		return acquireWaitTimeMetric;
+	}
+
+	/**
+	 * Returns the metric for the time a connection is in use by the
+	 * application before it's returned to the pool.
+	 * 
+	 * @return the connection hold time metric
+	 */
+	public HistogramMetric getConnectionHoldTimeMetric() {
+		return connectionHoldTimeMetric;
 	}
 
 	/**
@@ -13,15 +13,9 @@ package org.eclipse.gyrex.persistence.jdbc.internal;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.Queue;
-import java.util.Set;
+import java.sql.SQLTransientConnectionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 
-import javax.sql.ConnectionEvent;
-import javax.sql.ConnectionEventListener;
 import javax.sql.ConnectionPoolDataSource;
 import javax.sql.PooledConnection;
 
@@ -36,29 +30,11 @@ import org.eclipse.gyrex.persistence.storage.provider.RepositoryProvider;
  */
 public class SimpledPooledJdbcRepositoryImpl extends JdbcRepository {
 
-	private final ConnectionPoolDataSource connectionPoolDataSource;
+	private static final long DEFAULT_CONNECTION_TIMEOUT = Long.getLong("gyrex.persistence.jdbc.pool.connectionTimeout", TimeUnit.SECONDS.toMillis(30));
 
-	private final ReentrantLock poolLock = new ReentrantLock();
+	private final ConcurrentConnectionPool pool;
 
-	private volatile int maxPoolCapacity;
-	private volatile int activeConnectionsCount;
-
-	private final Set<PooledConnection> pooledConnections = new HashSet<PooledConnection>();
-	private final Set<PooledConnection> activeConnections = new HashSet<PooledConnection>();
-	private final Queue<PooledConnection> availableConnections = new ArrayDeque<PooledConnection>();
-
-	private final ConnectionEventListener connectionEventListener = new ConnectionEventListener() {
-		@Override
-		public void connectionClosed(final ConnectionEvent event) {
-			pooledConnectionClosed((PooledConnection) event.getSource(), false);
-		}
-
-		@Override
-		public void connectionErrorOccurred(final ConnectionEvent event) {
-			pooledConnectionClosed((PooledConnection) event.getSource(), true);
-			getJdbcRepositoryMetrics().setSQLError("unknown", event.getSQLException());
-		}
-	};
+	private volatile long connectionTimeoutMillis = DEFAULT_CONNECTION_TIMEOUT;
 
 	/**
 	 * Creates a new instance.
@@ -73,8 +49,7 @@ public class SimpledPooledJdbcRepositoryImpl extends JdbcRepository {
 	 */
 	public SimpledPooledJdbcRepositoryImpl(final String repositoryId, final RepositoryProvider repositoryType, final ConnectionPoolDataSource connectionPoolDataSource, final int poolCapacity) {
 		super(repositoryId, repositoryType, new SimplePooledJdbcRepositoryMetrics(createMetricsId(repositoryType, repositoryId), repositoryId, "open", "repository instance created", poolCapacity, 0));
-		this.connectionPoolDataSource = connectionPoolDataSource;
-		maxPoolCapacity = poolCapacity;
+		pool = new ConcurrentConnectionPool(connectionPoolDataSource, getJdbcRepositoryMetrics(), poolCapacity);
 	}
 
 	private void checkClosed() {
@@ -83,76 +58,13 @@ public class SimpledPooledJdbcRepositoryImpl extends JdbcRepository {
 		}
 	}
 
-	/**
-	 * Closes the pooled connection.
-	 * <p>
-	 * Note, must be called when holding {@link #poolLock}.
-	 * </p>
-	 * 
-	 * @param pooledConnection
-	 */
-	private void close(final PooledConnection pooledConnection) {
-		// no longer track events
-		pooledConnection.removeConnectionEventListener(connectionEventListener);
-
-		// remove from the pool
-		pooledConnections.remove(pooledConnection);
-
-		// close the underlying connection
-		try {
-			pooledConnection.close();
-		} catch (final SQLException e) {
-			// we should eventually log this but it may just flood the logs
-		}
-	}
-
-	/**
-	 * Creates a new connection from the underlying data source and adds it to
-	 * the pool.
-	 * <p>
-	 * Note, must be called when holding {@link #poolLock}.
-	 * </p>
-	 * 
-	 * @return the created connection.
-	 * @throws SQLException
-	 *             if an error occured in the underlying pool data source while
-	 *             creating the connection.
-	 */
-	private PooledConnection create() throws SQLException {
-		// create connection
-		final PooledConnection pooledConnection = connectionPoolDataSource.getPooledConnection();
-
-		// add to the pool
-		pooledConnections.add(pooledConnection);
-
-		// track the connection
-		pooledConnection.addConnectionEventListener(connectionEventListener);
-
-		return pooledConnection;
-	}
-
 	/* (non-Javadoc)
 	 * @see org.eclipse.gyrex.persistence.storage.Repository#doClose()
 	 */
 	@Override
 	protected void doClose() {
 		// close all connections
-		final ReentrantLock lock = poolLock;
-		lock.lock();
-		try {
-			// close all connections
-			final PooledConnection[] connections = pooledConnections.toArray(new PooledConnection[0]);
-			for (final PooledConnection pooledConnection : connections) {
-				// passivate
-				markInactive(pooledConnection);
-
-				// close and remove from pool
-				close(pooledConnection);
-			}
-		} finally {
-			// release lock
-			lock.unlock();
-		}
+		pool.close();
 
 		// update metrics
 		getJdbcRepositoryMetrics().getPoolStatusMetric().setStatus("closed", "repository closed through API call");
@@ -164,7 +76,7 @@ public class SimpledPooledJdbcRepositoryImpl extends JdbcRepository {
 	 * @return the activeConnectionsCount
 	 */
 	public int getActiveConnectionsCount() {
-		return activeConnectionsCount;
+		return pool.getActiveConnectionsCount();
 	}
 
 	/* (non-Javadoc)
@@ -173,25 +85,17 @@ public class SimpledPooledJdbcRepositoryImpl extends JdbcRepository {
 	@Override
 	public Connection getConnection() throws SQLException {
 		checkClosed();
-		final long start = System.currentTimeMillis();
-		final ReentrantLock lock = poolLock;
-		lock.lock();
+		final Connection connection;
 		try {
-			// get connection from pool
-			final Connection connection = getPooledConnection();
-
-			// update metrics
-			if (null != connection) {
-				getJdbcRepositoryMetrics().getPoolMetric().channelStarted(System.currentTimeMillis() - start);
-			} else {
-				getJdbcRepositoryMetrics().getPoolMetric().channelDenied();
-			}
-
-			// return connections
-			return connection;
-		} finally {
-			lock.unlock();
+			connection = pool.acquire(TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMillis));
+		} catch (final InterruptedException e) {
+			// Restore the interrupted status
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("interrupted while waiting for a connection of repository '" + getRepositoryId() + "'", e);
 		}
+		if (null == connection)
+			throw new SQLTransientConnectionException("timeout waiting for a connection of repository '" + getRepositoryId() + "' (" + connectionTimeoutMillis + "ms)");
+		return connection;
 	}
 
 	/* (non-Javadoc)
@@ -200,61 +104,18 @@ public class SimpledPooledJdbcRepositoryImpl extends JdbcRepository {
 	@Override
 	public Connection getConnection(final long timeout, final TimeUnit timeUnit) throws SQLException {
 		checkClosed();
-		final long start = System.currentTimeMillis();
-		final ReentrantLock lock = poolLock;
 		try {
-			if (!lock.tryLock(timeout, timeUnit)) {
-
-				// could not get lock -> abort
-
-				// update metrics
-				getJdbcRepositoryMetrics().getPoolMetric().channelDenied();
-
-				// no connection
-				return null;
-			}
+			return pool.acquire(timeUnit.toNanos(timeout));
 		} catch (final InterruptedException e) {
 			// Restore the interrupted status
 			Thread.currentThread().interrupt();
 
-			// we have been interrupted while waiting on the lock,
-			// we don't have the lock -> abort
-
 			// update metrics
 			getJdbcRepositoryMetrics().getPoolMetric().channelDenied();
 
 			// no connection
 			return null;
 		}
-		try {
-			// get connection from pool
-			final Connection connection = getPooledConnection();
-
-			// update metrics
-			if (null != connection) {
-				getJdbcRepositoryMetrics().getPoolMetric().channelStarted(System.currentTimeMillis() - start);
-			} else {
-				getJdbcRepositoryMetrics().getPoolMetric().channelDenied();
-			}
-
-			// return connections
-			return connection;
-		} finally {
-			lock.unlock();
-		}
-	}
-
-	/**
-	 * Creates and returns a Connection object that is a handle for the physical
-	 * connection that the specified PooledConnection object represents.
-	 * 
-	 * @param pooledConnection
-	 * @return the connection handle
-	 * @throws SQLException
-	 *             if a database access error occurs
-	 */
-	private Connection getConnection(final PooledConnection pooledConnection) throws SQLException {
-		return pooledConnection.getConnection();
 	}
 
 	/**
@@ -267,115 +128,74 @@ public class SimpledPooledJdbcRepositoryImpl extends JdbcRepository {
 	}
 
 	/**
-	 * Returns a pooled connection.
-	 * <p>
-	 * The pool will dynamically grow if no connection is available in the pool.
-	 * </p>
-	 * <p>
-	 * Note, must be called when holding {@link #poolLock}.
-	 * </p>
+	 * Sets the maximum time {@link #getConnection()} waits for a connection if
+	 * the maximum number of connections is in use.
 	 * 
-	 * @return a database connection
-	 * @throws SQLException
+	 * @param timeout
+	 *            the timeout
+	 * @param unit
+	 *            the timeout unit
 	 */
-	private Connection getPooledConnection() throws SQLException {
-		PooledConnection pooledConnection = null;
-
-		// re-use existing if possible
-		if (activeConnectionsCount < maxPoolCapacity) {
-			pooledConnection = availableConnections.poll();
-			getJdbcRepositoryMetrics().getPoolMetric().channelBusy();
-		}
-
-		// create new if necessary
-		if (null == pooledConnection) {
-			pooledConnection = create();
-		}
-
-		// mark activate
-		markActive(pooledConnection);
-
-		// get real connection
-		final Connection connection = getConnection(pooledConnection);
-
-		// return the connection
-		return connection;
+	public void setConnectionTimeout(final long timeout, final TimeUnit unit) {
+		connectionTimeoutMillis = unit.toMillis(timeout);
 	}
 
 	/**
-	 * Adds a connection to the list of active connections.
-	 * <p>
-	 * Note, must be called when holding {@link #poolLock}.
-	 * </p>
+	 * Sets the time after which an idle connection is evicted from the pool.
 	 * 
-	 * @param pooledConnection
+	 * @param idleTimeout
+	 *            the idle timeout
+	 * @param unit
+	 *            the timeout unit
 	 */
-	private void markActive(final PooledConnection pooledConnection) {
-		try {
-			activeConnections.add(pooledConnection);
-		} finally {
-			activeConnectionsCount = activeConnections.size();
-		}
+	public void setIdleTimeout(final long idleTimeout, final TimeUnit unit) {
+		pool.setIdleTimeout(idleTimeout, unit);
 	}
 
 	/**
-	 * Removes a connection from the list of active connections.
+	 * Sets the hard limit of connections open at the same time.
 	 * <p>
-	 * Note, must be called when holding {@link #poolLock}.
+	 * When the limit is reached, requests for a connection wait until a
+	 * connection is released to the pool. By default there is no hard limit.
 	 * </p>
 	 * 
-	 * @param pooledConnection
+	 * @param maxConnections
+	 *            the maximum number of connections (zero or less for no
+	 *            limit)
 	 */
-	private void markInactive(final PooledConnection pooledConnection) {
-		try {
-			activeConnections.remove(pooledConnection);
-		} finally {
-			activeConnectionsCount = activeConnections.size();
-		}
+	public void setMaxConnections(final int maxConnections) {
+		pool.setMaxConnections(maxConnections);
 	}
 
 	/**
-	 * Notifies the pool that a connection was "closed" by the application and
-	 * releases it back to the pool if desired.
+	 * Sets the maximum lifetime of a connection.
+	 * <p>
+	 * Connections older than this are closed instead of being handed out or
+	 * returned to the pool.
+	 * </p>
 	 * 
-	 * @param pooledConnection
-	 * @param forceRemoveFromPool
+	 * @param maxLifetime
+	 *            the maximum lifetime
+	 * @param unit
+	 *            the lifetime unit
 	 */
-	void pooledConnectionClosed(final PooledConnection pooledConnection, final boolean forceRemoveFromPool) {
-		final ReentrantLock lock = poolLock;
-		lock.lock();
-		try {
-			// remove from list of active connections
-			markInactive(pooledConnection);
-
-			if (forceRemoveFromPool || (activeConnectionsCount >= maxPoolCapacity)) {
-				// remove it from the pool
-				close(pooledConnection);
-			} else {
-				// keep for re-use
-				availableConnections.add(pooledConnection);
-				getJdbcRepositoryMetrics().getPoolMetric().channelIdle();
-			}
-		} finally {
-			lock.unlock();
-		}
-
-		// update metric
-		getJdbcRepositoryMetrics().getPoolMetric().channelFinished();
+	public void setMaxLifetime(final long maxLifetime, final TimeUnit unit) {
+		pool.setMaxLifetime(maxLifetime, unit);
 	}
 
 	/**
 	 * Sets the maximum pool size.
 	 * <p>
-	 * Note there is currently no hard limit. Whenever the pool limit is reach a
-	 * new connection is created. However, only the number of connections set
-	 * here will be kept open in the pool.
+	 * This is a soft limit. Whenever the pool limit is reached a new
+	 * connection is created (unless limited by
+	 * {@link #setMaxConnections(int)}). However, only the number of
+	 * connections set here will be kept open in the pool.
 	 * </p>
 	 * 
 	 * @param maximumPoolSize
 	 */
 	public void setPoolCapacity(final int maximumPoolSize) {
-		maxPoolCapacity = maximumPoolSize;
+		pool.setMaxIdleConnections(maximumPoolSize);
 		getJdbcRepositoryMetrics().getPoolMetric().setChannelsCapacity(maximumPoolSize);
 	}
 
@@ -17,10 +17,13 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.gyrex.search.ISearchManager;
 import org.eclipse.gyrex.search.documents.IDocument;
+import org.eclipse.gyrex.search.solr.BaseSolrSearchManager;
 
 import org.junit.Test;
 
@@ -46,10 +49,52 @@ public class DocumentManagerTest extends BaseSolrTest {
 		assertEquals("test", doc.getId());
 
 		manager.publishDocuments(Collections.singleton(doc));
-		waitForPendingSolrPublishOps();
+		// commit waits for pending publish jobs
+		((BaseSolrSearchManager) manager).commit(true, true);
 
 		final IDocument doc2 = manager.findDocumentById("test");
 		assertNotNull(doc2);
 		assertEquals("test", doc2.getId());
 	}
+
+	@Test
+	public void test002_PublishThenRemove() throws Exception {
+		final ISearchManager manager = getContext().get(ISearchManager.class);
+		assertNotNull(manager);
+
+		final IDocument doc = manager.createDocument();
+		doc.setId("test-remove");
+		manager.publishDocuments(Collections.singleton(doc));
+
+		// remove must not be overtaken by the pending publish
+		manager.removeDocuments(Collections.singleton("test-remove"));
+		((BaseSolrSearchManager) manager).commit(true, true);
+
+		assertNull(manager.findDocumentById("test-remove"));
+	}
+
+	@Test
+	public void test003_RepublishKeepsLatest() throws Exception {
+		final ISearchManager manager = getContext().get(ISearchManager.class);
+		assertNotNull(manager);
+
+		// publish many versions of the same document in separate batches
+		for (int i = 0; i < 10; i++) {
+			final List<IDocument> docs = new ArrayList<IDocument>();
+			for (int j = 0; j < 50; j++) {
+				final IDocument doc = manager.createDocument();
+				doc.setId("test-version-" + j);
+				doc.setTitle("version " + i);
+				docs.add(doc);
+			}
+			manager.publishDocuments(docs);
+		}
+		((BaseSolrSearchManager) manager).commit(true, true);
+
+		for (int j = 0; j < 50; j++) {
+			final IDocument doc = manager.findDocumentById("test-version-" + j);
+			assertNotNull(doc);
+			assertEquals("version 9", doc.getTitle());
+		}
+	}
 }
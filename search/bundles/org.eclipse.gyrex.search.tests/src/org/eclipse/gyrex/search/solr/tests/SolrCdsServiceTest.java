@@ -26,6 +26,7 @@ import org.eclipse.gyrex.search.facets.IFacet;
 import org.eclipse.gyrex.search.query.IQuery;
 import org.eclipse.gyrex.search.result.IResult;
 import org.eclipse.gyrex.search.result.IResultFacet;
+import org.eclipse.gyrex.search.solr.BaseSolrSearchManager;
 import org.junit.Test;
 
 /**
@@ -50,7 +51,8 @@ public class SolrCdsServiceTest extends BaseSolrTest {
 		doc1.getOrCreate("color").ofType(String.class).add("blue");
 		doc2.getOrCreate("color").ofType(String.class).add("red");
 		docManager.publishDocuments(Arrays.asList(doc1, doc2));
-		waitForPendingSolrPublishOps();
+		// commit waits for pending publish jobs
+		((BaseSolrSearchManager) docManager).commit(true, true);
 
 		// query for all
 		final IQuery query = docManager.createQuery();
@@ -14,6 +14,7 @@ package org.eclipse.gyrex.search.internal.solr;
 
 import org.eclipse.gyrex.context.IRuntimeContext;
 import org.eclipse.gyrex.model.common.provider.BaseModelManagerMetrics;
+import org.eclipse.gyrex.monitoring.metrics.HistogramMetric;
 import org.eclipse.gyrex.monitoring.metrics.StatusMetric;
 import org.eclipse.gyrex.monitoring.metrics.ThroughputMetric;
 import org.eclipse.gyrex.persistence.solr.SolrServerRepository;
@@ -26,17 +27,23 @@ public class SolrSearchManagerMetrics extends BaseModelManagerMetrics {
 	private final ThroughputMetric writeFacetMetric;
 	private final ThroughputMetric readFacetMetric;
 	private final ThroughputMetric queryMetric;
+	private final HistogramMetric queryLatencyMetric;
+	private final HistogramMetric publishBatchSizeMetric;
+	private final HistogramMetric publishLatencyMetric;
 
 	private final StatusMetric statusMetric;
 
 	public SolrSearchManagerMetrics(final String id, final IRuntimeContext context, final SolrServerRepository repository) {
-		super(id, BaseSolrSearchManager.class, context, repository, new ThroughputMetric(id + ".search.docs.published"), new ThroughputMetric(id + ".search.docs.retrieved.byId"), new StatusMetric(id.concat(".search.status"), "ok", "created"), new ThroughputMetric(id + ".search.facets.write"), new ThroughputMetric(id + ".search.facets.read"), new ThroughputMetric(id + ".search.query"));
+		super(id, BaseSolrSearchManager.class, context, repository, new ThroughputMetric(id + ".search.docs.published"), new ThroughputMetric(id + ".search.docs.retrieved.byId"), new StatusMetric(id.concat(".search.status"), "ok", "created"), new ThroughputMetric(id + ".search.facets.write"), new ThroughputMetric(id + ".search.facets.read"), new ThroughputMetric(id + ".search.query"), new HistogramMetric(id + ".search.query.latency"), new HistogramMetric(id + ".search.docs.published.batchSize"), new HistogramMetric(id + ".search.docs.published.latency"));
 		docsPublishedMetric = getMetric(0, ThroughputMetric.class);
 		docsRetrievedByIdMetric = getMetric(1, ThroughputMetric.class);
 		statusMetric = getMetric(2, StatusMetric.class);
 		writeFacetMetric = getMetric(3, ThroughputMetric.class);
 		readFacetMetric = getMetric(4, ThroughputMetric.class);
 		queryMetric = getMetric(5, ThroughputMetric.class);
+		queryLatencyMetric = getMetric(6, HistogramMetric.class);
+		publishBatchSizeMetric = getMetric(7, HistogramMetric.class);
+		publishLatencyMetric = getMetric(8, HistogramMetric.class);
 	}
 
 	/**
@@ -57,6 +64,33 @@ public class SolrSearchManagerMetrics extends BaseModelManagerMetrics {
 		return docsRetrievedByIdMetric;
 	}
 
+	/**
+	 * Returns the publishBatchSizeMetric.
+	 * 
+	 * @return the publishBatchSizeMetric
+	 */
+	public HistogramMetric getPublishBatchSizeMetric() {
+		return publishBatchSizeMetric;
+	}
+
+	/**
+	 * Returns the publishLatencyMetric.
+	 * 
+	 * @return the publishLatencyMetric
+	 */
+	public HistogramMetric getPublishLatencyMetric() {
+		return publishLatencyMetric;
+	}
+
+	/**
+	 * Returns the queryLatencyMetric.
+	 * 
+	 * @return the queryLatencyMetric
+	 */
+	public HistogramMetric getQueryLatencyMetric() {
+		return queryLatencyMetric;
+	}
+
 	/**
 	 * Returns the queryMetric.
 	 * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2011 Gunnar Wagenknecht and others.
+ * Copyright (c) 2008, 2013 Gunnar Wagenknecht and others.
  * All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -27,27 +27,65 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
+import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.solr.client.solrj.SolrServer;
+import org.apache.solr.client.solrj.request.UpdateRequest;
 import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- *
+ * Publishes a batch of documents to Solr.
+ * <p>
+ * The conversion into Solr documents happens in the job. Thus, multiple
+ * batches are converted and submitted concurrently. Instead of issuing a hard
+ * commit, the update request asks Solr to commit within a configured time
+ * frame which allows Solr to coalesce commits of concurrent batches.
+ * </p>
  */
 public class PublishJob extends Job {
 
 	public static final Object FAMILY = new Object();
 
-	private final Iterable<IDocument> documents;
+	private static final Logger LOG = LoggerFactory.getLogger(PublishJob.class);
+
+	private static SolrInputDocument createSolrDoc(final IDocument document) {
+		final SolrInputDocument solrDoc = new SolrInputDocument();
+		final Collection<IDocumentAttribute<?>> attributes = document.getAttributes().values();
+		for (final IDocumentAttribute<?> attr : attributes) {
+			final Collection<?> values = attr.getValues();
+			for (final Object value : values) {
+				solrDoc.addField(attr.getId(), value);
+			}
+		}
+		return solrDoc;
+	}
+
+	private final List<IDocument> documents;
 	private final SolrServer solrServer;
 	private final SolrSearchManagerMetrics solrListingsManagerMetrics;
-	private final boolean commit;
+	private final int commitWithinMillis;
 
-	public PublishJob(final Iterable<IDocument> documents, final SolrServer solrServer, final SolrSearchManagerMetrics solrListingsManagerMetrics, final boolean commit) {
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param documents
+	 *            the documents to publish (must have an id)
+	 * @param solrServer
+	 *            the Solr server
+	 * @param solrListingsManagerMetrics
+	 *            the metrics to update
+	 * @param commitWithinMillis
+	 *            the maximum time in milliseconds till Solr should commit the
+	 *            published documents (a value less than or equal to zero
+	 *            disables commits)
+	 */
+	public PublishJob(final List<IDocument> documents, final SolrServer solrServer, final SolrSearchManagerMetrics solrListingsManagerMetrics, final int commitWithinMillis) {
 		super("Solr Document Publish");
 		this.documents = documents;
 		this.solrServer = solrServer;
 		this.solrListingsManagerMetrics = solrListingsManagerMetrics;
-		this.commit = commit;
+		this.commitWithinMillis = commitWithinMillis;
 		setSystem(true);
 		setPriority(LONG);
 	}
@@ -57,18 +95,6 @@ public class PublishJob extends Job {
 		return FAMILY == family;
 	}
 
-	private SolrInputDocument createSolrDoc(final IDocument document) {
-		final SolrInputDocument solrDoc = new SolrInputDocument();
-		final Collection<IDocumentAttribute<?>> attributes = document.getAttributes().values();
-		for (final IDocumentAttribute attr : attributes) {
-			final Collection<?> values = attr.getValues();
-			for (final Object value : values) {
-				solrDoc.addField(attr.getId(), value);
-			}
-		}
-		return solrDoc;
-	}
-
 	@Override
 	protected IStatus run(final IProgressMonitor monitor) {
 		// check if we are active
@@ -77,30 +103,32 @@ public class PublishJob extends Job {
 		} catch (final IllegalStateException e) {
 			return Status.CANCEL_STATUS;
 		}
+
 		// collect stats
 		final ThroughputMetric publishedMetric = solrListingsManagerMetrics.getDocsPublishedMetric();
 		final long requestStarted = publishedMetric.requestStarted();
 
 		// create solr docs
-		final List<SolrInputDocument> docs = new ArrayList<SolrInputDocument>();
+		final List<SolrInputDocument> docs = new ArrayList<SolrInputDocument>(documents.size());
 		for (final IDocument document : documents) {
 			docs.add(createSolrDoc(document));
 		}
 		try {
 			// add to repository
-			if (commit) {
-//				final UpdateRequest req = new UpdateRequest();
-//				req.add(docs);
-//				req.setCommitWithin((int) TimeUnit.MINUTES.toMillis(3)); // TODO: should be configurable
-//				req.process(solrServer);
-				solrServer.add(docs);
-				solrServer.commit();
-			} else {
-				solrServer.add(docs);
+			final UpdateRequest req = new UpdateRequest();
+			req.add(docs);
+			if (commitWithinMillis > 0) {
+				req.setCommitWithin(commitWithinMillis);
 			}
-			publishedMetric.requestFinished(docs.size(), System.currentTimeMillis() - requestStarted);
+			req.process(solrServer);
+
+			final long duration = System.currentTimeMillis() - requestStarted;
+			publishedMetric.requestFinished(docs.size(), duration);
+			solrListingsManagerMetrics.getPublishBatchSizeMetric().record(docs.size());
+			solrListingsManagerMetrics.getPublishLatencyMetric().record(duration);
 		} catch (final Exception e) {
 			publishedMetric.requestFailed();
+			LOG.error("Error publishing {} documents to Solr. {}", docs.size(), ExceptionUtils.getRootCauseMessage(e));
 			return new Status(IStatus.ERROR, SearchActivator.SYMBOLIC_NAME, "error while submitting documents to Solr", e);
 		}
 		return Status.OK_STATUS;
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.gyrex.context.IRuntimeContext;
@@ -33,11 +34,11 @@ import org.eclipse.gyrex.persistence.storage.RepositoryMetadata;
 import org.eclipse.gyrex.persistence.storage.exceptions.ResourceFailureException;
 import org.eclipse.gyrex.search.ISearchManager;
 import org.eclipse.gyrex.search.documents.IDocument;
-import org.eclipse.gyrex.search.documents.IDocumentAttribute;
 import org.eclipse.gyrex.search.facets.IFacet;
 import org.eclipse.gyrex.search.internal.SearchActivator;
 import org.eclipse.gyrex.search.internal.SearchDebug;
 import org.eclipse.gyrex.search.internal.solr.SolrSearchManagerMetrics;
+import org.eclipse.gyrex.search.internal.solr.documents.PublishJob;
 import org.eclipse.gyrex.search.internal.solr.documents.StoredDocument;
 import org.eclipse.gyrex.search.internal.solr.documents.TransientDocument;
 import org.eclipse.gyrex.search.internal.solr.facets.Facet;
@@ -54,12 +55,13 @@ import org.eclipse.gyrex.search.result.IResult;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.osgi.util.NLS;
 
 import org.osgi.service.prefs.BackingStoreException;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrQuery.ORDER;
 import org.apache.solr.client.solrj.SolrRequest;
@@ -68,7 +70,6 @@ import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.client.solrj.util.ClientUtils;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
-import org.apache.solr.common.SolrInputDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -89,7 +90,30 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 
 	private static final Logger LOG = LoggerFactory.getLogger(BaseSolrSearchManager.class);
 
+	/** maximum number of documents submitted to Solr in one request */
+	private static final int PUBLISH_BATCH_SIZE = Math.max(1, Integer.getInteger("gyrex.search.solr.publish.batchSize", 1000));
+	/**
+	 * maximum number of concurrent publish requests per manager (documents are
+	 * assigned to a lane by id and each lane publishes one batch at a time)
+	 */
+	private static final int PUBLISH_LANES = Math.max(1, Integer.getInteger("gyrex.search.solr.publish.maxConcurrentBatches", 4));
+	/** time in milliseconds within Solr should commit published documents */
+	private static final int PUBLISH_COMMIT_WITHIN = Math.max(1, Integer.getInteger("gyrex.search.solr.publish.commitWithin", 10000));
+
+	private static Semaphore[] createPublishLanes() {
+		final Semaphore[] lanes = new Semaphore[PUBLISH_LANES];
+		for (int i = 0; i < lanes.length; i++) {
+			lanes[i] = new Semaphore(1, true);
+		}
+		return lanes;
+	}
+
+	private static int getPublishLane(final String documentId) {
+		return (documentId.hashCode() & Integer.MAX_VALUE) % PUBLISH_LANES;
+	}
+
 	private final AtomicBoolean commitsAllowed = new AtomicBoolean(true);
+	private final Semaphore[] publishLanes = createPublishLanes();
 
 	/**
 	 * Creates a new instance.
@@ -116,6 +140,9 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 
 	/**
 	 * Commits everything to the underlying Solr repository.
+	 * <p>
+	 * Waits for documents still being published before committing.
+	 * </p>
 	 * 
 	 * @param waitFlush
 	 *            <code>true</code> if the method should block till all changes
@@ -126,6 +153,7 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 	 *            <code>false</code> otherwise
 	 */
 	public final void commit(final boolean waitFlush, final boolean waitSearcher) {
+		waitForPendingPublishes();
 		try {
 			getRepository().getSolrServer().commit(waitFlush, waitSearcher);
 		} catch (final Exception e) {
@@ -152,18 +180,6 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 		return new QueryImpl();
 	}
 
-	private SolrInputDocument createSolrDoc(final IDocument document) {
-		final SolrInputDocument solrDoc = new SolrInputDocument();
-		final Collection<IDocumentAttribute<?>> attributes = document.getAttributes().values();
-		for (final IDocumentAttribute<?> attr : attributes) {
-			final Collection<?> values = attr.getValues();
-			for (final Object value : values) {
-				solrDoc.addField(attr.getId(), value);
-			}
-		}
-		return solrDoc;
-	}
-
 	/**
 	 * Creates a {@link SolrQuery} based on the specified {@link IQuery query}.
 	 * <p>
@@ -305,6 +321,11 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 	 */
 	@Override
 	protected void doClose() {
+		try {
+			waitForPendingPublishes();
+		} catch (final ResourceFailureException e) {
+			LOG.warn("Closing search manager for repository {} without waiting for pending publish operations. {}", getRepositoryId(), e.getMessage());
+		}
 		getSolrSearchManagerMetrics().getStatusMetric().setStatus("closed", "manager closed");
 	}
 
@@ -452,6 +473,9 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 
 	/**
 	 * Optimizes and commits everything to the underlying Solr repository.
+	 * <p>
+	 * Waits for documents still being published before optimizing.
+	 * </p>
 	 * 
 	 * @param waitFlush
 	 *            <code>true</code> if the method should block till all changes
@@ -462,6 +486,7 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 	 *            <code>false</code> otherwise
 	 */
 	public final void optimize(final boolean waitFlush, final boolean waitSearcher) {
+		waitForPendingPublishes();
 		try {
 			getRepository().getSolrServer().optimize(waitFlush, waitSearcher);
 		} catch (final Exception e) {
@@ -471,51 +496,31 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 
 	@Override
 	public final void publishDocuments(final Collection<IDocument> documents) {
-//		// create a copy of the list to avoid clearing the list by outsiders
-//		final List<IDocument> docsToPublish = new ArrayList<IDocument>();
-//
-//		// assign ids and copy docs into the list
-//		for (final IDocument document : documents) {
-//			if (null == document.getId()) {
-//				document.setId(UUID.randomUUID().toString());
-//			}
-//			docsToPublish.add(document);
-//		}
-//
-//		// publish
-//		new PublishJob(docsToPublish, getRepository().getSolrServer(), getSolrSearchManagerMetrics(), commitsAllowed.get()).schedule();
-
-		// collect stats
-		final ThroughputMetric publishedMetric = getSolrSearchManagerMetrics().getDocsPublishedMetric();
-		final long requestStarted = publishedMetric.requestStarted();
-
-		// create solr docs
-		final List<SolrInputDocument> docs = new ArrayList<SolrInputDocument>();
+		// split into batches per lane
+		// (note, ids are assigned here so that they are available to the caller immediately)
+		// (note, a document id always maps to the same lane so that updates of a document are published in order)
+		final int commitWithin = commitsAllowed.get() ? PUBLISH_COMMIT_WITHIN : 0;
+		@SuppressWarnings("unchecked")
+		final List<IDocument>[] batches = new List[PUBLISH_LANES];
 		for (final IDocument document : documents) {
 			// generate id
 			if (null == document.getId()) {
 				document.setId(UUID.randomUUID().toString());
 			}
-			// convert to solr doc
-			docs.add(createSolrDoc(document));
+			final int lane = getPublishLane(document.getId());
+			if (batches[lane] == null) {
+				batches[lane] = new ArrayList<IDocument>(Math.min(documents.size(), PUBLISH_BATCH_SIZE));
+			}
+			batches[lane].add(document);
+			if (batches[lane].size() >= PUBLISH_BATCH_SIZE) {
+				schedulePublish(lane, batches[lane], commitWithin);
+				batches[lane] = null;
+			}
 		}
-		try {
-			// add to repository
-			final SolrServer solrServer = getRepository().getSolrServer();
-			if (commitsAllowed.get()) {
-//				final UpdateRequest req = new UpdateRequest();
-//				req.add(docs);
-//				req.setCommitWithin((int) TimeUnit.MINUTES.toMillis(3)); // TODO: should be configurable
-//				req.process(solrServer);
-				solrServer.add(docs);
-				solrServer.commit();
-			} else {
-				solrServer.add(docs);
+		for (int lane = 0; lane < batches.length; lane++) {
+			if (batches[lane] != null) {
+				schedulePublish(lane, batches[lane], commitWithin);
 			}
-			publishedMetric.requestFinished(docs.size(), System.currentTimeMillis() - requestStarted);
-		} catch (final Exception e) {
-			publishedMetric.requestFailed();
-			throw new ResourceFailureException(String.format("Error publishing documents. %s", ExceptionUtils.getRootCauseMessage(e)), e);
 		}
 	}
 
@@ -551,7 +556,9 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 			} else {
 				response = server.query(solrQuery, SolrRequest.METHOD.GET);
 			}
-			queryMetric.requestFinished(1, System.currentTimeMillis() - started);
+			final long duration = System.currentTimeMillis() - started;
+			queryMetric.requestFinished(1, duration);
+			getSolrSearchManagerMetrics().getQueryLatencyMetric().record(duration);
 			return response;
 
 		} catch (final Exception e) {
@@ -562,6 +569,8 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 
 	@Override
 	public final void removeDocuments(final Collection<String> documentIds) {
+		// documents still being published must not be re-added after removal
+		waitForPendingPublishes();
 		try {
 			getRepository().getSolrServer().deleteById(documentIds instanceof List ? (List<String>) documentIds : new ArrayList<String>(documentIds));
 		} catch (final Exception e) {
@@ -586,6 +595,26 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 		}
 	}
 
+	private void schedulePublish(final int lane, final List<IDocument> batch, final int commitWithin) {
+		// wait for the previous batch of the lane (blocks the caller if Solr can't keep up)
+		final Semaphore publishLane = publishLanes[lane];
+		try {
+			publishLane.acquire();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ResourceFailureException(NLS.bind("Interrupted while publishing documents to repository {0}.", getRepositoryId()), e);
+		}
+
+		final PublishJob job = new PublishJob(batch, getRepository().getSolrServer(), getSolrSearchManagerMetrics(), commitWithin);
+		job.addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(final IJobChangeEvent event) {
+				publishLane.release();
+			}
+		});
+		job.schedule();
+	}
+
 	/**
 	 * Allows to temporarily disabled commits from the manager.
 	 * <p>
@@ -605,4 +634,17 @@ public abstract class BaseSolrSearchManager extends BaseModelManager<org.eclipse
 		return commitsAllowed.getAndSet(enabled);
 	}
 
+	private void waitForPendingPublishes() {
+		// a lane is available when no batch of the lane is in flight
+		for (final Semaphore publishLane : publishLanes) {
+			try {
+				publishLane.acquire();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ResourceFailureException(NLS.bind("Interrupted while waiting for documents being published to repository {0}.", getRepositoryId()), e);
+			}
+			publishLane.release();
+		}
+	}
+
 }